@@ -7,6 +7,19 @@ const API_ENDPOINT_SPOTS = '/api/v1/spots';
 const API_ENDPOINT_WIND = '/api/v1/wind';
 const API_ENDPOINT_SPONSORS = '/api/v1/sponsors';
 const API_ENDPOINT_STATUS = '/api/v1/status';
+const API_ENDPOINT_UPDATES = '/api/v1/updates';
+
+// How long to wait before opening the updates stream again once the browser gave up
+// on it (it retries dropped connections itself, but not ones answered with an error,
+// such as during a deployment)
+const UPDATES_REOPEN_DELAY = 30 * 1000;
+
+// Version of the spot list last fetched, sent back to fetch only what changed since
+let spotsVersion = null;
+
+function bySpotName(a, b) {
+    return (a.name || '').localeCompare(b.name || '');
+}
 
 // ============================================================================
 // SPOTS API
@@ -30,14 +43,51 @@ export async function fetchAllSpots() {
             throw new Error('Invalid data format: Expected array of spots');
         }
 
+        spotsVersion = response.headers.get('X-Spots-Version');
+
         // Default ordering: alphabetical by spot name
-        return data.sort((a, b) => (a.name || '').localeCompare(b.name || ''));
+        return data.sort(bySpotName);
     } catch (error) {
         console.error('Error fetching weather data:', error);
         throw error;
     }
 }
 
+/**
+ * Fetch the spots changed since the spot list was last fetched and apply them to it
+ * @param {Array} spots - Spot objects as last fetched
+ * @returns {Promise<{spots: Array, changed: boolean}>} The up-to-date spots, in the
+ *     default ordering, and whether anything changed
+ */
+export async function fetchSpotChanges(spots) {
+    try {
+        const url = `${API_ENDPOINT_SPOTS}/changes${spotsVersion ? '?since=' + encodeURIComponent(spotsVersion) : ''}`;
+        const response = await fetch(url, { cache: 'no-store', credentials: 'same-origin' });
+
+        if (!response.ok) {
+            throw new Error(`HTTP Error: ${response.status}`);
+        }
+
+        const changes = await response.json();
+        spotsVersion = String(changes.version);
+
+        if (changes.reset) {
+            return { spots: changes.spots.sort(bySpotName), changed: true };
+        }
+        if (changes.spots.length === 0 && changes.removed.length === 0) {
+            return { spots, changed: false };
+        }
+
+        const byId = new Map(spots.map(spot => [spot.wgId, spot]));
+        changes.removed.forEach(wgId => byId.delete(wgId));
+        changes.spots.forEach(spot => byId.set(spot.wgId, spot));
+        return { spots: [...byId.values()].sort(bySpotName), changed: true };
+    } catch (error) {
+        console.error('Error fetching spot changes:', error);
+        throw error;
+    }
+}
+
 /**
  * Fetch single spot data with optional forecast model
  * @param {string|number} spotId - The spot ID
@@ -72,17 +122,24 @@ export async function fetchSpot(spotId, model = null) {
  * @returns {Promise<{hours: Array<string>, spots: Array<object>}>} Timeline (empty on error)
  */
 export async function fetchWindTimeline(hours) {
+    // The packed form is picked by URL, so a cache in front keys it apart from JSON
     const url = Number.isFinite(hours) && hours > 0
-        ? `${API_ENDPOINT_WIND}?hours=${Math.round(hours)}`
-        : API_ENDPOINT_WIND;
+        ? `${API_ENDPOINT_WIND}?format=packed&hours=${Math.round(hours)}`
+        : `${API_ENDPOINT_WIND}?format=packed`;
 
     try {
-        const response = await fetch(url, { credentials: 'same-origin' });
+        const response = await fetch(url, {
+            credentials: 'same-origin',
+            headers: { 'Accept': 'application/octet-stream' }
+        });
 
         if (!response.ok) {
             throw new Error(`HTTP Error: ${response.status}`);
         }
 
+        if ((response.headers.get('Content-Type') || '').startsWith('application/octet-stream')) {
+            return unpackWindTimeline(await response.arrayBuffer());
+        }
         return await response.json();
     } catch (error) {
         console.error('Error fetching wind timeline:', error);
@@ -90,6 +147,126 @@ export async function fetchWindTimeline(hours) {
     }
 }
 
+const PACKED_WIND_MAGIC = 'VWT\u0001';
+const PACKED_WIND_MISSING = 0xFF;
+const WEEKDAYS = ['Sun', 'Mon', 'Tue', 'Wed', 'Thu', 'Fri', 'Sat'];
+const MONTHS = ['Jan', 'Feb', 'Mar', 'Apr', 'May', 'Jun', 'Jul', 'Aug', 'Sep', 'Oct', 'Nov', 'Dec'];
+
+/**
+ * Read the packed wind timeline (see PackedWindTimeline on the server) into the
+ * same shape the JSON variant has: hour labels and per-spot wind, gusts and
+ * direction arrays with null for missing hours.
+ * @param {ArrayBuffer} buffer - Response body
+ * @returns {{hours: Array<string>, spots: Array<object>}} Timeline
+ */
+function unpackWindTimeline(buffer) {
+    const view = new DataView(buffer);
+    const magic = String.fromCharCode(...new Uint8Array(buffer, 0, 4));
+    if (magic !== PACKED_WIND_MAGIC) {
+        throw new Error('Unknown wind timeline format');
+    }
+
+    const startHour = view.getInt32(4);
+    const hourCount = view.getUint16(8);
+    const spotCount = view.getInt32(10);
+
+    const hours = [];
+    for (let hour = 0; hour < hourCount; hour++) {
+        // The hours are the forecast's local time counted as UTC, so read them back as UTC
+        const time = new Date((startHour + hour) * 3600 * 1000);
+        const pad = (value) => String(value).padStart(2, '0');
+        hours.push(`${WEEKDAYS[time.getUTCDay()]} ${pad(time.getUTCDate())} ${MONTHS[time.getUTCMonth()]} `
+            + `${time.getUTCFullYear()} ${pad(time.getUTCHours())}:00`);
+    }
+
+    const columnsOffset = 14 + spotCount * 4;
+    const column = (block, spot) => Array.from(
+        new Uint8Array(buffer, columnsOffset + (block * spotCount + spot) * hourCount, hourCount),
+        (value) => (value === PACKED_WIND_MISSING ? null : value)
+    );
+
+    const spots = [];
+    for (let spot = 0; spot < spotCount; spot++) {
+        spots.push({
+            wgId: view.getInt32(14 + spot * 4),
+            wind: column(0, spot),
+            gusts: column(1, spot),
+            direction: column(2, spot)
+        });
+    }
+    return { hours, spots };
+}
+
+// ============================================================================
+// SPOT UPDATES API
+// ============================================================================
+
+/**
+ * Follow the updates the server pushes for spots instead of polling for them. Each
+ * update carries only what changed: a new live reading (kind 'conditions', in
+ * update.currentConditions) or the daily forecast a fetch cycle replaced (kind
+ * 'forecast', in update.forecast), along with the spot's wgId, name and country.
+ * Updates sent while the stream was down are not replayed, so onReconnect is the
+ * moment to fetch again whatever is shown.
+ * @param {{country?: string, wgId?: (string|number)}} topic - One country or one spot; every spot when empty
+ * @param {function(Object): void} onUpdate - Called with each update
+ * @param {function(): void} [onReconnect] - Called when the stream is back after it dropped
+ * @returns {(function(): void)|null} Stops following; null when the browser has no EventSource
+ */
+export function subscribeToUpdates(topic, onUpdate, onReconnect = () => {}) {
+    if (typeof EventSource === 'undefined') {
+        return null;
+    }
+
+    const params = new URLSearchParams();
+    if (topic.country) {
+        params.set('country', topic.country);
+    }
+    if (topic.wgId !== undefined && topic.wgId !== null) {
+        params.set('wgId', String(topic.wgId));
+    }
+    const url = params.toString() ? `${API_ENDPOINT_UPDATES}?${params}` : API_ENDPOINT_UPDATES;
+
+    let source = null;
+    let reopenTimeoutId = null;
+    let dropped = false;
+    let stopped = false;
+
+    const handle = kind => event => {
+        try {
+            onUpdate({ ...JSON.parse(event.data), kind });
+        } catch (error) {
+            console.warn('Ignoring malformed spot update:', error);
+        }
+    };
+
+    const open = () => {
+        source = new EventSource(url);
+        source.addEventListener('conditions', handle('conditions'));
+        source.addEventListener('forecast', handle('forecast'));
+        source.addEventListener('open', () => {
+            if (dropped) {
+                dropped = false;
+                onReconnect();
+            }
+        });
+        source.addEventListener('error', () => {
+            dropped = true;
+            if (source.readyState === EventSource.CLOSED && !stopped) {
+                reopenTimeoutId = setTimeout(open, UPDATES_REOPEN_DELAY);
+            }
+        });
+    };
+
+    open();
+
+    return () => {
+        stopped = true;
+        clearTimeout(reopenTimeoutId);
+        source.close();
+    };
+}
+
 // ============================================================================
 // SPONSORS API
 // ============================================================================
@@ -23,6 +23,7 @@ let availableCountries = new Set();
 let currentSearchQuery = '';
 let showingFavorites = false;
 let autoRefreshInterval = null;
+let stopFollowingUpdates = null;
 let currentFilter = 'all';
 
 // Track previous URL for favorite toggle
@@ -2018,8 +2019,11 @@ function replaceRenderedCards(spotsGrid, freshSpots) {
 
 async function refreshDataInBackground() {
     try {
-        // Fetch new data silently
-        const freshData = await api.fetchAllSpots();
+        // Fetch only the spots that changed since the last fetch
+        const { spots: freshData, changed } = await api.fetchSpotChanges(globalWeatherData);
+        if (!changed) {
+            return;
+        }
 
         // Update global data
         globalWeatherData = freshData;
@@ -2045,13 +2049,52 @@ async function refreshDataInBackground() {
     }
 }
 
+// A fetch cycle pushes the forecasts of all spots within moments of each other, so
+// cards are swapped once for everything pushed within this long
+const SPOT_UPDATES_RENDER_DELAY = 1000;
+const updatedSpotNames = new Set();
+let updatedSpotsTimeoutId = null;
+
+// Patches the spot an update was pushed for, and swaps its card if it is rendered
+function applySpotUpdate(update) {
+    const index = globalWeatherData.findIndex(spot => spot.name === update.name);
+    if (index < 0) {
+        return;
+    }
+
+    const patch = update.kind === 'conditions'
+        ? { currentConditions: update.currentConditions }
+        : { forecast: update.forecast };
+    globalWeatherData[index] = { ...globalWeatherData[index], ...patch };
+
+    updatedSpotNames.add(update.name);
+    if (!updatedSpotsTimeoutId) {
+        updatedSpotsTimeoutId = setTimeout(renderUpdatedSpots, SPOT_UPDATES_RENDER_DELAY);
+    }
+}
+
+function renderUpdatedSpots() {
+    updatedSpotsTimeoutId = null;
+    const updatedSpots = globalWeatherData.filter(spot => updatedSpotNames.has(spot.name));
+    updatedSpotNames.clear();
+    const spotsGrid = document.getElementById('spotsGrid');
+    if (spotsGrid) {
+        replaceRenderedCards(spotsGrid, updatedSpots);
+    }
+}
+
 function startAutoRefresh() {
-    // Clear any existing interval
-    if (autoRefreshInterval) {
-        clearInterval(autoRefreshInterval);
+    stopAutoRefresh();
+
+    // Follow every spot, since the view can switch countries and favorites span them;
+    // after a dropped connection the whole list is fetched for what was missed
+    stopFollowingUpdates = api.subscribeToUpdates({}, applySpotUpdate, refreshDataInBackground);
+    if (stopFollowingUpdates) {
+        console.log('Auto-refresh started: following spot updates');
+        return;
     }
 
-    // Start a new interval
+    // No EventSource in this browser, so poll
     autoRefreshInterval = setInterval(() => {
         refreshDataInBackground();
     }, constants.AUTO_REFRESH_INTERVAL);
@@ -2060,6 +2103,11 @@ function startAutoRefresh() {
 }
 
 function stopAutoRefresh() {
+    if (stopFollowingUpdates) {
+        stopFollowingUpdates();
+        stopFollowingUpdates = null;
+        console.log('Auto-refresh stopped');
+    }
     if (autoRefreshInterval) {
         clearInterval(autoRefreshInterval);
         autoRefreshInterval = null;
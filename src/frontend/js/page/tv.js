@@ -14,6 +14,7 @@ import * as state from '../common/state.js';
 let currentSpot = null;
 let currentSpotId = null;
 let refreshIntervalId = null;
+let stopFollowingUpdates = null;
 let currentLanguage = 'en';
 
 // ============================================================================
@@ -267,22 +268,40 @@ function initLanguage() {
 // AUTO REFRESH
 // ============================================================================
 
+async function refreshSpot(spotId) {
+    try {
+        const latestSpot = await api.fetchSpot(spotId);
+        displaySpot(latestSpot);
+    } catch (error) {
+        console.warn('Auto refresh failed:', error);
+    }
+}
+
+// A new reading is patched into the spot as it is pushed; a new forecast is fetched,
+// since the view draws the hourly forecast and the update carries the daily one
 function startAutoRefresh(spotId) {
-    if (refreshIntervalId || !spotId) {
+    if (refreshIntervalId || stopFollowingUpdates || !spotId) {
         return;
     }
 
-    refreshIntervalId = setInterval(async () => {
-        try {
-            const latestSpot = await api.fetchSpot(spotId);
-            displaySpot(latestSpot);
-        } catch (error) {
-            console.warn('Auto refresh failed:', error);
+    stopFollowingUpdates = api.subscribeToUpdates({ wgId: spotId }, update => {
+        if (update.kind === 'conditions' && currentSpot) {
+            displaySpot({ ...currentSpot, currentConditions: update.currentConditions });
+        } else if (update.kind === 'forecast') {
+            refreshSpot(spotId);
         }
-    }, constants.AUTO_REFRESH_INTERVAL);
+    }, () => refreshSpot(spotId));
+
+    if (!stopFollowingUpdates) {
+        refreshIntervalId = setInterval(() => refreshSpot(spotId), constants.AUTO_REFRESH_INTERVAL);
+    }
 }
 
 function stopAutoRefresh() {
+    if (stopFollowingUpdates) {
+        stopFollowingUpdates();
+        stopFollowingUpdates = null;
+    }
     if (refreshIntervalId) {
         clearInterval(refreshIntervalId);
         refreshIntervalId = null;
@@ -0,0 +1,83 @@
+package com.github.pwittchen.varun.mapper;
+
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
+import com.github.pwittchen.varun.model.forecast.WindTimeline;
+import com.github.pwittchen.varun.service.forecast.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the map's wind timeline over the default five days, for today's number of
+ * spots and for the ten- and hundredfold growth the grid has to survive.
+ *
+ * Spots share a handful of forecast lists rather than each holding its own: the mapper
+ * does the same work per spot either way, and twenty thousand copies of a sixteen-day
+ * forecast would measure the heap more than the mapper.
+ *
+ * {@code slice} is what a request pays now that {@link WindTimelineGrid} keeps the rows
+ * aligned between forecast updates; {@code toWindTimeline} is the full rebuild it used
+ * to pay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HourlyForecastMapperBenchmark {
+
+    private static final int HOURS = 5 * 24;
+    private static final int DISTINCT_FORECASTS = 64;
+
+    @Param({"230", "2000", "20000"})
+    public int spots;
+
+    private final HourlyForecastMapper mapper = new HourlyForecastMapper();
+    private Map<Integer, List<Forecast>> hourlyBySpotId;
+    private final WindTimelineGrid grid = new WindTimelineGrid();
+    private LocalDateTime start;
+
+    @Setup
+    public void setUp() {
+        start = LocalDateTime.now();
+        List<List<Forecast>> forecasts = new ArrayList<>(DISTINCT_FORECASTS);
+        for (int variant = 0; variant < DISTINCT_FORECASTS; variant++) {
+            forecasts.add(BenchmarkFixtures.hourlyForecasts(start, variant));
+        }
+        hourlyBySpotId = new HashMap<>(spots * 2);
+        for (int spot = 0; spot < spots; spot++) {
+            hourlyBySpotId.put(spot + 1, forecasts.get(spot % DISTINCT_FORECASTS));
+        }
+        List<HourlySeries> series = forecasts.stream().map(HourlySeries::of).toList();
+        for (int spot = 0; spot < spots; spot++) {
+            grid.update(spot + 1, series.get(spot % DISTINCT_FORECASTS));
+        }
+    }
+
+    @Benchmark
+    public WindTimeline toWindTimeline() {
+        return mapper.toWindTimeline(hourlyBySpotId, start, HOURS);
+    }
+
+    @Benchmark
+    public WindTimeline slice() {
+        return grid.slice(start, HOURS);
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.pwittchen.varun.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
+import com.github.pwittchen.varun.model.forecast.WindTimeline;
+import com.github.pwittchen.varun.service.forecast.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding the map's wind timeline over a whole forecast run, as the JSON it has
+ * always been served as and as the packed bytes a map can ask for instead.
+ *
+ * The time is what the first request after a forecast update or an hour rollover
+ * pays; the size is what every request pays. Each benchmark reports the size of the
+ * body it encoded, raw and gzipped, as the {@code bytes} and {@code gzippedBytes}
+ * secondary results (see {@link Sizes}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackedWindTimelineBenchmark {
+
+    private static final int HOURS = 16 * 24;
+    private static final int DISTINCT_FORECASTS = 64;
+
+    @Param({"230", "2000"})
+    public int spots;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private WindTimeline timeline;
+    private int jsonGzippedBytes;
+    private int packedGzippedBytes;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        LocalDateTime start = LocalDateTime.now();
+        List<HourlySeries> forecasts = new ArrayList<>(DISTINCT_FORECASTS);
+        for (int variant = 0; variant < DISTINCT_FORECASTS; variant++) {
+            forecasts.add(HourlySeries.of(BenchmarkFixtures.hourlyForecasts(start, variant)));
+        }
+        WindTimelineGrid grid = new WindTimelineGrid();
+        for (int spot = 0; spot < spots; spot++) {
+            grid.update(spot + 1, forecasts.get(spot % DISTINCT_FORECASTS));
+        }
+        timeline = grid.slice(start, HOURS);
+
+        // Compressed once here, so that gzip stays out of the measured time
+        jsonGzippedBytes = gzip(objectMapper.writeValueAsBytes(timeline)).length;
+        packedGzippedBytes = gzip(PackedWindTimeline.encode(timeline)).length;
+    }
+
+    @Benchmark
+    public byte[] json(Sizes sizes) throws JsonProcessingException {
+        byte[] body = objectMapper.writeValueAsBytes(timeline);
+        sizes.bytes = body.length;
+        sizes.gzippedBytes = jsonGzippedBytes;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] packed(Sizes sizes) {
+        byte[] body = PackedWindTimeline.encode(timeline);
+        sizes.bytes = body.length;
+        sizes.gzippedBytes = packedGzippedBytes;
+        return body;
+    }
+
+    /**
+     * The size of the body a benchmark encoded. The counters are assigned rather than
+     * added to, so every iteration reports the size of one body, not a sum over calls.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+        public long bytes;
+        public long gzippedBytes;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        var out = new ByteArrayOutputStream(body.length / 4);
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.pwittchen.varun.mapper;
+
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.forecast.ForecastWg;
+import com.github.pwittchen.varun.service.forecast.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping one spot's parsed Windguru rows into the forecasts the API serves: the hourly
+ * forecasts, which resolve every row label to a calendar date, and the five daily ones.
+ * The forecast cycle does both for every spot and model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeatherForecastMapperBenchmark {
+
+    private final WeatherForecastMapper mapper = new WeatherForecastMapper();
+    private List<ForecastWg> rows;
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkFixtures.forecastRows();
+    }
+
+    @Benchmark
+    public List<Forecast> toHourlyForecasts() {
+        return mapper.toHourlyForecasts(rows);
+    }
+
+    @Benchmark
+    public List<Forecast> toWeatherForecasts() {
+        return mapper.toWeatherForecasts(rows);
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.pwittchen.varun.service;
+
+import com.github.pwittchen.varun.data.spots.JsonSpotsDataProvider;
+import com.github.pwittchen.varun.mapper.HourlyForecastMapper;
+import com.github.pwittchen.varun.metrics.AggregatorServiceMetrics;
+import com.github.pwittchen.varun.model.forecast.ForecastData;
+import com.github.pwittchen.varun.model.map.Coordinates;
+import com.github.pwittchen.varun.model.spot.Spot;
+import com.github.pwittchen.varun.model.spot.SpotsSnapshot;
+import com.github.pwittchen.varun.service.ai.AiServiceEn;
+import com.github.pwittchen.varun.service.ai.AiServicePl;
+import com.github.pwittchen.varun.service.cache.CacheSnapshotStore;
+import com.github.pwittchen.varun.service.cache.ModelAvailabilityStore;
+import com.github.pwittchen.varun.service.forecast.BenchmarkFixtures;
+import com.github.pwittchen.varun.service.forecast.ForecastRefreshPlanner;
+import com.github.pwittchen.varun.service.forecast.ForecastService;
+import com.github.pwittchen.varun.service.forecast.IcmForecastVisionService;
+import com.github.pwittchen.varun.service.forecast.IcmGridMapper;
+import com.github.pwittchen.varun.service.http.HostConcurrencyLimiter;
+import com.github.pwittchen.varun.service.live.ConditionsHistoryStore;
+import com.github.pwittchen.varun.service.live.CurrentConditionsService;
+import com.github.pwittchen.varun.service.live.ReadingsArchive;
+import com.github.pwittchen.varun.service.updates.SpotUpdatesBroadcaster;
+import com.github.pwittchen.varun.service.live.StationPollScheduler;
+import com.github.pwittchen.varun.service.map.GoogleMapsService;
+import com.github.pwittchen.varun.service.sponsors.SponsorsService;
+import com.google.gson.Gson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Serving {@code /api/v1/spots} from the aggregator once the forecast cycle has filled
+ * its caches: every spot from {@code spots.json}, each with the GFS fixture forecast.
+ *
+ * The upstream services are mocked, so the numbers cover the aggregator alone. Reading
+ * the spots between cycles should cost next to nothing; {@link #rebuildSnapshot()} is
+ * what a read pays once after each change to the caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregatorServiceBenchmark {
+
+    private static final Duration SETTLE_TIME = Duration.ofMillis(500);
+    private static final Duration SETUP_TIMEOUT = Duration.ofSeconds(30);
+
+    private AggregatorService aggregatorService;
+    private List<Spot> spots;
+
+    @Setup
+    public void setUp() throws Exception {
+        ForecastData forecastData = BenchmarkFixtures.forecastData(1, LocalDateTime.now());
+
+        ForecastService forecastService = mock(ForecastService.class);
+        when(forecastService.getForecastData(anyInt())).thenReturn(Mono.just(forecastData));
+        GoogleMapsService googleMapsService = mock(GoogleMapsService.class);
+        when(googleMapsService.getCoordinates(any())).thenReturn(Mono.just(new Coordinates(54.7, 18.6)));
+
+        aggregatorService = new AggregatorService(
+                new JsonSpotsDataProvider(new Gson()),
+                forecastService,
+                mock(CurrentConditionsService.class),
+                mock(AiServiceEn.class),
+                mock(AiServicePl.class),
+                googleMapsService,
+                mock(IcmGridMapper.class),
+                new HourlyForecastMapper(),
+                mock(IcmForecastVisionService.class),
+                mock(SponsorsService.class),
+                mock(AggregatorServiceMetrics.class),
+                mock(CacheSnapshotStore.class),
+                new HostConcurrencyLimiter(new SimpleMeterRegistry()),
+                new StationPollScheduler(new SimpleMeterRegistry()),
+                mock(ModelAvailabilityStore.class),
+                new ConditionsHistoryStore(),
+                mock(ReadingsArchive.class),
+                mock(SpotUpdatesBroadcaster.class)
+        );
+        aggregatorService.init();
+        awaitSettled(() -> aggregatorService.countSpots() > 0);
+        // Spots never fetched go a batch per refresh
+        int refreshes = Math.ceilDiv(aggregatorService.countSpots(), ForecastRefreshPlanner.FIRST_FETCH_BUDGET);
+        for (int i = 0; i < refreshes; i++) {
+            aggregatorService.refreshDueForecasts();
+        }
+        awaitSettled(() -> true);
+        spots = aggregatorService.getSpots();
+    }
+
+    @TearDown
+    public void tearDown() {
+        aggregatorService.cleanup();
+    }
+
+    @Benchmark
+    public List<Spot> getSpots() {
+        return aggregatorService.getSpots();
+    }
+
+    @Benchmark
+    public SpotsSnapshot rebuildSnapshot() {
+        return SpotsSnapshot.of(1, spots);
+    }
+
+    /**
+     * Waits for the condition and then for the asynchronous coordinate lookups started by
+     * loading the spots to stop changing the snapshot, so the measurement does not start
+     * in the middle of a rebuild.
+     */
+    private void awaitSettled(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + SETUP_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            checkDeadline(deadline);
+            Thread.sleep(10);
+        }
+        long version = aggregatorService.getSpotsSnapshot().version();
+        while (true) {
+            Thread.sleep(SETTLE_TIME.toMillis());
+            long current = aggregatorService.getSpotsSnapshot().version();
+            if (current == version) {
+                return;
+            }
+            version = current;
+            checkDeadline(deadline);
+        }
+    }
+
+    private static void checkDeadline(long deadline) {
+        if (System.nanoTime() > deadline) {
+            throw new IllegalStateException("Aggregator did not settle within " + SETUP_TIMEOUT);
+        }
+    }
+}
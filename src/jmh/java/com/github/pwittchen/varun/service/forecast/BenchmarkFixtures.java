@@ -0,0 +1,125 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import com.github.pwittchen.varun.mapper.WeatherForecastMapper;
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.forecast.ForecastData;
+import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import com.github.pwittchen.varun.model.forecast.ForecastWg;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Forecast data for the benchmarks, built from the micro text payloads in
+ * {@code src/jmh/resources/fixtures} through the same parser and mapper the forecast
+ * cycle uses, so every benchmark measures rows of the real shape without touching the
+ * network.
+ *
+ * The payloads are synthetic: written by hand in the layout Windguru answered in as of
+ * October 2025 (header, columns, hourly for five days and three-hourly after that), with
+ * made-up values. The results say what parsing and mapping rows of that shape costs, not
+ * anything about real upstream data. Anything that lays forecasts onto a grid starting
+ * now gets them re-dated to start at the current hour, keeping the spacing of the rows.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String GFS = "windguru-micro-gfs.txt";
+    public static final String EWAM = "windguru-micro-ewam.txt";
+
+    private static final DateTimeFormatter HOURLY_FORMATTER = DateTimeFormatter.ofPattern("EEE dd MMM yyyy HH:mm", Locale.ENGLISH);
+    private static final String[] DIRECTIONS = {"N", "NE", "E", "SE", "S", "SW", "W", "NW"};
+
+    private BenchmarkFixtures() {
+    }
+
+    public static byte[] fixture(String name) {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * One spot's forecast rows with the wave series merged in, as {@link ForecastService}
+     * hands them to the mapper.
+     */
+    public static List<ForecastWg> forecastRows() {
+        try {
+            return ForecastService.toForecasts(
+                    MicroTextParser.parse(new ByteArrayInputStream(fixture(GFS)), ForecastService.FORECAST_COLUMNS),
+                    MicroTextParser.parse(new ByteArrayInputStream(fixture(EWAM)), ForecastService.WAVE_COLUMNS)
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The hourly forecasts of the fixture re-dated to begin at {@code start}, with the
+     * wind and directions shifted by {@code variant} so that spots or models built from
+     * different variants do not all carry identical values.
+     */
+    public static List<Forecast> hourlyForecasts(LocalDateTime start, int variant) {
+        List<Forecast> recorded = new WeatherForecastMapper().toHourlyForecasts(forecastRows());
+        LocalDateTime recordedStart = LocalDateTime.parse(recorded.getFirst().date(), HOURLY_FORMATTER);
+        LocalDateTime gridStart = start.truncatedTo(ChronoUnit.HOURS);
+
+        List<Forecast> forecasts = new ArrayList<>(recorded.size());
+        for (Forecast forecast : recorded) {
+            long offset = ChronoUnit.HOURS.between(recordedStart, LocalDateTime.parse(forecast.date(), HOURLY_FORMATTER));
+            forecasts.add(new Forecast(
+                    gridStart.plusHours(offset).format(HOURLY_FORMATTER),
+                    forecast.wind() + variant % 5,
+                    forecast.gusts() + variant % 7,
+                    shift(forecast.direction(), variant),
+                    forecast.temp(),
+                    forecast.precipitation(),
+                    forecast.cloudCoverPercent(),
+                    forecast.pressureHpa(),
+                    forecast.wave(),
+                    forecast.wavePeriod(),
+                    forecast.waveDirection() != null ? shift(forecast.waveDirection(), variant) : null
+            ));
+        }
+        return forecasts;
+    }
+
+    /**
+     * A spot's forecast data with the hourly forecasts of the first {@code models}
+     * Windguru models, all starting at {@code start}.
+     */
+    public static ForecastData forecastData(int models, LocalDateTime start) {
+        ForecastModel[] all = ForecastModel.values();
+        if (models > all.length) {
+            throw new IllegalArgumentException("Only " + all.length + " models are known, requested " + models);
+        }
+        Map<ForecastModel, List<Forecast>> hourly = new EnumMap<>(ForecastModel.class);
+        for (int model = 0; model < models; model++) {
+            hourly.put(all[model], hourlyForecasts(start, model));
+        }
+        return new ForecastData(new WeatherForecastMapper().toWeatherForecasts(forecastRows()), hourly);
+    }
+
+    private static String shift(String direction, int variant) {
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            if (DIRECTIONS[i].equals(direction)) {
+                return DIRECTIONS[(i + variant) % DIRECTIONS.length];
+            }
+        }
+        return direction;
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.forecast.ForecastData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Averaging one spot's hourly forecasts across models, from the two a spot usually has
+ * cached up to the forty a spot reaches once its page has asked for every model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForecastAverageCalculatorBenchmark {
+
+    @Param({"2", "10", "40"})
+    public int models;
+
+    private ForecastData forecastData;
+
+    @Setup
+    public void setUp() {
+        forecastData = BenchmarkFixtures.forecastData(models, LocalDateTime.now());
+    }
+
+    @Benchmark
+    public List<Forecast> computeAverage() {
+        return ForecastAverageCalculator.computeAverage(forecastData);
+    }
+}
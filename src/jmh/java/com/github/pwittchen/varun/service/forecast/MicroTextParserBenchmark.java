@@ -0,0 +1,67 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import com.github.pwittchen.varun.model.forecast.ForecastWg;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing one spot's GFS micro text and its EWAM wave series into forecast rows, the way
+ * the forecast cycle does it for every spot and model: the streaming parser against the
+ * regex parser it replaced. Both start from the response bytes, since decoding them into
+ * a String was part of what the regex path cost.
+ *
+ * Run with {@code ./gradlew jmh -PjmhArgs="MicroTextParserBenchmark -prof gc"}; the gc
+ * profiler reports the allocation per operation next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MicroTextParserBenchmark {
+
+    private byte[] forecast;
+    private byte[] waves;
+
+    @Setup
+    public void setUp() {
+        forecast = BenchmarkFixtures.fixture(BenchmarkFixtures.GFS);
+        waves = BenchmarkFixtures.fixture(BenchmarkFixtures.EWAM);
+    }
+
+    @Benchmark
+    public List<ForecastWg> regex() {
+        return RegexMicroTextParser.parse(
+                new String(forecast, StandardCharsets.UTF_8),
+                new String(waves, StandardCharsets.UTF_8)
+        );
+    }
+
+    @Benchmark
+    public List<ForecastWg> streaming() throws IOException {
+        return ForecastService.toForecasts(
+                MicroTextParser.parse(new ByteArrayInputStream(forecast), ForecastService.FORECAST_COLUMNS),
+                MicroTextParser.parse(new ByteArrayInputStream(waves), ForecastService.WAVE_COLUMNS)
+        );
+    }
+
+    @Benchmark
+    public MicroTextSeries streamingColumnsOnly() throws IOException {
+        return MicroTextParser.parse(new ByteArrayInputStream(forecast), ForecastService.FORECAST_COLUMNS);
+    }
+}
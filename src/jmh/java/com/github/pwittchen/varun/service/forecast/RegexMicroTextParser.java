@@ -0,0 +1,152 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import com.github.pwittchen.varun.model.forecast.ForecastWg;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The regex based micro text parsing ForecastService used before {@link MicroTextParser},
+ * kept as the baseline of {@link MicroTextParserBenchmark}.
+ */
+final class RegexMicroTextParser {
+
+    private record WaveData(Double height, Double period, Integer directionDeg) {}
+
+    private RegexMicroTextParser() {
+    }
+
+    static List<ForecastWg> parse(String forecastText, String waveText) {
+        return mergeWaveData(retrieveWgForecasts(forecastText), retrieveWaveData(waveText));
+    }
+
+    private static Map<String, WaveData> retrieveWaveData(String microText) {
+        String[] lines = microText.split("\\r?\\n");
+
+        Pattern row = Pattern.compile(
+                "^\\s*" +
+                        "(Mon|Tue|Wed|Thu|Fri|Sat|Sun)" +
+                        "\\s+(\\d{1,2})\\.\\s+(\\d{2})h\\s+" +
+                        "(-|\\d+(?:\\.\\d+)?)\\s+" +
+                        "(-|\\d+(?:\\.\\d+)?)\\s+" +
+                        "(-|\\d+(?:\\.\\d+)?)\\s*$"
+        );
+
+        Map<String, WaveData> result = new LinkedHashMap<>();
+        for (String line : lines) {
+            line = line.trim().replace('\u00A0', ' ');
+            Matcher m = row.matcher(line);
+            if (m.find()) {
+                String label = String.format("%s %s. %sh", m.group(1), m.group(2), m.group(3));
+                result.put(label, new WaveData(
+                        parseNullableDouble(m.group(4)),
+                        parseNullableDouble(m.group(5)),
+                        parseNullableInt(m.group(6))
+                ));
+            }
+        }
+        return result;
+    }
+
+    private static List<ForecastWg> mergeWaveData(List<ForecastWg> forecasts, Map<String, WaveData> waveByLabel) {
+        if (waveByLabel.isEmpty()) return forecasts;
+        return forecasts.stream()
+                .map(f -> {
+                    WaveData wave = waveByLabel.get(f.label());
+                    if (wave != null) {
+                        return new ForecastWg(
+                                f.label(), f.windSpeed(), f.gust(), f.windDirectionDegrees(),
+                                f.temperature(), f.apcpMm1h(), f.cloudCoverPercent(), f.pressureHpa(),
+                                wave.height(), wave.period(), wave.directionDeg()
+                        );
+                    }
+                    return f;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<ForecastWg> retrieveWgForecasts(final String microText) {
+        String[] lines = microText.split("\\r?\\n");
+
+        Pattern row = Pattern.compile(
+                "^\\s*" +
+                        "(Mon|Tue|Wed|Thu|Fri|Sat|Sun)" +
+                        "\\s+(\\d{1,2})\\.\\s+(\\d{2})h\\s+" +
+                        "(-?\\d+)\\s+" +
+                        "(-?\\d+)\\s+" +
+                        "(-?\\d+)\\s+" +
+                        "(-?\\d+)\\s+" +
+                        "(-|\\d+(?:\\.\\d+)?)\\s+" +
+                        "(-|\\d+)\\s+" +
+                        "(-|\\d+)\\s+" +
+                        "(-|\\d+)\\s+" +
+                        "(-|\\d+(?:\\.\\d+)?)\\s*$"
+        );
+
+        return Arrays.stream(lines)
+                .map(line -> parseLineToForecast(line, row))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toCollection(LinkedList::new));
+    }
+
+    private static Optional<ForecastWg> parseLineToForecast(String line, Pattern row) {
+        line = line.trim().replace('\u00A0', ' ');
+        Matcher m = row.matcher(line);
+        if (m.find()) return Optional.of(createForecast(m));
+        return Optional.empty();
+    }
+
+    private static ForecastWg createForecast(Matcher m) {
+        String label = String.format("%s %s. %sh", m.group(1), m.group(2), m.group(3));
+        int hcld = parseNumber(m.group(9)).intValue();
+        int mcld = parseNumber(m.group(10)).intValue();
+        int lcld = parseNumber(m.group(11)).intValue();
+        int cloudCover = Math.max(hcld, Math.max(mcld, lcld));
+        return new ForecastWg(
+                label,
+                parseNumber(m.group(4)).intValue(),
+                parseNumber(m.group(5)).intValue(),
+                parseNumber(m.group(6)).intValue(),
+                parseNumber(m.group(7)).intValue(),
+                parseNumber(m.group(8)).intValue(),
+                cloudCover,
+                parseNumber(m.group(12)).intValue()
+        );
+    }
+
+    private static Number parseNumber(String s) {
+        if (s == null || s.equals("-")) return 0;
+        try {
+            if (s.contains(".")) return Double.parseDouble(s);
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Double parseNullableDouble(String s) {
+        if (s == null || s.equals("-")) return null;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseNullableInt(String s) {
+        if (s == null || s.equals("-")) return null;
+        try {
+            return (int) Math.round(Double.parseDouble(s));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -24,7 +24,10 @@ import java.util.List;
  *       {@code ?v=<content hash>} version (see {@code AggregatorService#loadSpotPhotoPath}),
  *       otherwise only briefly, so replacing a file in place still propagates quickly</li>
  *   <li>HTML - always revalidated, so a page never keeps pointing at stale asset URLs</li>
- *   <li>API and actuator responses - never stored</li>
+ *   <li>the spots list and the wind timeline - cached for half a minute and then
+ *       revalidated against their ETag, which changes with every fetch cycle, so a
+ *       returning visitor mostly gets a 304 (see {@code PreparedResponseCache})</li>
+ *   <li>other API and actuator responses - never stored</li>
  * </ul>
  * Without a fresh HTML document the content hashes are useless, so HTML freshness is the
  * part that actually makes updates instant.
@@ -40,6 +43,7 @@ public class CacheControlFilter implements WebFilter {
     static final String SHORT_LIVED = "public, max-age=300, must-revalidate";
     static final String REVALIDATE = "no-cache, must-revalidate";
     static final String NO_STORE = "no-store";
+    static final String API_REVALIDATE = "public, max-age=30, must-revalidate";
 
     private static final String HASHED_ASSETS_PATH = "/assets/";
     private static final String IMAGES_PATH = "/images/";
@@ -49,6 +53,10 @@ public class CacheControlFilter implements WebFilter {
             ".txt", ".xml", ".json", ".webmanifest", ".woff2"
     );
 
+    private static final List<String> REVALIDATED_API_PATHS = List.of(
+            "/api/v1/spots", "/api/v1/wind"
+    );
+
     private static final List<String> UNCACHEABLE_PATHS = List.of(
             "/api", "/actuator", "/mcp", "/llms"
     );
@@ -92,6 +100,10 @@ public class CacheControlFilter implements WebFilter {
             return REVALIDATE;
         }
 
+        if (REVALIDATED_API_PATHS.contains(path)) {
+            return API_REVALIDATE;
+        }
+
         if (isUncacheable(path)) {
             return NO_STORE;
         }
@@ -48,6 +48,21 @@ public class MetricsConfig {
         return new AtomicLong(0);
     }
 
+    @Bean
+    public AtomicInteger liveStationRoutesCount() {
+        return new AtomicInteger(0);
+    }
+
+    @Bean
+    public AtomicInteger conditionsScheduledTasks() {
+        return new AtomicInteger(0);
+    }
+
+    @Bean
+    public AtomicInteger forecastFailingSpots() {
+        return new AtomicInteger(0);
+    }
+
     @Bean
     public Gauge spotsGauge(MeterRegistry registry, AtomicInteger spotsCount) {
         return Gauge.builder("varun.spots.total", spotsCount, AtomicInteger::get)
@@ -69,6 +84,20 @@ public class MetricsConfig {
                 .register(registry);
     }
 
+    @Bean
+    public Gauge liveStationRoutesGauge(MeterRegistry registry, AtomicInteger liveStationRoutesCount) {
+        return Gauge.builder("varun.live_stations.routes", liveStationRoutesCount, AtomicInteger::get)
+                .description("Number of spots routed to a live weather station")
+                .register(registry);
+    }
+
+    @Bean
+    public Gauge conditionsScheduledTasksGauge(MeterRegistry registry, AtomicInteger conditionsScheduledTasks) {
+        return Gauge.builder("varun.fetch.conditions.scheduled_tasks", conditionsScheduledTasks, AtomicInteger::get)
+                .description("Number of station fetches scheduled by the last conditions fetch cycle")
+                .register(registry);
+    }
+
     @Bean
     public Gauge forecastCacheSizeGauge(MeterRegistry registry, AtomicInteger forecastCacheSize) {
         return Gauge.builder("varun.cache.forecasts.size", forecastCacheSize, AtomicInteger::get)
@@ -83,6 +112,13 @@ public class MetricsConfig {
                 .register(registry);
     }
 
+    @Bean
+    public Gauge forecastFailingSpotsGauge(MeterRegistry registry, AtomicInteger forecastFailingSpots) {
+        return Gauge.builder("varun.fetch.forecasts.failing_spots", forecastFailingSpots, AtomicInteger::get)
+                .description("Number of spots whose last forecast fetch failed and waits for a retry")
+                .register(registry);
+    }
+
     @Bean
     public Gauge lastForecastFetchGauge(MeterRegistry registry, AtomicLong lastForecastFetchTimestamp) {
         return Gauge.builder("varun.fetch.forecasts.last_timestamp", lastForecastFetchTimestamp, AtomicLong::get)
@@ -118,6 +154,13 @@ public class MetricsConfig {
                 .register(registry);
     }
 
+    @Bean
+    public Counter forecastSpotFailureCounter(MeterRegistry registry) {
+        return Counter.builder("varun.fetch.forecasts.spot_failure")
+                .description("Number of failed forecast fetches of a single spot")
+                .register(registry);
+    }
+
     @Bean
     public Counter conditionsFetchCounter(MeterRegistry registry) {
         return Counter.builder("varun.fetch.conditions.total")
@@ -167,6 +210,13 @@ public class MetricsConfig {
                 .register(registry);
     }
 
+    @Bean
+    public Timer forecastModelsFetchTimer(MeterRegistry registry) {
+        return Timer.builder("varun.fetch.forecast_models.duration")
+                .description("Duration of fetching the forecast models of an opened spot")
+                .register(registry);
+    }
+
     @Bean
     public Timer conditionsFetchTimer(MeterRegistry registry) {
         return Timer.builder("varun.fetch.conditions.duration")
@@ -180,4 +230,11 @@ public class MetricsConfig {
                 .description("Duration of AI analysis fetch operations")
                 .register(registry);
     }
+
+    @Bean
+    public Timer startupTimer(MeterRegistry registry) {
+        return Timer.builder("varun.startup.duration")
+                .description("Time from startup until spots are first served with a forecast for every spot")
+                .register(registry);
+    }
 }
@@ -1,27 +1,47 @@
 package com.github.pwittchen.varun.config;
 
 import com.github.pwittchen.varun.metrics.HttpClientMetricsEventListener;
+import com.github.pwittchen.varun.service.http.HostConcurrencyLimiter;
 import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class OkHttpClientConfig {
 
+    private static final int DISPATCHER_MAX_REQUESTS = 1024;
+
     @Bean
     public HttpClientMetricsEventListener httpClientMetricsEventListener(MeterRegistry meterRegistry) {
         return new HttpClientMetricsEventListener(meterRegistry);
     }
 
     @Bean
-    public OkHttpClient okHttpClient(HttpClientMetricsEventListener metricsEventListener) {
+    public HostConcurrencyLimiter hostConcurrencyLimiter(MeterRegistry meterRegistry) {
+        return new HostConcurrencyLimiter(meterRegistry);
+    }
+
+    @Bean
+    public OkHttpClient okHttpClient(
+            HttpClientMetricsEventListener metricsEventListener,
+            HostConcurrencyLimiter hostConcurrencyLimiter
+    ) {
+        // HostConcurrencyLimiter is the one place requests wait, so the dispatcher must not
+        // queue asynchronous calls per host again; they wait for a permit on virtual threads
+        Dispatcher dispatcher = new Dispatcher(Executors.newVirtualThreadPerTaskExecutor());
+        dispatcher.setMaxRequests(DISPATCHER_MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(DISPATCHER_MAX_REQUESTS);
         return new OkHttpClient
                 .Builder()
+                .dispatcher(dispatcher)
+                .addInterceptor(hostConcurrencyLimiter)
                 .connectTimeout(Duration.ofSeconds(10))
                 .readTimeout(Duration.ofSeconds(30))
                 .writeTimeout(Duration.ofSeconds(10))
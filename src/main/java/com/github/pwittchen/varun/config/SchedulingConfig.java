@@ -0,0 +1,29 @@
+package com.github.pwittchen.varun.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * The scheduler every {@code @Scheduled} job runs on.
+ *
+ * Spring's default scheduler has a single thread, so a job that blocks (the AI
+ * analysis, the ICM vision calls, a forecast batch) would hold up every other job
+ * behind it, the ten-second live conditions poll included. With a thread for each job
+ * a slow one only delays its own next run.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    // More threads than the app has scheduled jobs, so none ever waits for another
+    static final int SCHEDULER_POOL_SIZE = 16;
+
+    @Bean(name = "taskScheduler", destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(SCHEDULER_POOL_SIZE);
+        scheduler.setThreadNamePrefix("scheduled-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
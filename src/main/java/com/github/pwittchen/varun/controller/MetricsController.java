@@ -64,9 +64,12 @@ public class MetricsController {
         gauges.put("spotsTotal", getGaugeValue("varun.spots.total"));
         gauges.put("countriesTotal", getGaugeValue("varun.countries.total"));
         gauges.put("liveStationsActive", getGaugeValue("varun.live_stations.active"));
+        gauges.put("liveStationRoutes", getGaugeValue("varun.live_stations.routes"));
+        gauges.put("conditionsScheduledTasks", getGaugeValue("varun.fetch.conditions.scheduled_tasks"));
         gauges.put("forecastsCacheSize", getGaugeValue("varun.cache.forecasts.size"));
         gauges.put("conditionsCacheSize", getGaugeValue("varun.cache.conditions.size"));
         gauges.put("lastForecastFetch", getGaugeValue("varun.fetch.forecasts.last_timestamp"));
+        gauges.put("forecastFailingSpots", getGaugeValue("varun.fetch.forecasts.failing_spots"));
         gauges.put("lastConditionsFetch", getGaugeValue("varun.fetch.conditions.last_timestamp"));
 
         return gauges;
@@ -79,6 +82,10 @@ public class MetricsController {
         counters.put("forecastsTotal", getCounterValue("varun.fetch.forecasts.total"));
         counters.put("forecastsSuccess", getCounterValue("varun.fetch.forecasts.success"));
         counters.put("forecastsFailure", getCounterValue("varun.fetch.forecasts.failure"));
+        counters.put("forecastsSpotFailure", getCounterValue("varun.fetch.forecasts.spot_failure"));
+        counters.put("wavesLookups", getCounterValue("varun.forecast.waves.lookups"));
+        counters.put("wavesRequests", getCounterValue("varun.forecast.waves.requests"));
+        counters.put("forecastModelsSkipped", getCounterValue("varun.forecast.models.skipped"));
 
         // Conditions counters
         counters.put("conditionsTotal", getCounterValue("varun.fetch.conditions.total"));
@@ -94,6 +101,15 @@ public class MetricsController {
         counters.put("apiSpotsRequests", getCounterValue("varun.api.spots.requests"));
         counters.put("apiSpotRequests", getCounterValue("varun.api.spot.requests"));
 
+        // Geo resolution counters (coordinates and ICM grid points)
+        counters.put("geoStoreHits", getCounterValue("varun.geo.store.hits"));
+        counters.put("geoNetworkResolutions", getCounterValue("varun.geo.network.resolutions"));
+
+        // Readings archive counters
+        counters.put("archiveReadingsAppended", getCounterValue("varun.archive.readings.appended"));
+        counters.put("archiveSegmentsCompacted", getCounterValue("varun.archive.segments.compacted"));
+        counters.put("archiveSegmentsExpired", getCounterValue("varun.archive.segments.expired"));
+
         return counters;
     }
 
@@ -101,6 +117,7 @@ public class MetricsController {
         Map<String, Object> timers = new HashMap<>();
 
         timers.put("forecastsDuration", getTimerStats("varun.fetch.forecasts.duration"));
+        timers.put("forecastModelsDuration", getTimerStats("varun.fetch.forecast_models.duration"));
         timers.put("conditionsDuration", getTimerStats("varun.fetch.conditions.duration"));
         timers.put("aiDuration", getTimerStats("varun.fetch.ai.duration"));
 
@@ -147,6 +164,8 @@ public class MetricsController {
         http.put("totalRequests", getCounterValue("varun.http.client.requests.total"));
         http.put("successRequests", getCounterValue("varun.http.client.requests.success"));
         http.put("failedRequests", getCounterValue("varun.http.client.requests.failed"));
+        http.put("conditionalHits", getCounterValue("varun.http.client.conditional.hits"));
+        http.put("conditionalMisses", getCounterValue("varun.http.client.conditional.misses"));
         http.put("requestDuration", getTimerStats("varun.http.client.request.duration"));
         http.put("connectionsAcquired", getCounterValue("varun.http.client.connections.acquired"));
         http.put("connectionsReleased", getCounterValue("varun.http.client.connections.released"));
@@ -1,37 +1,152 @@
 package com.github.pwittchen.varun.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.pwittchen.varun.mapper.PackedWindTimeline;
 import com.github.pwittchen.varun.metrics.SpotsControllerMetrics;
 import com.github.pwittchen.varun.model.forecast.HourlyForecast;
 import com.github.pwittchen.varun.model.forecast.WindTimeline;
+import com.github.pwittchen.varun.model.live.ConditionsHistory;
 import com.github.pwittchen.varun.model.spot.Spot;
+import com.github.pwittchen.varun.model.spot.SpotChanges;
+import com.github.pwittchen.varun.model.spot.SpotProjection;
+import com.github.pwittchen.varun.model.spot.SpotsSnapshot;
 import com.github.pwittchen.varun.service.AggregatorService;
+import com.github.pwittchen.varun.service.http.PreparedResponseCache;
+import com.github.pwittchen.varun.service.updates.SpotUpdatesBroadcaster;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/")
 public class SpotsController {
 
+    // Bucket sizes the live history can be asked for in, in minutes
+    static final Set<Integer> HISTORY_RESOLUTIONS = Set.of(1, 5, 15, 30, 60);
+    static final int DEFAULT_HISTORY_RESOLUTION = 5;
+    // The archive keeps ten-minute records past its first week, so nothing finer
+    static final Set<Integer> ARCHIVE_RESOLUTIONS = Set.of(10, 30, 60, 180, 360, 1440);
+    static final int DEFAULT_ARCHIVE_RESOLUTION = 60;
+    // Bounds the response, and the work, whatever range is asked for: three weeks
+    // hourly, a season in three-hour buckets, or five years daily
+    static final int MAX_ARCHIVE_BUCKETS = 2000;
+    static final String SPOTS_VERSION_HEADER = "X-Spots-Version";
+    // Representations of the wind timeline, picked by URL so caches key them apart
+    static final String WIND_FORMAT_JSON = "json";
+    static final String WIND_FORMAT_PACKED = "packed";
+
     private final AggregatorService aggregatorService;
+    private final PreparedResponseCache preparedResponses;
+    private final SpotUpdatesBroadcaster spotUpdates;
+    private final ObjectMapper objectMapper;
     private final SpotsControllerMetrics metrics;
 
-    public SpotsController(AggregatorService aggregatorService, SpotsControllerMetrics metrics) {
+    public SpotsController(
+            AggregatorService aggregatorService,
+            PreparedResponseCache preparedResponses,
+            SpotUpdatesBroadcaster spotUpdates,
+            ObjectMapper objectMapper,
+            SpotsControllerMetrics metrics) {
         this.aggregatorService = aggregatorService;
+        this.preparedResponses = preparedResponses;
+        this.spotUpdates = spotUpdates;
+        this.objectMapper = objectMapper;
         this.metrics = metrics;
     }
 
+    /**
+     * Every spot without its hourly forecast and live history. The list is taken
+     * as-is from the current snapshot, where it was stripped once when the data
+     * last changed, and written as the bytes it was serialized to for that
+     * snapshot. A client still holding them gets a 304. The
+     * {@value #SPOTS_VERSION_HEADER} header is the version to ask
+     * {@link #changes} for the changes since.
+     */
+    @GetMapping(value = "spots", params = {"!fields", "!lang"})
+    public Mono<ResponseEntity<DataBuffer>> spots(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        metrics.incrementSpotsRequestCounter();
+        return Mono.fromSupplier(() -> preparedSpots(SpotProjection.NONE, acceptEncoding, ifNoneMatch));
+    }
+
+    /**
+     * The spot list with only the {@code fields} a client reads (comma-separated, named
+     * as in a whole spot) and the spot info and AI analysis only in language
+     * {@code lang} (see {@link SpotProjection}). Each projection is serialized once per
+     * snapshot like the whole list, so the smaller payload costs nothing more to serve,
+     * and the most recently used projections are kept (see {@link PreparedResponseCache}).
+     * An unknown field or language, or {@code aiAnalysis} without a language, is a 400.
+     */
     @GetMapping("spots")
-    public Flux<Spot> spots() {
+    public Mono<ResponseEntity<DataBuffer>> projectedSpots(
+            @RequestParam(value = "fields", required = false) @Nullable String fields,
+            @RequestParam(value = "lang", required = false) @Nullable String lang,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         metrics.incrementSpotsRequestCounter();
-        return Flux
-                .fromIterable(aggregatorService.getSpots())
-                .map(Spot::withoutCurrentConditionsHistoryAndForecastHourly);
+        Optional<SpotProjection> projection = SpotProjection.parse(fields, lang);
+        if (projection.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromSupplier(() -> preparedSpots(projection.get(), acceptEncoding, ifNoneMatch));
+    }
+
+    private ResponseEntity<DataBuffer> preparedSpots(
+            SpotProjection projection,
+            @Nullable String acceptEncoding,
+            @Nullable String ifNoneMatch) {
+        long changesVersion = aggregatorService.getSpotChangesVersion();
+        SpotsSnapshot snapshot = aggregatorService.getSpotsSnapshot();
+        ResponseEntity<DataBuffer> response = (projection.isNone()
+                ? preparedResponses.prepare("spots", snapshot.version(), snapshot::summaries)
+                : preparedResponses.prepareProjection("spots:" + projection.key(), snapshot.version(), () -> snapshot
+                        .summaries()
+                        .stream()
+                        .map(spot -> projection.apply(objectMapper, spot))
+                        .toList()))
+                .toResponseEntity(acceptEncoding, ifNoneMatch);
+        return ResponseEntity
+                .status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(SPOTS_VERSION_HEADER, Long.toString(changesVersion))
+                .body(response.getBody());
+    }
+
+    /**
+     * The spots changed since version {@code since} of the spot list, for a client
+     * refreshing the list it holds rather than downloading every spot again. Without
+     * {@code since}, or when it is too old, the response is a reset carrying every
+     * spot (see {@link SpotChanges}).
+     */
+    @GetMapping("spots/changes")
+    public Mono<ResponseEntity<SpotChanges>> changes(
+            @RequestParam(value = "since", required = false) @Nullable Long since) {
+        return Mono.fromSupplier(() -> {
+            SpotChanges changes = aggregatorService.getSpotChanges(since);
+            metrics.incrementChangesRequestCounter(changes.reset());
+            return ResponseEntity.ok(changes);
+        });
     }
 
     /**
@@ -45,13 +160,46 @@ public class SpotsController {
      * slider can address, and neither pays for the other's payload. The grid is
      * trimmed to the hours the forecast actually holds, so an over-long request is
      * answered with what there is.
+     *
+     * With {@code format=packed} the timeline comes packed into bytes instead of
+     * JSON (see {@link PackedWindTimeline}), a fraction of the size and nothing to
+     * parse. The representation is chosen by the URL rather than by Accept, so a
+     * cache in front that ignores Vary: Accept still keys the two apart; an unknown
+     * format is a 400.
+     *
+     * Like the spots list, the timeline is serialized once per forecast update and
+     * hour of the grid, per span it actually covers and representation. The default
+     * span is always kept prepared; other spans are kept among the recently used
+     * projections, so however many a client asks for, they can't crowd out the rest.
      */
     @GetMapping("wind")
-    public Mono<WindTimeline> wind(@RequestParam(value = "hours", required = false) Integer hours) {
+    public Mono<ResponseEntity<DataBuffer>> wind(
+            @RequestParam(value = "hours", required = false) Integer hours,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         metrics.incrementWindRequestCounter();
-        return Mono.fromSupplier(() -> hours == null
+        if (format != null && !WIND_FORMAT_JSON.equals(format) && !WIND_FORMAT_PACKED.equals(format)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        final boolean packed = WIND_FORMAT_PACKED.equals(format);
+        final int span = AggregatorService.windTimelineHours(hours);
+        final boolean defaultSpan = span == AggregatorService.windTimelineHours(null);
+        final String name = (packed ? "wind.packed" : "wind") + (defaultSpan ? "" : ":" + span);
+        final Supplier<WindTimeline> timeline = () -> hours == null
                 ? aggregatorService.getWindTimeline()
-                : aggregatorService.getWindTimeline(hours));
+                : aggregatorService.getWindTimeline(hours);
+        final MediaType contentType = packed ? MediaType.APPLICATION_OCTET_STREAM : MediaType.APPLICATION_JSON;
+        final Supplier<byte[]> body = packed
+                ? () -> PackedWindTimeline.encode(timeline.get())
+                : () -> preparedResponses.serialize(timeline.get());
+        return Mono.fromSupplier(() -> {
+            String version = aggregatorService.getWindTimelineVersion();
+            return (defaultSpan
+                    ? preparedResponses.prepare(name, version, contentType, body)
+                    : preparedResponses.prepareProjection(name, version, contentType, body))
+                    .toResponseEntity(acceptEncoding, ifNoneMatch);
+        });
     }
 
     /**
@@ -70,7 +218,86 @@ public class SpotsController {
                         .orElseGet(() -> ResponseEntity.notFound().build()));
     }
 
-    @GetMapping("spots/{id}")
+    /**
+     * One spot's live readings of the last twelve hours at most, in buckets of
+     * {@code resolution} minutes (one of {@link #HISTORY_RESOLUTIONS}), each with the
+     * average, lowest and highest reading. The optional {@code from} and {@code to}
+     * narrow it down and are ISO date-times in the station's local time, like the
+     * readings' own dates. An unsupported resolution is a 400, an unknown spot a 404,
+     * and a known spot without a live station an empty list of buckets.
+     */
+    @GetMapping("history/{wgId}")
+    public Mono<ResponseEntity<ConditionsHistory>> history(
+            @PathVariable int wgId,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "resolution", required = false) Integer resolution) {
+        metrics.incrementHistoryRequestCounter();
+        final int minutes = resolution == null ? DEFAULT_HISTORY_RESOLUTION : resolution;
+        if (!HISTORY_RESOLUTIONS.contains(minutes)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono
+                .fromSupplier(() -> aggregatorService.getConditionsHistory(wgId, from, to, Duration.ofMinutes(minutes)))
+                .map(history -> history
+                        .map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * One spot's live readings from the on-disk archive, for ranges beyond the twelve
+     * hours {@link #history} holds: the week or the season a spot had. {@code from} and
+     * {@code to} are required, in the station's local time, and the range may span at
+     * most {@link #MAX_ARCHIVE_BUCKETS} buckets of {@code resolution} minutes (one of
+     * {@link #ARCHIVE_RESOLUTIONS}). Anything else is a 400, an unknown spot a 404.
+     */
+    @GetMapping("history/{wgId}/archive")
+    public Mono<ResponseEntity<ConditionsHistory>> archivedHistory(
+            @PathVariable int wgId,
+            @RequestParam(value = "from")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "resolution", required = false) Integer resolution) {
+        metrics.incrementArchiveRequestCounter();
+        final int minutes = resolution == null ? DEFAULT_ARCHIVE_RESOLUTION : resolution;
+        if (!ARCHIVE_RESOLUTIONS.contains(minutes)
+                || !to.isAfter(from)
+                || Duration.between(from, to).toMinutes() > (long) MAX_ARCHIVE_BUCKETS * minutes) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono
+                .fromSupplier(() -> aggregatorService.getArchivedConditionsHistory(wgId, from, to, Duration.ofMinutes(minutes)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(history -> history
+                        .map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * A stream of Server-Sent Events for every change to a spot: "conditions" with a
+     * new live reading, "forecast" with the daily forecast a fetch cycle replaced (see
+     * {@link com.github.pwittchen.varun.model.spot.SpotUpdate}). Follows every spot,
+     * the spots of {@code country}, or spot {@code wgId}; asking for both is a 400.
+     * nginx is told not to buffer it, or events would wait for the buffer to fill.
+     */
+    @GetMapping(value = "updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> updates(
+            @RequestParam(value = "country", required = false) @Nullable String country,
+            @RequestParam(value = "wgId", required = false) @Nullable Integer wgId) {
+        metrics.incrementUpdatesRequestCounter();
+        if (country != null && wgId != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity
+                .ok()
+                .header("X-Accel-Buffering", "no")
+                .body(spotUpdates.subscribe(country, wgId));
+    }
+
+    @GetMapping(value = "spots/{id}", params = {"!fields", "!lang"})
     public Mono<ResponseEntity<Spot>> spot(@PathVariable int id) {
         metrics.incrementSpotByIdRequestCounter();
         return Mono
@@ -80,7 +307,7 @@ public class SpotsController {
                 .doOnSuccess(_ -> aggregatorService.fetchForecastsForAllModels(id));
     }
 
-    @GetMapping("spots/{id}/{model}")
+    @GetMapping(value = "spots/{id}/{model}", params = {"!fields", "!lang"})
     public Mono<ResponseEntity<Spot>> spot(@PathVariable int id, @PathVariable String model) {
         metrics.incrementSpotByIdRequestCounter();
         return Mono
@@ -89,4 +316,26 @@ public class SpotsController {
                 .defaultIfEmpty(ResponseEntity.notFound().build())
                 .doOnSuccess(_ -> aggregatorService.fetchForecastsForAllModels(id));
     }
+
+    /**
+     * One spot, with the default or the given forecast model, projected like
+     * {@link #projectedSpots}. A single spot is written per request, as the whole one is.
+     */
+    @GetMapping({"spots/{id}", "spots/{id}/{model}"})
+    public Mono<ResponseEntity<ObjectNode>> projectedSpot(
+            @PathVariable int id,
+            @PathVariable(value = "model", required = false) @Nullable String model,
+            @RequestParam(value = "fields", required = false) @Nullable String fields,
+            @RequestParam(value = "lang", required = false) @Nullable String lang) {
+        metrics.incrementSpotByIdRequestCounter();
+        Optional<SpotProjection> projection = SpotProjection.parse(fields, lang);
+        if (projection.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono
+                .justOrEmpty(model == null ? aggregatorService.getSpotById(id) : aggregatorService.getSpotById(id, model))
+                .map(spot -> ResponseEntity.ok(projection.get().apply(objectMapper, spot)))
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .doOnSuccess(_ -> aggregatorService.fetchForecastsForAllModels(id));
+    }
 }
@@ -2,6 +2,7 @@ package com.github.pwittchen.varun.mapper;
 
 import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.HourlyForecast;
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
 import com.github.pwittchen.varun.model.forecast.WindTimeline;
 import org.springframework.stereotype.Component;
 
@@ -10,8 +11,6 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -28,7 +27,9 @@ import java.util.Map;
  * Two shapes come off the same alignment:
  * <ul>
  *   <li>{@link WindTimeline} - wind only, every spot at once, for the map, which
- *       draws all spots for a single moment and would otherwise pull megabytes</li>
+ *       draws all spots for a single moment and would otherwise pull megabytes;
+ *       aligned by a {@link WindTimelineGrid}, which the aggregator keeps between
+ *       requests</li>
  *   <li>{@link HourlyForecast} - every forecast field, one spot, for readers that
  *       want the whole picture (the AI analysis, API consumers)</li>
  * </ul>
@@ -46,13 +47,7 @@ public class HourlyForecastMapper {
     // as covering the hours up to 18:00, so each sample is held forward across
     // that stride - long enough to close the cadence gap, short enough that a
     // genuinely missing tail stays visibly missing rather than being invented.
-    private static final int MAX_FILL_HOURS = 2;
-
-    // The far end of a run belongs to whichever spots' forecasts reach furthest -
-    // here it was five hours drawn from a handful of spots out of two hundred, which
-    // is a map of nothing. The grid ends at the last hour this share of the spots on
-    // it still has wind for.
-    private static final double MIN_TAIL_COVERAGE = 0.5;
+    static final int MAX_FILL_HOURS = 2;
 
     /**
      * Wind for every spot, on one shared grid.
@@ -72,32 +67,9 @@ public class HourlyForecastMapper {
             return WindTimeline.EMPTY;
         }
 
-        final LocalDateTime gridStart = start.truncatedTo(ChronoUnit.HOURS);
-        final Map<Integer, Forecast[]> alignedBySpotId = new LinkedHashMap<>(hourlyBySpotId.size());
-        final int[] spotsPerHour = new int[hours];
-
-        for (Map.Entry<Integer, List<Forecast>> entry : hourlyBySpotId.entrySet()) {
-            Forecast[] slots = alignToGrid(entry.getValue(), gridStart, hours);
-            if (slots == null) {
-                continue;
-            }
-            alignedBySpotId.put(entry.getKey(), slots);
-            for (int hour = 0; hour < hours; hour++) {
-                if (slots[hour] != null) {
-                    spotsPerHour[hour]++;
-                }
-            }
-        }
-
-        final int span = coveredHours(spotsPerHour, alignedBySpotId.size());
-        if (span < 1) {
-            return WindTimeline.EMPTY;
-        }
-
-        final List<WindTimeline.SpotWind> spots = new ArrayList<>(alignedBySpotId.size());
-        alignedBySpotId.forEach((spotId, slots) -> spots.add(toSpotWind(spotId, slots, span)));
-
-        return new WindTimeline(buildGrid(gridStart, span), spots);
+        final WindTimelineGrid grid = new WindTimelineGrid();
+        hourlyBySpotId.forEach((spotId, forecasts) -> grid.update(spotId, HourlySeries.of(forecasts)));
+        return grid.slice(start, hours);
     }
 
     /**
@@ -201,44 +173,6 @@ public class HourlyForecastMapper {
         }
     }
 
-    /**
-     * How many hours of the grid are worth serving: everything up to the last hour
-     * most of the spots still have a forecast for. Zero when none of them do.
-     */
-    private int coveredHours(int[] spotsPerHour, int spots) {
-        final double covered = spots * MIN_TAIL_COVERAGE;
-        for (int hour = spotsPerHour.length - 1; hour >= 0; hour--) {
-            if (spotsPerHour[hour] > 0 && spotsPerHour[hour] >= covered) {
-                return hour + 1;
-            }
-        }
-        return 0;
-    }
-
-    private WindTimeline.SpotWind toSpotWind(int spotId, Forecast[] slots, int hours) {
-        final Integer[] wind = new Integer[hours];
-        final Integer[] gusts = new Integer[hours];
-        final Integer[] direction = new Integer[hours];
-
-        for (int hour = 0; hour < hours; hour++) {
-            Forecast forecast = slots[hour];
-            if (forecast == null) {
-                continue;
-            }
-            wind[hour] = (int) Math.round(forecast.wind());
-            gusts[hour] = (int) Math.round(forecast.gusts());
-            int directionIndex = WindTimeline.DIRECTIONS.indexOf(forecast.direction());
-            direction[hour] = directionIndex < 0 ? null : directionIndex;
-        }
-
-        return new WindTimeline.SpotWind(
-                spotId,
-                Arrays.asList(wind),
-                Arrays.asList(gusts),
-                Arrays.asList(direction)
-        );
-    }
-
     private Forecast withDate(Forecast forecast, String date) {
         return new Forecast(
                 date,
@@ -0,0 +1,162 @@
+package com.github.pwittchen.varun.mapper;
+
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
+import com.github.pwittchen.varun.model.forecast.WindTimeline;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The wind timeline as bytes, for a map that would rather not parse a JSON list of
+ * boxed integers for every spot and hour of the grid.
+ *
+ * A full forecast run is about 230 spots times 384 hours times three values, which
+ * as JSON is mostly commas, quotes and {@code null}s. Packed, every value is one
+ * unsigned byte, and the hour labels - all of them one hour apart - shrink to the
+ * first hour.
+ *
+ * Layout, big-endian:
+ * <pre>
+ *   4 bytes            "VWT" and the format version (1)
+ *   int32              first hour of the grid, in hours since 1970-01-01T00:00
+ *                      (local time of the forecast, the same clock as the labels)
+ *   uint16             hours on the grid
+ *   int32              spots
+ *   int32 x spots      Windguru ids
+ *   byte x spots x hours   wind in knots, spot after spot
+ *   byte x spots x hours   gusts in knots, spot after spot
+ *   byte x spots x hours   direction, index into {@link WindTimeline#DIRECTIONS}
+ * </pre>
+ * Each column keeps like values next to each other, which is also what gzip does
+ * best with. {@link #MISSING} marks an hour with no value; wind beyond
+ * {@link #MAX_KNOTS} is written as {@link #MAX_KNOTS}, which no map tells apart.
+ */
+public final class PackedWindTimeline {
+
+    public static final int VERSION = 1;
+    public static final int MISSING = 0xFF;
+    public static final int MAX_KNOTS = 0xFE;
+
+    private static final byte[] MAGIC = {'V', 'W', 'T', VERSION};
+    private static final int HEADER_BYTES = MAGIC.length + Integer.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int MAX_HOURS = 0xFFFF;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("EEE dd MMM yyyy HH:mm", Locale.ENGLISH);
+
+    private PackedWindTimeline() {
+    }
+
+    /**
+     * Packs a timeline whose hours follow one another, as every timeline the grid
+     * slices does.
+     *
+     * @throws IllegalArgumentException when the first hour is not a timestamp or the
+     *                                  grid is longer than the format can hold
+     */
+    public static byte[] encode(WindTimeline timeline) {
+        final int hours = timeline.hours().size();
+        final int spots = timeline.spots().size();
+        if (hours > MAX_HOURS) {
+            throw new IllegalArgumentException("Cannot pack " + hours + " hours, at most " + MAX_HOURS + " fit");
+        }
+
+        final ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + spots * Integer.BYTES + 3 * spots * hours);
+        out.put(MAGIC);
+        out.putInt(hours == 0 ? 0 : (int) HourlySeries.toEpochHour(parseHour(timeline.hours().getFirst())));
+        out.putShort((short) hours);
+        out.putInt(spots);
+
+        for (WindTimeline.SpotWind spot : timeline.spots()) {
+            out.putInt(spot.wgId());
+        }
+        for (WindTimeline.SpotWind spot : timeline.spots()) {
+            putColumn(out, spot.wind(), hours, MAX_KNOTS);
+        }
+        for (WindTimeline.SpotWind spot : timeline.spots()) {
+            putColumn(out, spot.gusts(), hours, MAX_KNOTS);
+        }
+        for (WindTimeline.SpotWind spot : timeline.spots()) {
+            putColumn(out, spot.direction(), hours, WindTimeline.DIRECTIONS.size() - 1);
+        }
+        return out.array();
+    }
+
+    /**
+     * Reads a packed timeline back, hour labels included.
+     *
+     * @throws IllegalArgumentException when the bytes are not a packed timeline of
+     *                                  this version
+     */
+    public static WindTimeline decode(byte[] packed) {
+        final ByteBuffer in = ByteBuffer.wrap(packed);
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IllegalArgumentException("Not a packed wind timeline of version " + VERSION);
+            }
+            final long startHour = in.getInt();
+            final int hours = Short.toUnsignedInt(in.getShort());
+            final int spots = in.getInt();
+
+            final int[] wgIds = new int[spots];
+            for (int spot = 0; spot < spots; spot++) {
+                wgIds[spot] = in.getInt();
+            }
+            final List<List<Integer>> wind = getColumns(in, spots, hours);
+            final List<List<Integer>> gusts = getColumns(in, spots, hours);
+            final List<List<Integer>> direction = getColumns(in, spots, hours);
+
+            final List<WindTimeline.SpotWind> spotWinds = new ArrayList<>(spots);
+            for (int spot = 0; spot < spots; spot++) {
+                spotWinds.add(new WindTimeline.SpotWind(wgIds[spot], wind.get(spot), gusts.get(spot), direction.get(spot)));
+            }
+
+            final LocalDateTime start = LocalDateTime.ofEpochSecond(startHour * 3600, 0, ZoneOffset.UTC);
+            final List<String> labels = new ArrayList<>(hours);
+            for (int hour = 0; hour < hours; hour++) {
+                labels.add(start.plusHours(hour).format(TIMESTAMP_FORMATTER));
+            }
+            return new WindTimeline(labels, spotWinds);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Packed wind timeline is truncated", e);
+        }
+    }
+
+    private static void putColumn(ByteBuffer out, List<Integer> values, int hours, int max) {
+        for (int hour = 0; hour < hours; hour++) {
+            Integer value = hour < values.size() ? values.get(hour) : null;
+            out.put((byte) (value == null || value < 0 ? MISSING : Math.min(value, max)));
+        }
+    }
+
+    private static List<List<Integer>> getColumns(ByteBuffer in, int spots, int hours) {
+        final List<List<Integer>> columns = new ArrayList<>(spots);
+        for (int spot = 0; spot < spots; spot++) {
+            Integer[] column = new Integer[hours];
+            for (int hour = 0; hour < hours; hour++) {
+                int value = Byte.toUnsignedInt(in.get());
+                column[hour] = value == MISSING ? null : value;
+            }
+            columns.add(Arrays.asList(column));
+        }
+        return columns;
+    }
+
+    private static LocalDateTime parseHour(String label) {
+        try {
+            return LocalDateTime.parse(label, TIMESTAMP_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Wind timeline hour is not a timestamp: " + label, e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.github.pwittchen.varun.mapper;
 
 import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.ForecastWg;
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
 import org.springframework.stereotype.Component;
 
 import java.time.DayOfWeek;
@@ -10,8 +11,6 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.YearMonth;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -27,7 +26,6 @@ public class WeatherForecastMapper {
     private static final List<String> DAYS = Arrays.asList("Today", "Tomorrow", "Day 3", "Day 4", "Day 5");
     private static final List<String> DIRECTIONS = Arrays.asList("N", "NE", "E", "SE", "S", "SW", "W", "NW");
     private static final Pattern HOURLY_LABEL_PATTERN = Pattern.compile("(?i)(Mon|Tue|Wed|Thu|Fri|Sat|Sun)\\s+(\\d{1,2})\\.\\s+(\\d{2})h");
-    private static final DateTimeFormatter HOURLY_OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("EEE dd MMM yyyy HH:mm", Locale.ENGLISH);
     private static final ZoneId FORECAST_ZONE = ZoneId.systemDefault();
 
     public List<Forecast> toWeatherForecasts(List<ForecastWg> forecasts) {
@@ -39,7 +37,15 @@ public class WeatherForecastMapper {
     }
 
     public List<Forecast> toHourlyForecasts(List<ForecastWg> forecasts) {
-        List<Forecast> result = new ArrayList<>(forecasts.size());
+        return toHourlySeries(forecasts).toForecasts();
+    }
+
+    /**
+     * The hourly forecast in the form the forecast cache keeps it, built straight from
+     * the rows so no date is formatted until the forecast is served.
+     */
+    public HourlySeries toHourlySeries(List<ForecastWg> forecasts) {
+        HourlySeries.Builder result = HourlySeries.builder(forecasts.size());
         YearMonth currentYearMonth = YearMonth.from(LocalDate.now(FORECAST_ZONE));
         LocalDate previousDate = null;
         int previousHour = -1;
@@ -47,7 +53,7 @@ public class WeatherForecastMapper {
         for (ForecastWg forecast : forecasts) {
             Matcher matcher = HOURLY_LABEL_PATTERN.matcher(forecast.label());
             if (!matcher.matches()) {
-                result.add(new Forecast(
+                result.add(
                         forecast.label(),
                         forecast.windSpeed(),
                         forecast.gust(),
@@ -59,7 +65,7 @@ public class WeatherForecastMapper {
                         forecast.waveHeight(),
                         forecast.wavePeriod(),
                         forecast.waveDirectionDeg() != null ? estimateWindDirection(forecast.waveDirectionDeg()) : null
-                ));
+                );
                 continue;
             }
 
@@ -70,9 +76,8 @@ public class WeatherForecastMapper {
             LocalDate forecastDate = resolveForecastDate(currentYearMonth, dayOfMonth, dayOfWeek, previousDate, hour, previousHour);
             currentYearMonth = YearMonth.from(forecastDate);
 
-            LocalDateTime dateTime = LocalDateTime.of(forecastDate, LocalTime.of(hour, 0));
-            result.add(new Forecast(
-                    dateTime.format(HOURLY_OUTPUT_FORMATTER),
+            result.add(
+                    LocalDateTime.of(forecastDate, LocalTime.of(hour, 0)),
                     forecast.windSpeed(),
                     forecast.gust(),
                     estimateWindDirection(forecast.windDirectionDegrees()),
@@ -83,13 +88,13 @@ public class WeatherForecastMapper {
                     forecast.waveHeight(),
                     forecast.wavePeriod(),
                     forecast.waveDirectionDeg() != null ? estimateWindDirection(forecast.waveDirectionDeg()) : null
-            ));
+            );
 
             previousDate = forecastDate;
             previousHour = hour;
         }
 
-        return result;
+        return result.build();
     }
 
     private LocalDate resolveForecastDate(
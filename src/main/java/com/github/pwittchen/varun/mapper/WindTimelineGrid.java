@@ -0,0 +1,287 @@
+package com.github.pwittchen.varun.mapper;
+
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
+import com.github.pwittchen.varun.model.forecast.WindTimeline;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The map's wind timeline, kept aligned between requests.
+ *
+ * Built from the forecasts, the timeline cost a date parse per forecast hour of every
+ * spot, the alignment and the boxing of every value - for the whole map, whenever any
+ * forecast changed or the hour rolled over. Here each spot's forecast is aligned once,
+ * when it changes, into a row of whole knots keyed by absolute hour. A timeline is a
+ * slice of those rows starting at the current hour, served as views over them, so a
+ * new hour costs nothing but a new set of labels.
+ *
+ * A slice is exactly what {@link HourlyForecastMapper#toWindTimeline} describes: an
+ * hour shows a sample or one held forward from a sample on the grid (never one from
+ * before the grid starts), and the grid ends where most of the spots on it stop.
+ *
+ * Safe for concurrent use; rows are replaced whole, never modified.
+ */
+public final class WindTimelineGrid {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("EEE dd MMM yyyy HH:mm", Locale.ENGLISH);
+
+    // The far end of a run belongs to whichever spots' forecasts reach furthest -
+    // here it was five hours drawn from a handful of spots out of two hundred, which
+    // is a map of nothing. The grid ends at the last hour this share of the spots on
+    // it still has wind for.
+    private static final double MIN_TAIL_COVERAGE = 0.5;
+
+    private static final short NO_WIND = Short.MIN_VALUE;
+    // Far beyond any forecast, and small enough that offsets never overflow
+    private static final int MAX_OFFSET = 1 << 30;
+
+    // Ordered by spot id, so the same forecasts always make the same timeline
+    private final ConcurrentNavigableMap<Integer, Row> rows = new ConcurrentSkipListMap<>();
+    private final AtomicReference<Labels> labels = new AtomicReference<>();
+
+    /**
+     * Realigns a spot's row; an empty forecast removes the spot from the map. Passing
+     * the series the row was built from again is free.
+     *
+     * @param wgId     Windguru id of the spot
+     * @param forecast the spot's hourly forecast
+     */
+    public void update(int wgId, HourlySeries forecast) {
+        if (forecast == null || forecast.isEmpty()) {
+            rows.remove(wgId);
+            return;
+        }
+        Row current = rows.get(wgId);
+        if (current != null && current.source() == forecast) {
+            return;
+        }
+        Row row = Row.of(forecast);
+        if (row == null) {
+            rows.remove(wgId);
+        } else {
+            rows.put(wgId, row);
+        }
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * The timeline from the hour {@code start} falls in.
+     *
+     * @param start first hour of the grid
+     * @param hours most hours the grid may span
+     * @return the timeline, with spots that have nothing on the grid left out
+     */
+    public WindTimeline slice(LocalDateTime start, int hours) {
+        if (hours < 1 || rows.isEmpty()) {
+            return WindTimeline.EMPTY;
+        }
+
+        final LocalDateTime gridStart = start.truncatedTo(ChronoUnit.HOURS);
+        final long startHour = HourlySeries.toEpochHour(gridStart);
+        final List<Map.Entry<Integer, Row>> onGrid = new ArrayList<>();
+        final int[] spotsPerHour = new int[hours];
+
+        for (Map.Entry<Integer, Row> entry : rows.entrySet()) {
+            Row row = entry.getValue();
+            int from = row.indexOf(startHour);
+            boolean any = false;
+            for (int hour = Math.max(0, -from); hour < hours && from + hour < row.length(); hour++) {
+                if (row.isShown(from + hour, hour)) {
+                    spotsPerHour[hour]++;
+                    any = true;
+                }
+            }
+            if (any) {
+                onGrid.add(entry);
+            }
+        }
+
+        final int span = coveredHours(spotsPerHour, onGrid.size());
+        if (span < 1) {
+            return WindTimeline.EMPTY;
+        }
+
+        final List<WindTimeline.SpotWind> spots = new ArrayList<>(onGrid.size());
+        for (Map.Entry<Integer, Row> entry : onGrid) {
+            Row row = entry.getValue();
+            int from = row.indexOf(startHour);
+            spots.add(new WindTimeline.SpotWind(
+                    entry.getKey(),
+                    new Slice(row, row.wind(), from, span),
+                    new Slice(row, row.gusts(), from, span),
+                    new Slice(row, row.direction(), from, span)
+            ));
+        }
+
+        return new WindTimeline(labels(gridStart, startHour, span), spots);
+    }
+
+    /**
+     * How many hours of the grid are worth serving: everything up to the last hour
+     * most of the spots still have a forecast for. Zero when none of them do.
+     */
+    private static int coveredHours(int[] spotsPerHour, int spots) {
+        final double covered = spots * MIN_TAIL_COVERAGE;
+        for (int hour = spotsPerHour.length - 1; hour >= 0; hour--) {
+            if (spotsPerHour[hour] > 0 && spotsPerHour[hour] >= covered) {
+                return hour + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The hour labels from {@code gridStart}, formatted once per hour however many
+     * requests ask for them.
+     */
+    private List<String> labels(LocalDateTime gridStart, long startHour, int span) {
+        Labels current = labels.get();
+        if (current == null || current.startHour() != startHour || current.hours().size() < span) {
+            List<String> hours = new ArrayList<>(span);
+            for (int hour = 0; hour < span; hour++) {
+                hours.add(gridStart.plusHours(hour).format(TIMESTAMP_FORMATTER));
+            }
+            current = new Labels(startHour, List.copyOf(hours));
+            labels.set(current);
+        }
+        return current.hours().subList(0, span);
+    }
+
+    private record Labels(long startHour, List<String> hours) {
+    }
+
+    /**
+     * One spot's wind by absolute hour, with every sample already held forward over the
+     * hours the three-hourly part of the forecast skips.
+     *
+     * @param held for each hour, 0 when it has a sample of its own, or how many hours
+     *             back the sample it holds was made
+     */
+    private record Row(
+            HourlySeries source,
+            long firstHour,
+            short[] wind,
+            short[] gusts,
+            short[] direction,
+            byte[] held
+    ) {
+        static Row of(HourlySeries forecast) {
+            long firstHour = Long.MAX_VALUE;
+            long lastHour = Long.MIN_VALUE;
+            for (int row = 0; row < forecast.size(); row++) {
+                if (forecast.hasTime(row)) {
+                    firstHour = Math.min(firstHour, forecast.epochHour(row));
+                    lastHour = Math.max(lastHour, forecast.epochHour(row));
+                }
+            }
+            if (firstHour > lastHour) {
+                return null;
+            }
+
+            // Room after the last sample for it to be held forward into
+            int length = (int) (lastHour - firstHour) + 1 + HourlyForecastMapper.MAX_FILL_HOURS;
+            short[] wind = new short[length];
+            short[] gusts = new short[length];
+            short[] direction = new short[length];
+            byte[] held = new byte[length];
+            Arrays.fill(wind, NO_WIND);
+
+            for (int row = 0; row < forecast.size(); row++) {
+                if (!forecast.hasTime(row)) {
+                    continue;
+                }
+                int hour = (int) (forecast.epochHour(row) - firstHour);
+                wind[hour] = (short) Math.round(forecast.wind(row));
+                gusts[hour] = (short) Math.round(forecast.gusts(row));
+                direction[hour] = (short) WindTimeline.DIRECTIONS.indexOf(forecast.direction(row));
+            }
+
+            for (int hour = 1; hour < length; hour++) {
+                if (wind[hour] != NO_WIND
+                        || wind[hour - 1] == NO_WIND
+                        || held[hour - 1] >= HourlyForecastMapper.MAX_FILL_HOURS) {
+                    continue;
+                }
+                wind[hour] = wind[hour - 1];
+                gusts[hour] = gusts[hour - 1];
+                direction[hour] = direction[hour - 1];
+                held[hour] = (byte) (held[hour - 1] + 1);
+            }
+
+            return new Row(forecast, firstHour, wind, gusts, direction, held);
+        }
+
+        int length() {
+            return wind.length;
+        }
+
+        /**
+         * Index of an absolute hour in the row; negative or past the end when the row
+         * does not reach it.
+         */
+        int indexOf(long hour) {
+            return Math.clamp(hour - firstHour, -MAX_OFFSET, MAX_OFFSET);
+        }
+
+        /**
+         * Whether the hour at {@code index} shows on a grid on which it is hour
+         * {@code gridHour}: it must have wind, and a held sample must have been made
+         * on the grid too.
+         */
+        boolean isShown(int index, int gridHour) {
+            return wind[index] != NO_WIND && held[index] <= gridHour;
+        }
+    }
+
+    /**
+     * One column of a row over the grid, read in place. A missing hour reads as null,
+     * and so does a direction the cardinal list does not know (stored as -1; wind and
+     * gusts are never negative).
+     */
+    private static final class Slice extends AbstractList<Integer> implements RandomAccess {
+        private final Row row;
+        private final short[] values;
+        private final int from;
+        private final int size;
+
+        Slice(Row row, short[] values, int from, int size) {
+            this.row = row;
+            this.values = values;
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public Integer get(int hour) {
+            if (hour < 0 || hour >= size) {
+                throw new IndexOutOfBoundsException(hour);
+            }
+            int index = from + hour;
+            if (index < 0 || index >= row.length() || !row.isShown(index, hour) || values[index] < 0) {
+                return null;
+            }
+            return (int) values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class AggregatorServiceMetrics {
     private final Counter forecastFetchCounter;
     private final Counter forecastFetchSuccessCounter;
     private final Counter forecastFetchFailureCounter;
+    private final Counter forecastSpotFailureCounter;
     private final Counter conditionsFetchCounter;
     private final Counter conditionsFetchSuccessCounter;
     private final Counter conditionsFetchFailureCounter;
@@ -21,8 +22,10 @@ public class AggregatorServiceMetrics {
     private final Counter aiFetchSuccessCounter;
     private final Counter aiFetchFailureCounter;
     private final Timer forecastFetchTimer;
+    private final Timer forecastModelsFetchTimer;
     private final Timer conditionsFetchTimer;
     private final Timer aiFetchTimer;
+    private final Timer startupTimer;
     private final AtomicInteger spotsCount;
     private final AtomicInteger countriesCount;
     private final AtomicInteger liveStationsCount;
@@ -30,11 +33,15 @@ public class AggregatorServiceMetrics {
     private final AtomicInteger currentConditionsCacheSize;
     private final AtomicLong lastForecastFetchTimestamp;
     private final AtomicLong lastConditionsFetchTimestamp;
+    private final AtomicInteger liveStationRoutesCount;
+    private final AtomicInteger conditionsScheduledTasks;
+    private final AtomicInteger forecastFailingSpots;
 
     public AggregatorServiceMetrics(
             Counter forecastFetchCounter,
             Counter forecastFetchSuccessCounter,
             Counter forecastFetchFailureCounter,
+            Counter forecastSpotFailureCounter,
             Counter conditionsFetchCounter,
             Counter conditionsFetchSuccessCounter,
             Counter conditionsFetchFailureCounter,
@@ -42,18 +49,24 @@ public class AggregatorServiceMetrics {
             Counter aiFetchSuccessCounter,
             Counter aiFetchFailureCounter,
             Timer forecastFetchTimer,
+            Timer forecastModelsFetchTimer,
             Timer conditionsFetchTimer,
             Timer aiFetchTimer,
+            Timer startupTimer,
             AtomicInteger spotsCount,
             AtomicInteger countriesCount,
             AtomicInteger liveStationsCount,
             AtomicInteger forecastCacheSize,
             AtomicInteger currentConditionsCacheSize,
             AtomicLong lastForecastFetchTimestamp,
-            AtomicLong lastConditionsFetchTimestamp) {
+            AtomicLong lastConditionsFetchTimestamp,
+            AtomicInteger liveStationRoutesCount,
+            AtomicInteger conditionsScheduledTasks,
+            AtomicInteger forecastFailingSpots) {
         this.forecastFetchCounter = forecastFetchCounter;
         this.forecastFetchSuccessCounter = forecastFetchSuccessCounter;
         this.forecastFetchFailureCounter = forecastFetchFailureCounter;
+        this.forecastSpotFailureCounter = forecastSpotFailureCounter;
         this.conditionsFetchCounter = conditionsFetchCounter;
         this.conditionsFetchSuccessCounter = conditionsFetchSuccessCounter;
         this.conditionsFetchFailureCounter = conditionsFetchFailureCounter;
@@ -61,8 +74,10 @@ public class AggregatorServiceMetrics {
         this.aiFetchSuccessCounter = aiFetchSuccessCounter;
         this.aiFetchFailureCounter = aiFetchFailureCounter;
         this.forecastFetchTimer = forecastFetchTimer;
+        this.forecastModelsFetchTimer = forecastModelsFetchTimer;
         this.conditionsFetchTimer = conditionsFetchTimer;
         this.aiFetchTimer = aiFetchTimer;
+        this.startupTimer = startupTimer;
         this.spotsCount = spotsCount;
         this.countriesCount = countriesCount;
         this.liveStationsCount = liveStationsCount;
@@ -70,6 +85,9 @@ public class AggregatorServiceMetrics {
         this.currentConditionsCacheSize = currentConditionsCacheSize;
         this.lastForecastFetchTimestamp = lastForecastFetchTimestamp;
         this.lastConditionsFetchTimestamp = lastConditionsFetchTimestamp;
+        this.liveStationRoutesCount = liveStationRoutesCount;
+        this.conditionsScheduledTasks = conditionsScheduledTasks;
+        this.forecastFailingSpots = forecastFailingSpots;
     }
 
     public void incrementForecastFetchCounter() {
@@ -84,6 +102,10 @@ public class AggregatorServiceMetrics {
         forecastFetchFailureCounter.increment();
     }
 
+    public void incrementForecastSpotFailureCounter(int failures) {
+        forecastSpotFailureCounter.increment(failures);
+    }
+
     public void incrementConditionsFetchCounter() {
         conditionsFetchCounter.increment();
     }
@@ -112,6 +134,10 @@ public class AggregatorServiceMetrics {
         forecastFetchTimer.record(Duration.ofNanos(System.nanoTime() - startTimeNanos));
     }
 
+    public void recordForecastModelsFetchDuration(long startTimeNanos) {
+        forecastModelsFetchTimer.record(Duration.ofNanos(System.nanoTime() - startTimeNanos));
+    }
+
     public void recordConditionsFetchDuration(long startTimeNanos) {
         conditionsFetchTimer.record(Duration.ofNanos(System.nanoTime() - startTimeNanos));
     }
@@ -120,6 +146,10 @@ public class AggregatorServiceMetrics {
         aiFetchTimer.record(Duration.ofNanos(System.nanoTime() - startTimeNanos));
     }
 
+    public void recordStartupDuration(long startTimeNanos) {
+        startupTimer.record(Duration.ofNanos(System.nanoTime() - startTimeNanos));
+    }
+
     public void updateLastForecastFetchTimestamp() {
         lastForecastFetchTimestamp.set(System.currentTimeMillis());
     }
@@ -128,6 +158,18 @@ public class AggregatorServiceMetrics {
         lastConditionsFetchTimestamp.set(System.currentTimeMillis());
     }
 
+    public void updateLiveStationRoutes(int routes) {
+        liveStationRoutesCount.set(routes);
+    }
+
+    public void updateConditionsScheduledTasks(int tasks) {
+        conditionsScheduledTasks.set(tasks);
+    }
+
+    public void updateForecastFailingSpots(int spots) {
+        forecastFailingSpots.set(spots);
+    }
+
     public void updateGauges(int spots, int countries, int liveStations, int forecastCache, int conditionsCache) {
         spotsCount.set(spots);
         countriesCount.set(countries);
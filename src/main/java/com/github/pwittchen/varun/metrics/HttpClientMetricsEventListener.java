@@ -12,6 +12,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
@@ -122,6 +123,16 @@ public class HttpClientMetricsEventListener extends EventListener {
         registry.counter("varun.http.client.responses",
                 "status", String.valueOf(response.code()),
                 "host", extractHost(call.request())).increment();
+        if (isConditional(call.request())) {
+            registry.counter(response.code() == HttpURLConnection.HTTP_NOT_MODIFIED
+                            ? "varun.http.client.conditional.hits"
+                            : "varun.http.client.conditional.misses",
+                    "host", extractHost(call.request())).increment();
+        }
+    }
+
+    private boolean isConditional(Request request) {
+        return request.header("If-None-Match") != null || request.header("If-Modified-Since") != null;
     }
 
     private String extractHost(Request request) {
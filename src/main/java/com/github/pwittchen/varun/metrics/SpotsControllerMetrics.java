@@ -11,6 +11,11 @@ public class SpotsControllerMetrics {
     private final Counter apiSpotByIdRequestCounter;
     private final Counter apiWindRequestCounter;
     private final Counter apiForecastRequestCounter;
+    private final Counter apiHistoryRequestCounter;
+    private final Counter apiArchiveRequestCounter;
+    private final Counter apiUpdatesRequestCounter;
+    private final Counter apiChangesRequestCounter;
+    private final Counter apiChangesResetCounter;
 
     public SpotsControllerMetrics(MeterRegistry registry) {
         this.apiSpotsRequestCounter = Counter
@@ -29,6 +34,26 @@ public class SpotsControllerMetrics {
                 .builder("varun.api.forecast.requests")
                 .description("Number of requests to /api/v1/forecast/{wgId} endpoint")
                 .register(registry);
+        this.apiHistoryRequestCounter = Counter
+                .builder("varun.api.history.requests")
+                .description("Number of requests to /api/v1/history/{wgId} endpoint")
+                .register(registry);
+        this.apiArchiveRequestCounter = Counter
+                .builder("varun.api.archive.requests")
+                .description("Number of requests to /api/v1/history/{wgId}/archive endpoint")
+                .register(registry);
+        this.apiUpdatesRequestCounter = Counter
+                .builder("varun.api.updates.requests")
+                .description("Number of subscriptions to /api/v1/updates endpoint")
+                .register(registry);
+        this.apiChangesRequestCounter = Counter
+                .builder("varun.api.changes.requests")
+                .description("Number of requests to /api/v1/spots/changes endpoint")
+                .register(registry);
+        this.apiChangesResetCounter = Counter
+                .builder("varun.api.changes.resets")
+                .description("Requests to /api/v1/spots/changes answered with every spot")
+                .register(registry);
     }
 
     public void incrementSpotsRequestCounter() {
@@ -46,4 +71,23 @@ public class SpotsControllerMetrics {
     public void incrementForecastRequestCounter() {
         apiForecastRequestCounter.increment();
     }
+
+    public void incrementHistoryRequestCounter() {
+        apiHistoryRequestCounter.increment();
+    }
+
+    public void incrementArchiveRequestCounter() {
+        apiArchiveRequestCounter.increment();
+    }
+
+    public void incrementUpdatesRequestCounter() {
+        apiUpdatesRequestCounter.increment();
+    }
+
+    public void incrementChangesRequestCounter(boolean reset) {
+        apiChangesRequestCounter.increment();
+        if (reset) {
+            apiChangesResetCounter.increment();
+        }
+    }
 }
\ No newline at end of file
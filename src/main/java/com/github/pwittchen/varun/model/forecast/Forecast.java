@@ -1,5 +1,10 @@
 package com.github.pwittchen.varun.model.forecast;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * @param spread how far the models disagree, for an hour averaged across models; null otherwise
+ */
 public record Forecast(
         String date,
         double wind,
@@ -11,11 +16,20 @@ public record Forecast(
         double pressureHpa,
         Double wave,
         Double wavePeriod,
-        String waveDirection
+        String waveDirection,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        ForecastSpread spread
 ) {
     public Forecast(String date, double wind, double gusts, String direction,
                     double temp, double precipitation, double cloudCoverPercent, double pressureHpa) {
         this(date, wind, gusts, direction, temp, precipitation, cloudCoverPercent, pressureHpa,
              null, null, null);
     }
+
+    public Forecast(String date, double wind, double gusts, String direction,
+                    double temp, double precipitation, double cloudCoverPercent, double pressureHpa,
+                    Double wave, Double wavePeriod, String waveDirection) {
+        this(date, wind, gusts, direction, temp, precipitation, cloudCoverPercent, pressureHpa,
+             wave, wavePeriod, waveDirection, null);
+    }
 }
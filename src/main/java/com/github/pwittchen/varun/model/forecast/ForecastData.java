@@ -1,20 +1,83 @@
 package com.github.pwittchen.varun.model.forecast;
 
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 // all models are documented here: https://micro.windguru.cz/help.php
 
-public record ForecastData(
-        List<Forecast> daily,
-        Map<ForecastModel, List<Forecast>> hourly
-) {
-    public ForecastData {
-        daily = daily == null ? List.of() : List.copyOf(daily);
-        hourly = hourly == null ? Map.of() : Map.copyOf(hourly);
+/**
+ * A spot's daily forecast and the hourly forecast of every model fetched for it.
+ *
+ * The hourly forecasts are held as {@link HourlySeries}, which is what the forecast cache
+ * keeps for every spot and model; {@link #hourly(ForecastModel)} turns one of them into
+ * {@link Forecast} records for the API.
+ */
+public final class ForecastData {
+    private final List<Forecast> daily;
+    private final Map<ForecastModel, HourlySeries> series;
+
+    public ForecastData(List<Forecast> daily, Map<ForecastModel, List<Forecast>> hourly) {
+        this(daily, toSeries(hourly));
+    }
+
+    private ForecastData(List<Forecast> daily, EnumMap<ForecastModel, HourlySeries> series) {
+        this.daily = daily == null ? List.of() : List.copyOf(daily);
+        this.series = Collections.unmodifiableMap(series);
+    }
+
+    public static ForecastData ofSeries(List<Forecast> daily, Map<ForecastModel, HourlySeries> series) {
+        EnumMap<ForecastModel, HourlySeries> copy = new EnumMap<>(ForecastModel.class);
+        if (series != null) {
+            copy.putAll(series);
+        }
+        return new ForecastData(daily, copy);
     }
 
+    public List<Forecast> daily() {
+        return daily;
+    }
+
+    /**
+     * Every model's hourly forecast, in the order of {@link ForecastModel}.
+     */
+    public Map<ForecastModel, HourlySeries> series() {
+        return series;
+    }
+
+    public HourlySeries series(ForecastModel model) {
+        return series.getOrDefault(model, HourlySeries.EMPTY);
+    }
+
+    /**
+     * The model's hourly forecast as records, built anew on every call.
+     */
     public List<Forecast> hourly(ForecastModel model) {
-        return hourly.getOrDefault(model, List.of());
+        return series(model).toForecasts();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof ForecastData other && daily.equals(other.daily) && series.equals(other.series));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(daily, series);
+    }
+
+    @Override
+    public String toString() {
+        return "ForecastData[daily=" + daily + ", series=" + series + "]";
+    }
+
+    private static EnumMap<ForecastModel, HourlySeries> toSeries(Map<ForecastModel, List<Forecast>> hourly) {
+        EnumMap<ForecastModel, HourlySeries> series = new EnumMap<>(ForecastModel.class);
+        if (hourly != null) {
+            hourly.forEach((model, forecasts) -> series.put(model, HourlySeries.of(forecasts)));
+        }
+        return series;
     }
 }
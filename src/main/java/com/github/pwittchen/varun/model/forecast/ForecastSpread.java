@@ -0,0 +1,24 @@
+package com.github.pwittchen.varun.model.forecast;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * How far the models behind an averaged forecast hour disagree: the lowest and highest
+ * value any of them has for the hour, and how many models there were.
+ */
+public record ForecastSpread(
+        int models,
+        double windMin,
+        double windMax,
+        double gustsMin,
+        double gustsMax,
+        double tempMin,
+        double tempMax,
+        double precipitationMin,
+        double precipitationMax,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Double waveMin,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Double waveMax
+) {
+}
@@ -0,0 +1,561 @@
+package com.github.pwittchen.varun.model.forecast;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * One model's hourly forecast for one spot, stored column by column in primitive arrays.
+ *
+ * Every opened spot keeps the hourly forecast of up to forty models in the cache, and as
+ * {@link Forecast} records each hour cost a record, a formatted date String and two boxed
+ * wave values - about 180 bytes, where the numbers themselves fit in twenty. Here the
+ * hours are offsets from the first one, the values are tenths in shorts and directions
+ * are indices into {@link WindTimeline#DIRECTIONS}. {@link Forecast}s are materialized
+ * only when a forecast leaves through the API.
+ *
+ * Everything the forecasts are made of survives the round trip: the Windguru values are
+ * whole numbers or tenths, and the ICM ones are rounded to tenths when they are read off
+ * the chart. A date that is not a whole hour in the format Forecast.date uses (which
+ * Windguru labels the mapper cannot resolve are passed through as) is kept as text, and
+ * a direction that is not one of the eight compass points in a table of the series' own.
+ * A value that does not fit a short in tenths is rejected rather than cut down.
+ *
+ * A series is immutable once built and safe to share between threads.
+ */
+public final class HourlySeries {
+
+    public static final HourlySeries EMPTY = builder(0).build();
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE dd MMM yyyy HH:mm", Locale.ENGLISH);
+    private static final double SCALE = 10.0;
+    // Wave values Windguru had no data for
+    private static final short MISSING = Short.MIN_VALUE;
+    private static final byte NO_DIRECTION = -1;
+    private static final byte BLANK_DIRECTION = -2;
+    // Names outside the compass points take the indices from here down, one per name
+    private static final byte OTHER_DIRECTION = -3;
+    static final int MAX_OTHER_DIRECTIONS = OTHER_DIRECTION - Byte.MIN_VALUE + 1;
+
+    // Hours since 1970-01-01T00:00 in the local time the dates are written in
+    private final long startHour;
+    private final short[] hourOffsets;
+    // Null unless a row has a date that is not a whole hour; then the text of those rows
+    private final String[] dates;
+    // Null unless a row has a direction that is not a compass point; then those names
+    private final String[] otherDirections;
+    private final short[] wind;
+    private final short[] gusts;
+    private final byte[] direction;
+    private final short[] temperature;
+    private final short[] precipitation;
+    private final short[] cloudCover;
+    private final short[] pressure;
+    private final short[] waveHeight;
+    private final short[] wavePeriod;
+    private final byte[] waveDirection;
+    private final int size;
+
+    private HourlySeries(Builder builder) {
+        this.size = builder.size;
+        this.startHour = builder.startHour;
+        this.hourOffsets = Arrays.copyOf(builder.hourOffsets, size);
+        this.dates = builder.dates == null ? null : Arrays.copyOf(builder.dates, size);
+        this.otherDirections = builder.otherDirections == null ? null : builder.otherDirections.toArray(String[]::new);
+        this.wind = Arrays.copyOf(builder.wind, size);
+        this.gusts = Arrays.copyOf(builder.gusts, size);
+        this.direction = Arrays.copyOf(builder.direction, size);
+        this.temperature = Arrays.copyOf(builder.temperature, size);
+        this.precipitation = Arrays.copyOf(builder.precipitation, size);
+        this.cloudCover = Arrays.copyOf(builder.cloudCover, size);
+        this.pressure = Arrays.copyOf(builder.pressure, size);
+        this.waveHeight = Arrays.copyOf(builder.waveHeight, size);
+        this.wavePeriod = Arrays.copyOf(builder.wavePeriod, size);
+        this.waveDirection = Arrays.copyOf(builder.waveDirection, size);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public static HourlySeries of(List<Forecast> forecasts) {
+        if (forecasts == null || forecasts.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = builder(forecasts.size());
+        forecasts.forEach(builder::add);
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return false for a row whose date is kept as text
+     */
+    public boolean hasTime(int row) {
+        return dates == null || dates[row] == null;
+    }
+
+    /**
+     * @return the hour of the row, or null when its date is kept as text
+     */
+    public LocalDateTime time(int row) {
+        if (!hasTime(row)) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(epochHour(row) * 3600, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * The hour of the row counted from 1970-01-01T00:00 in local time, for lining rows
+     * up without building dates; meaningless for a row whose date is kept as text.
+     */
+    public long epochHour(int row) {
+        return startHour + hourOffsets[row];
+    }
+
+    /**
+     * The local hour {@code time} falls in, counted the way {@link #epochHour(int)} is.
+     */
+    public static long toEpochHour(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    /**
+     * The date as {@link Forecast#date()} carries it.
+     */
+    public String date(int row) {
+        return hasTime(row) ? time(row).format(DATE_FORMATTER) : dates[row];
+    }
+
+    public double wind(int row) {
+        return wind[row] / SCALE;
+    }
+
+    public double gusts(int row) {
+        return gusts[row] / SCALE;
+    }
+
+    public String direction(int row) {
+        return toDirection(direction[row]);
+    }
+
+    public double temperature(int row) {
+        return temperature[row] / SCALE;
+    }
+
+    public double precipitation(int row) {
+        return precipitation[row] / SCALE;
+    }
+
+    public double cloudCover(int row) {
+        return cloudCover[row] / SCALE;
+    }
+
+    public double pressure(int row) {
+        return pressure[row] / SCALE;
+    }
+
+    /**
+     * @return the wave height, or null when there is no wave forecast for the hour
+     */
+    public Double waveHeight(int row) {
+        return toNullable(waveHeight[row]);
+    }
+
+    public Double wavePeriod(int row) {
+        return toNullable(wavePeriod[row]);
+    }
+
+    public String waveDirection(int row) {
+        return toDirection(waveDirection[row]);
+    }
+
+    /**
+     * @return the wind direction as an index into {@link WindTimeline#DIRECTIONS}, or -1
+     * when the row has none or one that is not a compass point
+     */
+    public int directionIndex(int row) {
+        return Math.max(direction[row], -1);
+    }
+
+    /**
+     * The wave height without boxing it, for going over many rows.
+     *
+     * @return the wave height, or NaN when there is no wave forecast for the hour
+     */
+    public double waveHeightOrNaN(int row) {
+        return waveHeight[row] == MISSING ? Double.NaN : waveHeight[row] / SCALE;
+    }
+
+    public double wavePeriodOrNaN(int row) {
+        return wavePeriod[row] == MISSING ? Double.NaN : wavePeriod[row] / SCALE;
+    }
+
+    public int waveDirectionIndex(int row) {
+        return Math.max(waveDirection[row], -1);
+    }
+
+    public Forecast forecast(int row) {
+        return new Forecast(
+                date(row),
+                wind(row),
+                gusts(row),
+                direction(row),
+                temperature(row),
+                precipitation(row),
+                cloudCover(row),
+                pressure(row),
+                waveHeight(row),
+                wavePeriod(row),
+                waveDirection(row)
+        );
+    }
+
+    /**
+     * The rows as records, for the API. Each call builds them anew, so a caller that
+     * holds on to the list holds on to its own copy.
+     */
+    public List<Forecast> toForecasts() {
+        List<Forecast> forecasts = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            forecasts.add(forecast(row));
+        }
+        return forecasts;
+    }
+
+    /**
+     * Writes the columns as they are held, so that {@link #readFrom(DataInput)} gets the
+     * series back without a date parse or a record per hour.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        if (size == 0) {
+            return;
+        }
+        out.writeLong(startHour);
+        for (short[] column : List.of(hourOffsets, wind, gusts, temperature, precipitation,
+                cloudCover, pressure, waveHeight, wavePeriod)) {
+            for (int row = 0; row < size; row++) {
+                out.writeShort(column[row]);
+            }
+        }
+        out.write(direction, 0, size);
+        out.write(waveDirection, 0, size);
+        out.writeBoolean(dates != null);
+        if (dates != null) {
+            for (int row = 0; row < size; row++) {
+                out.writeBoolean(dates[row] != null);
+                if (dates[row] != null) {
+                    out.writeUTF(dates[row]);
+                }
+            }
+        }
+        out.writeByte(otherDirections == null ? 0 : otherDirections.length);
+        if (otherDirections != null) {
+            for (String name : otherDirections) {
+                out.writeUTF(name);
+            }
+        }
+    }
+
+    /**
+     * Reads a series written by {@link #writeTo(DataOutput)}.
+     */
+    public static HourlySeries readFrom(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Negative hourly series size " + size);
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        Builder builder = builder(size);
+        builder.startHour = in.readLong();
+        builder.started = true;
+        for (short[] column : List.of(builder.hourOffsets, builder.wind, builder.gusts, builder.temperature,
+                builder.precipitation, builder.cloudCover, builder.pressure, builder.waveHeight, builder.wavePeriod)) {
+            for (int row = 0; row < size; row++) {
+                column[row] = in.readShort();
+            }
+        }
+        in.readFully(builder.direction, 0, size);
+        in.readFully(builder.waveDirection, 0, size);
+        if (in.readBoolean()) {
+            builder.dates = new String[size];
+            for (int row = 0; row < size; row++) {
+                builder.dates[row] = in.readBoolean() ? in.readUTF() : null;
+            }
+        }
+        int otherDirections = in.readUnsignedByte();
+        if (otherDirections > 0) {
+            builder.otherDirections = new ArrayList<>(otherDirections);
+            for (int i = 0; i < otherDirections; i++) {
+                builder.otherDirections.add(in.readUTF());
+            }
+        }
+        builder.size = size;
+        return builder.build();
+    }
+
+    /**
+     * Compares the columns as they are held, without building a record per row. Rows
+     * are equal when they have the same hour (or the same text, for a date kept as
+     * text) and the same values, which is when their {@link Forecast}s are equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HourlySeries other) || size != other.size) {
+            return false;
+        }
+        for (int row = 0; row < size; row++) {
+            if (hasTime(row) != other.hasTime(row)) {
+                return false;
+            }
+            if (hasTime(row) ? epochHour(row) != other.epochHour(row) : !dates[row].equals(other.dates[row])) {
+                return false;
+            }
+        }
+        return Arrays.equals(wind, other.wind)
+                && Arrays.equals(gusts, other.gusts)
+                && Arrays.equals(direction, other.direction)
+                && Arrays.equals(temperature, other.temperature)
+                && Arrays.equals(precipitation, other.precipitation)
+                && Arrays.equals(cloudCover, other.cloudCover)
+                && Arrays.equals(pressure, other.pressure)
+                && Arrays.equals(waveHeight, other.waveHeight)
+                && Arrays.equals(wavePeriod, other.wavePeriod)
+                && Arrays.equals(waveDirection, other.waveDirection)
+                && Arrays.equals(otherDirections, other.otherDirections);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for (int row = 0; row < size; row++) {
+            hash = 31 * hash + (hasTime(row) ? Long.hashCode(epochHour(row)) : dates[row].hashCode());
+        }
+        return 31 * hash + Objects.hash(
+                Arrays.hashCode(wind),
+                Arrays.hashCode(gusts),
+                Arrays.hashCode(direction),
+                Arrays.hashCode(temperature),
+                Arrays.hashCode(precipitation),
+                Arrays.hashCode(cloudCover),
+                Arrays.hashCode(pressure),
+                Arrays.hashCode(waveHeight),
+                Arrays.hashCode(wavePeriod),
+                Arrays.hashCode(waveDirection),
+                Arrays.hashCode(otherDirections));
+    }
+
+    @Override
+    public String toString() {
+        return "HourlySeries[size=" + size + (size > 0 ? ", from=" + date(0) + ", to=" + date(size - 1) : "") + "]";
+    }
+
+    private static Double toNullable(short value) {
+        return value == MISSING ? null : value / SCALE;
+    }
+
+    private String toDirection(byte index) {
+        return switch (index) {
+            case NO_DIRECTION -> null;
+            case BLANK_DIRECTION -> "";
+            default -> index >= 0 ? WindTimeline.DIRECTIONS.get(index) : otherDirections[OTHER_DIRECTION - index];
+        };
+    }
+
+    public static final class Builder {
+        private long startHour;
+        private boolean started;
+        private short[] hourOffsets;
+        private String[] dates;
+        private List<String> otherDirections;
+        private short[] wind;
+        private short[] gusts;
+        private byte[] direction;
+        private short[] temperature;
+        private short[] precipitation;
+        private short[] cloudCover;
+        private short[] pressure;
+        private short[] waveHeight;
+        private short[] wavePeriod;
+        private byte[] waveDirection;
+        private int size;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            hourOffsets = new short[capacity];
+            wind = new short[capacity];
+            gusts = new short[capacity];
+            direction = new byte[capacity];
+            temperature = new short[capacity];
+            precipitation = new short[capacity];
+            cloudCover = new short[capacity];
+            pressure = new short[capacity];
+            waveHeight = new short[capacity];
+            wavePeriod = new short[capacity];
+            waveDirection = new byte[capacity];
+        }
+
+        /**
+         * Appends a row given as a record, reading its hour back from the date.
+         */
+        public Builder add(Forecast forecast) {
+            LocalDateTime time = parseDate(forecast.date());
+            return add(time, time == null ? forecast.date() : null, forecast.wind(), forecast.gusts(),
+                    forecast.direction(), forecast.temp(), forecast.precipitation(), forecast.cloudCoverPercent(),
+                    forecast.pressureHpa(), forecast.wave(), forecast.wavePeriod(), forecast.waveDirection());
+        }
+
+        /**
+         * Appends a row for the given hour; minutes and seconds must be zero.
+         */
+        public Builder add(LocalDateTime time, double wind, double gusts, String direction, double temperature,
+                           double precipitation, double cloudCover, double pressure,
+                           Double waveHeight, Double wavePeriod, String waveDirection) {
+            LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+            return add(hour.equals(time) ? hour : null, hour.equals(time) ? null : time.format(DATE_FORMATTER),
+                    wind, gusts, direction, temperature, precipitation, cloudCover, pressure,
+                    waveHeight, wavePeriod, waveDirection);
+        }
+
+        /**
+         * Appends a row whose date is kept as the given text.
+         */
+        public Builder add(String date, double wind, double gusts, String direction, double temperature,
+                           double precipitation, double cloudCover, double pressure,
+                           Double waveHeight, Double wavePeriod, String waveDirection) {
+            return add(null, date, wind, gusts, direction, temperature, precipitation, cloudCover, pressure,
+                    waveHeight, wavePeriod, waveDirection);
+        }
+
+        public HourlySeries build() {
+            return new HourlySeries(this);
+        }
+
+        private Builder add(LocalDateTime time, String date, double wind, double gusts, String direction,
+                            double temperature, double precipitation, double cloudCover, double pressure,
+                            Double waveHeight, Double wavePeriod, String waveDirection) {
+            if (size == this.wind.length) {
+                grow();
+            }
+            if (time != null) {
+                long hour = toEpochHour(time);
+                if (!started) {
+                    startHour = hour;
+                    started = true;
+                }
+                long offset = hour - startHour;
+                if (offset >= Short.MIN_VALUE && offset <= Short.MAX_VALUE) {
+                    hourOffsets[size] = (short) offset;
+                } else {
+                    date = time.format(DATE_FORMATTER);
+                }
+            }
+            if (date != null) {
+                if (dates == null) {
+                    dates = new String[this.wind.length];
+                }
+                dates[size] = date;
+            }
+            this.wind[size] = toTenths(wind);
+            this.gusts[size] = toTenths(gusts);
+            this.direction[size] = toIndex(direction);
+            this.temperature[size] = toTenths(temperature);
+            this.precipitation[size] = toTenths(precipitation);
+            this.cloudCover[size] = toTenths(cloudCover);
+            this.pressure[size] = toTenths(pressure);
+            this.waveHeight[size] = waveHeight == null ? MISSING : toTenths(waveHeight);
+            this.wavePeriod[size] = wavePeriod == null ? MISSING : toTenths(wavePeriod);
+            this.waveDirection[size] = toIndex(waveDirection);
+            size++;
+            return this;
+        }
+
+        private void grow() {
+            int capacity = wind.length * 2;
+            hourOffsets = Arrays.copyOf(hourOffsets, capacity);
+            if (dates != null) {
+                dates = Arrays.copyOf(dates, capacity);
+            }
+            wind = Arrays.copyOf(wind, capacity);
+            gusts = Arrays.copyOf(gusts, capacity);
+            direction = Arrays.copyOf(direction, capacity);
+            temperature = Arrays.copyOf(temperature, capacity);
+            precipitation = Arrays.copyOf(precipitation, capacity);
+            cloudCover = Arrays.copyOf(cloudCover, capacity);
+            pressure = Arrays.copyOf(pressure, capacity);
+            waveHeight = Arrays.copyOf(waveHeight, capacity);
+            wavePeriod = Arrays.copyOf(wavePeriod, capacity);
+            waveDirection = Arrays.copyOf(waveDirection, capacity);
+        }
+
+        private static LocalDateTime parseDate(String date) {
+            if (date == null) {
+                return null;
+            }
+            try {
+                LocalDateTime time = LocalDateTime.parse(date, DATE_FORMATTER);
+                // Only a whole hour that formats back to the same text can be stored as an hour
+                return time.getMinute() == 0 && time.format(DATE_FORMATTER).equals(date) ? time : null;
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        // Short.MIN_VALUE marks a missing wave value, so the range starts one above it
+        private static short toTenths(double value) {
+            long tenths = Math.round(value * SCALE);
+            if (tenths <= Short.MIN_VALUE || tenths > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Forecast value " + value + " does not fit an hourly series");
+            }
+            return (short) tenths;
+        }
+
+        private byte toIndex(String direction) {
+            if (direction == null) {
+                return NO_DIRECTION;
+            }
+            if (direction.isEmpty()) {
+                return BLANK_DIRECTION;
+            }
+            int index = WindTimeline.DIRECTIONS.indexOf(direction);
+            if (index >= 0) {
+                return (byte) index;
+            }
+            if (otherDirections == null) {
+                otherDirections = new ArrayList<>();
+            }
+            int other = otherDirections.indexOf(direction);
+            if (other < 0) {
+                if (otherDirections.size() == MAX_OTHER_DIRECTIONS) {
+                    throw new IllegalArgumentException("Too many directions that are not compass points: " + direction);
+                }
+                otherDirections.add(direction);
+                other = otherDirections.size() - 1;
+            }
+            return (byte) (OTHER_DIRECTION - other);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.pwittchen.varun.model.live;
+
+import java.util.List;
+
+/**
+ * A spot's live readings over a stretch of time, gathered into buckets of a fixed
+ * number of minutes.
+ *
+ * A station reads every minute or so, and twelve hours of that is more than a chart
+ * has pixels for. A bucket stands in for the readings taken within it: the average
+ * that is drawn, and the lowest and highest reading, so a squall in between is not
+ * averaged away. Buckets no reading fell into are absent rather than zeroed.
+ *
+ * Dates are the stations' own local time, like {@link CurrentConditions#date()}.
+ *
+ * @param wgId              Windguru id of the spot
+ * @param resolutionMinutes how many minutes every bucket covers
+ * @param buckets           the buckets holding any readings, oldest first
+ */
+public record ConditionsHistory(
+        int wgId,
+        int resolutionMinutes,
+        List<Bucket> buckets
+) {
+    public ConditionsHistory {
+        buckets = buckets == null ? List.of() : List.copyOf(buckets);
+    }
+
+    /**
+     * The readings taken within one bucket.
+     *
+     * @param date      when the bucket starts, as "yyyy-MM-dd HH:mm"
+     * @param readings  how many readings fell into it
+     * @param wind      average wind speed in knots
+     * @param gusts     average gust speed in knots
+     * @param direction average wind direction, or null when no reading had one
+     * @param temp      average temperature in °C
+     */
+    public record Bucket(
+            String date,
+            int readings,
+            double wind,
+            int windMin,
+            int windMax,
+            double gusts,
+            int gustsMin,
+            int gustsMax,
+            String direction,
+            double temp,
+            int tempMin,
+            int tempMax
+    ) {
+    }
+}
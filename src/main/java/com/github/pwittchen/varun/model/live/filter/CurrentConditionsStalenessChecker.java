@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.model.live.filter;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import org.jspecify.annotations.Nullable;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
@@ -21,11 +22,7 @@ public final class CurrentConditionsStalenessChecker {
     }
 
     public static boolean isStale(CurrentConditions conditions, Clock clock) {
-        if (conditions == null || conditions.date() == null || conditions.date().isBlank()) {
-            return true;
-        }
-
-        LocalDateTime readingTime = parse(conditions.date().trim());
+        LocalDateTime readingTime = conditions == null ? null : readingTime(conditions.date());
         if (readingTime == null) {
             return true;
         }
@@ -35,10 +32,17 @@ public final class CurrentConditionsStalenessChecker {
         return hoursAge >= 24;
     }
 
-    private static LocalDateTime parse(String date) {
+    /**
+     * When the station took the reading, in the station's own local time, or null when
+     * the date is missing or in none of the formats the stations use.
+     */
+    public static @Nullable LocalDateTime readingTime(@Nullable String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
         for (DateTimeFormatter formatter : FORMATTERS) {
             try {
-                return LocalDateTime.parse(date, formatter);
+                return LocalDateTime.parse(date.trim(), formatter);
             } catch (Exception ignored) {
             }
         }
@@ -491,6 +491,32 @@ public record Spot(
         );
     }
 
+    public Spot withLastUpdated(String lastUpdated) {
+        return new Spot(
+                this.name,
+                this.country,
+                this.windguruUrl,
+                this.windguruFallbackUrl,
+                this.windfinderUrl,
+                this.icmUrl,
+                this.webcamUrl,
+                this.locationUrl,
+                this.currentConditions,
+                this.currentConditionsHistory,
+                this.forecast,
+                this.forecastHourly,
+                this.aiAnalysisEn,
+                this.aiAnalysisPl,
+                this.spotPhotoUrl,
+                this.coordinates,
+                this.spotInfo,
+                this.spotInfoPL,
+                this.sponsors,
+                this.availableModels,
+                lastUpdated
+        );
+    }
+
     private static String currentTimestamp() {
         return ZonedDateTime.now().format(TIMESTAMP_FORMATTER);
     }
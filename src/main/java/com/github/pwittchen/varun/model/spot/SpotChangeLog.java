@@ -0,0 +1,106 @@
+package com.github.pwittchen.varun.model.spot;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Which spots changed with each new {@link SpotsSnapshot}, so that a client holding
+ * the spot list as of some version can be sent only the spots that changed since.
+ *
+ * Every snapshot's summaries are compared with the previous ones spot by spot, which
+ * catches a change however it came about (a fetch cycle, a single spot's coordinates,
+ * an AI analysis) without every writer having to report it. A snapshot that changed
+ * nothing does not move the version. {@code lastUpdated} is left out of the
+ * comparison, being stamped anew whenever a spot with a live station is enriched.
+ *
+ * Versions count up from the time the log was created in milliseconds, so the
+ * versions of an instance that took over in a blue/green deploy are past those of
+ * the one it replaced, and a client still holding one of those is told to reset
+ * rather than being sent the wrong changes. The log reaches back
+ * {@link #MAX_ENTRIES} changes; a client further behind is told to reset too.
+ */
+public final class SpotChangeLog {
+
+    // Four hours of conditions cycles, which change something every minute
+    static final int MAX_ENTRIES = 240;
+
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private Map<Integer, Spot> latest = Map.of();
+    private long version;
+    // The version the oldest entry was a change from, the oldest one a client can be behind at
+    private long baseVersion;
+
+    public SpotChangeLog(long initialVersion) {
+        this.version = initialVersion;
+        this.baseVersion = initialVersion;
+    }
+
+    /**
+     * Records the spots that differ from the ones last recorded.
+     *
+     * @param summaries every spot, as the spot list serves them
+     */
+    public synchronized void record(List<Spot> summaries) {
+        Map<Integer, Spot> current = new HashMap<>(summaries.size() * 2);
+        Set<Integer> changed = new LinkedHashSet<>();
+        for (Spot spot : summaries) {
+            current.put(spot.wgId(), spot);
+            Spot previous = latest.get(spot.wgId());
+            if (previous == null || !previous.withLastUpdated(spot.lastUpdated()).equals(spot)) {
+                changed.add(spot.wgId());
+            }
+        }
+        Set<Integer> removed = new LinkedHashSet<>(latest.keySet());
+        removed.removeAll(current.keySet());
+        latest = current;
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        entries.addLast(new Entry(++version, Set.copyOf(changed), Set.copyOf(removed)));
+        if (entries.size() > MAX_ENTRIES) {
+            baseVersion = entries.removeFirst().version();
+        }
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * The spots changed and removed after {@code since}, or empty when the log does
+     * not reach back that far or never had that version.
+     */
+    public synchronized Optional<Delta> since(long since) {
+        if (since < baseVersion || since > version) {
+            return Optional.empty();
+        }
+        Set<Integer> changed = new LinkedHashSet<>();
+        Set<Integer> removed = new LinkedHashSet<>();
+        for (Entry entry : entries) {
+            if (entry.version() <= since) {
+                continue;
+            }
+            changed.removeAll(entry.removed());
+            changed.addAll(entry.changed());
+            removed.removeAll(entry.changed());
+            removed.addAll(entry.removed());
+        }
+        return Optional.of(new Delta(version, changed, removed));
+    }
+
+    /**
+     * @param version the version the changes bring a client to
+     * @param changed Windguru ids of the spots changed or added
+     * @param removed Windguru ids of the spots no longer served
+     */
+    public record Delta(long version, Set<Integer> changed, Set<Integer> removed) {
+    }
+
+    private record Entry(long version, Set<Integer> changed, Set<Integer> removed) {
+    }
+}
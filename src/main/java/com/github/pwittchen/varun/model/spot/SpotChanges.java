@@ -0,0 +1,28 @@
+package com.github.pwittchen.varun.model.spot;
+
+import java.util.List;
+
+/**
+ * What a client refreshing the spot list has to apply to the one it holds.
+ *
+ * Normally only the spots that changed since the version the client sent, as the
+ * spot list serves them, and the ids of the spots no longer served. When the client
+ * is too far behind, or holds a version this instance never had, {@code reset} is
+ * set and {@code spots} is the whole list to replace its own with.
+ *
+ * @param version version to send next time
+ * @param reset   whether {@code spots} is every spot rather than the changed ones
+ * @param spots   the spots changed or added, or every spot on a reset
+ * @param removed Windguru ids of the spots no longer served, empty on a reset
+ */
+public record SpotChanges(
+        long version,
+        boolean reset,
+        List<Spot> spots,
+        List<Integer> removed
+) {
+    public SpotChanges {
+        spots = spots == null ? List.of() : List.copyOf(spots);
+        removed = removed == null ? List.of() : List.copyOf(removed);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.pwittchen.varun.model.spot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The part of a spot a client asked for: a set of its fields, and one language of the
+ * ones it carries in both English and Polish.
+ *
+ * A spot holds the spot info and the AI analysis in both languages, along with links,
+ * sponsors and forecasts, while a client showing a list in one language reads a
+ * fraction of that. With a language, {@code spotInfo} is the spot info in it and
+ * {@code aiAnalysis} the analysis in it, and the other language's copies are left out.
+ * With fields, only those are written.
+ *
+ * Fields are named as a whole spot's JSON has them, plus {@code aiAnalysis}. They are
+ * put in one order whatever order they were asked in, so every way of asking for the
+ * same projection gives the same {@link #key()} and shares a prepared response.
+ *
+ * @param fields the fields to write, in {@link #FIELDS} order, or empty for all of them
+ * @param lang   "en" or "pl", or null for both languages
+ */
+public record SpotProjection(List<String> fields, @Nullable String lang) {
+
+    public static final SpotProjection NONE = new SpotProjection(List.of(), null);
+
+    static final String AI_ANALYSIS = "aiAnalysis";
+    static final Set<String> LANGUAGES = Set.of("en", "pl");
+    // wgId is derived rather than a component, and aiAnalysis only written with a language
+    static final List<String> FIELDS = Stream
+            .concat(
+                    Stream.of("wgId", AI_ANALYSIS),
+                    Arrays.stream(Spot.class.getRecordComponents()).map(RecordComponent::getName))
+            .toList();
+
+    public SpotProjection {
+        fields = fields == null ? List.of() : List.copyOf(fields);
+    }
+
+    /**
+     * Parses the {@code fields} and {@code lang} request parameters, or empty when a
+     * field is not one a spot has, the language is not one it is written in, or
+     * {@code aiAnalysis} is asked for without a language (it is only written in one).
+     *
+     * @param fields comma-separated field names, or null for all of them
+     * @param lang   language code, or null for both languages
+     */
+    public static Optional<SpotProjection> parse(@Nullable String fields, @Nullable String lang) {
+        String language = lang == null || lang.isBlank() ? null : lang.trim().toLowerCase(Locale.ROOT);
+        if (language != null && !LANGUAGES.contains(language)) {
+            return Optional.empty();
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                if (!field.isBlank()) {
+                    requested.add(field.trim());
+                }
+            }
+        }
+        if (!FIELDS.containsAll(requested) || (language == null && requested.contains(AI_ANALYSIS))) {
+            return Optional.empty();
+        }
+        return Optional.of(new SpotProjection(FIELDS.stream().filter(requested::contains).toList(), language));
+    }
+
+    public boolean isNone() {
+        return fields.isEmpty() && lang == null;
+    }
+
+    /**
+     * Identifies the projection among the prepared responses.
+     */
+    public String key() {
+        return String.join(",", fields) + ";" + (lang == null ? "" : lang);
+    }
+
+    /**
+     * The spot as JSON with only this projection of it, written by {@code objectMapper}
+     * so that every field comes out as it does in a whole spot.
+     */
+    public ObjectNode apply(ObjectMapper objectMapper, Spot spot) {
+        ObjectNode node = objectMapper.valueToTree(spot);
+        if (lang != null) {
+            boolean polish = lang.equals("pl");
+            node.set("spotInfo", objectMapper.valueToTree(polish ? spot.spotInfoPL() : spot.spotInfo()));
+            node.put(AI_ANALYSIS, polish ? spot.aiAnalysisPl() : spot.aiAnalysisEn());
+            node.remove(List.of("spotInfoPL", "aiAnalysisEn", "aiAnalysisPl"));
+        }
+        if (!fields.isEmpty()) {
+            node.retain(fields);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.pwittchen.varun.model.spot;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+
+import java.util.List;
+
+/**
+ * What changed about one spot, as pushed to the clients following its updates.
+ *
+ * Only the part that changed is carried, so a client patches the spot it already has
+ * instead of fetching it again: a new live reading, or the daily forecast a fetch
+ * cycle replaced. The name and country come along because that is how the spot list
+ * finds its cards and how subscriptions to a country are matched.
+ *
+ * @param kind              which of the other fields is set
+ * @param currentConditions the new reading, for {@link Kind#CONDITIONS}
+ * @param forecast          the new daily forecast, for {@link Kind#FORECAST}
+ */
+public record SpotUpdate(
+        int wgId,
+        String name,
+        String country,
+        @JsonIgnore
+        Kind kind,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        CurrentConditions currentConditions,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<Forecast> forecast
+) {
+    public static SpotUpdate conditions(Spot spot, CurrentConditions conditions) {
+        return new SpotUpdate(spot.wgId(), spot.name(), spot.country(), Kind.CONDITIONS, conditions, null);
+    }
+
+    public static SpotUpdate forecast(Spot spot) {
+        return new SpotUpdate(spot.wgId(), spot.name(), spot.country(), Kind.FORECAST, null, List.copyOf(spot.forecast()));
+    }
+
+    /**
+     * Kinds of update, named as the events carrying them are.
+     */
+    public enum Kind {
+        CONDITIONS("conditions"),
+        FORECAST("forecast");
+
+        private final String event;
+
+        Kind(String event) {
+            this.event = event;
+        }
+
+        public String event() {
+            return event;
+        }
+    }
+}
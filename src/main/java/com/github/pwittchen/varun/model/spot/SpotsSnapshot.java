@@ -0,0 +1,57 @@
+package com.github.pwittchen.varun.model.spot;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Every spot as the API serves it, enriched once and then shared by every request
+ * until the cached data behind it changes.
+ *
+ * Enriching a spot is a dozen cache lookups and as many record copies, while the
+ * data only moves on the one-minute conditions tick and the three-hour forecast
+ * tick. Doing it per request made a traffic spike cost as much allocation as it
+ * brought visitors; doing it once per change makes a request a reference read.
+ *
+ * The snapshot is immutable as a whole, so a reader never sees half of a fetch
+ * cycle applied.
+ *
+ * @param version   data version the snapshot was built from, bumped on every change to the caches
+ * @param spots     enriched spots, including the live history; the hourly forecast is added per request
+ * @param summaries the same spots without live history, as the all-spots list serves them
+ * @param spotsById enriched spots by Windguru id
+ */
+public record SpotsSnapshot(
+        long version,
+        List<Spot> spots,
+        List<Spot> summaries,
+        Map<Integer, Spot> spotsById
+) {
+    public SpotsSnapshot {
+        spots = spots == null ? List.of() : List.copyOf(spots);
+        summaries = summaries == null ? List.of() : List.copyOf(summaries);
+        spotsById = spotsById == null ? Map.of() : Map.copyOf(spotsById);
+    }
+
+    /**
+     * Builds the snapshot from already enriched spots, deriving the summaries and
+     * the id index once rather than on every read.
+     *
+     * @param version data version the spots were enriched from
+     * @param spots   enriched spots
+     */
+    public static SpotsSnapshot of(long version, List<Spot> spots) {
+        return new SpotsSnapshot(
+                version,
+                spots,
+                spots.stream().map(Spot::withoutCurrentConditionsHistoryAndForecastHourly).toList(),
+                spots.stream().collect(Collectors.toMap(Spot::wgId, Function.identity(), (first, _) -> first))
+        );
+    }
+
+    public Optional<Spot> spot(int wgId) {
+        return Optional.ofNullable(spotsById.get(wgId));
+    }
+}
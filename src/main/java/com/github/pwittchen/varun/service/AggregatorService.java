@@ -7,33 +7,49 @@ import com.github.pwittchen.varun.exception.FetchingCurrentConditionsException;
 import com.github.pwittchen.varun.exception.FetchingForecastException;
 import com.github.pwittchen.varun.exception.FetchingForecastModelsException;
 import com.github.pwittchen.varun.mapper.HourlyForecastMapper;
+import com.github.pwittchen.varun.mapper.WindTimelineGrid;
 import com.github.pwittchen.varun.metrics.AggregatorServiceMetrics;
 import com.github.pwittchen.varun.model.forecast.AvailableModel;
 import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.ForecastData;
 import com.github.pwittchen.varun.model.forecast.ForecastModel;
 import com.github.pwittchen.varun.model.forecast.HourlyForecast;
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
 import com.github.pwittchen.varun.model.forecast.WindTimeline;
+import com.github.pwittchen.varun.model.live.ConditionsHistory;
 import com.github.pwittchen.varun.model.live.CurrentConditions;
 import com.github.pwittchen.varun.model.live.filter.CurrentConditionsEmptyFilter;
 import com.github.pwittchen.varun.model.map.Coordinates;
 import com.github.pwittchen.varun.model.sponsor.Sponsor;
 import com.github.pwittchen.varun.model.spot.Spot;
+import com.github.pwittchen.varun.model.spot.SpotChangeLog;
+import com.github.pwittchen.varun.model.spot.SpotChanges;
+import com.github.pwittchen.varun.model.spot.SpotUpdate;
+import com.github.pwittchen.varun.model.spot.SpotsSnapshot;
 import com.github.pwittchen.varun.service.ai.AiService;
 import com.github.pwittchen.varun.service.ai.AiServiceEn;
 import com.github.pwittchen.varun.service.ai.AiServicePl;
+import com.github.pwittchen.varun.service.cache.CacheSnapshot;
+import com.github.pwittchen.varun.service.cache.CacheSnapshotStore;
+import com.github.pwittchen.varun.service.cache.ModelAvailabilityStore;
 import com.github.pwittchen.varun.service.forecast.ForecastAverageCalculator;
+import com.github.pwittchen.varun.service.forecast.ForecastRefreshPlanner;
 import com.github.pwittchen.varun.service.forecast.ForecastService;
 import com.github.pwittchen.varun.service.forecast.IcmForecastVisionService;
 import com.github.pwittchen.varun.service.forecast.IcmGridMapper;
+import com.github.pwittchen.varun.service.http.HostConcurrencyLimiter;
+import com.github.pwittchen.varun.service.live.ConditionsHistoryStore;
 import com.github.pwittchen.varun.service.live.CurrentConditionsService;
+import com.github.pwittchen.varun.service.live.ReadingsArchive;
+import com.github.pwittchen.varun.service.live.StationPollScheduler;
 import com.github.pwittchen.varun.service.map.GoogleMapsService;
 import com.github.pwittchen.varun.service.sponsors.SponsorsService;
-import com.google.common.collect.EvictingQueue;
+import com.github.pwittchen.varun.service.updates.SpotUpdatesBroadcaster;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.javatuples.Pair;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -54,10 +70,13 @@ import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,11 +84,14 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.StructuredTaskScope;
 import java.util.concurrent.StructuredTaskScope.Joiner;
 import java.util.concurrent.StructuredTaskScope.Subtask;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
 import java.util.stream.Stream;
 
 @Service
@@ -79,16 +101,21 @@ public class AggregatorService {
     private static final Logger log = LoggerFactory.getLogger(AggregatorService.class);
     private static final List<String> SPOT_PHOTO_EXTENSIONS = List.of("jpg", "png");
     private static final int PHOTO_VERSION_LENGTH = 8;
-    private static final int CURRENT_CONDITIONS_HISTORY_LIMIT_IN_MINUTES = 12 * 60;
 
     // Scheduling intervals
-    private static final long FORECAST_FETCH_INTERVAL_MS = 3 * 60 * 60 * 1000;    // 3 hours
-    private static final long CONDITIONS_FETCH_INTERVAL_MS = 60_000;              // 1 minute
+    private static final long FORECAST_FETCH_INTERVAL_MS = 6 * 60 * 60 * 1000;    // 6 hours, one GFS run
+    private static final long FORECAST_REFRESH_TICK_MS = 30_000;                  // 30 seconds
+    private static final long CONDITIONS_POLL_TICK_MS = 10_000;                   // 10 seconds
     private static final long AI_FETCH_INTERVAL_MS = 8 * 60 * 60 * 1000;          // 8 hours
     private static final long AI_INITIAL_DELAY_MS = 5 * 60 * 1000;                // 5 minutes
     private static final long ICM_FETCH_INTERVAL_MS = 3 * 60 * 60 * 1000;         // 3 hours
     private static final long ICM_INITIAL_DELAY_MS = 60 * 1000;                   // 1 minute
     private static final long HOURLY_FORECAST_CACHE_TTL_HOURS = 3;
+    private static final long CACHE_SNAPSHOT_INTERVAL_MS = 10 * 60 * 1000;         // 10 minutes
+
+    // A snapshot older than the live history it carries has nothing left worth restoring,
+    // and its forecasts are four fetch cycles old.
+    private static final Duration CACHE_SNAPSHOT_MAX_AGE = Duration.ofHours(12);
 
     // How far the map's hourly wind timeline reaches when the caller doesn't say.
     // Matched to the five days the daily forecast covers, which is as much as a
@@ -100,11 +127,10 @@ public class AggregatorService {
     // so this only bounds how much work a caller can ask for.
     private static final int MAX_WIND_TIMELINE_HOURS = 16 * 24;
 
-    // Concurrency limits
-    private static final int FORECAST_SEMAPHORE_PERMITS = 32;
-    private static final int CONDITIONS_SEMAPHORE_PERMITS = 32;
-    private static final int AI_SEMAPHORE_PERMITS = 16;
-    private static final int DISCOVERY_SEMAPHORE_PERMITS = 16;
+    // The live history a spot's detail carries: twelve hours in 144 points rather than
+    // a reading a minute, which is as fine as the table and chart can show it anyway.
+    // Finer, coarser or shorter spans are for getConditionsHistory.
+    private static final Duration SPOT_CONDITIONS_HISTORY_RESOLUTION = Duration.ofMinutes(5);
 
     @Value("${app.feature.ai.forecast.analysis.enabled}")
     private boolean aiForecastAnalysisEnabled;
@@ -115,7 +141,6 @@ public class AggregatorService {
     private final ConcurrentMap<Integer, Spot> spots;
     private final ConcurrentMap<Integer, ForecastData> forecastCache;
     private final ConcurrentMap<Integer, CurrentConditions> currentConditions;
-    private final ConcurrentMap<Integer, EvictingQueue<CurrentConditions>> currentConditionsHistory;
     private final ConcurrentMap<Integer, String> aiAnalysisEn;
     private final ConcurrentMap<Integer, String> aiAnalysisPl;
     private final ConcurrentMap<Integer, Long> hourlyForecastCacheTimestamps;
@@ -134,16 +159,47 @@ public class AggregatorService {
     private final IcmForecastVisionService icmForecastVisionService;
     private final SponsorsService sponsorsService;
     private final AggregatorServiceMetrics metricsService;
+    private final CacheSnapshotStore cacheSnapshotStore;
+    private final HostConcurrencyLimiter hostConcurrencyLimiter;
+    private final StationPollScheduler stationPollScheduler;
+    private final ModelAvailabilityStore modelAvailabilityStore;
+    private final ConditionsHistoryStore conditionsHistoryStore;
+    private final ReadingsArchive readingsArchive;
+    private final SpotUpdatesBroadcaster spotUpdates;
 
     private Disposable spotsDisposable;
-    private final Semaphore forecastLimiter = new Semaphore(FORECAST_SEMAPHORE_PERMITS);
-    private final Semaphore currentConditionsLimiter = new Semaphore(CONDITIONS_SEMAPHORE_PERMITS);
-    private final Semaphore aiLimiter = new Semaphore(AI_SEMAPHORE_PERMITS);
-    private final Semaphore discoveryLimiter = new Semaphore(DISCOVERY_SEMAPHORE_PERMITS);
     private final ConcurrentMap<Integer, Disposable> locationCoordinatesFetchSubscriptions;
     private final ConcurrentMap<Integer, Disposable> icmUrlResolutionSubscriptions;
     private final ConcurrentMap<Integer, Object> forecastModelsLocks;
 
+    // Enriched spots as of spotsDataVersion. Anything that changes what enrichment
+    // would produce bumps the version; the snapshot is rebuilt by the fetch cycle
+    // that caused the change, or by the first read after a smaller one.
+    private final AtomicReference<SpotsSnapshot> spotsSnapshot = new AtomicReference<>();
+    private final AtomicLong spotsDataVersion = new AtomicLong();
+    private final ReentrantLock spotsSnapshotLock = new ReentrantLock();
+    // Which spots each new snapshot changed, for clients refreshing their spot list
+    private final SpotChangeLog spotChangeLog = new SpotChangeLog(System.currentTimeMillis());
+
+    // Bumped on every write to forecastCache, which is all the wind timeline is built from.
+    private final AtomicLong forecastDataVersion = new AtomicLong();
+
+    // Every spot's GFS wind aligned by hour, realigned only for the spot whose forecast changed.
+    private final WindTimelineGrid windTimelineGrid = new WindTimelineGrid();
+
+    // Every spot's averaged forecast, with the forecast data it was averaged from.
+    private final ConcurrentMap<Integer, AveragedForecast> averagedForecasts = new ConcurrentHashMap<>();
+
+    // Which spots' forecasts are due, so a fetch interval's worth of them is spread across the interval.
+    private final ForecastRefreshPlanner forecastRefreshPlanner = new ForecastRefreshPlanner(
+            Duration.ofMillis(FORECAST_FETCH_INTERVAL_MS),
+            Duration.ofMillis(FORECAST_REFRESH_TICK_MS),
+            RandomGenerator.getDefault());
+
+    // When init() ran, and whether the first complete spots response since has been timed.
+    private volatile long startedAtNanos;
+    private final AtomicBoolean startupRecorded = new AtomicBoolean();
+
     public AggregatorService(
             SpotsDataProvider spotsDataProvider,
             ForecastService forecastService,
@@ -155,11 +211,17 @@ public class AggregatorService {
             HourlyForecastMapper hourlyForecastMapper,
             IcmForecastVisionService icmForecastVisionService,
             SponsorsService sponsorsService,
-            AggregatorServiceMetrics metricsService) {
+            AggregatorServiceMetrics metricsService,
+            CacheSnapshotStore cacheSnapshotStore,
+            HostConcurrencyLimiter hostConcurrencyLimiter,
+            StationPollScheduler stationPollScheduler,
+            ModelAvailabilityStore modelAvailabilityStore,
+            ConditionsHistoryStore conditionsHistoryStore,
+            ReadingsArchive readingsArchive,
+            SpotUpdatesBroadcaster spotUpdates) {
         this.spots = new ConcurrentHashMap<>();
         this.forecastCache = new ConcurrentHashMap<>();
         this.currentConditions = new ConcurrentHashMap<>();
-        this.currentConditionsHistory = new ConcurrentHashMap<>();
         this.aiAnalysisEn = new ConcurrentHashMap<>();
         this.aiAnalysisPl = new ConcurrentHashMap<>();
         this.hourlyForecastCacheTimestamps = new ConcurrentHashMap<>();
@@ -180,10 +242,18 @@ public class AggregatorService {
         this.icmForecastVisionService = icmForecastVisionService;
         this.sponsorsService = sponsorsService;
         this.metricsService = metricsService;
+        this.cacheSnapshotStore = cacheSnapshotStore;
+        this.hostConcurrencyLimiter = hostConcurrencyLimiter;
+        this.stationPollScheduler = stationPollScheduler;
+        this.modelAvailabilityStore = modelAvailabilityStore;
+        this.conditionsHistoryStore = conditionsHistoryStore;
+        this.readingsArchive = readingsArchive;
+        this.spotUpdates = spotUpdates;
     }
 
     @PostConstruct
     public void init() {
+        startedAtNanos = System.nanoTime();
         spotsDisposable = spotsDataProvider
                 .getSpots()
                 .collectList()
@@ -193,8 +263,18 @@ public class AggregatorService {
                     this.spots.clear();
                     spotsList.forEach(spot -> this.spots.put(spot.wgId(), spot));
                     log.info("Loaded {} spots", this.spots.size());
+                    restoreCacheSnapshot();
+                    googleMapsService.retainLocations(this.spots.values().stream()
+                            .map(Spot::locationUrl)
+                            .filter(url -> url != null && !url.isEmpty())
+                            .toList());
+                    modelAvailabilityStore.retainSpots(this.spots.values().stream()
+                            .map(Spot::forecastWgId)
+                            .toList());
+                    metricsService.updateLiveStationRoutes(currentConditionsService.indexStations(this.spots.keySet()));
                     updateMetricsGauges();
                     warmUpSpots();
+                    publishSpotsSnapshot();
                 }, error -> log.error("Failed to load spots", error));
     }
 
@@ -227,8 +307,87 @@ public class AggregatorService {
         );
     }
 
+    /**
+     * Fills the caches from the snapshot the previous instance left behind, so that a
+     * restart serves the forecasts, live history and AI analyses it had instead of
+     * blank spots until every fetch cycle has come round again. Only the spots still
+     * in the database are restored; the fetch cycles replace the rest as they run.
+     */
+    private void restoreCacheSnapshot() {
+        Optional<CacheSnapshot> loaded = cacheSnapshotStore.load(CACHE_SNAPSHOT_MAX_AGE);
+        if (loaded.isEmpty()) {
+            log.info("No cache snapshot to restore");
+            return;
+        }
+        CacheSnapshot snapshot = loaded.get();
+
+        snapshot.forecasts().forEach((spotId, data) -> {
+            if (spots.containsKey(spotId)) {
+                forecastCache.compute(spotId, (_, _) -> withWindTimeline(spotId, data));
+                // Fetched no later than the snapshot was saved, which is close enough to slot it
+                forecastRefreshPlanner.recordFetched(spotId, snapshot.savedAt());
+            }
+        });
+        forecastDataVersion.incrementAndGet();
+        applyForecastsToSpots(snapshot.forecasts().keySet());
+
+        snapshot.conditionsHistory().forEach((spotId, history) -> {
+            if (spots.containsKey(spotId)) {
+                history.forEach(conditions -> conditionsHistoryStore.add(spotId, conditions));
+            }
+        });
+        restoreForKnownSpots(snapshot.aiAnalysisEn(), aiAnalysisEn);
+        restoreForKnownSpots(snapshot.aiAnalysisPl(), aiAnalysisPl);
+        restoreForKnownSpots(snapshot.coordinates(), locationCoordinates);
+        restoreForKnownSpots(snapshot.icmUrls(), icmUrls);
+
+        log.info("Restored cache snapshot from {}: {} forecasts, {} live histories, {} coordinates",
+                snapshot.savedAt(), forecastCache.size(), conditionsHistoryStore.spots(), locationCoordinates.size());
+    }
+
+    private <T> void restoreForKnownSpots(Map<Integer, T> restored, ConcurrentMap<Integer, T> cache) {
+        restored.forEach((spotId, value) -> {
+            if (spots.containsKey(spotId)) {
+                cache.putIfAbsent(spotId, value);
+            }
+        });
+    }
+
+    @Scheduled(fixedRate = CACHE_SNAPSHOT_INTERVAL_MS, initialDelay = CACHE_SNAPSHOT_INTERVAL_MS)
+    public void saveCacheSnapshotEveryTenMinutes() {
+        saveCacheSnapshot();
+    }
+
+    /**
+     * Writes the caches out for the next instance. Periodic as well as on shutdown,
+     * because a blue/green deploy starts the next instance while this one still runs,
+     * and a killed process gets no shutdown at all. Skipped until the spots are
+     * loaded, so an instance stopped during startup leaves the previous snapshot be.
+     */
+    void saveCacheSnapshot() {
+        if (spots.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<CurrentConditions>> history = conditionsHistoryStore.readings();
+        long startTime = System.nanoTime();
+        boolean saved = cacheSnapshotStore.save(new CacheSnapshot(
+                Instant.now(),
+                forecastCache,
+                history,
+                aiAnalysisEn,
+                aiAnalysisPl,
+                locationCoordinates,
+                icmUrls
+        ));
+        if (saved) {
+            log.info("Saved cache snapshot of {} forecasts in {} ms",
+                    forecastCache.size(), Duration.ofNanos(System.nanoTime() - startTime).toMillis());
+        }
+    }
+
     @PreDestroy
     public void cleanup() {
+        saveCacheSnapshot();
         if (spotsDisposable != null) {
             spotsDisposable.dispose();
         }
@@ -239,11 +398,140 @@ public class AggregatorService {
     }
 
     public List<Spot> getSpots() {
-        return spots
+        return getSpotsSnapshot().spots();
+    }
+
+    /**
+     * Every spot enriched with the cached data, as of the last change to it.
+     *
+     * Cheap enough to call per request: nothing is rebuilt unless the caches
+     * changed since the snapshot was taken, and then only once for all concurrent
+     * callers. A caller that finds another thread already rebuilding gets the
+     * previous snapshot instead of waiting, so a request thread never blocks
+     * behind a rebuild once the first snapshot exists.
+     */
+    public SpotsSnapshot getSpotsSnapshot() {
+        SpotsSnapshot snapshot = spotsSnapshot.get();
+        if (snapshot != null && snapshot.version() == spotsDataVersion.get()) {
+            return snapshot;
+        }
+        if (snapshot != null) {
+            if (!spotsSnapshotLock.tryLock()) {
+                return snapshot;
+            }
+        } else {
+            spotsSnapshotLock.lock();
+        }
+        try {
+            return rebuildSpotsSnapshot();
+        } finally {
+            spotsSnapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the cached data as changed, so the next read rebuilds the snapshot.
+     * Used for the trickle of single-spot updates (coordinates, AI analysis, model
+     * discovery), which would otherwise rebuild every spot once per update.
+     */
+    private void invalidateSpotsSnapshot() {
+        spotsDataVersion.incrementAndGet();
+    }
+
+    /**
+     * Rebuilds the snapshot right away, for the fetch cycles that have just changed
+     * most of the spots and would otherwise leave the rebuild to a visitor.
+     */
+    private void publishSpotsSnapshot() {
+        invalidateSpotsSnapshot();
+        spotsSnapshotLock.lock();
+        try {
+            rebuildSpotsSnapshot();
+        } finally {
+            spotsSnapshotLock.unlock();
+        }
+        if (!spots.isEmpty() && forecastCache.keySet().containsAll(spots.keySet())) {
+            recordStartupCompleted();
+        }
+    }
+
+    /**
+     * Times how long a start leaves visitors with an incomplete map: until the spots
+     * are first published with a forecast for every one of them, or until the first
+     * forecast cycle has fetched all there is to fetch. Recorded once per start.
+     */
+    private void recordStartupCompleted() {
+        if (startedAtNanos != 0 && startupRecorded.compareAndSet(false, true)) {
+            metricsService.recordStartupDuration(startedAtNanos);
+            log.info("Serving complete spots {} ms after startup",
+                    Duration.ofNanos(System.nanoTime() - startedAtNanos).toMillis());
+        }
+    }
+
+    private SpotsSnapshot rebuildSpotsSnapshot() {
+        long version = spotsDataVersion.get();
+        SpotsSnapshot current = spotsSnapshot.get();
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        SpotsSnapshot rebuilt = SpotsSnapshot.of(version, spots
                 .values()
                 .stream()
                 .map(this::enrichSpotWithCachedData)
-                .toList();
+                .map(spot -> unlessOnlyRestamped(current, spot))
+                .toList());
+        spotsSnapshot.set(rebuilt);
+        // After the snapshot is out, so a change version read before a snapshot never runs ahead of it
+        spotChangeLog.record(rebuilt.summaries());
+        return rebuilt;
+    }
+
+    /**
+     * Enriching stamps every spot with live conditions anew, so a spot nothing happened
+     * to is kept as the previous snapshot had it. Its lastUpdated, and with it the ETag
+     * of every response it is in, only moves when the spot does.
+     */
+    private static Spot unlessOnlyRestamped(@Nullable SpotsSnapshot previousSnapshot, Spot enriched) {
+        if (previousSnapshot == null) {
+            return enriched;
+        }
+        return previousSnapshot
+                .spot(enriched.wgId())
+                .filter(previous -> previous.withLastUpdated(enriched.lastUpdated()).equals(enriched))
+                .orElse(enriched);
+    }
+
+    /**
+     * The version of the spot list a client gets now, to ask for the changes since.
+     * Read before the spot list itself, so at worst the client is sent a change twice.
+     */
+    public long getSpotChangesVersion() {
+        getSpotsSnapshot();
+        return spotChangeLog.version();
+    }
+
+    /**
+     * The spots changed since {@code since}, as the spot list serves them, or every
+     * spot when the client is too far behind or sent no version.
+     */
+    public SpotChanges getSpotChanges(@Nullable Long since) {
+        getSpotsSnapshot();
+        long version = spotChangeLog.version();
+        Optional<SpotChangeLog.Delta> delta = since == null ? Optional.empty() : spotChangeLog.since(since);
+        // Taken after the change log, so it holds at least the changes the log reports
+        SpotsSnapshot snapshot = getSpotsSnapshot();
+        if (delta.isEmpty()) {
+            return new SpotChanges(version, true, snapshot.summaries(), List.of());
+        }
+        return new SpotChanges(
+                delta.get().version(),
+                false,
+                snapshot.summaries()
+                        .stream()
+                        .filter(spot -> delta.get().changed().contains(spot.wgId()))
+                        .toList(),
+                List.copyOf(delta.get().removed())
+        );
     }
 
     /**
@@ -266,16 +554,27 @@ public class AggregatorService {
      * @param hours how many hours to lay out, clamped to a sane span
      */
     public WindTimeline getWindTimeline(int hours) {
-        final Map<Integer, List<Forecast>> hourlyBySpotId = new HashMap<>();
-        forecastCache.forEach((spotId, data) -> {
-            List<Forecast> hourly = data.hourly(ForecastModel.GFS);
-            if (!hourly.isEmpty()) {
-                hourlyBySpotId.put(spotId, hourly);
-            }
-        });
+        return windTimelineGrid.slice(LocalDateTime.now(), windTimelineHours(hours));
+    }
 
-        final int gridHours = Math.max(1, Math.min(MAX_WIND_TIMELINE_HOURS, hours));
-        return hourlyForecastMapper.toWindTimeline(hourlyBySpotId, LocalDateTime.now(), gridHours);
+    /**
+     * The span {@link #getWindTimeline(int)} actually lays out for a requested one, or
+     * the default span when none was requested. Two requests with the same span get the
+     * same timeline, however differently they asked for it.
+     *
+     * @param hours requested span, or null for the default
+     */
+    public static int windTimelineHours(@Nullable Integer hours) {
+        return hours == null ? WIND_TIMELINE_HOURS : Math.max(1, Math.min(MAX_WIND_TIMELINE_HOURS, hours));
+    }
+
+    /**
+     * Identifies the wind timeline {@link #getWindTimeline(int)} would build right now.
+     * It moves on with every forecast update and with every wall-clock hour, since the
+     * grid starts at the current one, so two equal versions mean the same timeline.
+     */
+    public String getWindTimelineVersion() {
+        return forecastDataVersion.get() + "@" + LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
     }
 
     /**
@@ -303,6 +602,37 @@ public class AggregatorService {
         );
     }
 
+    /**
+     * The spot's live readings between {@code from} and {@code to}, in the station's
+     * local time and either left open, in buckets of {@code resolution}. Empty for an
+     * unknown spot; a known one without readings answers with no buckets.
+     */
+    public Optional<ConditionsHistory> getConditionsHistory(
+            int wgId,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to,
+            Duration resolution) {
+        if (!spots.containsKey(wgId)) {
+            return Optional.empty();
+        }
+        return Optional.of(conditionsHistoryStore.history(wgId, from, to, resolution));
+    }
+
+    /**
+     * Like {@link #getConditionsHistory}, but from the on-disk archive, which reaches
+     * as far back as it is retained.
+     */
+    public Optional<ConditionsHistory> getArchivedConditionsHistory(
+            int wgId,
+            LocalDateTime from,
+            LocalDateTime to,
+            Duration resolution) {
+        if (!spots.containsKey(wgId)) {
+            return Optional.empty();
+        }
+        return Optional.of(readingsArchive.history(wgId, from, to, resolution));
+    }
+
     public int countSpots() {
         return spots.size();
     }
@@ -335,54 +665,84 @@ public class AggregatorService {
         return getSpotById(id, ForecastModel.GFS);
     }
 
+    /**
+     * The snapshot holds the spot enriched with everything but an hourly forecast, so
+     * only the requested model's hourly forecast is turned into records, per request.
+     * A model with nothing cached gets the GFS one.
+     */
     public Optional<Spot> getSpotById(int id, ForecastModel forecastModel) {
-        return Optional
-                .ofNullable(spots.get(id))
-                .map(spot -> enrichSpotWithCachedData(spot, forecastModel));
+        return requested(getSpotsSnapshot()
+                .spot(id)
+                .map(spot -> withHourlyForecastOf(spot, forecastModel)));
     }
 
     public Optional<Spot> getSpotById(int id, String modelKey) {
         if (ForecastAverageCalculator.AVERAGE_MODEL_KEY.equals(modelKey)) {
-            return Optional
-                    .ofNullable(spots.get(id))
+            return requested(getSpotsSnapshot()
+                    .spot(id)
                     .map(spot -> {
-                        var enriched = enrichSpotWithCachedData(spot, ForecastModel.GFS);
-                        var data = forecastCache.get(spot.wgId());
-                        if (data != null) {
-                            var averaged = ForecastAverageCalculator.computeAverage(data);
-                            if (!averaged.isEmpty()) {
-                                enriched = enriched.withForecastHourly(averaged);
-                            }
-                        }
-                        return enriched;
-                    });
+                        var averaged = averagedForecast(spot.wgId());
+                        return averaged.isEmpty()
+                                ? withHourlyForecastOf(spot, ForecastModel.GFS)
+                                : spot.withForecastHourly(averaged);
+                    }));
         }
         return getSpotById(id, ForecastModel.fromModelKey(modelKey));
     }
 
-    private Spot enrichSpotWithCachedData(Spot spot) {
-        return enrichSpotWithCachedData(spot, ForecastModel.GFS);
+    // Counted once per lookup that found a spot, so ids that do not exist do not pile up in the planner
+    private Optional<Spot> requested(Optional<Spot> spot) {
+        spot.ifPresent(found -> forecastRefreshPlanner.recordRequested(found.wgId()));
+        return spot;
+    }
+
+    /**
+     * Every write to forecastCache puts a new ForecastData in, so the average computed from
+     * the data that is there now stays good until the spot's next write, and is only
+     * computed again then rather than on every request for it.
+     */
+    private List<Forecast> averagedForecast(int spotId) {
+        var data = forecastCache.get(spotId);
+        if (data == null) {
+            return List.of();
+        }
+        var cached = averagedForecasts.get(spotId);
+        if (cached != null && cached.source() == data) {
+            return cached.hourly();
+        }
+        var averaged = List.copyOf(ForecastAverageCalculator.computeAverage(data));
+        averagedForecasts.put(spotId, new AveragedForecast(data, averaged));
+        return averaged;
+    }
+
+    private Spot withHourlyForecastOf(Spot spot, ForecastModel forecastModel) {
+        var data = forecastCache.get(spot.wgId());
+        if (data == null) {
+            return spot;
+        }
+        var hourlyForecasts = data.hourly(forecastModel);
+        if (hourlyForecasts.isEmpty() && forecastModel != ForecastModel.GFS) {
+            hourlyForecasts = data.hourly(ForecastModel.GFS);
+        }
+        return hourlyForecasts.isEmpty() ? spot : spot.withForecastHourly(hourlyForecasts);
     }
 
-    private Spot enrichSpotWithCachedData(Spot spot, ForecastModel forecastModel) {
+    /**
+     * Everything cached about a spot except its hourly forecast, which stays columnar in
+     * forecastCache until a request for the one spot turns it into records.
+     */
+    private Spot enrichSpotWithCachedData(Spot spot) {
         var enrichedSpot = spot;
 
         var data = forecastCache.get(spot.wgId());
         if (data != null) {
-            var hourlyForecasts = data.hourly(forecastModel);
-            if (!hourlyForecasts.isEmpty()) {
-                enrichedSpot = enrichedSpot.withForecastHourly(hourlyForecasts);
-            } else if (!data.hourly(ForecastModel.GFS).isEmpty()) {
-                enrichedSpot = enrichedSpot.withForecastHourly(data.hourly(ForecastModel.GFS));
-            }
-
             // Model discovery runs asynchronously once a spot is opened, so until it has finished
             // the cache may already hold a partial set of models (ICM is pre-fetched for Polish and
             // Czech spots by a separate scheduled job). Publishing that partial set would make the
             // frontend treat the model list as complete and stop waiting for the remaining models,
             // so only the default model is exposed until discovery completes.
-            Stream<ForecastModel> discoveredModels = data.hourly().keySet().stream()
-                    .filter(m -> !data.hourly(m).isEmpty());
+            Stream<ForecastModel> discoveredModels = data.series().keySet().stream()
+                    .filter(m -> !data.series(m).isEmpty());
             if (!hourlyForecastCacheTimestamps.containsKey(spot.wgId())) {
                 discoveredModels = discoveredModels.filter(m -> m == ForecastModel.GFS);
             }
@@ -407,9 +767,9 @@ public class AggregatorService {
             enrichedSpot = enrichedSpot.withCurrentConditions(conditions);
         }
 
-        var conditionsHistory = currentConditionsHistory.get(spot.wgId());
-        if (conditionsHistory != null && !conditionsHistory.isEmpty()) {
-            enrichedSpot = enrichedSpot.withCurrentConditionsHistory(new ArrayList<>(conditionsHistory));
+        var conditionsHistory = conditionsHistoryStore.averaged(spot.wgId(), SPOT_CONDITIONS_HISTORY_RESOLUTION);
+        if (!conditionsHistory.isEmpty()) {
+            enrichedSpot = enrichedSpot.withCurrentConditionsHistory(conditionsHistory);
         }
 
         var analysisEn = aiAnalysisEn.get(spot.wgId());
@@ -455,6 +815,7 @@ public class AggregatorService {
                         .subscribeOn(Schedulers.boundedElastic())
                         .doOnNext(c -> {
                             locationCoordinates.put(id, c);
+                            invalidateSpotsSnapshot();
                             resolveAndCacheIcmUrl(id, spot, c);
                         })
                         .doOnError(error -> log.warn("Coordinates fetch failed for spot {}", id, error))
@@ -487,7 +848,10 @@ public class AggregatorService {
             return Optional.of(cached);
         }
         Optional<String> icmUrl = icmGridMapper.toIcmUrl(coords.lat(), coords.lon(), spot.country());
-        icmUrl.ifPresent(url -> icmUrls.put(spotId, url));
+        icmUrl.ifPresent(url -> {
+            icmUrls.put(spotId, url);
+            invalidateSpotsSnapshot();
+        });
         return icmUrl;
     }
 
@@ -533,39 +897,48 @@ public class AggregatorService {
         }
     }
 
-    @Scheduled(fixedRate = FORECAST_FETCH_INTERVAL_MS)
-    @Retryable(retryFor = FetchingForecastException.class, maxAttempts = 5, backoff = @Backoff(delay = 3000))
-    public void fetchForecastsEveryThreeHours() throws FetchingForecastException {
-        log.info("Fetching forecasts");
-        fetchForecasts();
-    }
-
-    @Recover
-    public void recoverFromFetchingForecasts(FetchingForecastException e) {
-        log.error("Failed while fetching forecasts after 3 attempts", e);
+    /**
+     * Refreshes the forecasts of the spots whose turn has come, a few per tick, instead
+     * of all of them at once with every model run. See {@link ForecastRefreshPlanner} for
+     * who goes when.
+     *
+     * Not retried as a whole: a spot whose fetch failed comes round again on a later
+     * tick, after a backoff of its own, while the rest of the batch is kept. A batch that
+     * failed entirely is logged here and left to the next tick too.
+     */
+    @Scheduled(fixedDelay = FORECAST_REFRESH_TICK_MS)
+    public void refreshDueForecasts() {
+        List<Spot> due = forecastRefreshPlanner
+                .due(List.copyOf(spots.keySet()), Instant.now())
+                .stream()
+                .map(spots::get)
+                .filter(Objects::nonNull)
+                .toList();
+        if (due.isEmpty()) {
+            return;
+        }
+        log.info("Fetching forecasts for {} spots", due.size());
+        try {
+            fetchForecasts(due);
+        } catch (FetchingForecastException e) {
+            log.error("Failed while fetching forecasts for {} spots", due.size(), e);
+        }
     }
 
-    @Async
-    public void fetchForecasts() throws FetchingForecastException {
+    /**
+     * Fetches every spot's forecast and keeps each one that arrived, whatever happened
+     * to the others. Only a batch in which every spot failed counts as a failed fetch.
+     */
+    private void fetchForecasts(List<Spot> spotsToFetch) throws FetchingForecastException {
         metricsService.incrementForecastFetchCounter();
         var startTime = System.nanoTime();
 
-        try (var scope = openFailFastScopeForecast()) {
-            var tasks = spots
-                    .values()
+        try (var scope = openScope("forecast")) {
+            var tasks = spotsToFetch
                     .stream()
-                    .map(spot -> scope.fork(() -> {
-                        forecastLimiter.acquire();
-                        try {
-                            // Use forecastWgId() for fetching (extracts ID from fallback URL if needed)
-                            // but use wgId() for caching (unique deterministic ID for the spot)
-                            int forecastId = spot.forecastWgId();
-                            int cacheId = spot.wgId();
-                            return Pair.with(cacheId, forecastService.getForecastData(forecastId).block());
-                        } finally {
-                            forecastLimiter.release();
-                        }
-                    }))
+                    // Use forecastWgId() for fetching (extracts ID from fallback URL if needed)
+                    // but use wgId() for caching (unique deterministic ID for the spot)
+                    .map(spot -> scope.fork(() -> forecastService.getForecastData(spot.forecastWgId()).block()))
                     .toList();
 
             try {
@@ -576,8 +949,34 @@ public class AggregatorService {
                 throw new FetchingForecastException(e.getMessage());
             }
 
-            log.info("Forecasts fetched");
-            updateSpotsAndForecasts(tasks);
+            var fetchedAt = Instant.now();
+            Map<Integer, ForecastData> newForecasts = new HashMap<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                int spotId = spotsToFetch.get(i).wgId();
+                var task = tasks.get(i);
+                var data = task.state() == Subtask.State.SUCCESS ? task.get() : null;
+                if (data != null && !data.daily().isEmpty()) {
+                    newForecasts.put(spotId, data);
+                    forecastRefreshPlanner.recordFetched(spotId, fetchedAt);
+                } else {
+                    int failures = forecastRefreshPlanner.recordFailed(spotId, fetchedAt);
+                    log.warn("Failed to fetch forecast for spot {} ({} in a row): {}", spotId, failures,
+                            task.state() == Subtask.State.FAILED ? task.exception().getMessage() : "no forecast");
+                }
+            }
+            int failed = tasks.size() - newForecasts.size();
+            metricsService.incrementForecastSpotFailureCounter(failed);
+            metricsService.updateForecastFailingSpots(forecastRefreshPlanner.failingSpots());
+
+            if (newForecasts.isEmpty() && !tasks.isEmpty()) {
+                metricsService.incrementForecastFetchFailureCounter();
+                throw new FetchingForecastException("No forecast fetched for any of " + tasks.size() + " spots");
+            }
+
+            log.info("Forecasts fetched for {} spots, {} failed", newForecasts.size(), failed);
+            updateSpotsAndForecasts(newForecasts);
+            publishSpotsSnapshot();
+            recordStartupCompleted();
             metricsService.incrementForecastFetchSuccessCounter();
             metricsService.updateLastForecastFetchTimestamp();
             updateMetricsGauges();
@@ -586,62 +985,114 @@ public class AggregatorService {
         }
     }
 
-    private void updateSpotsAndForecasts(List<Subtask<Pair<Integer, ForecastData>>> tasks) {
-        Map<Integer, ForecastData> newForecasts = tasks
-                .stream()
-                .map(Subtask::get)
-                .filter(pair -> pair.getValue1() != null && !pair.getValue1().daily().isEmpty())
-                .collect(Collectors.toMap(Pair::getValue0, Pair::getValue1));
-
+    private void updateSpotsAndForecasts(Map<Integer, ForecastData> newForecasts) {
+        // Only this cycle writes the daily forecast, so what it replaces can be compared up front
+        List<Integer> changedDaily = newForecasts.entrySet().stream()
+                .filter(entry -> {
+                    ForecastData existing = forecastCache.get(entry.getKey());
+                    return existing == null || !existing.daily().equals(entry.getValue().daily());
+                })
+                .map(Map.Entry::getKey)
+                .toList();
         // Merge instead of overwrite, so the models fetched outside this cycle (ICM, on-demand
         // Windguru models) survive the periodic GFS refresh.
-        newForecasts.forEach((spotId, data) -> forecastCache.merge(spotId, data, AggregatorService::mergeForecastData));
+        newForecasts.forEach((spotId, data) -> forecastCache.compute(spotId, (_, existing) ->
+                withWindTimeline(spotId, existing == null ? data : mergeForecastData(existing, data))));
+        forecastDataVersion.incrementAndGet();
+        applyForecastsToSpots(newForecasts.keySet());
+        changedDaily.forEach(spotId -> {
+            Spot spot = spots.get(spotId);
+            if (spot != null) {
+                spotUpdates.publish(SpotUpdate.forecast(spot));
+            }
+        });
+    }
 
-        spots.replaceAll((_, spot) -> Optional
-                .ofNullable(forecastCache.get(spot.wgId()))
+    // Only the spots whose forecast was written, so the rest keep their lastUpdated
+    private void applyForecastsToSpots(Collection<Integer> spotIds) {
+        spotIds.forEach(spotId -> spots.computeIfPresent(spotId, (_, spot) -> Optional
+                .ofNullable(forecastCache.get(spotId))
                 .map(data -> spot.withForecasts(data.daily(), Collections.emptyList()))
                 .orElse(spot)
-        );
+        ));
     }
 
-    private static ForecastData mergeForecastData(ForecastData existing, ForecastData fresh) {
-        Map<ForecastModel, List<Forecast>> hourly = new HashMap<>(existing.hourly());
-        hourly.putAll(fresh.hourly());
-        return new ForecastData(fresh.daily(), hourly);
+    /**
+     * Realigns the spot's row of the wind timeline to its GFS forecast. Called from inside
+     * the forecastCache update, so two updates of one spot reach the grid in the order
+     * they reached the cache; a forecast whose GFS series did not change costs nothing.
+     */
+    private ForecastData withWindTimeline(int spotId, ForecastData data) {
+        windTimelineGrid.update(spotId, data.series(ForecastModel.GFS));
+        return data;
     }
 
-    @Scheduled(fixedRate = CONDITIONS_FETCH_INTERVAL_MS)
-    @Retryable(retryFor = FetchingCurrentConditionsException.class, maxAttempts = 5, backoff = @Backoff(delay = 5000))
-    public void fetchCurrentConditionsEveryOneMinute() throws FetchingCurrentConditionsException {
-        log.info("Fetching current conditions");
-        fetchCurrentConditions();
+    private static ForecastData mergeForecastData(ForecastData existing, ForecastData fresh) {
+        Map<ForecastModel, HourlySeries> hourly = new HashMap<>(existing.series());
+        hourly.putAll(fresh.series());
+        return ForecastData.ofSeries(fresh.daily(), hourly);
     }
 
-    @Recover
-    public void recoverFromFetchingCurrentConditions(FetchingCurrentConditionsException e) {
-        log.error("Failed while fetching current conditions after 3 attempts", e);
+    /**
+     * Polls the stations that are expected to have a new reading by now, rather than
+     * every station every minute. See {@link StationPollScheduler} for when that is.
+     */
+    @Scheduled(fixedDelay = CONDITIONS_POLL_TICK_MS)
+    public void pollDueCurrentConditions() {
+        var now = Instant.now();
+        List<Integer> due = spots
+                .keySet()
+                .stream()
+                .filter(currentConditionsService::hasStation)
+                .filter(id -> stationPollScheduler.isDue(id, now))
+                .toList();
+        if (due.isEmpty()) {
+            return;
+        }
+        log.info("Fetching current conditions for {} stations", due.size());
+        try {
+            fetchCurrentConditions(due);
+        } catch (FetchingCurrentConditionsException e) {
+            // Not retried: the stations stay due and are polled again on the next tick
+            log.error("Failed while fetching current conditions for {} stations", due.size(), e);
+        }
     }
 
     @Async
     public void fetchCurrentConditions() throws FetchingCurrentConditionsException {
+        // Only a handful of spots have a station, the rest would be a virtual thread
+        // and a permit each just to find that out
+        fetchCurrentConditions(spots
+                .keySet()
+                .stream()
+                .filter(currentConditionsService::hasStation)
+                .toList());
+    }
+
+    private void fetchCurrentConditions(List<Integer> spotIds) throws FetchingCurrentConditionsException {
         metricsService.incrementConditionsFetchCounter();
         var startTime = System.nanoTime();
 
+        AtomicBoolean changed = new AtomicBoolean();
         try (var scope = openScope("currentConditions")) {
-            var tasks = spots
-                    .keySet()
+            var tasks = spotIds
                     .stream()
                     .map(id -> scope.fork(() -> {
-                        currentConditionsLimiter.acquire();
+                        CurrentConditions conditions;
                         try {
-                            var conditions = currentConditionsService.fetchCurrentConditions(id).block();
-                            updateSpotCurrentConditions(id, conditions);
-                            return Pair.with(id, conditions);
-                        } finally {
-                            currentConditionsLimiter.release();
+                            conditions = currentConditionsService.fetchCurrentConditions(id).block();
+                        } catch (RuntimeException e) {
+                            stationPollScheduler.recordFailure(id, Instant.now());
+                            throw e;
+                        }
+                        stationPollScheduler.recordReading(id, conditions, Instant.now());
+                        if (updateSpotCurrentConditions(id, conditions)) {
+                            changed.set(true);
                         }
+                        return Pair.with(id, conditions);
                     }))
                     .toList();
+            metricsService.updateConditionsScheduledTasks(tasks.size());
 
             try {
                 scope.join();
@@ -658,6 +1109,10 @@ public class AggregatorService {
                     .forEach(log::warn);
 
             log.info("Current conditions fetched");
+            // A tick whose stations had not published yet leaves the spots as they are
+            if (changed.get()) {
+                publishSpotsSnapshot();
+            }
             metricsService.incrementConditionsFetchSuccessCounter();
             metricsService.updateLastConditionsFetchTimestamp();
             updateMetricsGauges();
@@ -666,13 +1121,25 @@ public class AggregatorService {
         }
     }
 
-    private void updateSpotCurrentConditions(int spotId, CurrentConditions conditions) {
-        if (!CurrentConditionsEmptyFilter.isEmpty(conditions)) {
-            currentConditions.put(spotId, conditions);
-            currentConditionsHistory
-                    .computeIfAbsent(spotId, _ -> EvictingQueue.create(CURRENT_CONDITIONS_HISTORY_LIMIT_IN_MINUTES))
-                    .add(conditions);
+    /**
+     * @return whether the spot's conditions or live history changed
+     */
+    private boolean updateSpotCurrentConditions(int spotId, CurrentConditions conditions) {
+        if (CurrentConditionsEmptyFilter.isEmpty(conditions)) {
+            return false;
+        }
+        CurrentConditions previous = currentConditions.put(spotId, conditions);
+        boolean changed = !conditions.equals(previous);
+        Spot spot = spots.get(spotId);
+        if (spot != null && changed) {
+            spotUpdates.publish(SpotUpdate.conditions(spot, conditions));
+        }
+        // Archived only when new, so a station polled again before it published is not archived twice
+        if (conditionsHistoryStore.add(spotId, conditions)) {
+            readingsArchive.append(spotId, conditions);
+            changed = true;
         }
+        return changed;
     }
 
     /**
@@ -706,17 +1173,12 @@ public class AggregatorService {
             var tasks = icmSpots
                     .stream()
                     .map(spot -> scope.fork(() -> {
-                        discoveryLimiter.acquire();
-                        try {
-                            int spotId = spot.wgId();
-                            Optional<String> icmUrl = resolveIcmUrl(spotId, spot);
-                            if (icmUrl.isEmpty()) {
-                                return Pair.with(spotId, Optional.<List<Forecast>>empty());
-                            }
-                            return Pair.with(spotId, fetchIcmForecast(icmUrl.get()));
-                        } finally {
-                            discoveryLimiter.release();
+                        int spotId = spot.wgId();
+                        Optional<String> icmUrl = resolveIcmUrl(spotId, spot);
+                        if (icmUrl.isEmpty()) {
+                            return Pair.with(spotId, Optional.<HourlySeries>empty());
                         }
+                        return Pair.with(spotId, fetchIcmForecast(spotId, icmUrl.get()));
                     }))
                     .toList();
 
@@ -735,13 +1197,27 @@ public class AggregatorService {
                     .count();
 
             log.info("ICM forecasts fetched for {} of {} spots", updated, icmSpots.size());
+            if (updated > 0) {
+                publishSpotsSnapshot();
+            }
         }
     }
 
-    private Optional<List<Forecast>> fetchIcmForecast(String icmUrl) {
-        return icmForecastVisionService
-                .extractForecastFromMeteogram(icmUrl)
-                .filter(forecasts -> !forecasts.isEmpty());
+    private Optional<HourlySeries> fetchIcmForecast(int spotId, String icmUrl) throws Exception {
+        // Reading the meteogram is a call to the AI provider, limited with the analyses
+        Optional<List<Forecast>> forecasts = hostConcurrencyLimiter
+                .call(HostConcurrencyLimiter.LLM_HOST, () -> icmForecastVisionService.extractForecastFromMeteogram(icmUrl))
+                .filter(list -> !list.isEmpty());
+        if (forecasts.isEmpty()) {
+            return Optional.empty();
+        }
+        // Built here, so a value that does not fit a series costs only this spot, not the whole cycle
+        try {
+            return Optional.of(HourlySeries.of(forecasts.get()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping ICM forecast of spot {}: {}", spotId, e.getMessage());
+            return Optional.empty();
+        }
     }
 
     /**
@@ -749,17 +1225,18 @@ public class AggregatorService {
      * daily forecast untouched. Deliberately does not touch hourlyForecastCacheTimestamps, so opening
      * a spot still triggers the discovery of the remaining Windguru models.
      */
-    private boolean updateIcmForecast(int spotId, Optional<List<Forecast>> forecasts) {
-        if (forecasts.isEmpty()) {
+    private boolean updateIcmForecast(int spotId, Optional<HourlySeries> series) {
+        if (series.isEmpty()) {
             return false;
         }
         forecastCache.compute(spotId, (_, existing) -> {
-            Map<ForecastModel, List<Forecast>> hourly = existing != null
-                    ? new HashMap<>(existing.hourly())
+            Map<ForecastModel, HourlySeries> hourly = existing != null
+                    ? new HashMap<>(existing.series())
                     : new HashMap<>();
-            hourly.put(ForecastModel.ICM_METEO, forecasts.get());
-            return new ForecastData(existing != null ? existing.daily() : List.of(), hourly);
+            hourly.put(ForecastModel.ICM_METEO, series.get());
+            return ForecastData.ofSeries(existing != null ? existing.daily() : List.of(), hourly);
         });
+        forecastDataVersion.incrementAndGet();
         return true;
     }
 
@@ -778,6 +1255,7 @@ public class AggregatorService {
                 return;
             }
 
+            long startTime = System.nanoTime();
             Spot spot = spots.get(spotId);
 
             // Find the spot to get the forecastWgId (which may differ from spotId for fallback URLs)
@@ -788,22 +1266,20 @@ public class AggregatorService {
 
             log.info("Fetching forecast models for the spot {} (forecastId: {})", spotId, forecastId);
 
-            // Filter out ICM_METEO from Windguru models (it doesn't use Windguru API)
-            final List<ForecastModel> windguruModels = Arrays.stream(ForecastModel.values())
-                    .filter(m -> m != ForecastModel.ICM_METEO)
-                    .toList();
+            // Filter out ICM_METEO from Windguru models (it doesn't use Windguru API), and the
+            // models Windguru is known to have no data for at this spot
+            final List<ForecastModel> windguruModels = modelAvailabilityStore.available(
+                    forecastId,
+                    Arrays.stream(ForecastModel.values())
+                            .filter(m -> m != ForecastModel.ICM_METEO)
+                            .toList(),
+                    Instant.now());
 
             try (var scope = openScope("singleSpotForecastModels")) {
                 var tasks = new ArrayList<>(windguruModels
                         .stream()
-                        .map(forecastModel -> scope.fork(() -> {
-                            discoveryLimiter.acquire();
-                            try {
-                                return Pair.with(forecastModel, forecastService.getForecastData(forecastId, forecastModel).block());
-                            } finally {
-                                discoveryLimiter.release();
-                            }
-                        }))
+                        .map(forecastModel -> scope.fork(() ->
+                                Pair.with(forecastModel, forecastService.getForecastData(forecastId, forecastModel).block())))
                         .toList());
 
                 // Fork ICM vision task for Polish/Czech spots when enabled
@@ -812,15 +1288,10 @@ public class AggregatorService {
                     if (icmUrl.isPresent()) {
                         log.info("Forking ICM vision task for spot {} with URL {}", spotId, icmUrl.get());
                         tasks.add(scope.fork(() -> {
-                            discoveryLimiter.acquire();
-                            try {
-                                Map<ForecastModel, List<Forecast>> hourlyMap = fetchIcmForecast(icmUrl.get())
-                                        .<Map<ForecastModel, List<Forecast>>>map(f -> Map.of(ForecastModel.ICM_METEO, f))
-                                        .orElseGet(Map::of);
-                                return Pair.with(ForecastModel.ICM_METEO, new ForecastData(List.of(), hourlyMap));
-                            } finally {
-                                discoveryLimiter.release();
-                            }
+                            Map<ForecastModel, HourlySeries> hourlyMap = fetchIcmForecast(spotId, icmUrl.get())
+                                    .<Map<ForecastModel, HourlySeries>>map(series -> Map.of(ForecastModel.ICM_METEO, series))
+                                    .orElseGet(Map::of);
+                            return Pair.with(ForecastModel.ICM_METEO, ForecastData.ofSeries(List.of(), hourlyMap));
                         }));
                     }
                 }
@@ -833,11 +1304,27 @@ public class AggregatorService {
                 }
 
                 log.info("Forecast models for the spot {} fetched", spotId);
+                recordModelAvailability(forecastId, tasks);
                 updateSpotAndForecastModels(spotId, tasks);
+                metricsService.recordForecastModelsFetchDuration(startTime);
             }
         }
     }
 
+    /**
+     * Tells the availability store which Windguru models answered with data. Failed requests
+     * say nothing about whether a model covers the spot, so they are left out.
+     */
+    private void recordModelAvailability(int forecastId, List<Subtask<Pair<ForecastModel, ForecastData>>> tasks) {
+        Map<ForecastModel, Boolean> hasData = new EnumMap<>(ForecastModel.class);
+        tasks.stream()
+                .filter(t -> t.state() == Subtask.State.SUCCESS)
+                .map(Subtask::get)
+                .filter(pair -> pair.getValue0() != ForecastModel.ICM_METEO)
+                .forEach(pair -> hasData.put(pair.getValue0(), !pair.getValue1().series(pair.getValue0()).isEmpty()));
+        modelAvailabilityStore.record(forecastId, hasData, Instant.now());
+    }
+
     private Optional<String> resolveIcmUrl(int spotId, Spot spot) {
         String cached = icmUrls.get(spotId);
         if (cached != null) {
@@ -849,6 +1336,7 @@ public class AggregatorService {
             coords = loadCoordinates(spot).block();
             if (coords != null) {
                 locationCoordinates.put(spotId, coords);
+                invalidateSpotsSnapshot();
             }
         }
         if (coords == null) {
@@ -885,31 +1373,33 @@ public class AggregatorService {
         final ForecastData data = getForecastData(existing, forecasts);
         logFetchedModels(spotId, data);
 
-        forecastCache.put(spotId, data);
+        forecastCache.compute(spotId, (_, _) -> withWindTimeline(spotId, data));
+        forecastDataVersion.incrementAndGet();
         hourlyForecastCacheTimestamps.put(spotId, System.currentTimeMillis());
         forecastModelsLocks.remove(spotId);
+        invalidateSpotsSnapshot();
     }
 
     private static @NonNull ForecastData getForecastData(ForecastData existing, List<Pair<ForecastModel, ForecastData>> forecasts) {
-        Map<ForecastModel, List<Forecast>> hourlyMap = existing != null
-                ? new HashMap<>(existing.hourly())
+        Map<ForecastModel, HourlySeries> hourlyMap = existing != null
+                ? new HashMap<>(existing.series())
                 : new HashMap<>();
 
         for (Pair<ForecastModel, ForecastData> pair : forecasts) {
             ForecastModel model = pair.getValue0();
             ForecastData fetchedData = pair.getValue1();
-            List<Forecast> hourlyForecasts = fetchedData.hourly(model);
-            if (!hourlyForecasts.isEmpty()) {
-                hourlyMap.put(model, hourlyForecasts);
+            HourlySeries hourlySeries = fetchedData.series(model);
+            if (!hourlySeries.isEmpty()) {
+                hourlyMap.put(model, hourlySeries);
             }
         }
 
         List<Forecast> daily = existing != null ? existing.daily() : List.of();
-        return new ForecastData(daily, hourlyMap);
+        return ForecastData.ofSeries(daily, hourlyMap);
     }
 
     private static void logFetchedModels(int spotId, ForecastData data) {
-        List<String> fetchedModelKeys = data.hourly().entrySet().stream()
+        List<String> fetchedModelKeys = data.series().entrySet().stream()
                 .filter(e -> !e.getValue().isEmpty())
                 .sorted(Comparator.comparingInt(e -> e.getKey().ordinal()))
                 .map(e -> e.getKey().modelKey())
@@ -967,21 +1457,17 @@ public class AggregatorService {
                     .values()
                     .stream()
                     .map(spot -> scope.fork(() -> {
-                        aiLimiter.acquire();
-                        try {
-                            // The spots held here carry the daily rows only (hourly
-                            // forecasts are deliberately not kept on them), so the
-                            // hourly forecast comes from the same source
-                            // /api/v1/forecast/{wgId} serves - which is what lets the
-                            // summary name hours instead of days.
-                            var hourly = getHourlyForecast(spot.wgId())
-                                    .orElseGet(() -> new HourlyForecast(spot.wgId(), List.of()));
-                            var analysis = aiService.fetchAiAnalysis(spot, hourly).block();
-                            updateAiAnalysisCache(spot.wgId(), analysis, cache);
-                            return Pair.with(spot.wgId(), analysis);
-                        } finally {
-                            aiLimiter.release();
-                        }
+                        // The spots held here carry the daily rows only (hourly
+                        // forecasts are deliberately not kept on them), so the
+                        // hourly forecast comes from the same source
+                        // /api/v1/forecast/{wgId} serves - which is what lets the
+                        // summary name hours instead of days.
+                        var hourly = getHourlyForecast(spot.wgId())
+                                .orElseGet(() -> new HourlyForecast(spot.wgId(), List.of()));
+                        var analysis = hostConcurrencyLimiter.call(HostConcurrencyLimiter.LLM_HOST,
+                                () -> aiService.fetchAiAnalysis(spot, hourly).block());
+                        updateAiAnalysisCache(spot.wgId(), analysis, cache);
+                        return Pair.with(spot.wgId(), analysis);
                     }))
                     .toList();
 
@@ -1005,15 +1491,6 @@ public class AggregatorService {
         }
     }
 
-    private static <T> StructuredTaskScope<T, Void> openFailFastScopeForecast() {
-        return StructuredTaskScope.open(
-                Joiner.awaitAllSuccessfulOrThrow(),
-                configuration -> configuration
-                        .withName("forecast")
-                        .withThreadFactory(Thread.ofVirtual().factory())
-        );
-    }
-
     private static <T> StructuredTaskScope<T, Void> openScope(String name) {
         return StructuredTaskScope.open(
                 Joiner.awaitAll(),
@@ -1026,6 +1503,10 @@ public class AggregatorService {
     private void updateAiAnalysisCache(int spotId, String analysis, ConcurrentMap<Integer, String> cache) {
         if (analysis != null && !analysis.isEmpty()) {
             cache.put(spotId, analysis);
+            invalidateSpotsSnapshot();
         }
     }
+
+    private record AveragedForecast(ForecastData source, List<Forecast> hourly) {
+    }
 }
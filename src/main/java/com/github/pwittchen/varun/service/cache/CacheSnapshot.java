@@ -0,0 +1,41 @@
+package com.github.pwittchen.varun.service.cache;
+
+import com.github.pwittchen.varun.model.forecast.ForecastData;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.model.map.Coordinates;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the aggregator has fetched and would otherwise lose on a restart, keyed by spot
+ * id: the forecasts, the live readings of the last twelve hours, the AI analyses, and
+ * the coordinates and ICM URLs that take a geocoding call and a grid probe to resolve.
+ *
+ * @param savedAt            when the caches were copied
+ * @param forecasts          forecastCache
+ * @param conditionsHistory  live readings per spot, oldest first
+ * @param aiAnalysisEn       English AI analysis per spot
+ * @param aiAnalysisPl       Polish AI analysis per spot
+ * @param coordinates        resolved spot coordinates
+ * @param icmUrls            resolved ICM meteogram URLs
+ */
+public record CacheSnapshot(
+        Instant savedAt,
+        Map<Integer, ForecastData> forecasts,
+        Map<Integer, List<CurrentConditions>> conditionsHistory,
+        Map<Integer, String> aiAnalysisEn,
+        Map<Integer, String> aiAnalysisPl,
+        Map<Integer, Coordinates> coordinates,
+        Map<Integer, String> icmUrls
+) {
+    public CacheSnapshot {
+        forecasts = Map.copyOf(forecasts);
+        conditionsHistory = Map.copyOf(conditionsHistory);
+        aiAnalysisEn = Map.copyOf(aiAnalysisEn);
+        aiAnalysisPl = Map.copyOf(aiAnalysisPl);
+        coordinates = Map.copyOf(coordinates);
+        icmUrls = Map.copyOf(icmUrls);
+    }
+}
@@ -0,0 +1,331 @@
+package com.github.pwittchen.varun.service.cache;
+
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.forecast.ForecastData;
+import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.model.map.Coordinates;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps a {@link CacheSnapshot} in a local file, so that a restarted instance starts
+ * from what the previous one had fetched instead of from nothing.
+ *
+ * Every deploy used to mean a blank map until the forecast cycle had downloaded every
+ * spot again, and blank live history graphs for half a day. The file is a gzipped
+ * binary dump, hourly forecasts in the columns {@link HourlySeries} holds them in, so
+ * writing and reading it costs milliseconds rather than a JSON round trip of every
+ * forecast record.
+ *
+ * The file starts with a format version. A snapshot of another version, one older
+ * than the caller allows, or one that cannot be read to the end is discarded whole:
+ * the caches then fill up from the network, as they always did.
+ *
+ * Writes go to a temporary file that replaces the snapshot in one move, so a reader -
+ * or the next instance of a blue/green pair sharing the directory - never sees half
+ * a snapshot.
+ */
+@Service
+public class CacheSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshotStore.class);
+
+    // "VSCS", varun.surf cache snapshot
+    private static final int MAGIC = 0x56534353;
+    // Bump whenever the layout below or anything it writes (HourlySeries) changes
+    static final int FORMAT_VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+
+    public CacheSnapshotStore(@Value("${app.cache.snapshot.path:cache/aggregator-cache.bin}") String path) {
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Replaces the stored snapshot.
+     *
+     * @return false when the snapshot could not be written, which is logged and
+     * otherwise harmless
+     */
+    public boolean save(CacheSnapshot snapshot) {
+        Path temp = null;
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // A file of its own for every save: the blue and the green instance share the
+            // volume and save on their own schedules
+            temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(new FastGzipOutputStream(Files.newOutputStream(temp)), BUFFER_SIZE))) {
+                write(out, snapshot);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to save cache snapshot to {}", path, e);
+            return false;
+        } finally {
+            deleteTemp(temp);
+        }
+    }
+
+    static void deleteTemp(@Nullable Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // left behind in the cache directory, where it is never read
+        }
+    }
+
+    /**
+     * The stored snapshot, if there is one this version can read and it is no older
+     * than {@code maxAge}.
+     */
+    public Optional<CacheSnapshot> load(Duration maxAge) {
+        try (var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path), BUFFER_SIZE), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Discarding cache snapshot {}: not a cache snapshot", path);
+                return Optional.empty();
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                log.info("Discarding cache snapshot {}: format {} instead of {}", path, version, FORMAT_VERSION);
+                return Optional.empty();
+            }
+            Instant savedAt = Instant.ofEpochMilli(in.readLong());
+            Duration age = Duration.between(savedAt, Instant.now());
+            if (age.compareTo(maxAge) > 0) {
+                log.info("Discarding cache snapshot {}: saved {} ago", path, age);
+                return Optional.empty();
+            }
+            return Optional.of(read(in, savedAt));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable cache snapshot {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void write(DataOutputStream out, CacheSnapshot snapshot) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(snapshot.savedAt().toEpochMilli());
+
+        out.writeInt(snapshot.forecasts().size());
+        for (var entry : snapshot.forecasts().entrySet()) {
+            out.writeInt(entry.getKey());
+            writeForecastData(out, entry.getValue());
+        }
+
+        out.writeInt(snapshot.conditionsHistory().size());
+        for (var entry : snapshot.conditionsHistory().entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (CurrentConditions conditions : entry.getValue()) {
+                writeString(out, conditions.date());
+                out.writeInt(conditions.wind());
+                out.writeInt(conditions.gusts());
+                writeString(out, conditions.direction());
+                out.writeInt(conditions.temp());
+            }
+        }
+
+        writeStrings(out, snapshot.aiAnalysisEn());
+        writeStrings(out, snapshot.aiAnalysisPl());
+
+        out.writeInt(snapshot.coordinates().size());
+        for (var entry : snapshot.coordinates().entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeDouble(entry.getValue().lat());
+            out.writeDouble(entry.getValue().lon());
+        }
+
+        writeStrings(out, snapshot.icmUrls());
+    }
+
+    private static CacheSnapshot read(DataInput in, Instant savedAt) throws IOException {
+        int forecastCount = in.readInt();
+        Map<Integer, ForecastData> forecasts = new HashMap<>();
+        for (int i = 0; i < forecastCount; i++) {
+            forecasts.put(in.readInt(), readForecastData(in));
+        }
+
+        int historyCount = in.readInt();
+        Map<Integer, List<CurrentConditions>> history = new HashMap<>();
+        for (int i = 0; i < historyCount; i++) {
+            int spotId = in.readInt();
+            int readings = in.readInt();
+            List<CurrentConditions> conditions = new ArrayList<>(readings);
+            for (int reading = 0; reading < readings; reading++) {
+                conditions.add(new CurrentConditions(readString(in), in.readInt(), in.readInt(), readString(in), in.readInt()));
+            }
+            history.put(spotId, conditions);
+        }
+
+        Map<Integer, String> aiAnalysisEn = readStrings(in);
+        Map<Integer, String> aiAnalysisPl = readStrings(in);
+
+        int coordinateCount = in.readInt();
+        Map<Integer, Coordinates> coordinates = new HashMap<>();
+        for (int i = 0; i < coordinateCount; i++) {
+            coordinates.put(in.readInt(), new Coordinates(in.readDouble(), in.readDouble()));
+        }
+
+        Map<Integer, String> icmUrls = readStrings(in);
+        return new CacheSnapshot(savedAt, forecasts, history, aiAnalysisEn, aiAnalysisPl, coordinates, icmUrls);
+    }
+
+    private static void writeForecastData(DataOutput out, ForecastData data) throws IOException {
+        out.writeInt(data.daily().size());
+        for (Forecast forecast : data.daily()) {
+            writeString(out, forecast.date());
+            out.writeDouble(forecast.wind());
+            out.writeDouble(forecast.gusts());
+            writeString(out, forecast.direction());
+            out.writeDouble(forecast.temp());
+            out.writeDouble(forecast.precipitation());
+            out.writeDouble(forecast.cloudCoverPercent());
+            out.writeDouble(forecast.pressureHpa());
+            writeNullableDouble(out, forecast.wave());
+            writeNullableDouble(out, forecast.wavePeriod());
+            writeString(out, forecast.waveDirection());
+        }
+        out.writeInt(data.series().size());
+        for (var entry : data.series().entrySet()) {
+            out.writeUTF(entry.getKey().name());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    private static ForecastData readForecastData(DataInput in) throws IOException {
+        int days = in.readInt();
+        List<Forecast> daily = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            daily.add(new Forecast(
+                    readString(in),
+                    in.readDouble(),
+                    in.readDouble(),
+                    readString(in),
+                    in.readDouble(),
+                    in.readDouble(),
+                    in.readDouble(),
+                    in.readDouble(),
+                    readNullableDouble(in),
+                    readNullableDouble(in),
+                    readString(in)
+            ));
+        }
+        int models = in.readInt();
+        Map<ForecastModel, HourlySeries> series = new EnumMap<>(ForecastModel.class);
+        for (int i = 0; i < models; i++) {
+            String name = in.readUTF();
+            HourlySeries hourly = HourlySeries.readFrom(in);
+            // A model dropped since the snapshot was written is skipped, not a reason to lose the rest
+            modelNamed(name).ifPresent(model -> series.put(model, hourly));
+        }
+        return ForecastData.ofSeries(daily, series);
+    }
+
+    private static Optional<ForecastModel> modelNamed(String name) {
+        try {
+            return Optional.of(ForecastModel.valueOf(name));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void writeStrings(DataOutput out, Map<Integer, String> values) throws IOException {
+        out.writeInt(values.size());
+        for (var entry : values.entrySet()) {
+            out.writeInt(entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<Integer, String> readStrings(DataInput in) throws IOException {
+        int count = in.readInt();
+        Map<Integer, String> values = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int spotId = in.readInt();
+            String value = readString(in);
+            if (value != null) {
+                values.put(spotId, value);
+            }
+        }
+        return values;
+    }
+
+    // Length-prefixed UTF-8 rather than writeUTF, which stops at 64 KB; -1 is null
+    private static void writeString(DataOutput out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @Nullable String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableDouble(DataOutput out, @Nullable Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static @Nullable Double readNullableDouble(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    // The default level takes twice as long to save a file only 15% smaller
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
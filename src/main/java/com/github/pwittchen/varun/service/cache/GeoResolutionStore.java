@@ -0,0 +1,212 @@
+package com.github.pwittchen.varun.service.cache;
+
+import com.github.pwittchen.varun.model.forecast.IcmGrid;
+import com.github.pwittchen.varun.model.map.Coordinates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers what it took a network call to find out about where a spot is: the
+ * coordinates behind a shortened Google Maps link, and the ICM grid point that has a
+ * meteogram near an approximate one.
+ *
+ * Neither changes unless spots.json or the ICM grid does, yet every start used to
+ * follow the redirects of every goo.gl link again and probe up to 17x17 meteograms
+ * per Polish or Czech spot. The store is consulted before any of that and kept in a
+ * small local file, so that only a new or edited spot costs network calls.
+ *
+ * Entries are dropped explicitly: {@link #retainLocations} forgets the links no spot
+ * uses any more, the forget methods drop a single answer, and a file written by
+ * another {@link #FORMAT_VERSION} is ignored. Deleting the file forgets everything.
+ */
+@Service
+public class GeoResolutionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(GeoResolutionStore.class);
+
+    // "VSGR", varun.surf geo resolutions
+    private static final int MAGIC = 0x56534752;
+    // Bump whenever the layout changes or the stored answers can no longer be trusted
+    static final int FORMAT_VERSION = 1;
+
+    private final Path path;
+    private final ConcurrentMap<String, Coordinates> coordinates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<IcmGrid, IcmGrid> icmGrids = new ConcurrentHashMap<>();
+
+    private final Counter coordinatesHits;
+    private final Counter coordinatesResolutions;
+    private final Counter icmGridHits;
+    private final Counter icmGridResolutions;
+
+    public GeoResolutionStore(
+            @Value("${app.cache.geo.path:cache/geo-resolutions.bin}") String path,
+            MeterRegistry registry
+    ) {
+        this.path = Path.of(path);
+        this.coordinatesHits = hits(registry, "coordinates");
+        this.coordinatesResolutions = resolutions(registry, "coordinates");
+        this.icmGridHits = hits(registry, "icm_grid");
+        this.icmGridResolutions = resolutions(registry, "icm_grid");
+        load();
+    }
+
+    private static Counter hits(MeterRegistry registry, String kind) {
+        return Counter
+                .builder("varun.geo.store.hits")
+                .description("Geo resolutions answered from the local store")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private static Counter resolutions(MeterRegistry registry, String kind) {
+        return Counter
+                .builder("varun.geo.network.resolutions")
+                .description("Geo resolutions that took network calls")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    public Optional<Coordinates> coordinates(String locationUrl) {
+        Coordinates stored = coordinates.get(locationUrl);
+        if (stored != null) {
+            coordinatesHits.increment();
+        }
+        return Optional.ofNullable(stored);
+    }
+
+    /**
+     * Stores the coordinates a location URL was resolved to over the network.
+     */
+    public void putCoordinates(String locationUrl, Coordinates resolved) {
+        coordinatesResolutions.increment();
+        if (!resolved.equals(coordinates.put(locationUrl, resolved))) {
+            save();
+        }
+    }
+
+    public void forgetCoordinates(String locationUrl) {
+        if (coordinates.remove(locationUrl) != null) {
+            save();
+        }
+    }
+
+    /**
+     * Forgets the coordinates of every location URL not in {@code locationUrls}, so that
+     * a spot removed from spots.json or given a new link does not leave its old answer
+     * behind.
+     */
+    public void retainLocations(Collection<String> locationUrls) {
+        Set<String> retained = Set.copyOf(locationUrls);
+        if (coordinates.keySet().removeIf(url -> !retained.contains(url))) {
+            save();
+        }
+    }
+
+    /**
+     * The valid ICM grid point found near {@code approximate}, if one was found before.
+     */
+    public Optional<IcmGrid> icmGrid(IcmGrid approximate) {
+        IcmGrid stored = icmGrids.get(approximate);
+        if (stored != null) {
+            icmGridHits.increment();
+        }
+        return Optional.ofNullable(stored);
+    }
+
+    /**
+     * Stores the valid ICM grid point probing found near {@code approximate}.
+     */
+    public void putIcmGrid(IcmGrid approximate, IcmGrid valid) {
+        icmGridResolutions.increment();
+        if (!valid.equals(icmGrids.put(approximate, valid))) {
+            save();
+        }
+    }
+
+    public void forgetIcmGrid(IcmGrid approximate) {
+        if (icmGrids.remove(approximate) != null) {
+            save();
+        }
+    }
+
+    private void load() {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.info("Ignoring geo resolutions in {}: written by another format", path);
+                return;
+            }
+            int coordinateCount = in.readInt();
+            for (int i = 0; i < coordinateCount; i++) {
+                coordinates.put(in.readUTF(), new Coordinates(in.readDouble(), in.readDouble()));
+            }
+            int gridCount = in.readInt();
+            for (int i = 0; i < gridCount; i++) {
+                icmGrids.put(new IcmGrid(in.readInt(), in.readInt()), new IcmGrid(in.readInt(), in.readInt()));
+            }
+            log.info("Loaded {} coordinates and {} ICM grid points from {}", coordinates.size(), icmGrids.size(), path);
+        } catch (NoSuchFileException e) {
+            log.info("No geo resolutions stored in {} yet", path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable geo resolutions in {}", path, e);
+            coordinates.clear();
+            icmGrids.clear();
+        }
+    }
+
+    // A few hundred entries at most, written once per spot that was resolved: rewriting
+    // the whole file keeps it a plain dump instead of a log to compact
+    private synchronized void save() {
+        Path temp = null;
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Unique, as the other instance of a blue/green pair may be saving too
+            temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                Map<String, Coordinates> coordinatesCopy = Map.copyOf(coordinates);
+                out.writeInt(coordinatesCopy.size());
+                for (var entry : coordinatesCopy.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeDouble(entry.getValue().lat());
+                    out.writeDouble(entry.getValue().lon());
+                }
+                Map<IcmGrid, IcmGrid> gridsCopy = Map.copyOf(icmGrids);
+                out.writeInt(gridsCopy.size());
+                for (var entry : gridsCopy.entrySet()) {
+                    out.writeInt(entry.getKey().row());
+                    out.writeInt(entry.getKey().col());
+                    out.writeInt(entry.getValue().row());
+                    out.writeInt(entry.getValue().col());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The answers are still held in memory; the next start resolves them again
+            log.warn("Failed to save geo resolutions to {}", path, e);
+        } finally {
+            CacheSnapshotStore.deleteTemp(temp);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.pwittchen.varun.service.cache;
+
+import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers which forecast models Windguru has no data for at a spot, so that opening
+ * the spot does not ask for them again.
+ *
+ * Opening a spot used to request every Windguru model, some forty of them, although a
+ * Baltic spot is never covered by HRRR, NAM CONUS or the AROME runs for the overseas
+ * territories. Those requests come back empty every time. A model that has answered
+ * empty {@link #EMPTY_ANSWERS_TO_SKIP} times in a row is skipped from then on, and a
+ * single answer with data clears it. Failed requests say nothing about coverage and
+ * are not recorded at all.
+ *
+ * A skipped model is asked again once {@link #REVALIDATE_AFTER} has passed since it
+ * last answered empty, so a model that starts covering a spot, or one that answered
+ * empty while Windguru had trouble with it, shows up within a week. Kept per Windguru
+ * spot rather than per region: spots close to a model's border differ, and the map is
+ * only a few thousand entries either way.
+ *
+ * The map is kept in a small local file, written as in {@link GeoResolutionStore}, so a
+ * restart does not learn it again. {@link #retainSpots} forgets the spots no longer in
+ * spots.json, and a file written by another {@link #FORMAT_VERSION} is ignored.
+ */
+@Service
+public class ModelAvailabilityStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelAvailabilityStore.class);
+
+    // "VSMA", varun.surf model availability
+    private static final int MAGIC = 0x56534D41;
+    // Bump whenever the layout changes or the stored answers can no longer be trusted
+    static final int FORMAT_VERSION = 1;
+    // One empty answer may be a bad moment at Windguru; two in a row, hours apart, are not
+    static final int EMPTY_ANSWERS_TO_SKIP = 2;
+    static final Duration REVALIDATE_AFTER = Duration.ofDays(7);
+
+    private final Path path;
+    // Windguru spot id -> models that answered empty, with how often in a row and when last
+    private final ConcurrentMap<Integer, Map<ForecastModel, Empty>> empty = new ConcurrentHashMap<>();
+    private final Counter skippedRequests;
+
+    public ModelAvailabilityStore(
+            @Value("${app.cache.models.path:cache/model-availability.bin}") String path,
+            MeterRegistry registry
+    ) {
+        this.path = Path.of(path);
+        this.skippedRequests = Counter
+                .builder("varun.forecast.models.skipped")
+                .description("Forecast model requests not made because the model has no data for the spot")
+                .register(registry);
+        load();
+    }
+
+    /**
+     * The models out of {@code models} worth asking for at the spot now.
+     */
+    public List<ForecastModel> available(int wgSpotId, Collection<ForecastModel> models, Instant now) {
+        Map<ForecastModel, Empty> spot = empty.getOrDefault(wgSpotId, Map.of());
+        List<ForecastModel> available = models
+                .stream()
+                .filter(model -> !isSkipped(spot.get(model), now))
+                .toList();
+        skippedRequests.increment(models.size() - available.size());
+        return available;
+    }
+
+    /**
+     * Records what the models asked for at the spot answered.
+     *
+     * @param hasData for each model that answered, whether the answer had any data
+     */
+    public void record(int wgSpotId, Map<ForecastModel, Boolean> hasData, Instant now) {
+        boolean changed = false;
+        synchronized (this) {
+            Map<ForecastModel, Empty> spot = new EnumMap<>(ForecastModel.class);
+            spot.putAll(empty.getOrDefault(wgSpotId, Map.of()));
+            for (var answer : hasData.entrySet()) {
+                ForecastModel model = answer.getKey();
+                Empty previous = spot.get(model);
+                if (answer.getValue()) {
+                    changed |= spot.remove(model) != null;
+                } else {
+                    spot.put(model, new Empty(previous == null ? 1 : previous.count() + 1, now.toEpochMilli()));
+                    changed = true;
+                }
+            }
+            if (spot.isEmpty()) {
+                empty.remove(wgSpotId);
+            } else {
+                empty.put(wgSpotId, Map.copyOf(spot));
+            }
+        }
+        if (changed) {
+            save();
+        }
+    }
+
+    /**
+     * Forgets every spot not in {@code wgSpotIds}, so that a spot removed from spots.json
+     * does not leave its answers behind.
+     */
+    public void retainSpots(Collection<Integer> wgSpotIds) {
+        Set<Integer> retained = Set.copyOf(wgSpotIds);
+        if (empty.keySet().removeIf(wgSpotId -> !retained.contains(wgSpotId))) {
+            save();
+        }
+    }
+
+    private static boolean isSkipped(Empty answers, Instant now) {
+        return answers != null
+                && answers.count() >= EMPTY_ANSWERS_TO_SKIP
+                && now.isBefore(Instant.ofEpochMilli(answers.lastAt()).plus(REVALIDATE_AFTER));
+    }
+
+    private void load() {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.info("Ignoring model availability in {}: written by another format", path);
+                return;
+            }
+            Map<String, ForecastModel> byKey = new HashMap<>();
+            for (ForecastModel model : ForecastModel.values()) {
+                byKey.put(model.modelKey(), model);
+            }
+            int spotCount = in.readInt();
+            int entries = 0;
+            for (int i = 0; i < spotCount; i++) {
+                int wgSpotId = in.readInt();
+                int modelCount = in.readInt();
+                Map<ForecastModel, Empty> spot = new EnumMap<>(ForecastModel.class);
+                for (int j = 0; j < modelCount; j++) {
+                    // Stored by key, so that adding or reordering models keeps the answers
+                    ForecastModel model = byKey.get(in.readUTF());
+                    Empty answers = new Empty(in.readInt(), in.readLong());
+                    if (model != null) {
+                        spot.put(model, answers);
+                    }
+                }
+                if (!spot.isEmpty()) {
+                    empty.put(wgSpotId, Map.copyOf(spot));
+                    entries += spot.size();
+                }
+            }
+            log.info("Loaded {} empty forecast models of {} spots from {}", entries, empty.size(), path);
+        } catch (NoSuchFileException e) {
+            log.info("No model availability stored in {} yet", path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable model availability in {}", path, e);
+            empty.clear();
+        }
+    }
+
+    // Written at most once per opened spot, and only when an answer changed
+    private synchronized void save() {
+        Path temp = null;
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Unique, as the other instance of a blue/green pair may be saving too
+            temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                Map<Integer, Map<ForecastModel, Empty>> copy = Map.copyOf(empty);
+                out.writeInt(copy.size());
+                for (var spot : copy.entrySet()) {
+                    out.writeInt(spot.getKey());
+                    out.writeInt(spot.getValue().size());
+                    for (var model : spot.getValue().entrySet()) {
+                        out.writeUTF(model.getKey().modelKey());
+                        out.writeInt(model.getValue().count());
+                        out.writeLong(model.getValue().lastAt());
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The answers are still held in memory; the next start learns them again
+            log.warn("Failed to save model availability to {}", path, e);
+        } finally {
+            CacheSnapshotStore.deleteTemp(temp);
+        }
+    }
+
+    private record Empty(int count, long lastAt) {
+    }
+}
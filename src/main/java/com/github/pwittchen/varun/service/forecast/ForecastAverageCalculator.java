@@ -2,73 +2,101 @@ package com.github.pwittchen.varun.service.forecast;
 
 import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.ForecastData;
-import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import com.github.pwittchen.varun.model.forecast.ForecastSpread;
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
+import com.github.pwittchen.varun.model.forecast.WindTimeline;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Averages a spot's hourly forecasts across models, hour by hour, and tells how far the
+ * models are apart in every hour that is averaged.
+ *
+ * It works on the {@link HourlySeries} columns directly: the hours of all the models are
+ * lined up once, and then every row of every model is added to its hour's sums, minima
+ * and maxima in a single pass, with no record, date string or stream per row. Directions
+ * are averaged as vectors, with the sine and cosine of the eight compass points looked
+ * up rather than computed. Rows whose date is kept as text are lined up by that text,
+ * after the hours.
+ *
+ * An hour is averaged only when at least {@link #MIN_MODELS_FOR_AVERAGE} models have it.
+ * Wave fields are averaged over the models that have them and are null when none does.
+ */
 public final class ForecastAverageCalculator {
 
     public static final String AVERAGE_MODEL_KEY = "average";
     public static final String AVERAGE_DISPLAY_NAME = "AVERAGE (all models)";
 
-    private static final List<String> DIRECTIONS = List.of("N", "NE", "E", "SE", "S", "SW", "W", "NW");
+    private static final List<String> DIRECTIONS = WindTimeline.DIRECTIONS;
+    private static final double[] SIN = new double[DIRECTIONS.size()];
+    private static final double[] COS = new double[DIRECTIONS.size()];
     private static final int MIN_MODELS_FOR_AVERAGE = 2;
 
+    static {
+        for (int i = 0; i < DIRECTIONS.size(); i++) {
+            double rad = Math.toRadians(i * 360.0 / DIRECTIONS.size());
+            SIN[i] = Math.sin(rad);
+            COS[i] = Math.cos(rad);
+        }
+    }
+
     private ForecastAverageCalculator() {
     }
 
     public static List<Forecast> computeAverage(ForecastData forecastData) {
-        Map<ForecastModel, List<Forecast>> hourlyByModel = forecastData.hourly();
-
-        List<Map.Entry<ForecastModel, List<Forecast>>> nonEmpty = hourlyByModel.entrySet().stream()
-                .filter(e -> !e.getValue().isEmpty())
+        List<HourlySeries> nonEmpty = forecastData.series().values().stream()
+                .filter(series -> !series.isEmpty())
                 .toList();
 
         if (nonEmpty.size() < MIN_MODELS_FOR_AVERAGE) {
             return List.of();
         }
 
-        // Group forecasts by date string across all models
-        // LinkedHashMap to preserve insertion order (time order from first model)
-        Map<String, List<Forecast>> forecastsByDate = new LinkedHashMap<>();
-        for (var entry : nonEmpty) {
-            for (Forecast f : entry.getValue()) {
-                forecastsByDate.computeIfAbsent(f.date(), _ -> new ArrayList<>()).add(f);
+        // The distinct hours of all models in order, and the dates kept as text in order of appearance
+        int rows = 0;
+        for (HourlySeries series : nonEmpty) {
+            rows += series.size();
+        }
+        long[] hours = new long[rows];
+        int hourCount = 0;
+        Map<String, Integer> textSlots = new LinkedHashMap<>();
+        for (HourlySeries series : nonEmpty) {
+            for (int row = 0; row < series.size(); row++) {
+                if (series.hasTime(row)) {
+                    hours[hourCount++] = series.epochHour(row);
+                } else {
+                    textSlots.putIfAbsent(series.date(row), textSlots.size());
+                }
             }
         }
-
-        List<Forecast> averaged = new ArrayList<>();
-        for (var entry : forecastsByDate.entrySet()) {
-            List<Forecast> forecasts = entry.getValue();
-            if (forecasts.size() < MIN_MODELS_FOR_AVERAGE) {
-                continue;
+        Arrays.sort(hours, 0, hourCount);
+        int distinctHours = 0;
+        for (int i = 0; i < hourCount; i++) {
+            if (i == 0 || hours[i] != hours[distinctHours - 1]) {
+                hours[distinctHours++] = hours[i];
             }
+        }
 
-            double avgWind = round1(forecasts.stream().mapToDouble(Forecast::wind).average().orElse(0));
-            double avgGusts = round1(forecasts.stream().mapToDouble(Forecast::gusts).average().orElse(0));
-            double avgTemp = round1(forecasts.stream().mapToDouble(Forecast::temp).average().orElse(0));
-            double avgPrecip = round1(forecasts.stream().mapToDouble(Forecast::precipitation).average().orElse(0));
-            String avgDirection = circularMeanDirection(forecasts.stream().map(Forecast::direction).toList());
-            double avgCloudCover = round1(forecasts.stream().mapToDouble(Forecast::cloudCoverPercent).average().orElse(0));
-            double avgPressure = round1(forecasts.stream().mapToDouble(Forecast::pressureHpa).average().orElse(0));
-
-            // Wave fields: average only non-null values, return null when none present
-            var waveHeights = forecasts.stream().map(Forecast::wave).filter(java.util.Objects::nonNull).mapToDouble(Double::doubleValue);
-            var wavePeriods = forecasts.stream().map(Forecast::wavePeriod).filter(java.util.Objects::nonNull).mapToDouble(Double::doubleValue);
-            var waveDirections = forecasts.stream().map(Forecast::waveDirection).filter(java.util.Objects::nonNull).toList();
-
-            var avgWaveHeight = waveHeights.average();
-            var avgWavePeriod = wavePeriods.average();
-            Double waveH = avgWaveHeight.isPresent() ? round1(avgWaveHeight.getAsDouble()) : null;
-            Double waveP = avgWavePeriod.isPresent() ? round1(avgWavePeriod.getAsDouble()) : null;
-            String waveDir = !waveDirections.isEmpty() ? circularMeanDirection(waveDirections) : null;
-
-            averaged.add(new Forecast(entry.getKey(), avgWind, avgGusts, avgDirection, avgTemp, avgPrecip, avgCloudCover, avgPressure, waveH, waveP, waveDir));
+        var sums = new Sums(distinctHours + textSlots.size());
+        for (HourlySeries series : nonEmpty) {
+            for (int row = 0; row < series.size(); row++) {
+                int slot = series.hasTime(row)
+                        ? Arrays.binarySearch(hours, 0, distinctHours, series.epochHour(row))
+                        : distinctHours + textSlots.get(series.date(row));
+                sums.add(slot, series, row);
+            }
         }
 
+        List<Forecast> averaged = new ArrayList<>(sums.size);
+        for (int slot = 0; slot < sums.size; slot++) {
+            if (sums.models[slot] >= MIN_MODELS_FOR_AVERAGE) {
+                averaged.add(sums.average(slot));
+            }
+        }
         return averaged;
     }
 
@@ -76,47 +104,179 @@ public final class ForecastAverageCalculator {
         double sinSum = 0;
         double cosSum = 0;
         int count = 0;
-
         for (String cardinal : cardinalDirections) {
-            int deg = cardinalToDegrees(cardinal);
-            if (deg < 0) {
+            int index = cardinal == null ? -1 : DIRECTIONS.indexOf(cardinal.toUpperCase());
+            if (index < 0) {
                 continue;
             }
-            double rad = Math.toRadians(deg);
-            sinSum += Math.sin(rad);
-            cosSum += Math.cos(rad);
+            sinSum += SIN[index];
+            cosSum += COS[index];
             count++;
         }
+        return count == 0 ? "N" : meanDirection(sinSum, cosSum);
+    }
 
-        if (count == 0) {
-            return "N";
-        }
-
-        double meanRad = Math.atan2(sinSum / count, cosSum / count);
-        double meanDeg = Math.toDegrees(meanRad);
+    private static String meanDirection(double sinSum, double cosSum) {
+        double meanDeg = Math.toDegrees(Math.atan2(sinSum, cosSum));
         double normalized = ((meanDeg % 360) + 360) % 360;
         int index = (int) Math.round(normalized / 45) % DIRECTIONS.size();
         return DIRECTIONS.get(index);
     }
 
-    private static int cardinalToDegrees(String cardinal) {
-        if (cardinal == null || cardinal.isEmpty()) {
-            return -1;
-        }
-        return switch (cardinal.toUpperCase()) {
-            case "N" -> 0;
-            case "NE" -> 45;
-            case "E" -> 90;
-            case "SE" -> 135;
-            case "S" -> 180;
-            case "SW" -> 225;
-            case "W" -> 270;
-            case "NW" -> 315;
-            default -> -1;
-        };
-    }
-
     private static double round1(double value) {
         return Math.round(value * 10.0) / 10.0;
     }
+
+    /**
+     * Running sums and extremes per slot, one primitive array per field.
+     */
+    private static final class Sums {
+        private final int size;
+        // The first row added to a slot, whose date the average carries
+        private final HourlySeries[] dateSeries;
+        private final int[] dateRow;
+        private final int[] models;
+        private final double[] wind;
+        private final double[] windMin;
+        private final double[] windMax;
+        private final double[] gusts;
+        private final double[] gustsMin;
+        private final double[] gustsMax;
+        private final double[] temp;
+        private final double[] tempMin;
+        private final double[] tempMax;
+        private final double[] precipitation;
+        private final double[] precipitationMin;
+        private final double[] precipitationMax;
+        private final double[] cloudCover;
+        private final double[] pressure;
+        private final double[] directionSin;
+        private final double[] directionCos;
+        private final int[] directions;
+        private final int[] waves;
+        private final double[] wave;
+        private final double[] waveMin;
+        private final double[] waveMax;
+        private final int[] wavePeriods;
+        private final double[] wavePeriod;
+        private final double[] waveDirectionSin;
+        private final double[] waveDirectionCos;
+        private final int[] waveDirections;
+
+        Sums(int size) {
+            this.size = size;
+            dateSeries = new HourlySeries[size];
+            dateRow = new int[size];
+            models = new int[size];
+            wind = new double[size];
+            windMin = filled(size, Double.POSITIVE_INFINITY);
+            windMax = filled(size, Double.NEGATIVE_INFINITY);
+            gusts = new double[size];
+            gustsMin = filled(size, Double.POSITIVE_INFINITY);
+            gustsMax = filled(size, Double.NEGATIVE_INFINITY);
+            temp = new double[size];
+            tempMin = filled(size, Double.POSITIVE_INFINITY);
+            tempMax = filled(size, Double.NEGATIVE_INFINITY);
+            precipitation = new double[size];
+            precipitationMin = filled(size, Double.POSITIVE_INFINITY);
+            precipitationMax = filled(size, Double.NEGATIVE_INFINITY);
+            cloudCover = new double[size];
+            pressure = new double[size];
+            directionSin = new double[size];
+            directionCos = new double[size];
+            directions = new int[size];
+            waves = new int[size];
+            wave = new double[size];
+            waveMin = filled(size, Double.POSITIVE_INFINITY);
+            waveMax = filled(size, Double.NEGATIVE_INFINITY);
+            wavePeriods = new int[size];
+            wavePeriod = new double[size];
+            waveDirectionSin = new double[size];
+            waveDirectionCos = new double[size];
+            waveDirections = new int[size];
+        }
+
+        void add(int slot, HourlySeries series, int row) {
+            if (models[slot]++ == 0) {
+                dateSeries[slot] = series;
+                dateRow[slot] = row;
+            }
+            double w = series.wind(row);
+            wind[slot] += w;
+            windMin[slot] = Math.min(windMin[slot], w);
+            windMax[slot] = Math.max(windMax[slot], w);
+            double g = series.gusts(row);
+            gusts[slot] += g;
+            gustsMin[slot] = Math.min(gustsMin[slot], g);
+            gustsMax[slot] = Math.max(gustsMax[slot], g);
+            double t = series.temperature(row);
+            temp[slot] += t;
+            tempMin[slot] = Math.min(tempMin[slot], t);
+            tempMax[slot] = Math.max(tempMax[slot], t);
+            double p = series.precipitation(row);
+            precipitation[slot] += p;
+            precipitationMin[slot] = Math.min(precipitationMin[slot], p);
+            precipitationMax[slot] = Math.max(precipitationMax[slot], p);
+            cloudCover[slot] += series.cloudCover(row);
+            pressure[slot] += series.pressure(row);
+            int direction = series.directionIndex(row);
+            if (direction >= 0) {
+                directionSin[slot] += SIN[direction];
+                directionCos[slot] += COS[direction];
+                directions[slot]++;
+            }
+            double h = series.waveHeightOrNaN(row);
+            if (!Double.isNaN(h)) {
+                wave[slot] += h;
+                waveMin[slot] = Math.min(waveMin[slot], h);
+                waveMax[slot] = Math.max(waveMax[slot], h);
+                waves[slot]++;
+            }
+            double period = series.wavePeriodOrNaN(row);
+            if (!Double.isNaN(period)) {
+                wavePeriod[slot] += period;
+                wavePeriods[slot]++;
+            }
+            int waveDirection = series.waveDirectionIndex(row);
+            if (waveDirection >= 0) {
+                waveDirectionSin[slot] += SIN[waveDirection];
+                waveDirectionCos[slot] += COS[waveDirection];
+                waveDirections[slot]++;
+            }
+        }
+
+        Forecast average(int slot) {
+            int n = models[slot];
+            boolean hasWaves = waves[slot] > 0;
+            var spread = new ForecastSpread(
+                    n,
+                    round1(windMin[slot]), round1(windMax[slot]),
+                    round1(gustsMin[slot]), round1(gustsMax[slot]),
+                    round1(tempMin[slot]), round1(tempMax[slot]),
+                    round1(precipitationMin[slot]), round1(precipitationMax[slot]),
+                    hasWaves ? round1(waveMin[slot]) : null,
+                    hasWaves ? round1(waveMax[slot]) : null
+            );
+            return new Forecast(
+                    dateSeries[slot].date(dateRow[slot]),
+                    round1(wind[slot] / n),
+                    round1(gusts[slot] / n),
+                    directions[slot] == 0 ? "N" : meanDirection(directionSin[slot], directionCos[slot]),
+                    round1(temp[slot] / n),
+                    round1(precipitation[slot] / n),
+                    round1(cloudCover[slot] / n),
+                    round1(pressure[slot] / n),
+                    hasWaves ? round1(wave[slot] / waves[slot]) : null,
+                    wavePeriods[slot] > 0 ? round1(wavePeriod[slot] / wavePeriods[slot]) : null,
+                    waveDirections[slot] > 0 ? meanDirection(waveDirectionSin[slot], waveDirectionCos[slot]) : null,
+                    spread
+            );
+        }
+
+        private static double[] filled(int size, double value) {
+            double[] array = new double[size];
+            Arrays.fill(array, value);
+            return array;
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides which spots' forecasts to refresh now, so that a refresh interval's worth of
+ * fetches arrives as a steady trickle rather than as one burst of every spot at once.
+ *
+ * Refresh cycles start when a GFS run reaches Windguru, {@link #RUN_AVAILABLE_AFTER}
+ * past 00, 06, 12 and 18 UTC. The interval is a whole number of runs, so every cycle
+ * starts with a run to fetch: a cycle started between runs would only fetch the run
+ * every spot already has. Each cycle hands
+ * every spot a slot of its own, evenly spaced across the cycle, most requested spots
+ * first so they show a new run soonest, and jittered within the slot so that the
+ * fetches do not land on a fixed beat. A spot is due once its slot has passed and it
+ * has not been fetched since, or as soon as a cycle starts if its slot in the last one
+ * slipped past before a tick came round.
+ *
+ * No more than {@code budget} spots are due at once, the ones with the oldest forecast
+ * first, so a cycle that fell behind catches up at a bounded rate instead of with a
+ * burst. Spots that have never been fetched have nothing to serve, so they go ahead
+ * of the rest with a larger budget of their own, {@link #FIRST_FETCH_BUDGET} a tick,
+ * most requested first: a cold start or a batch of new spots is fetched within a few
+ * minutes, without every request going out on the same tick.
+ *
+ * A spot whose fetch failed stays due, but sits out a backoff first that doubles with
+ * every failure in a row, from {@link #RETRY_BACKOFF} up to {@link #MAX_RETRY_BACKOFF},
+ * so a spot Windguru keeps failing on costs a request every half an hour, not every tick.
+ *
+ * Not thread-safe beyond what the aggregator needs: {@link #due} is only called from
+ * a {@code fixedDelay} job, which never overlaps itself even on a pooled scheduler, and
+ * the plain fields it keeps ({@code cycleStart}, {@code plannedSpots}, {@code slots})
+ * rely on that. Fetches and requests may be recorded from anywhere.
+ */
+public final class ForecastRefreshPlanner {
+
+    // GFS runs at 00, 06, 12 and 18 UTC and is on Windguru about four and a half hours later
+    static final Duration RUN_INTERVAL = Duration.ofHours(6);
+    static final Duration RUN_AVAILABLE_AFTER = Duration.ofMinutes(4 * 60 + 30);
+    private static final int CATCH_UP_FACTOR = 2;
+    // About ten ticks, five minutes, for the ~230 spots of a cold start
+    public static final int FIRST_FETCH_BUDGET = 25;
+    static final Duration RETRY_BACKOFF = Duration.ofSeconds(30);
+    static final Duration MAX_RETRY_BACKOFF = Duration.ofMinutes(30);
+
+    private final Duration interval;
+    private final Duration tick;
+    private final RandomGenerator random;
+
+    private final ConcurrentMap<Integer, Instant> fetchedAt = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Failures> failures = new ConcurrentHashMap<>();
+
+    private Instant cycleStart = Instant.EPOCH;
+    private Set<Integer> plannedSpots = Set.of();
+    private Map<Integer, Instant> slots = Map.of();
+
+    /**
+     * @param interval how often every spot is refreshed; a multiple of {@link #RUN_INTERVAL}
+     *                 so that cycles stay aligned with model runs
+     * @param tick     how often {@link #due} is asked
+     * @param random   source of the jitter
+     */
+    public ForecastRefreshPlanner(Duration interval, Duration tick, RandomGenerator random) {
+        if (interval.isZero() || interval.toMillis() % RUN_INTERVAL.toMillis() != 0) {
+            throw new IllegalArgumentException("Refresh interval " + interval + " is not a multiple of " + RUN_INTERVAL);
+        }
+        this.interval = interval;
+        this.tick = tick;
+        this.random = random;
+    }
+
+    public void recordFetched(int spotId, Instant at) {
+        fetchedAt.merge(spotId, at, (previous, latest) -> latest.isAfter(previous) ? latest : previous);
+        failures.remove(spotId);
+    }
+
+    /**
+     * @return how many fetches of the spot have failed in a row, this one included
+     */
+    public int recordFailed(int spotId, Instant at) {
+        return failures.merge(spotId, Failures.first(at), (previous, _) -> previous.next(at)).count();
+    }
+
+    public int failures(int spotId) {
+        Failures failed = failures.get(spotId);
+        return failed == null ? 0 : failed.count();
+    }
+
+    public int failingSpots() {
+        return failures.size();
+    }
+
+    public void recordRequested(int spotId) {
+        requests.computeIfAbsent(spotId, _ -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * The spots to refresh now, out of {@code spotIds}.
+     */
+    public List<Integer> due(Collection<Integer> spotIds, Instant now) {
+        plan(spotIds, now);
+        Instant previousCycleStart = cycleStart.minus(interval);
+
+        List<Integer> neverFetched = new ArrayList<>();
+        List<Integer> due = new ArrayList<>();
+        for (int spotId : spotIds) {
+            Failures failed = failures.get(spotId);
+            if (failed != null && failed.retryAt().isAfter(now)) {
+                continue;
+            }
+            Instant fetched = fetchedAt.get(spotId);
+            Instant slot = slots.get(spotId);
+            if (fetched == null) {
+                neverFetched.add(spotId);
+            } else if (fetched.isBefore(previousCycleStart)
+                    || slot != null && !slot.isAfter(now) && fetched.isBefore(slot)) {
+                due.add(spotId);
+            }
+        }
+
+        neverFetched.sort(Comparator
+                .comparingInt((Integer spotId) -> -requestCount(spotId))
+                .thenComparingInt(spotId -> spotId));
+        due.sort(Comparator
+                .comparing((Integer spotId) -> fetchedAt.get(spotId))
+                .thenComparing(spotId -> -requestCount(spotId)));
+        List<Integer> batch = new ArrayList<>(neverFetched.subList(0, Math.min(neverFetched.size(), FIRST_FETCH_BUDGET)));
+        batch.addAll(due.subList(0, Math.min(due.size(), budget(spotIds.size()))));
+        return batch;
+    }
+
+    // The even share of a tick, doubled so that a cycle that fell behind can catch up
+    int budget(int spots) {
+        long perTick = Math.ceilDiv(spots * tick.toMillis(), interval.toMillis());
+        return (int) Math.max(1, perTick) * CATCH_UP_FACTOR;
+    }
+
+    Instant slot(int spotId) {
+        return slots.get(spotId);
+    }
+
+    static Instant cycleStart(Instant now, Duration interval) {
+        long anchor = RUN_AVAILABLE_AFTER.toMillis();
+        long length = interval.toMillis();
+        long cycles = Math.floorDiv(now.toEpochMilli() - anchor, length);
+        return Instant.ofEpochMilli(anchor + cycles * length);
+    }
+
+    // Rebuilt when a cycle starts or spots come and go
+    private void plan(Collection<Integer> spotIds, Instant now) {
+        Instant start = cycleStart(now, interval);
+        if (start.equals(cycleStart) && plannedSpots.size() == spotIds.size() && plannedSpots.containsAll(spotIds)) {
+            return;
+        }
+
+        List<Integer> order = new ArrayList<>(spotIds);
+        order.sort(Comparator
+                .comparingInt((Integer spotId) -> -requestCount(spotId))
+                .thenComparingInt(spotId -> spotId));
+
+        long slotMillis = interval.toMillis() / Math.max(1, order.size());
+        Map<Integer, Instant> planned = new HashMap<>(order.size() * 2);
+        for (int i = 0; i < order.size(); i++) {
+            long jitter = slotMillis > 0 ? random.nextLong(slotMillis) : 0;
+            planned.put(order.get(i), start.plusMillis(i * slotMillis + jitter));
+        }
+
+        if (!start.equals(cycleStart)) {
+            // Popularity of the last few cycles, not of all time
+            requests.values().forEach(count -> count.updateAndGet(value -> value / 2));
+        }
+        cycleStart = start;
+        plannedSpots = Set.copyOf(spotIds);
+        slots = planned;
+        // Spots that are gone, and ids asked for that never were spots, are forgotten
+        failures.keySet().retainAll(plannedSpots);
+        requests.keySet().retainAll(plannedSpots);
+        fetchedAt.keySet().retainAll(plannedSpots);
+    }
+
+    private record Failures(int count, Instant retryAt) {
+
+        static Failures first(Instant at) {
+            return new Failures(1, at.plus(RETRY_BACKOFF));
+        }
+
+        Failures next(Instant at) {
+            // Doubling stops at the cap, well before the shift would overflow
+            Duration backoff = RETRY_BACKOFF.multipliedBy(1L << Math.min(count, 16));
+            return new Failures(count + 1, at.plus(backoff.compareTo(MAX_RETRY_BACKOFF) < 0 ? backoff : MAX_RETRY_BACKOFF));
+        }
+    }
+
+    private int requestCount(int spotId) {
+        AtomicInteger count = requests.get(spotId);
+        return count == null ? 0 : count.get();
+    }
+}
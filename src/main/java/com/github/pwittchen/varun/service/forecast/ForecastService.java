@@ -5,27 +5,30 @@ import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.ForecastData;
 import com.github.pwittchen.varun.model.forecast.ForecastModel;
 import com.github.pwittchen.varun.model.forecast.ForecastWg;
-import okhttp3.Call;
-import okhttp3.Callback;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
-import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.LinkedList;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.DECIMAL_OR_DASH;
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.INTEGER_OR_DASH;
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.SIGNED_INTEGER;
 
 @Service
 public class ForecastService {
@@ -34,13 +37,42 @@ public class ForecastService {
     private static final String FORECAST_PARAMS = "WSPD,GUST,WDEG,TMP,APCP1,HCLD,MCLD,LCLD,SLP";
     private static final String WAVE_PARAMS = "HTSGW,PERPW,WADEG";
     private static final String WAVE_MODEL = "ewam";
+    // Shorter than the forecast refresh interval, so every scheduled refresh gets a fresh
+    // wave run, and longer than it takes to fetch all the models of a spot that was opened
+    private static final Duration WAVES_TTL = Duration.ofHours(1);
+
+    // Columns of FORECAST_PARAMS and WAVE_PARAMS, in the order they are requested
+    static final MicroTextParser.Column[] FORECAST_COLUMNS = {
+            SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER,
+            DECIMAL_OR_DASH, INTEGER_OR_DASH, INTEGER_OR_DASH, INTEGER_OR_DASH, DECIMAL_OR_DASH
+    };
+    private static final int WSPD = 0, GUST = 1, WDEG = 2, TMP = 3, APCP1 = 4, HCLD = 5, MCLD = 6, LCLD = 7, SLP = 8;
+    static final MicroTextParser.Column[] WAVE_COLUMNS = {DECIMAL_OR_DASH, DECIMAL_OR_DASH, DECIMAL_OR_DASH};
+    private static final int HTSGW = 0, PERPW = 1, WADEG = 2;
+    private static final MicroTextSeries EMPTY_WAVES = new MicroTextSeries(WAVE_COLUMNS.length);
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
     private final WeatherForecastMapper mapper;
-
-    public ForecastService(WeatherForecastMapper mapper, OkHttpClient httpClient) {
+    private final ConcurrentMap<Integer, Mono<MicroTextSeries>> waves = new ConcurrentHashMap<>();
+    private final Counter waveLookups;
+    private final Counter waveRequests;
+
+    public ForecastService(
+            WeatherForecastMapper mapper,
+            OkHttpClient httpClient,
+            UpstreamFetcher upstreamFetcher,
+            MeterRegistry meterRegistry
+    ) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
         this.mapper = mapper;
+        this.waveLookups = Counter.builder("varun.forecast.waves.lookups")
+                .description("Wave series merged into a forecast model, whether fetched or cached")
+                .register(meterRegistry);
+        this.waveRequests = Counter.builder("varun.forecast.waves.requests")
+                .description("Wave series requested from Windguru")
+                .register(meterRegistry);
     }
 
     public Mono<ForecastData> getForecastData(int wgSpotId) {
@@ -51,7 +83,7 @@ public class ForecastService {
         final HttpUrl httpUrl = HttpUrl.parse(URL);
         if (httpUrl == null) return Mono.just(new ForecastData(List.of(), Map.of()));
 
-        Mono<List<ForecastWg>> forecastMono = executeHttpRequest(new Request
+        Mono<MicroTextSeries> forecastMono = executeHttpRequest(new Request
                 .Builder()
                 .url(httpUrl
                         .newBuilder()
@@ -61,37 +93,35 @@ public class ForecastService {
                         .build()
                         .toString())
                 .get()
-                .build())
-                .map(this::retrieveWgForecasts);
+                .build(), FORECAST_COLUMNS);
 
-        Mono<Map<String, WaveData>> waveMono = fetchWaveData(wgSpotId);
+        Mono<MicroTextSeries> waveMono = fetchWaveData(wgSpotId);
 
         return Mono.zip(forecastMono, waveMono)
-                .map(tuple -> {
-                    List<ForecastWg> forecasts = tuple.getT1();
-                    Map<String, WaveData> waveByLabel = tuple.getT2();
-                    List<ForecastWg> merged = mergeWaveData(forecasts, waveByLabel);
-                    return new ForecastData(
-                            mapper.toWeatherForecasts(merged),
-                            Map.of(forecastModel, mapper.toHourlyForecasts(merged))
-                    );
-                })
-                .onErrorResume(_ -> forecastMono.map(forecasts -> new ForecastData(
-                        mapper.toWeatherForecasts(forecasts),
-                        Map.of(forecastModel, mapper.toHourlyForecasts(forecasts))
-                )));
+                .map(tuple -> toForecastData(forecastModel, toForecasts(tuple.getT1(), tuple.getT2())))
+                .onErrorResume(_ -> forecastMono.map(forecasts -> toForecastData(forecastModel, toForecasts(forecasts, null))));
     }
 
     public Mono<List<Forecast>> getForecast(int wgSpotId) {
         return getForecastData(wgSpotId).map(ForecastData::daily);
     }
 
-    private record WaveData(Double height, Double period, Integer directionDeg) {}
+    /**
+     * The wave series of a spot is the same whichever wind model it is merged into, and
+     * opening a spot fetches some forty of them at once. So the series is requested once
+     * per spot and kept for {@link #WAVES_TTL}: the models that ask while it is on its way
+     * wait for the same request, the ones after get the cached series. A failed request
+     * is not kept, so the next model to ask tries again.
+     */
+    private Mono<MicroTextSeries> fetchWaveData(int wgSpotId) {
+        waveLookups.increment();
+        return waves.computeIfAbsent(wgSpotId, this::cachedWaveData);
+    }
 
-    private Mono<Map<String, WaveData>> fetchWaveData(int wgSpotId) {
+    private Mono<MicroTextSeries> cachedWaveData(int wgSpotId) {
         final HttpUrl httpUrl = HttpUrl.parse(URL);
-        if (httpUrl == null) return Mono.just(Map.of());
-        return executeHttpRequest(new Request
+        if (httpUrl == null) return Mono.just(EMPTY_WAVES);
+        Request request = new Request
                 .Builder()
                 .url(httpUrl
                         .newBuilder()
@@ -101,161 +131,84 @@ public class ForecastService {
                         .build()
                         .toString())
                 .get()
-                .build())
-                .map(this::retrieveWaveData)
-                .onErrorResume(_ -> Mono.just(Map.of()));
+                .build();
+        return Mono
+                .defer(() -> {
+                    waveRequests.increment();
+                    return executeHttpRequest(request, WAVE_COLUMNS);
+                })
+                .cache(_ -> WAVES_TTL, _ -> Duration.ZERO, () -> Duration.ZERO)
+                .onErrorResume(_ -> Mono.just(EMPTY_WAVES));
     }
 
-    private Map<String, WaveData> retrieveWaveData(String microText) {
-        String[] lines = microText.split("\\r?\\n");
-
-        // Wave-only format: " Fri 20. 13h     0.1       2      42"
-        Pattern row = Pattern.compile(
-                "^\\s*" +
-                        "(Mon|Tue|Wed|Thu|Fri|Sat|Sun)" +
-                        "\\s+(\\d{1,2})\\.\\s+(\\d{2})h\\s+" +
-                        "(-|\\d+(?:\\.\\d+)?)\\s+" +       // HTSGW
-                        "(-|\\d+(?:\\.\\d+)?)\\s+" +       // PERPW
-                        "(-|\\d+(?:\\.\\d+)?)\\s*$"        // WADEG
+    private ForecastData toForecastData(ForecastModel forecastModel, List<ForecastWg> forecasts) {
+        return ForecastData.ofSeries(
+                mapper.toWeatherForecasts(forecasts),
+                Map.of(forecastModel, mapper.toHourlySeries(forecasts))
         );
+    }
 
-        Map<String, WaveData> result = new java.util.LinkedHashMap<>();
-        for (String line : lines) {
-            line = line.trim().replace('\u00A0', ' ');
-            Matcher m = row.matcher(line);
-            if (m.find()) {
-                String label = String.format("%s %s. %sh", m.group(1), m.group(2), m.group(3));
-                result.put(label, new WaveData(
-                        parseNullableDouble(m.group(4)),
-                        parseNullableDouble(m.group(5)),
-                        parseNullableInt(m.group(6))
+    /**
+     * Turns the parsed columns into rows, with the wave series (if any) matched to the
+     * forecast hours by time rather than by formatted label. The wave model usually
+     * covers fewer hours than the forecast model; those rows are left without waves.
+     * Both series are in time order, so they are walked together in a single pass.
+     */
+    static List<ForecastWg> toForecasts(MicroTextSeries forecast, @Nullable MicroTextSeries waves) {
+        List<ForecastWg> forecasts = new ArrayList<>(forecast.size());
+        int waveRow = 0;
+        for (int row = 0; row < forecast.size(); row++) {
+            int cloudCover = Math.max(forecast.intValue(HCLD, row), Math.max(forecast.intValue(MCLD, row), forecast.intValue(LCLD, row)));
+            if (waves != null) {
+                waveRow = waves.seek(waveRow, forecast, row);
+            }
+            if (waves == null || waveRow == waves.size() || waves.timeKey(waveRow) != forecast.timeKey(row)) {
+                forecasts.add(new ForecastWg(
+                        forecast.label(row),
+                        forecast.intValue(WSPD, row),
+                        forecast.intValue(GUST, row),
+                        forecast.intValue(WDEG, row),
+                        forecast.intValue(TMP, row),
+                        forecast.intValue(APCP1, row),
+                        cloudCover,
+                        forecast.intValue(SLP, row)
                 ));
+                continue;
             }
+            forecasts.add(new ForecastWg(
+                    forecast.label(row),
+                    forecast.intValue(WSPD, row),
+                    forecast.intValue(GUST, row),
+                    forecast.intValue(WDEG, row),
+                    forecast.intValue(TMP, row),
+                    forecast.intValue(APCP1, row),
+                    cloudCover,
+                    forecast.intValue(SLP, row),
+                    nullable(waves.value(HTSGW, waveRow)),
+                    nullable(waves.value(PERPW, waveRow)),
+                    Double.isNaN(waves.value(WADEG, waveRow)) ? null : (int) Math.round(waves.value(WADEG, waveRow))
+            ));
         }
-        return result;
+        return forecasts;
     }
 
-    private List<ForecastWg> mergeWaveData(List<ForecastWg> forecasts, Map<String, WaveData> waveByLabel) {
-        if (waveByLabel.isEmpty()) return forecasts;
-        return forecasts.stream()
-                .map(f -> {
-                    WaveData wave = waveByLabel.get(f.label());
-                    if (wave != null) {
-                        return new ForecastWg(
-                                f.label(), f.windSpeed(), f.gust(), f.windDirectionDegrees(),
-                                f.temperature(), f.apcpMm1h(), f.cloudCoverPercent(), f.pressureHpa(),
-                                wave.height(), wave.period(), wave.directionDeg()
-                        );
-                    }
-                    return f;
-                })
-                .collect(Collectors.toList());
+    private static Double nullable(double value) {
+        return Double.isNaN(value) ? null : value;
     }
 
-    private Mono<String> executeHttpRequest(final Request request) {
-        return Mono.<String>create(sink -> {
-            Call call = httpClient.newCall(request);
-            sink.onCancel(call::cancel);
-            call.enqueue(new Callback() {
-                @Override
-                public void onFailure(@NotNull Call call, @NotNull IOException e) {
-                    sink.error(e);
-                }
-
-                @Override
-                public void onResponse(@NotNull Call call, @NotNull Response response) {
-                    try (response) {
-                        if (!response.isSuccessful()) {
-                            sink.error(new IOException("HTTP " + response.code() + ": " + response.message()));
-                            return;
-                        }
-                        ResponseBody body = response.body();
-                        sink.success(body != null ? body.string() : "");
-                    } catch (Exception e) {
-                        sink.error(e);
-                    }
-                }
-            });
+    /**
+     * The micro text only changes with a model run, so the request goes out conditionally
+     * and the parser only runs when Windguru reports the text as changed.
+     */
+    private Mono<MicroTextSeries> executeHttpRequest(final Request request, final MicroTextParser.Column... columns) {
+        return upstreamFetcher.executeAsync(httpClient, request, response -> {
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP " + response.code() + ": " + response.message());
+            }
+            ResponseBody body = response.body();
+            try (InputStream in = body != null ? body.byteStream() : InputStream.nullInputStream()) {
+                return MicroTextParser.parse(in, columns);
+            }
         }).subscribeOn(Schedulers.boundedElastic());
     }
-
-    private List<ForecastWg> retrieveWgForecasts(final String microText) {
-        String[] lines = microText.split("\\r?\\n");
-
-        // Example line:
-        // " Mon 29. 02h      15      20     257      20       -      80      60      40    1013"
-        Pattern row = Pattern.compile(
-                "^\\s*" +                                      // leading spaces
-                        "(Mon|Tue|Wed|Thu|Fri|Sat|Sun)" +      // weekday
-                        "\\s+(\\d{1,2})\\.\\s+(\\d{2})h\\s+" + // day of month + hour
-                        "(-?\\d+)\\s+" +                       // WSPD
-                        "(-?\\d+)\\s+" +                       // GUST
-                        "(-?\\d+)\\s+" +                       // WDEG  (degrees)
-                        "(-?\\d+)\\s+" +                       // TMP   (C)
-                        "(-|\\d+(?:\\.\\d+)?)\\s+" +           // APCP1 (mm/1h or '-')
-                        "(-|\\d+)\\s+" +                       // HCLD  (high clouds %)
-                        "(-|\\d+)\\s+" +                       // MCLD  (mid clouds %)
-                        "(-|\\d+)\\s+" +                       // LCLD  (low clouds %)
-                        "(-|\\d+(?:\\.\\d+)?)\\s*$"            // SLP   (sea-level pressure hPa)
-        );
-
-        return Arrays.stream(lines)
-                .map(line -> parseLineToForecast(line, row))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toCollection(LinkedList::new));
-    }
-
-    private Optional<ForecastWg> parseLineToForecast(String line, Pattern row) {
-        line = line.trim().replace('\u00A0', ' '); // non-breaking spaces → space
-        Matcher m = row.matcher(line);
-        if (m.find()) return Optional.of(createForecast(m));
-        return Optional.empty();
-    }
-
-    private ForecastWg createForecast(Matcher m) {
-        String label = String.format("%s %s. %sh", m.group(1), m.group(2), m.group(3));
-        int hcld = parseNumber(m.group(9)).intValue();
-        int mcld = parseNumber(m.group(10)).intValue();
-        int lcld = parseNumber(m.group(11)).intValue();
-        int cloudCover = Math.max(hcld, Math.max(mcld, lcld));
-        return new ForecastWg(
-                label,
-                parseNumber(m.group(4)).intValue(),
-                parseNumber(m.group(5)).intValue(),
-                parseNumber(m.group(6)).intValue(),
-                parseNumber(m.group(7)).intValue(),
-                parseNumber(m.group(8)).intValue(),
-                cloudCover,
-                parseNumber(m.group(12)).intValue()
-        );
-    }
-
-    private Number parseNumber(String s) {
-        if (s == null || s.equals("-")) return 0;
-        try {
-            if (s.contains(".")) return Double.parseDouble(s);
-            return Integer.parseInt(s);
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
-
-    private Double parseNullableDouble(String s) {
-        if (s == null || s.equals("-")) return null;
-        try {
-            return Double.parseDouble(s);
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
-
-    private Integer parseNullableInt(String s) {
-        if (s == null || s.equals("-")) return null;
-        try {
-            return (int) Math.round(Double.parseDouble(s));
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
 }
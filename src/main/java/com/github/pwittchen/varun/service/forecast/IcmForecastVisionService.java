@@ -41,6 +41,11 @@ public class IcmForecastVisionService {
             DateTimeFormatter.ofPattern("EEE dd MMM yyyy HH:mm", Locale.ENGLISH);
     private static final double MS_TO_KNOTS = 1.94384;
     private static final double MAX_PLAUSIBLE_KNOTS = 120.0;
+    private static final double MIN_PLAUSIBLE_TEMP_C = -60.0;
+    private static final double MAX_PLAUSIBLE_TEMP_C = 60.0;
+    private static final double MAX_PLAUSIBLE_PRECIPITATION_MM = 500.0;
+    private static final double MIN_PLAUSIBLE_PRESSURE_HPA = 850.0;
+    private static final double MAX_PLAUSIBLE_PRESSURE_HPA = 1100.0;
     private static final int MAX_FORECAST_DAYS_AHEAD = 10;
     private static final List<String> CARDINAL_DIRECTIONS = List.of("N", "NE", "E", "SE", "S", "SW", "W", "NW");
     private static final Pattern DAY_MONTH_PATTERN = Pattern.compile("^(\\d{1,2})[.\\-/](\\d{1,2})");
@@ -182,7 +187,7 @@ public class IcmForecastVisionService {
             }
             double wind = toKnots(point.windMs());
             double gusts = Math.max(toKnots(point.gustMs()), wind);
-            if (wind > MAX_PLAUSIBLE_KNOTS || gusts > MAX_PLAUSIBLE_KNOTS) {
+            if (wind > MAX_PLAUSIBLE_KNOTS || gusts > MAX_PLAUSIBLE_KNOTS || !hasPlausibleWeather(point)) {
                 continue;
             }
             LocalDateTime dateTime = LocalDateTime.of(date.get(), LocalTime.of(point.hour(), 0));
@@ -247,6 +252,20 @@ public class IcmForecastVisionService {
         return CARDINAL_DIRECTIONS.get((index + CARDINAL_DIRECTIONS.size() / 2) % CARDINAL_DIRECTIONS.size());
     }
 
+    /**
+     * A misread value, such as pressure given in Pa, is dropped with its point like implausible wind,
+     * since it could not be stored in an hourly series. Missing values are still read as zero.
+     */
+    private static boolean hasPlausibleWeather(VisionPoint point) {
+        return isWithin(point.tempC(), MIN_PLAUSIBLE_TEMP_C, MAX_PLAUSIBLE_TEMP_C)
+                && isWithin(point.precipitationMm(), Double.NEGATIVE_INFINITY, MAX_PLAUSIBLE_PRECIPITATION_MM)
+                && isWithin(point.pressureHpa(), MIN_PLAUSIBLE_PRESSURE_HPA, MAX_PLAUSIBLE_PRESSURE_HPA);
+    }
+
+    private static boolean isWithin(Double value, double min, double max) {
+        return value == null || (value >= min && value <= max);
+    }
+
     private static double toKnots(Double metersPerSecond) {
         return Math.max(0.0, round(orZero(metersPerSecond) * MS_TO_KNOTS));
     }
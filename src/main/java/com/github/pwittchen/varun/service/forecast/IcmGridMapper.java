@@ -1,17 +1,31 @@
 package com.github.pwittchen.varun.service.forecast;
 
 import com.github.pwittchen.varun.model.forecast.IcmGrid;
+import com.github.pwittchen.varun.service.cache.GeoResolutionStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 @Component
 public class IcmGridMapper {
@@ -31,13 +45,22 @@ public class IcmGridMapper {
     private static final int MIN_VALID_IMAGE_SIZE = 10000;
     // Search radius for finding a valid grid point (ICM grid spacing is irregular)
     private static final int SEARCH_RADIUS = 8;
+    // What a probe of one point of a ring answered
+    private static final int PENDING = 0;
+    private static final int NO_METEOGRAM = 1;
+    private static final int METEOGRAM = 2;
 
     private final OkHttpClient httpClient;
-    // Cache validated grid points to avoid repeated HTTP checks
+    // Grid points found valid, kept across restarts
+    private final GeoResolutionStore geoResolutionStore;
+    private final MeterRegistry meterRegistry;
+    // Cache validated grid points to avoid repeated HTTP checks, including the ones where none was found
     private final ConcurrentMap<String, Optional<IcmGrid>> validatedGridCache = new ConcurrentHashMap<>();
 
-    public IcmGridMapper(OkHttpClient httpClient) {
+    public IcmGridMapper(OkHttpClient httpClient, GeoResolutionStore geoResolutionStore, MeterRegistry meterRegistry) {
         this.httpClient = httpClient;
+        this.geoResolutionStore = geoResolutionStore;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -60,68 +83,185 @@ public class IcmGridMapper {
         String cacheKey = approximateGrid.row() + ":" + approximateGrid.col();
 
         Optional<IcmGrid> validGrid = validatedGridCache.computeIfAbsent(cacheKey,
-                k -> findNearestValidGrid(approximateGrid));
+                k -> resolveValidGrid(approximateGrid));
 
         return validGrid.map(grid -> String.format(ICM_URL_FORMAT, grid.row(), grid.col()));
     }
 
-    private IcmGrid toRowCol(double lat, double lon) {
+    static IcmGrid toRowCol(double lat, double lon) {
         int row = (int) Math.round(ROW_A * lat + ROW_B);
         int col = (int) Math.round(COL_A * lon + COL_B);
         return new IcmGrid(row, col);
     }
 
+    private Optional<IcmGrid> resolveValidGrid(IcmGrid approximate) {
+        Optional<IcmGrid> stored = geoResolutionStore.icmGrid(approximate);
+        if (stored.isPresent()) {
+            return stored;
+        }
+        Optional<IcmGrid> found = findNearestValidGrid(approximate);
+        // Not finding one is not stored: it is as likely to be meteo.pl failing as a gap in the grid
+        found.ifPresent(grid -> geoResolutionStore.putIcmGrid(approximate, grid));
+        return found;
+    }
+
     /**
-     * Search in expanding squares around the approximate point to find a valid meteogram.
+     * Searches in expanding squares around the approximate point for a valid meteogram,
+     * probing a whole square at once: a point at the edge of the grid used to cost up to
+     * 289 downloads one after another.
      */
     private Optional<IcmGrid> findNearestValidGrid(IcmGrid approximate) {
-        // First, check the exact point
-        if (isValidMeteogram(approximate.row(), approximate.col())) {
-            return Optional.of(approximate);
+        long startTime = System.nanoTime();
+        AtomicInteger probes = new AtomicInteger();
+        Optional<IcmGrid> found = Optional.empty();
+        try {
+            for (int radius = 0; radius <= SEARCH_RADIUS && found.isEmpty(); radius++) {
+                found = probeRing(approximate, radius, probes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
-        // Search in an expanding radius
-        for (int radius = 1; radius <= SEARCH_RADIUS; radius++) {
-            for (int dr = -radius; dr <= radius; dr++) {
-                for (int dc = -radius; dc <= radius; dc++) {
-                    // Only check points on the perimeter of this radius
-                    if (Math.abs(dr) == radius || Math.abs(dc) == radius) {
-                        int row = approximate.row() + dr;
-                        int col = approximate.col() + dc;
-                        if (isValidMeteogram(row, col)) {
-                            log.debug("Found valid ICM grid at ({}, {}) for approximate ({}, {})",
-                                    row, col, approximate.row(), approximate.col());
-                            return Optional.of(new IcmGrid(row, col));
-                        }
+        String outcome = String.valueOf(found.isPresent());
+        DistributionSummary.builder("varun.icm.grid.probes")
+                .description("Meteograms probed to resolve one ICM grid point")
+                .tag("found", outcome)
+                .register(meterRegistry)
+                .record(probes.get());
+        Timer.builder("varun.icm.grid.resolution.duration")
+                .description("Time to resolve one ICM grid point")
+                .tag("found", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+
+        found.ifPresentOrElse(
+                grid -> log.debug("Found valid ICM grid at ({}, {}) for approximate ({}, {}) after {} probes",
+                        grid.row(), grid.col(), approximate.row(), approximate.col(), probes.get()),
+                () -> log.warn("No valid ICM grid found near ({}, {}) after {} probes",
+                        approximate.row(), approximate.col(), probes.get()));
+        return found;
+    }
+
+    /**
+     * Probes every point of the square {@code radius} away from {@code center} on virtual
+     * threads, and cancels the probes still running once one of them has a meteogram and
+     * every point nearer than it has answered, so a far point that answers first never
+     * wins over a near one. How many of them reach meteo.pl at once is up to the client's
+     * per-host limit.
+     */
+    private Optional<IcmGrid> probeRing(IcmGrid center, int radius, AtomicInteger probes) throws InterruptedException {
+        List<IcmGrid> ring = ring(center, radius);
+        // PENDING until a point's probe is done, in ring order
+        AtomicIntegerArray answers = new AtomicIntegerArray(ring.size());
+        try (var scope = StructuredTaskScope.open(
+                Joiner.<Boolean>allUntil(subtask -> nearestMeteogram(answers) >= 0),
+                configuration -> configuration
+                        .withName("icm-grid-probe")
+                        .withThreadFactory(Thread.ofVirtual().factory())
+        )) {
+            for (int i = 0; i < ring.size(); i++) {
+                IcmGrid grid = ring.get(i);
+                int index = i;
+                scope.fork(() -> {
+                    probes.incrementAndGet();
+                    boolean valid = false;
+                    try {
+                        valid = isValidMeteogram(grid.row(), grid.col());
+                        return valid;
+                    } finally {
+                        answers.set(index, valid ? METEOGRAM : NO_METEOGRAM);
                     }
+                });
+            }
+            scope.join();
+
+            int nearest = nearestMeteogram(answers);
+            return nearest >= 0 ? Optional.of(ring.get(nearest)) : Optional.empty();
+        }
+    }
+
+    // The first point with a meteogram when all the ones before it have none, otherwise -1
+    private static int nearestMeteogram(AtomicIntegerArray answers) {
+        for (int i = 0; i < answers.length(); i++) {
+            int answer = answers.get(i);
+            if (answer == METEOGRAM) {
+                return i;
+            }
+            if (answer == PENDING) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The points on the perimeter of the square {@code radius} away from {@code center},
+     * the ones closest to it first.
+     */
+    static List<IcmGrid> ring(IcmGrid center, int radius) {
+        List<IcmGrid> ring = new ArrayList<>(Math.max(1, 8 * radius));
+        for (int dr = -radius; dr <= radius; dr++) {
+            for (int dc = -radius; dc <= radius; dc++) {
+                // Only the points on the perimeter of this radius
+                if (Math.abs(dr) == radius || Math.abs(dc) == radius) {
+                    ring.add(new IcmGrid(center.row() + dr, center.col() + dc));
                 }
             }
         }
+        ring.sort(Comparator.comparingInt(grid -> squaredDistance(center, grid)));
+        return ring;
+    }
 
-        log.warn("No valid ICM grid found near ({}, {})", approximate.row(), approximate.col());
-        return Optional.empty();
+    private static int squaredDistance(IcmGrid from, IcmGrid to) {
+        int dr = to.row() - from.row();
+        int dc = to.col() - from.col();
+        return dr * dr + dc * dc;
     }
 
+    /**
+     * Asks for no more of the image than it takes to tell a meteogram from an error image.
+     * The size comes from Content-Range when the range is honoured, from Content-Length
+     * when the whole image is sent instead, and otherwise from reading at most the
+     * threshold before the response is closed.
+     */
     private boolean isValidMeteogram(int row, int col) {
         String url = String.format(ICM_URL_FORMAT, row, col);
         Request request = new Request.Builder()
                 .url(url)
                 .get()
+                .header("Range", "bytes=0-" + MIN_VALID_IMAGE_SIZE)
                 .build();
 
         try (var response = httpClient.newCall(request).execute()) {
-            if (response.isSuccessful() && response.body() != null) {
-                long contentLength = response.body().contentLength();
-                if (contentLength > 0) {
-                    return contentLength > MIN_VALID_IMAGE_SIZE;
-                }
-                // If content-length unknown, read the body
-                byte[] bytes = response.body().bytes();
-                return bytes.length > MIN_VALID_IMAGE_SIZE;
+            if (!response.isSuccessful()) {
+                return false;
+            }
+            long size = response.code() == HttpURLConnection.HTTP_PARTIAL
+                    ? totalSize(response.header("Content-Range"))
+                    : response.body().contentLength();
+            if (size >= 0) {
+                return size > MIN_VALID_IMAGE_SIZE;
             }
+            return response.body().source().request(MIN_VALID_IMAGE_SIZE + 1);
         } catch (IOException e) {
             log.trace("Failed to check ICM grid ({}, {}): {}", row, col, e.getMessage());
         }
         return false;
     }
-}
\ No newline at end of file
+
+    // "bytes 0-10000/48213" -> 48213, -1 when the total is missing or unknown ("*")
+    static long totalSize(@Nullable String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
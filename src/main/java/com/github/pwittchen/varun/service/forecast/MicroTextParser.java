@@ -0,0 +1,292 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Single-pass parser of the Windguru micro text, reading the response bytes straight
+ * into a {@link MicroTextSeries}.
+ *
+ * The forecast cycle parses a micro text for every spot and model, and the regex based
+ * parser it replaces decoded the body into a String, split it into lines, trimmed and
+ * copied each of them, and boxed every value on the way to a formatted label. Here the
+ * stream is read through one buffer, each line is tokenized in place, and numbers are
+ * accumulated from their digits; the only allocations left are the buffers and the
+ * columns of the result.
+ *
+ * A row is accepted exactly when the old pattern matched it: after optional whitespace,
+ * a weekday ({@code Mon} to {@code Sun}), a one or two digit day of month followed by a
+ * dot, a two digit hour followed by {@code h}, and then precisely one value per column,
+ * all separated by whitespace. Every other line (titles, headers, units) is skipped.
+ * Non-breaking spaces (U+00A0, the bytes {@code C2 A0} in UTF-8) count as whitespace,
+ * as they did once the old parser had decoded the text; any other byte does not, so a
+ * row with some other non-ASCII character is skipped as it was before.
+ *
+ * Row labels come out as the old pattern wrote them, with the day of month as it was
+ * printed and a two digit hour (see {@link MicroTextSeries#label(int)}).
+ */
+public final class MicroTextParser {
+
+    /**
+     * What a column may contain, mirroring the groups of the old row pattern.
+     */
+    public enum Column {
+        /** {@code -?\d+}; never missing. */
+        SIGNED_INTEGER,
+        /** {@code -|\d+} */
+        INTEGER_OR_DASH,
+        /** {@code -|\d+(\.\d+)?} */
+        DECIMAL_OR_DASH
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int INITIAL_LINE_LENGTH = 256;
+    private static final byte[][] WEEKDAYS = {
+            ascii("Mon"), ascii("Tue"), ascii("Wed"), ascii("Thu"), ascii("Fri"), ascii("Sat"), ascii("Sun")
+    };
+    // Mantissas up to 15 digits divided by an exact power of ten round exactly like Double.parseDouble
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    private final InputStream in;
+    private final Column[] columns;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final double[] values;
+    private byte[] line = new byte[INITIAL_LINE_LENGTH];
+    private int lineLength;
+    private int position;
+    private int limit;
+    // Where the last token parsed ended
+    private int tokenEnd;
+
+    private MicroTextParser(InputStream in, Column[] columns) {
+        this.in = in;
+        this.columns = columns;
+        this.values = new double[columns.length];
+    }
+
+    /**
+     * Parses the rows of a micro text.
+     *
+     * @param in      micro text, ASCII or UTF-8; not closed
+     * @param columns what each column after the date holds, in the order requested
+     */
+    public static MicroTextSeries parse(InputStream in, Column... columns) throws IOException {
+        return new MicroTextParser(in, columns).parse();
+    }
+
+    private MicroTextSeries parse() throws IOException {
+        MicroTextSeries series = new MicroTextSeries(columns.length);
+        while (readLine()) {
+            parseRow(series);
+        }
+        return series;
+    }
+
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return lineLength > 0;
+                }
+            }
+            byte b = buffer[position++];
+            if (b == '\n') {
+                return true;
+            }
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = b;
+        }
+    }
+
+    private void parseRow(MicroTextSeries series) {
+        int p = skipWhitespace(0);
+
+        int weekday = weekdayAt(p);
+        if (weekday < 0) {
+            return;
+        }
+        p += 3;
+
+        int afterSpace = skipWhitespace(p);
+        if (afterSpace == p) {
+            return;
+        }
+        p = afterSpace;
+
+        int dayDigits = countDigits(p);
+        if (dayDigits < 1 || dayDigits > 2 || !isAt(p + dayDigits, '.')) {
+            return;
+        }
+        int dayOfMonth = digitsValue(p, dayDigits);
+        p += dayDigits + 1;
+
+        afterSpace = skipWhitespace(p);
+        if (afterSpace == p) {
+            return;
+        }
+        p = afterSpace;
+
+        if (countDigits(p) != 2 || !isAt(p + 2, 'h')) {
+            return;
+        }
+        int hour = digitsValue(p, 2);
+        p += 3;
+
+        for (int column = 0; column < columns.length; column++) {
+            afterSpace = skipWhitespace(p);
+            if (afterSpace == p) {
+                return;
+            }
+            p = afterSpace;
+            double value = parseValue(p, columns[column]);
+            if (tokenEnd < 0) {
+                return;
+            }
+            values[column] = value;
+            p = tokenEnd;
+        }
+
+        if (skipWhitespace(p) != lineLength) {
+            return;
+        }
+        series.add(weekday, dayOfMonth, dayDigits == 2, hour, values);
+    }
+
+    /**
+     * Parses the value starting at {@code p}, leaving the index after it in
+     * {@link #tokenEnd}, or -1 there when the token does not fit the column.
+     */
+    private double parseValue(int p, Column column) {
+        tokenEnd = -1;
+        if (isAt(p, '-')) {
+            if (column == Column.SIGNED_INTEGER) {
+                int digits = countDigits(p + 1);
+                if (digits == 0 || !endsToken(p + 1 + digits)) {
+                    return Double.NaN;
+                }
+                tokenEnd = p + 1 + digits;
+                return -digitsDouble(p + 1, digits);
+            }
+            if (!endsToken(p + 1)) {
+                return Double.NaN;
+            }
+            tokenEnd = p + 1;
+            return Double.NaN;
+        }
+
+        int digits = countDigits(p);
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        int end = p + digits;
+        if (column == Column.DECIMAL_OR_DASH && isAt(end, '.')) {
+            int fractionDigits = countDigits(end + 1);
+            if (fractionDigits == 0 || !endsToken(end + 1 + fractionDigits)) {
+                return Double.NaN;
+            }
+            tokenEnd = end + 1 + fractionDigits;
+            return decimalValue(p, digits, fractionDigits);
+        }
+        if (!endsToken(end)) {
+            return Double.NaN;
+        }
+        tokenEnd = end;
+        return digitsDouble(p, digits);
+    }
+
+    private double decimalValue(int p, int integerDigits, int fractionDigits) {
+        int totalDigits = integerDigits + fractionDigits;
+        if (totalDigits > MAX_EXACT_DIGITS) {
+            return Double.parseDouble(new String(line, p, totalDigits + 1, StandardCharsets.US_ASCII));
+        }
+        long mantissa = 0;
+        for (int i = p; i < p + totalDigits + 1; i++) {
+            if (line[i] != '.') {
+                mantissa = mantissa * 10 + (line[i] - '0');
+            }
+        }
+        return mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+
+    private double digitsDouble(int p, int digits) {
+        if (digits > MAX_EXACT_DIGITS) {
+            return Double.parseDouble(new String(line, p, digits, StandardCharsets.US_ASCII));
+        }
+        long value = 0;
+        for (int i = p; i < p + digits; i++) {
+            value = value * 10 + (line[i] - '0');
+        }
+        return value;
+    }
+
+    private int digitsValue(int p, int digits) {
+        int value = 0;
+        for (int i = p; i < p + digits; i++) {
+            value = value * 10 + (line[i] - '0');
+        }
+        return value;
+    }
+
+    private int weekdayAt(int p) {
+        if (p + 3 > lineLength) {
+            return -1;
+        }
+        for (int weekday = 0; weekday < WEEKDAYS.length; weekday++) {
+            byte[] name = WEEKDAYS[weekday];
+            if (line[p] == name[0] && line[p + 1] == name[1] && line[p + 2] == name[2]) {
+                return weekday;
+            }
+        }
+        return -1;
+    }
+
+    private int countDigits(int p) {
+        int i = p;
+        while (i < lineLength && line[i] >= '0' && line[i] <= '9') {
+            i++;
+        }
+        return i - p;
+    }
+
+    private boolean endsToken(int p) {
+        return p == lineLength || whitespaceAt(p) > 0;
+    }
+
+    private boolean isAt(int p, char c) {
+        return p < lineLength && line[p] == c;
+    }
+
+    private int skipWhitespace(int p) {
+        int i = p;
+        int width;
+        while (i < lineLength && (width = whitespaceAt(i)) > 0) {
+            i += width;
+        }
+        return i;
+    }
+
+    /**
+     * @return how many bytes the whitespace at {@code p} takes up, or 0 when there is none:
+     * 1 for ASCII whitespace, 2 for a non-breaking space encoded in UTF-8
+     */
+    private int whitespaceAt(int p) {
+        byte b = line[p];
+        if (b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B) {
+            return 1;
+        }
+        return b == (byte) 0xC2 && p + 1 < lineLength && line[p + 1] == (byte) 0xA0 ? 2 : 0;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import java.util.Arrays;
+
+/**
+ * Rows of a Windguru micro text forecast, stored column by column in primitive arrays.
+ *
+ * A row is one forecast hour: its weekday, day of month and hour, followed by the values
+ * of the columns that were requested (the {@code v} parameter of the micro API), in the
+ * same order. A value that Windguru printed as {@code -} is stored as {@link Double#NaN}.
+ *
+ * Once returned by {@link MicroTextParser} a series is never modified, so it can be
+ * cached and shared between threads.
+ */
+public final class MicroTextSeries {
+    private static final String[] WEEKDAYS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private static final int INITIAL_CAPACITY = 128;
+
+    private final double[][] columns;
+    private byte[] weekdays;
+    private byte[] daysOfMonth;
+    // Whether the day of month was written with two digits, so "05." prints back as it came
+    private boolean[] paddedDays;
+    private byte[] hours;
+    private int size;
+
+    MicroTextSeries(int columnCount) {
+        this.columns = new double[columnCount][INITIAL_CAPACITY];
+        this.weekdays = new byte[INITIAL_CAPACITY];
+        this.daysOfMonth = new byte[INITIAL_CAPACITY];
+        this.paddedDays = new boolean[INITIAL_CAPACITY];
+        this.hours = new byte[INITIAL_CAPACITY];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int columnCount() {
+        return columns.length;
+    }
+
+    /**
+     * @return 0 for Monday up to 6 for Sunday
+     */
+    public int weekday(int row) {
+        return weekdays[row];
+    }
+
+    public int dayOfMonth(int row) {
+        return daysOfMonth[row];
+    }
+
+    public int hour(int row) {
+        return hours[row];
+    }
+
+    /**
+     * @return the value, or {@link Double#NaN} when Windguru had none
+     */
+    public double value(int column, int row) {
+        return columns[column][row];
+    }
+
+    /**
+     * The value truncated towards zero, with a missing value read as 0; the forecast
+     * fields of {@link com.github.pwittchen.varun.model.forecast.ForecastWg} are whole
+     * numbers and have always been read this way.
+     */
+    public int intValue(int column, int row) {
+        double value = columns[column][row];
+        return Double.isNaN(value) ? 0 : (int) value;
+    }
+
+    /**
+     * Identifies the hour of a row within the span of a forecast, so rows of two series
+     * fetched for the same spot can be matched without formatting their labels.
+     */
+    public int timeKey(int row) {
+        return (weekdays[row] * 32 + daysOfMonth[row]) * 24 + hours[row];
+    }
+
+    /**
+     * Index of the first row at or after {@code from} that is not earlier than the given
+     * row of another series, or {@link #size()} when there is none. Both series are in
+     * chronological order, so a caller walking the other series forward passes the result
+     * back as the next {@code from}, and the two series are walked together in one pass.
+     *
+     * Rows carry a weekday rather than a date, so two rows are taken to be less than half
+     * a week apart, which rows of two series fetched for the same spot always are.
+     */
+    public int seek(int from, MicroTextSeries other, int otherRow) {
+        int row = from;
+        while (row < size && hoursAfter(row, other, otherRow) < 0) {
+            row++;
+        }
+        return row;
+    }
+
+    private int hoursAfter(int row, MicroTextSeries other, int otherRow) {
+        int days = Math.floorMod(weekdays[row] - other.weekdays[otherRow] + 3, 7) - 3;
+        return days * 24 + hours[row] - other.hours[otherRow];
+    }
+
+    /**
+     * The row label as Windguru prints it, e.g. {@code "Mon 29. 02h"}, with the day of
+     * month written the way the row wrote it ({@code "Mon 05. 02h"} or {@code "Mon 5. 02h"}).
+     */
+    public String label(int row) {
+        int day = daysOfMonth[row];
+        int hour = hours[row];
+        return WEEKDAYS[weekdays[row]] + " " + (paddedDays[row] && day < 10 ? "0" : "") + day + ". "
+                + (hour < 10 ? "0" : "") + hour + "h";
+    }
+
+    void add(int weekday, int dayOfMonth, boolean paddedDay, int hour, double[] values) {
+        if (size == weekdays.length) {
+            grow();
+        }
+        weekdays[size] = (byte) weekday;
+        daysOfMonth[size] = (byte) dayOfMonth;
+        paddedDays[size] = paddedDay;
+        hours[size] = (byte) hour;
+        for (int column = 0; column < columns.length; column++) {
+            columns[column][size] = values[column];
+        }
+        size++;
+    }
+
+    private void grow() {
+        int capacity = weekdays.length * 2;
+        weekdays = Arrays.copyOf(weekdays, capacity);
+        daysOfMonth = Arrays.copyOf(daysOfMonth, capacity);
+        paddedDays = Arrays.copyOf(paddedDays, capacity);
+        hours = Arrays.copyOf(hours, capacity);
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = Arrays.copyOf(columns[column], capacity);
+        }
+    }
+}
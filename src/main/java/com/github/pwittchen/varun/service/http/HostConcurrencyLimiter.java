@@ -0,0 +1,311 @@
+package com.github.pwittchen.varun.service.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits how many requests are in flight to each upstream host, and finds that limit
+ * as it goes instead of having it hard-coded.
+ *
+ * The aggregator used to cap its fetch cycles with fixed semaphores (32 forecasts, 32
+ * stations, 16 AI, 16 model discoveries) shared by every host, while the OkHttp
+ * dispatcher queued asynchronous calls again at 5 per host underneath. Neither queue
+ * could be seen, and neither knew whether Windguru or a single station's page was the
+ * one slowing down.
+ *
+ * Every call to a host now waits here for a permit, held until the response body is
+ * closed, and every answer adjusts the host's limit, additive increase / multiplicative
+ * decrease:
+ * <ul>
+ *   <li>an answer in time adds 1 / limit, about one permit per round of requests, as
+ *       long as at least half the permits are in use</li>
+ *   <li>an answer while the recent latency is more than twice the host's usual one
+ *       takes 10% off</li>
+ *   <li>a failed call, 429 or 502-504 halves it</li>
+ * </ul>
+ * A host is cut at most once per its usual latency, so one burst of failures halves
+ * the limit once rather than once per request. Both latencies are moving averages, the
+ * recent one of about the last 10 answers and the usual one of about the last 100: a
+ * host whose answers vary widely is not cut for every slow one among them.
+ *
+ * Queue lengths, in-flight requests and limits are published per host as
+ * varun.http.client.limit, varun.http.client.in_flight and varun.http.client.queued.
+ */
+public class HostConcurrencyLimiter implements Interceptor {
+
+    /**
+     * Host name the AI provider is limited under: its client is Spring AI's rather than
+     * OkHttp, so its calls are limited through {@link #call} instead of the interceptor.
+     */
+    public static final String LLM_HOST = "llm";
+
+    static final int INITIAL_LIMIT = 16;
+    static final int MIN_LIMIT = 1;
+    static final int MAX_LIMIT = 64;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double LATENCY_BACKOFF = 0.9;
+    private static final double FAILURE_BACKOFF = 0.5;
+    // Weight of a new sample in the recent latency
+    private static final double SMOOTHING = 0.1;
+    // Weight of a new sample in the usual latency
+    private static final double BASELINE_SMOOTHING = 0.01;
+    private static final long MIN_BACKOFF_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, HostLimit> hosts = new ConcurrentHashMap<>();
+
+    public HostConcurrencyLimiter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        String host = chain.request().url().host();
+        HostLimit limit = limitFor(host);
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a permit to " + host);
+        }
+
+        long startTime = System.nanoTime();
+        Response response;
+        boolean answered = false;
+        try {
+            response = chain.proceed(chain.request());
+            answered = true;
+        } finally {
+            // A call cancelled by its caller says nothing about the host
+            if (!answered && chain.call().isCanceled()) {
+                limit.release();
+            } else if (!answered) {
+                limit.onFailure();
+            }
+        }
+
+        long latencyNanos = System.nanoTime() - startTime;
+        boolean overloaded = isOverloaded(response.code());
+        // The connection is busy until the body has been read, not when the headers arrive
+        return releasingOnClose(response, () -> {
+            if (overloaded) {
+                limit.onFailure();
+            } else {
+                limit.onSuccess(latencyNanos);
+            }
+        });
+    }
+
+    private static Response releasingOnClose(Response response, Runnable release) {
+        ResponseBody body = response.body();
+        if (body == null) {
+            release.run();
+            return response;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        BufferedSource source = Okio.buffer(new ForwardingSource(body.source()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        release.run();
+                    }
+                }
+            }
+        });
+        return response.newBuilder()
+                .body(ResponseBody.create(source, body.contentType(), body.contentLength()))
+                .build();
+    }
+
+    /**
+     * Runs a call to {@code host} that does not go through OkHttp under the same limit.
+     * Anything thrown, errors included, counts as a failure of the host, and the permit
+     * is given back however the call ends.
+     */
+    public <T> T call(String host, Callable<T> task) throws Exception {
+        HostLimit limit = limitFor(host);
+        limit.acquire();
+        long startTime = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = task.call();
+            succeeded = true;
+            return result;
+        } finally {
+            if (succeeded) {
+                limit.onSuccess(System.nanoTime() - startTime);
+            } else {
+                limit.onFailure();
+            }
+        }
+    }
+
+    int limit(String host) {
+        return limitFor(host).limit();
+    }
+
+    private static boolean isOverloaded(int code) {
+        return switch (code) {
+            case 429, 502, 503, 504 -> true;
+            default -> false;
+        };
+    }
+
+    private HostLimit limitFor(String host) {
+        return hosts.computeIfAbsent(host, this::register);
+    }
+
+    private HostLimit register(String host) {
+        HostLimit limit = new HostLimit();
+        Gauge.builder("varun.http.client.limit", limit, HostLimit::limit)
+                .description("Concurrent requests allowed to an upstream host")
+                .tag("host", host)
+                .register(registry);
+        Gauge.builder("varun.http.client.in_flight", limit, HostLimit::inFlight)
+                .description("Requests in flight to an upstream host")
+                .tag("host", host)
+                .register(registry);
+        Gauge.builder("varun.http.client.queued", limit, HostLimit::queued)
+                .description("Requests waiting for a permit to an upstream host")
+                .tag("host", host)
+                .register(registry);
+        return limit;
+    }
+
+    static final class HostLimit {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition permitAvailable = lock.newCondition();
+
+        private double limit = INITIAL_LIMIT;
+        private int inFlight;
+        private int queued;
+        private double smoothedLatencyNanos;
+        private double baselineLatencyNanos;
+        private long answers;
+        private long lastBackoffNanos;
+
+        void acquire() throws InterruptedException {
+            lock.lock();
+            try {
+                queued++;
+                try {
+                    while (inFlight >= (int) limit) {
+                        permitAvailable.await();
+                    }
+                } finally {
+                    queued--;
+                }
+                inFlight++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onSuccess(long latencyNanos) {
+            lock.lock();
+            try {
+                answers++;
+                if (answers == 1) {
+                    smoothedLatencyNanos = latencyNanos;
+                    baselineLatencyNanos = latencyNanos;
+                } else {
+                    smoothedLatencyNanos += SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+                    // The plain mean until there are enough answers, so the first one does not set it
+                    baselineLatencyNanos += Math.max(BASELINE_SMOOTHING, 1.0 / answers) * (latencyNanos - baselineLatencyNanos);
+                }
+
+                if (smoothedLatencyNanos > LATENCY_TOLERANCE * baselineLatencyNanos) {
+                    backOff(LATENCY_BACKOFF);
+                } else if (inFlight >= limit / 2) {
+                    limit = Math.min(MAX_LIMIT, limit + 1 / limit);
+                }
+                releaseLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onFailure() {
+            lock.lock();
+            try {
+                backOff(FAILURE_BACKOFF);
+                releaseLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release() {
+            lock.lock();
+            try {
+                releaseLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void backOff(double factor) {
+            long now = System.nanoTime();
+            long interval = Math.max(MIN_BACKOFF_INTERVAL_NANOS, (long) baselineLatencyNanos);
+            if (lastBackoffNanos != 0 && now - lastBackoffNanos < interval) {
+                return;
+            }
+            lastBackoffNanos = now;
+            limit = Math.max(MIN_LIMIT, limit * factor);
+        }
+
+        private void releaseLocked() {
+            inFlight--;
+            // The limit may have grown by more than the one permit given back
+            permitAvailable.signalAll();
+        }
+
+        int limit() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int inFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int queued() {
+            lock.lock();
+            try {
+                return queued;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
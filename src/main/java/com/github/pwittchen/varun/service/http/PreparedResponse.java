@@ -0,0 +1,151 @@
+package com.github.pwittchen.varun.service.http;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized and compressed once, ready to be written to any number
+ * of requests as it is. Usually JSON; the wind timeline also comes packed into bytes.
+ *
+ * The ETag is the content hash of the body rather than the data version it was built
+ * from, so it survives a restart (versions start over, content usually doesn't) and a
+ * rebuild that happens to produce the same bytes still answers 304. The gzip variant
+ * carries its own tag, being a different representation of the same resource.
+ *
+ * Bodies are held in direct buffers and handed out as duplicates, so writing one to
+ * the socket neither copies nor disturbs any other request writing the same bytes.
+ *
+ * @param version     data version the body was built from, compared by equality
+ * @param contentType media type of the body
+ * @param etag        strong entity tag of the identity body, quoted
+ * @param identity    identity body
+ * @param gzip        gzip-compressed body
+ */
+public record PreparedResponse(
+        Object version,
+        MediaType contentType,
+        String etag,
+        ByteBuffer identity,
+        ByteBuffer gzip
+) {
+    private static final String GZIP = "gzip";
+    private static final String GZIP_ETAG_SUFFIX = "-gz";
+
+    static PreparedResponse of(Object version, byte[] json) {
+        return of(version, MediaType.APPLICATION_JSON, json);
+    }
+
+    static PreparedResponse of(Object version, MediaType contentType, byte[] body) {
+        return new PreparedResponse(
+                version,
+                contentType,
+                "\"" + DigestUtils.md5DigestAsHex(body) + "\"",
+                toDirectBuffer(body),
+                toDirectBuffer(gzip(body))
+        );
+    }
+
+    /**
+     * The response a request gets: 304 when it already holds the representation it
+     * would be sent, otherwise the body in the best encoding it accepts.
+     *
+     * @param acceptEncoding value of the Accept-Encoding header, if any
+     * @param ifNoneMatch    value of the If-None-Match header, if any
+     * @param alsoVaryOn     request headers besides Accept-Encoding the caller chose
+     *                       this response by, for the Vary header
+     */
+    public ResponseEntity<DataBuffer> toResponseEntity(
+            @Nullable String acceptEncoding,
+            @Nullable String ifNoneMatch,
+            String... alsoVaryOn) {
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        String representationEtag = gzipped ? gzipEtag() : etag;
+
+        var headers = new HttpHeaders();
+        headers.setETag(representationEtag);
+        var vary = new ArrayList<String>(alsoVaryOn.length + 1);
+        vary.addAll(List.of(alsoVaryOn));
+        vary.add(HttpHeaders.ACCEPT_ENCODING);
+        headers.setVary(vary);
+
+        if (matches(ifNoneMatch, representationEtag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        ByteBuffer body = gzipped ? gzip : identity;
+        headers.setContentType(contentType);
+        headers.setContentLength(body.remaining());
+        if (gzipped) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return new ResponseEntity<>(DefaultDataBufferFactory.sharedInstance.wrap(body.duplicate()), headers, HttpStatus.OK);
+    }
+
+    String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, and Cloudflare weakens the tags of
+     * responses it recompresses, so a {@code W/} prefix is ignored.
+     */
+    static boolean matches(@Nullable String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        var out = new ByteArrayOutputStream(body.length / 4);
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+}
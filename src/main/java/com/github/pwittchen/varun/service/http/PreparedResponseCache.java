@@ -0,0 +1,136 @@
+package com.github.pwittchen.varun.service.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Serialized, compressed bodies of the responses every visitor gets the same copy of,
+ * kept until the data they were built from changes.
+ *
+ * The spots list and the wind timeline only change with a fetch cycle, yet serializing
+ * them is the bulk of what a request for them costs. Here that happens once per data
+ * version, and only for the first request that sees the version; everybody else gets
+ * the bytes.
+ *
+ * Each response is cached under a name and replaced when a request brings a different
+ * version, so a name holds exactly one body. Names are fixed by the application, never
+ * taken from a request; the bound on them only guards against a caller that breaks
+ * that rule, and past it a body is still built, just not kept.
+ *
+ * Projections of a response (a subset of its fields, or a caller-chosen span of the
+ * wind timeline) are kept apart from the names, since a client can ask for any number
+ * of them: the most recently used ones are kept, up to a limit of their own, and the
+ * rest are built again when asked for. However many projections are requested, the
+ * named responses stay prepared.
+ */
+@Service
+public class PreparedResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PreparedResponseCache.class);
+    private static final int MAX_PREPARED_RESPONSES = 16;
+    static final int MAX_PREPARED_PROJECTIONS = 32;
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<String, PreparedResponse> prepared = new ConcurrentHashMap<>();
+    private final Map<String, PreparedResponse> projections = Collections.synchronizedMap(
+            new LinkedHashMap<>(MAX_PREPARED_PROJECTIONS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedResponse> eldest) {
+                    return size() > MAX_PREPARED_PROJECTIONS;
+                }
+            });
+
+    public PreparedResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The prepared response for a name at a data version, serialized now only if the
+     * version changed since it was last prepared. Concurrent requests for a version
+     * that is not prepared yet wait for the one serializing it rather than repeating it.
+     *
+     * @param name    what the response is, e.g. "spots"
+     * @param version data version the body would be built from, compared by equality
+     * @param body    builds the body, called at most once per name and version
+     */
+    public PreparedResponse prepare(String name, Object version, Supplier<?> body) {
+        return prepare(name, version, MediaType.APPLICATION_JSON, () -> serialize(body.get()));
+    }
+
+    /**
+     * Like {@link #prepare(String, Object, Supplier)}, for a body the caller encodes
+     * itself rather than one serialized to JSON.
+     *
+     * @param contentType media type of the encoded body
+     * @param body        encodes the body, called at most once per name and version
+     */
+    public PreparedResponse prepare(String name, Object version, MediaType contentType, Supplier<byte[]> body) {
+        PreparedResponse current = prepared.get(name);
+        if (current != null && Objects.equals(current.version(), version)) {
+            return current;
+        }
+        if (current == null && prepared.size() >= MAX_PREPARED_RESPONSES) {
+            return PreparedResponse.of(version, contentType, body.get());
+        }
+        return prepared.compute(name, (_, existing) -> existing != null && Objects.equals(existing.version(), version)
+                ? existing
+                : PreparedResponse.of(version, contentType, body.get()));
+    }
+
+    /**
+     * Like {@link #prepare(String, Object, Supplier)}, for a projection of a response,
+     * kept among the {@value #MAX_PREPARED_PROJECTIONS} most recently used projections
+     * rather than among the names. Concurrent first requests for a projection may each
+     * build it; the body is the same either way.
+     *
+     * @param name    what the projection is, e.g. "spots:name,wgId;pl"
+     * @param version data version the body would be built from, compared by equality
+     * @param body    builds the body
+     */
+    public PreparedResponse prepareProjection(String name, Object version, Supplier<?> body) {
+        return prepareProjection(name, version, MediaType.APPLICATION_JSON, () -> serialize(body.get()));
+    }
+
+    /**
+     * Like {@link #prepareProjection(String, Object, Supplier)}, for a body the caller
+     * encodes itself rather than one serialized to JSON.
+     *
+     * @param contentType media type of the encoded body
+     * @param body        encodes the body
+     */
+    public PreparedResponse prepareProjection(String name, Object version, MediaType contentType, Supplier<byte[]> body) {
+        PreparedResponse current = projections.get(name);
+        if (current != null && Objects.equals(current.version(), version)) {
+            return current;
+        }
+        PreparedResponse response = PreparedResponse.of(version, contentType, body.get());
+        projections.put(name, response);
+        return response;
+    }
+
+    /**
+     * The JSON body a prepared response would carry for a value, for a caller that picks
+     * between a JSON and an encoded body itself.
+     */
+    public byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize a prepared response", e);
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.github.pwittchen.varun.service.http;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fetches upstream pages with conditional GET, so a page that has not changed since the
+ * last fetch costs a 304 and no parsing.
+ *
+ * Live stations are polled every minute and most of them publish a new reading far less
+ * often than that; the Windguru forecasts are fetched once per GFS run, every six hours,
+ * for every spot and model. When an upstream answered with an ETag or Last-Modified, both
+ * the validator and the value parsed from that response are remembered per URL and parser.
+ * The next request for the URL sends If-None-Match / If-Modified-Since, and a 304 returns
+ * the value remembered with the validators that were sent, as it is. Upstreams that send
+ * no validators are fetched and parsed exactly as before.
+ *
+ * Hits and misses are counted by {@link com.github.pwittchen.varun.metrics.HttpClientMetricsEventListener}
+ * from the conditional requests it sees on the wire.
+ */
+@Service
+public class UpstreamFetcher {
+
+    /**
+     * Every spot, model and station URL fits with plenty of room; past this a response
+     * is still parsed, just not remembered.
+     */
+    private static final int MAX_VALIDATED_URLS = 4096;
+
+    private final ConcurrentMap<Key, Validated> validated = new ConcurrentHashMap<>();
+
+    /**
+     * Parses a response into the value the caller wants, in the same way it would
+     * without conditional GET. It is not called for a 304 answering a remembered value.
+     */
+    @FunctionalInterface
+    public interface ResponseParser<T> {
+        T parse(Response response) throws Exception;
+    }
+
+    /**
+     * Executes the request on the calling thread.
+     *
+     * @param httpClient client to execute the request with
+     * @param request    request to make conditional
+     * @param parser     parses a full response
+     */
+    public <T> T execute(OkHttpClient httpClient, Request request, ResponseParser<T> parser) throws Exception {
+        Key key = Key.of(request, parser);
+        Validated sent = validated.get(key);
+        try (Response response = httpClient.newCall(withValidators(request, sent)).execute()) {
+            if (!isUnanswerable(response, sent)) {
+                return handle(key, sent, response, parser);
+            }
+        }
+        try (Response response = httpClient.newCall(withoutValidators(request)).execute()) {
+            return handle(key, null, response, parser);
+        }
+    }
+
+    /**
+     * Executes the request asynchronously, on the dispatcher of the client. Cancelling
+     * the subscription cancels the call.
+     *
+     * @param httpClient client to execute the request with
+     * @param request    request to make conditional
+     * @param parser     parses a full response
+     */
+    public <T> Mono<T> executeAsync(OkHttpClient httpClient, Request request, ResponseParser<T> parser) {
+        return Mono.create(sink -> {
+            Key key = Key.of(request, parser);
+            Validated sent = validated.get(key);
+            AtomicReference<Call> current = new AtomicReference<>();
+            sink.onCancel(() -> current.get().cancel());
+            enqueue(httpClient, withValidators(request, sent), current, sink, response -> {
+                if (!isUnanswerable(response, sent)) {
+                    sink.success(handle(key, sent, response, parser));
+                    return;
+                }
+                response.close();
+                enqueue(httpClient, withoutValidators(request), current, sink,
+                        retried -> sink.success(handle(key, null, retried, parser)));
+            });
+        });
+    }
+
+    private <T> void enqueue(
+            OkHttpClient httpClient,
+            Request request,
+            AtomicReference<Call> current,
+            MonoSink<T> sink,
+            ResponseHandler onResponse
+    ) {
+        Call call = httpClient.newCall(request);
+        current.set(call);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                sink.error(e);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    onResponse.accept(response);
+                } catch (Exception e) {
+                    sink.error(e);
+                }
+            }
+        });
+    }
+
+    private static Request withValidators(Request request, @Nullable Validated sent) {
+        if (sent == null) {
+            return request;
+        }
+        Request.Builder builder = request.newBuilder();
+        if (sent.etag() != null) {
+            builder.header(HttpHeaders.IF_NONE_MATCH, sent.etag());
+        }
+        if (sent.lastModified() != null) {
+            builder.header(HttpHeaders.IF_MODIFIED_SINCE, sent.lastModified());
+        }
+        return builder.build();
+    }
+
+    private static Request withoutValidators(Request request) {
+        return request.newBuilder()
+                .removeHeader(HttpHeaders.IF_NONE_MATCH)
+                .removeHeader(HttpHeaders.IF_MODIFIED_SINCE)
+                .build();
+    }
+
+    /**
+     * A 304 can only be answered with the value whose validators were sent. Without one
+     * (the request went out unconditional, or a caller set validators of its own) there
+     * is nothing to return, and the request has to be made again unconditionally.
+     */
+    private static boolean isUnanswerable(Response response, @Nullable Validated sent) {
+        return response.code() == HttpURLConnection.HTTP_NOT_MODIFIED && sent == null;
+    }
+
+    /**
+     * Answers a response with the value remembered for the validators that were sent,
+     * rather than with whatever is remembered by the time the response arrives, which
+     * another response for the key may have replaced or removed in between.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T handle(Key key, @Nullable Validated sent, Response response, ResponseParser<T> parser) throws Exception {
+        if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED && sent != null) {
+            return (T) sent.value();
+        }
+
+        T value = parser.parse(response);
+        remember(key, response, value);
+        return value;
+    }
+
+    private void remember(Key key, Response response, Object value) {
+        String etag = response.header(HttpHeaders.ETAG);
+        String lastModified = response.header(HttpHeaders.LAST_MODIFIED);
+        if (!response.isSuccessful() || value == null || (etag == null && lastModified == null)) {
+            validated.remove(key);
+            return;
+        }
+        if (validated.size() >= MAX_VALIDATED_URLS && !validated.containsKey(key)) {
+            return;
+        }
+        validated.put(key, new Validated(etag, lastModified, value));
+    }
+
+    int validatedUrls() {
+        return validated.size();
+    }
+
+    private record Validated(String etag, String lastModified, Object value) {
+    }
+
+    @FunctionalInterface
+    private interface ResponseHandler {
+        void accept(Response response) throws Exception;
+    }
+
+    /**
+     * A remembered value belongs to the URL it was fetched from and to the parser that
+     * made it, so two callers parsing one page differently never get each other's value.
+     * A parser is told apart by its class, which is the same for every call a lambda or
+     * method reference at one place in the code makes.
+     */
+    private record Key(String url, Class<?> parser) {
+        static Key of(Request request, ResponseParser<?> parser) {
+            return new Key(request.url().toString(), parser.getClass());
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.pwittchen.varun.service.live;
+
+import com.github.pwittchen.varun.model.live.ConditionsHistory;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.model.live.filter.CurrentConditionsStalenessChecker;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The live readings of the last twelve hours, per spot, kept in a ring of primitive
+ * columns.
+ *
+ * The history used to be a queue of {@link CurrentConditions} per spot, every reading
+ * a record with a date and a direction String, some 720 of them per station. Here a
+ * spot costs one fixed set of arrays whatever it holds: the reading time in seconds,
+ * wind, gusts and temperature in shorts and the direction as a byte index into
+ * {@link #DIRECTIONS}. The oldest reading is overwritten once {@link #CAPACITY} is
+ * reached, which is twelve hours of a station read every minute.
+ *
+ * Reading times are the stations' own local time counted in seconds from 1970 as if
+ * it were UTC, the way {@code HourlySeries} counts hours, so a reading never needs a
+ * time zone. Readings are kept in the order they arrived rather than by that time,
+ * which goes back an hour when the clocks do: the hour repeated at the end of summer
+ * time is kept twice over, not dropped. A reading that repeats the last one held is
+ * left out, so a station polled again before it has published is not recorded twice.
+ * A reading whose date does not parse is kept too, dated when it arrived by the
+ * server's clock, and repeats the last one when it carries the same values.
+ *
+ * The history is read back in buckets of a requested number of minutes rather than
+ * reading by reading (see {@link ConditionsHistory}).
+ */
+@Component
+public class ConditionsHistoryStore {
+
+    static final int CAPACITY = 12 * 60;
+
+    /**
+     * Compass points in the order the stored direction indices refer to. Stations
+     * report eight or sixteen of them; both fit without a loss.
+     */
+    static final List<String> DIRECTIONS = List.of(
+            "N", "NNE", "NE", "ENE", "E", "ESE", "SE", "SSE",
+            "S", "SSW", "SW", "WSW", "W", "WNW", "NW", "NNW"
+    );
+
+    static final DateTimeFormatter READING_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ConcurrentMap<Integer, Ring> rings = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    @Autowired
+    public ConditionsHistoryStore() {
+        this(Clock.systemDefaultZone());
+    }
+
+    ConditionsHistoryStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return whether the reading was added, that is whether it does not repeat the last one held
+     */
+    public boolean add(int wgId, CurrentConditions conditions) {
+        LocalDateTime readingTime = CurrentConditionsStalenessChecker.readingTime(conditions.date());
+        boolean dated = readingTime != null;
+        return rings.computeIfAbsent(wgId, _ -> new Ring()).add(
+                (dated ? readingTime : LocalDateTime.now(clock)).toEpochSecond(ZoneOffset.UTC),
+                dated,
+                conditions.wind(),
+                conditions.gusts(),
+                directionIndex(conditions.direction()),
+                conditions.temp()
+        );
+    }
+
+    /**
+     * Every reading held, per spot, in the order they arrived and dated "yyyy-MM-dd HH:mm:ss"; spots
+     * holding none are left out. This is what a cache snapshot carries.
+     */
+    public Map<Integer, List<CurrentConditions>> readings() {
+        Map<Integer, List<CurrentConditions>> readings = new HashMap<>();
+        rings.forEach((wgId, ring) -> {
+            List<CurrentConditions> held = ring.readings();
+            if (!held.isEmpty()) {
+                readings.put(wgId, held);
+            }
+        });
+        return readings;
+    }
+
+    /**
+     * The spot's readings taken from {@code from} until before {@code to}, both in the
+     * station's local time and either left open, in buckets of {@code resolution}.
+     */
+    public ConditionsHistory history(
+            int wgId,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to,
+            Duration resolution) {
+        Ring ring = rings.get(wgId);
+        List<ConditionsHistory.Bucket> buckets = ring == null
+                ? List.of()
+                : ring.buckets(
+                        from == null ? Long.MIN_VALUE : from.toEpochSecond(ZoneOffset.UTC),
+                        to == null ? Long.MAX_VALUE : to.toEpochSecond(ZoneOffset.UTC),
+                        resolution.toSeconds());
+        return new ConditionsHistory(wgId, (int) resolution.toMinutes(), buckets);
+    }
+
+    /**
+     * The spot's whole history in buckets of {@code resolution}, each given as a single
+     * reading of the bucket's averages, which is how a spot's detail carries it.
+     */
+    public List<CurrentConditions> averaged(int wgId, Duration resolution) {
+        return history(wgId, null, null, resolution)
+                .buckets()
+                .stream()
+                .map(bucket -> new CurrentConditions(
+                        bucket.date(),
+                        (int) Math.round(bucket.wind()),
+                        (int) Math.round(bucket.gusts()),
+                        bucket.direction(),
+                        (int) Math.round(bucket.temp())))
+                .toList();
+    }
+
+    /**
+     * How many spots hold any readings.
+     */
+    public int spots() {
+        return (int) rings.values().stream().filter(ring -> ring.size() > 0).count();
+    }
+
+    static byte directionIndex(@Nullable String direction) {
+        return direction == null ? -1 : (byte) DIRECTIONS.indexOf(direction.trim().toUpperCase());
+    }
+
+    static @Nullable String direction(int index) {
+        return index < 0 ? null : DIRECTIONS.get(index);
+    }
+
+    static short toShort(int value) {
+        return (short) Math.clamp(value, Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    static LocalDateTime localTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * One spot's readings, first to arrive at {@code start}, wrapping around the end of
+     * the arrays.
+     */
+    static final class Ring {
+        private final long[] times = new long[CAPACITY];
+        private final boolean[] dated = new boolean[CAPACITY];
+        private final short[] wind = new short[CAPACITY];
+        private final short[] gusts = new short[CAPACITY];
+        private final short[] temp = new short[CAPACITY];
+        private final byte[] direction = new byte[CAPACITY];
+        private int start;
+        private int size;
+
+        synchronized boolean add(long time, boolean dated, int wind, int gusts, byte direction, int temp) {
+            if (size > 0 && repeatsLast(time, dated, wind, gusts, direction, temp)) {
+                return false;
+            }
+            int slot;
+            if (size < CAPACITY) {
+                slot = index(size++);
+            } else {
+                slot = start;
+                start = index(1);
+            }
+            this.times[slot] = time;
+            this.dated[slot] = dated;
+            this.wind[slot] = toShort(wind);
+            this.gusts[slot] = toShort(gusts);
+            this.direction[slot] = direction;
+            this.temp[slot] = toShort(temp);
+            return true;
+        }
+
+        // The same station time, or for a reading without one, the same values
+        private boolean repeatsLast(long time, boolean dated, int wind, int gusts, byte direction, int temp) {
+            int last = index(size - 1);
+            if (dated || this.dated[last]) {
+                return dated && this.dated[last] && times[last] == time;
+            }
+            return this.wind[last] == toShort(wind)
+                    && this.gusts[last] == toShort(gusts)
+                    && this.direction[last] == direction
+                    && this.temp[last] == toShort(temp);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized List<CurrentConditions> readings() {
+            List<CurrentConditions> readings = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int slot = index(i);
+                readings.add(new CurrentConditions(
+                        localTime(times[slot]).format(READING_FORMAT),
+                        wind[slot],
+                        gusts[slot],
+                        direction(direction[slot]),
+                        temp[slot]));
+            }
+            return readings;
+        }
+
+        synchronized List<ConditionsHistory.Bucket> buckets(long from, long to, long resolution) {
+            var buckets = new ReadingBuckets(resolution);
+            for (int i = 0; i < size; i++) {
+                int slot = index(i);
+                if (times[slot] >= from && times[slot] < to) {
+                    buckets.add(times[slot], wind[slot], gusts[slot], direction[slot], temp[slot], 1);
+                }
+            }
+            return buckets.buckets();
+        }
+
+        private int index(int offset) {
+            return (start + offset) % CAPACITY;
+        }
+    }
+}
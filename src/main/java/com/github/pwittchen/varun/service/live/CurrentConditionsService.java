@@ -6,12 +6,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Live conditions for a spot, from its station and, when that one is stale or down,
+ * from its fallback station.
+ *
+ * Only a handful of spots have a station at all, so which strategy serves which spot
+ * is worked out once, when the spots are loaded ({@link #indexStations}), instead of
+ * asking every strategy about every spot every minute. A spot that was never indexed
+ * is still resolved by asking the strategies, just without remembering the answer.
+ */
 @Service
 public class CurrentConditionsService {
 
@@ -19,6 +30,7 @@ public class CurrentConditionsService {
 
     private final List<FetchCurrentConditions> strategies;
     private final Clock clock;
+    private volatile Map<Integer, StationRoute> routes = Map.of();
 
     @Autowired
     public CurrentConditionsService(List<FetchCurrentConditions> strategies) {
@@ -30,49 +42,90 @@ public class CurrentConditionsService {
         this.clock = clock;
     }
 
+    /**
+     * Builds the routing table for the given spots, replacing the previous one.
+     * Spots without a station are kept in it too, so they are known to have none.
+     *
+     * @param wgIds Windguru ids of every spot
+     * @return number of spots that have a station
+     */
+    public int indexStations(Collection<Integer> wgIds) {
+        Map<Integer, StationRoute> indexed = new HashMap<>();
+        wgIds.forEach(wgId -> indexed.put(wgId, resolveRoute(wgId)));
+        routes = Map.copyOf(indexed);
+        int stations = (int) routes.values().stream().filter(StationRoute::hasStation).count();
+        LOG.info("Indexed live stations: {} of {} spots have one", stations, routes.size());
+        return stations;
+    }
+
+    public boolean hasStation(int wgId) {
+        return routeFor(wgId).hasStation();
+    }
+
     public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        return Flux.fromIterable(strategies)
-                .filter(strategy -> strategy.canProcess(wgId))
-                .collectMultimap(FetchCurrentConditions::isFallbackStation)
-                .flatMap(grouped -> {
-                    var fallbackMono = Mono.defer(() ->
-                            grouped.getOrDefault(true, List.of())
-                                    .stream()
-                                    .findFirst()
-                                    .map(s -> s.fetchCurrentConditions(wgId))
-                                    .orElse(Mono.empty())
-                    );
+        StationRoute route = routeFor(wgId);
+        if (!route.hasStation()) {
+            return Mono.empty();
+        }
+
+        var fallbackMono = Mono.defer(() -> route.fallback() == null
+                ? Mono.<CurrentConditions>empty()
+                : route.fallback().fetchCurrentConditions(wgId));
 
-                    return Mono.justOrEmpty(
-                                    grouped.getOrDefault(false, List.of())
-                                            .stream()
-                                            .findFirst()
-                            )
-                            .flatMap(primary -> primary.fetchCurrentConditions(wgId)
-                                    .flatMap(conditions -> {
-                                        if (CurrentConditionsStalenessChecker.isStale(conditions, clock)) {
-                                            LOG.info("Primary station for wgId {} returned stale data ({}), " +
-                                                    "trying fallback", wgId, conditions.date());
-                                            return fallbackMono
-                                                    .defaultIfEmpty(conditions)
-                                                    .onErrorResume(e -> {
-                                                        LOG.warn("Fallback station for wgId {} failed: {}, " +
-                                                                "returning stale primary data", wgId, e.getMessage());
-                                                        return Mono.just(conditions);
-                                                    });
-                                        }
-                                        return Mono.just(conditions);
-                                    })
-                                    .switchIfEmpty(Mono.defer(() -> {
-                                        LOG.info("Primary station for wgId {} returned empty, trying fallback", wgId);
-                                        return fallbackMono;
-                                    }))
-                                    .onErrorResume(e -> {
-                                        LOG.info("Primary station for wgId {} errored: {}, trying fallback",
-                                                wgId, e.getMessage());
-                                        return fallbackMono;
-                                    })
-                            );
+        return Mono.defer(() -> route.primary().fetchCurrentConditions(wgId))
+                .flatMap(conditions -> {
+                    if (CurrentConditionsStalenessChecker.isStale(conditions, clock)) {
+                        LOG.info("Primary station for wgId {} returned stale data ({}), " +
+                                "trying fallback", wgId, conditions.date());
+                        return fallbackMono
+                                .defaultIfEmpty(conditions)
+                                .onErrorResume(e -> {
+                                    LOG.warn("Fallback station for wgId {} failed: {}, " +
+                                            "returning stale primary data", wgId, e.getMessage());
+                                    return Mono.just(conditions);
+                                });
+                    }
+                    return Mono.just(conditions);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    LOG.info("Primary station for wgId {} returned empty, trying fallback", wgId);
+                    return fallbackMono;
+                }))
+                .onErrorResume(e -> {
+                    LOG.info("Primary station for wgId {} errored: {}, trying fallback",
+                            wgId, e.getMessage());
+                    return fallbackMono;
                 });
     }
+
+    private StationRoute routeFor(int wgId) {
+        StationRoute route = routes.get(wgId);
+        return route != null ? route : resolveRoute(wgId);
+    }
+
+    private StationRoute resolveRoute(int wgId) {
+        FetchCurrentConditions primary = null;
+        FetchCurrentConditions fallback = null;
+        for (FetchCurrentConditions strategy : strategies) {
+            if (!strategy.canProcess(wgId)) {
+                continue;
+            }
+            if (strategy.isFallbackStation()) {
+                fallback = fallback == null ? strategy : fallback;
+            } else {
+                primary = primary == null ? strategy : primary;
+            }
+        }
+        return new StationRoute(primary, fallback);
+    }
+
+    /**
+     * Where a spot's live conditions come from. A fallback alone is not a station: it
+     * only ever stands in for a primary that is stale, empty or failing.
+     */
+    record StationRoute(FetchCurrentConditions primary, FetchCurrentConditions fallback) {
+        boolean hasStation() {
+            return primary != null;
+        }
+    }
 }
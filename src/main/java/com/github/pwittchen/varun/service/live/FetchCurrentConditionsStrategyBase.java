@@ -4,16 +4,62 @@ import com.github.pwittchen.varun.model.live.CurrentConditions;
 import okhttp3.OkHttpClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public abstract class FetchCurrentConditionsStrategyBase {
     private static final List<String> WIND_DIRECTIONS = Arrays.asList("N", "NE", "E", "SE", "S", "SW", "W", "NW");
 
+    /**
+     * How long a reading fetched from a URL is handed to every other spot asking for the
+     * same URL. Shorter than the one-minute conditions tick, so each cycle still goes to
+     * the station, but long enough to cover a whole cycle and a fallback retrying the URL
+     * the primary station has just failed on.
+     */
+    private static final Duration COALESCING_WINDOW = Duration.ofSeconds(15);
+
     protected static final double MS_TO_KNOTS = 1.94384;
 
+    private final ConcurrentMap<String, CoalescedFetch> coalescedFetches = new ConcurrentHashMap<>();
+
     protected abstract Mono<CurrentConditions> fetchCurrentConditions(String url);
 
+    /**
+     * Fetches the readings for a spot, sharing one upstream request among all the spots
+     * whose station publishes at the same URL.
+     *
+     * Several spots can be served by one station page (a stations list, or a spot listed
+     * twice in spots.json), and they are fetched concurrently within a cycle. Without this
+     * each of them would send its own request for the same bytes to a host that is
+     * usually a small station page, not an API built for traffic.
+     */
+    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
+        return fetchCoalesced(getUrl(wgId));
+    }
+
+    /**
+     * The in-flight or recently completed fetch of a URL, or a new one when there is none
+     * within {@link #COALESCING_WINDOW}. A failed fetch is forgotten as soon as it fails,
+     * so the next caller tries again instead of getting the cached error.
+     */
+    protected Mono<CurrentConditions> fetchCoalesced(String url) {
+        return Mono.defer(() -> coalescedFetches
+                .compute(url, (key, existing) -> existing != null && !existing.isExpired() ? existing : startFetch(key))
+                .result());
+    }
+
+    private CoalescedFetch startFetch(String url) {
+        long startedAtNanos = System.nanoTime();
+        Mono<CurrentConditions> result = Mono.defer(() -> fetchCurrentConditions(url))
+                .doOnError(_ -> coalescedFetches.computeIfPresent(url, (key, fetch) ->
+                        fetch.startedAtNanos() == startedAtNanos ? null : fetch))
+                .cache();
+        return new CoalescedFetch(result, startedAtNanos);
+    }
+
     protected abstract String getUrl(int wgId);
 
     protected abstract OkHttpClient getHttpClient();
@@ -47,4 +93,10 @@ public abstract class FetchCurrentConditionsStrategyBase {
         int index = (int) Math.round(normalized / 45) % directions.length;
         return directions[index];
     }
+
+    private record CoalescedFetch(Mono<CurrentConditions> result, long startedAtNanos) {
+        boolean isExpired() {
+            return System.nanoTime() - startedAtNanos > COALESCING_WINDOW.toNanos();
+        }
+    }
 }
@@ -0,0 +1,145 @@
+package com.github.pwittchen.varun.service.live;
+
+import com.github.pwittchen.varun.model.live.ConditionsHistory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.pwittchen.varun.service.live.ConditionsHistoryStore.DIRECTIONS;
+
+/**
+ * Gathers readings into {@link ConditionsHistory.Bucket}s of a fixed number of seconds.
+ *
+ * Readings come in the order they arrived, which both the in-memory history and the
+ * archive keep them in, and a bucket is closed as soon as a reading falls outside
+ * it, so only the bucket being filled is held and a history of any length costs one
+ * bucket record per bucket. Arrival order is time order except when the clocks go
+ * back, and then the buckets of the repeated hour may come out once for each pass. A reading may stand in for several
+ * (a compacted archive record does), in which case it counts that many times towards
+ * the averages.
+ */
+final class ReadingBuckets {
+
+    static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final double[] SIN = new double[DIRECTIONS.size()];
+    private static final double[] COS = new double[DIRECTIONS.size()];
+
+    static {
+        for (int i = 0; i < DIRECTIONS.size(); i++) {
+            double rad = Math.toRadians(i * 360.0 / DIRECTIONS.size());
+            SIN[i] = Math.sin(rad);
+            COS[i] = Math.cos(rad);
+        }
+    }
+
+    private final long resolution;
+    private final List<ConditionsHistory.Bucket> buckets = new ArrayList<>();
+
+    private long start;
+    private int readings;
+    private long wind;
+    private int windMin;
+    private int windMax;
+    private long gusts;
+    private int gustsMin;
+    private int gustsMax;
+    private long temp;
+    private int tempMin;
+    private int tempMax;
+    private double directionSin;
+    private double directionCos;
+    private int directions;
+
+    /**
+     * @param resolution bucket size in seconds
+     */
+    ReadingBuckets(long resolution) {
+        this.resolution = resolution;
+    }
+
+    /**
+     * @param time      station-local seconds since 1970
+     * @param direction index into {@link ConditionsHistoryStore#DIRECTIONS}, or negative for none
+     * @param weight    how many readings this one stands in for
+     */
+    void add(long time, int wind, int gusts, int direction, int temp, int weight) {
+        long bucketStart = Math.floorDiv(time, resolution) * resolution;
+        if (readings > 0 && bucketStart != start) {
+            flush();
+        }
+        if (readings == 0) {
+            start = bucketStart;
+            windMin = gustsMin = tempMin = Integer.MAX_VALUE;
+            windMax = gustsMax = tempMax = Integer.MIN_VALUE;
+        }
+        readings += weight;
+        this.wind += (long) wind * weight;
+        windMin = Math.min(windMin, wind);
+        windMax = Math.max(windMax, wind);
+        this.gusts += (long) gusts * weight;
+        gustsMin = Math.min(gustsMin, gusts);
+        gustsMax = Math.max(gustsMax, gusts);
+        this.temp += (long) temp * weight;
+        tempMin = Math.min(tempMin, temp);
+        tempMax = Math.max(tempMax, temp);
+        if (direction >= 0) {
+            directionSin += SIN[direction] * weight;
+            directionCos += COS[direction] * weight;
+            directions += weight;
+        }
+    }
+
+    /**
+     * The buckets holding any readings, in the order they were filled.
+     */
+    List<ConditionsHistory.Bucket> buckets() {
+        if (readings > 0) {
+            flush();
+        }
+        return buckets;
+    }
+
+    /**
+     * How many buckets are complete so far.
+     */
+    int size() {
+        return buckets.size();
+    }
+
+    private void flush() {
+        buckets.add(new ConditionsHistory.Bucket(
+                LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC).format(BUCKET_FORMAT),
+                readings,
+                round1((double) wind / readings),
+                windMin,
+                windMax,
+                round1((double) gusts / readings),
+                gustsMin,
+                gustsMax,
+                directions == 0 ? null : meanDirection(),
+                round1((double) temp / readings),
+                tempMin,
+                tempMax
+        ));
+        readings = 0;
+        wind = gusts = temp = 0;
+        directionSin = directionCos = 0;
+        directions = 0;
+    }
+
+    // Averaged as vectors, so that N and NNW average to somewhere in between rather than to SSE
+    private String meanDirection() {
+        double degrees = Math.toDegrees(Math.atan2(directionSin, directionCos));
+        double normalized = ((degrees % 360) + 360) % 360;
+        int index = (int) Math.round(normalized / (360.0 / DIRECTIONS.size())) % DIRECTIONS.size();
+        return DIRECTIONS.get(index);
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+}
@@ -0,0 +1,413 @@
+package com.github.pwittchen.varun.service.live;
+
+import com.github.pwittchen.varun.model.live.ConditionsHistory;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.model.live.filter.CurrentConditionsStalenessChecker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Every live reading, kept on disk for as long as {@code retentionDays}, so that a
+ * week or a season of wind at a spot can be shown without holding it in memory.
+ *
+ * The in-memory history ({@link ConditionsHistoryStore}) reaches twelve hours back
+ * and everything older used to be lost. Here each station has a directory with one
+ * segment file per day of its local time, and a new reading is appended to the day
+ * it was taken on as a fixed {@link #RECORD_BYTES}-byte record: the time in
+ * station-local seconds since 1970, wind, gusts and temperature as shorts, the
+ * direction as an index into {@link ConditionsHistoryStore#DIRECTIONS} and how many
+ * readings the record stands for. Records are in the order the readings arrived, as
+ * in the in-memory history, and a reading whose date does not parse is dated when it
+ * arrived by the server's clock. Segments are only ever appended to, under a file
+ * lock, and a reading no newer than the segment's last one is not appended unless it
+ * is at least {@link #CLOCK_CHANGE} behind it, which is the clocks going back rather
+ * than the other instance of a blue/green deploy, running side by side on the same
+ * volume, archiving a reading this one already has.
+ *
+ * A query lists the station's segments once and reads only those of the days it
+ * covers, which are never more than the retention, straight into buckets
+ * ({@link ReadingBuckets}); it holds one bucket per bucket asked for and one segment
+ * of at most a day's records at a time, never the whole range.
+ *
+ * Once a day, segments older than {@link #RAW_DAYS} are compacted into one record
+ * per {@link #COMPACTED_RESOLUTION}: the averages of wind, temperature and direction
+ * and the strongest gust, so that a gusty afternoon stays gusty. That is a tenth of
+ * the size of a station read every minute. Segments older than the retention are
+ * deleted.
+ */
+@Component
+public class ReadingsArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadingsArchive.class);
+
+    // "VSRA", varun.surf readings archive
+    private static final int MAGIC = 0x56535241;
+    // Bump whenever the layout changes
+    static final int FORMAT_VERSION = 1;
+    // Magic, version, and the resolution in seconds the segment was compacted to (0 for raw)
+    static final int HEADER_BYTES = 12;
+    static final int RECORD_BYTES = 16;
+    static final int RAW_DAYS = 7;
+    static final Duration COMPACTED_RESOLUTION = Duration.ofMinutes(10);
+    // The clocks go back an hour; a reading that far behind the last one is not a repeat
+    static final Duration CLOCK_CHANGE = Duration.ofMinutes(30);
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int retentionDays;
+    private final Clock clock;
+    private final Counter appendedReadings;
+    private final Counter compactedSegments;
+    private final Counter expiredSegments;
+    // The file lock keeps other processes out; threads of this one wait here, as a
+    // second lock on the same file from the same process would throw
+    private final ConcurrentMap<Integer, Object> stationLocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReadingsArchive(
+            @Value("${app.archive.readings.path:cache/readings}") String directory,
+            @Value("${app.archive.readings.retention-days:365}") int retentionDays,
+            MeterRegistry registry
+    ) {
+        this(directory, retentionDays, registry, Clock.systemDefaultZone());
+    }
+
+    ReadingsArchive(String directory, int retentionDays, MeterRegistry registry, Clock clock) {
+        this.directory = Path.of(directory);
+        this.retentionDays = retentionDays;
+        this.clock = clock;
+        this.appendedReadings = Counter
+                .builder("varun.archive.readings.appended")
+                .description("Live readings appended to the on-disk archive")
+                .register(registry);
+        this.compactedSegments = Counter
+                .builder("varun.archive.segments.compacted")
+                .description("Day segments of the readings archive compacted to ten-minute records")
+                .register(registry);
+        this.expiredSegments = Counter
+                .builder("varun.archive.segments.expired")
+                .description("Day segments of the readings archive deleted after the retention")
+                .register(registry);
+    }
+
+    /**
+     * Appends the reading to its station's segment for the day it was taken on.
+     *
+     * @return whether it was appended, that is whether the segment does not have it already
+     */
+    public boolean append(int wgId, CurrentConditions conditions) {
+        LocalDateTime readingTime = CurrentConditionsStalenessChecker.readingTime(conditions.date());
+        if (readingTime == null) {
+            readingTime = LocalDateTime.now(clock);
+        }
+        long time = readingTime.toEpochSecond(ZoneOffset.UTC);
+        Path segment = segment(wgId, readingTime.toLocalDate());
+        synchronized (stationLocks.computeIfAbsent(wgId, _ -> new Object())) {
+            return appendTo(segment, wgId, time, conditions);
+        }
+    }
+
+    private boolean appendTo(Path segment, int wgId, long time, CurrentConditions conditions) {
+        try {
+            Files.createDirectories(segment.getParent());
+            while (true) {
+                Object opened = fileKey(segment);
+                try (var channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                     FileLock _ = channel.lock()) {
+                    // Another instance compacting the segment may have moved a new file over the one opened
+                    if (!Objects.equals(opened, fileKey(segment))) {
+                        continue;
+                    }
+                    return appendLocked(channel, segment, time, conditions);
+                }
+            }
+        } catch (IOException e) {
+            // The reading is still in the in-memory history; the archive just misses it
+            log.warn("Failed to archive reading of {} in {}", wgId, segment, e);
+            return false;
+        }
+    }
+
+    private boolean appendLocked(FileChannel channel, Path segment, long time, CurrentConditions conditions) throws IOException {
+        long end = channel.size();
+        if (end < HEADER_BYTES) {
+            channel.write(header(0), 0);
+            end = HEADER_BYTES;
+        } else {
+            ByteBuffer header = read(channel, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                log.warn("Not appending to {}: written by another format", segment);
+                return false;
+            }
+            // A record torn by a crash is overwritten
+            end -= (end - HEADER_BYTES) % RECORD_BYTES;
+            if (end > HEADER_BYTES && isRepeat(read(channel, end - RECORD_BYTES, Long.BYTES).getLong(0), time)) {
+                return false;
+            }
+        }
+        channel.write(record(time, conditions.wind(), conditions.gusts(), conditions.temp(),
+                ConditionsHistoryStore.directionIndex(conditions.direction()), 1), end);
+        appendedReadings.increment();
+        return true;
+    }
+
+    // Identifies the file at the path, so that a lock can be checked to be on the file still there
+    private static @Nullable Object fileKey(Path segment) throws IOException {
+        try {
+            return Files.readAttributes(segment, BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static boolean isRepeat(long last, long time) {
+        return time <= last && last - time < CLOCK_CHANGE.toSeconds();
+    }
+
+    /**
+     * The station's archived readings taken from {@code from} until before {@code to},
+     * both in the station's local time, in buckets of {@code resolution}.
+     */
+    public ConditionsHistory history(int wgId, LocalDateTime from, LocalDateTime to, Duration resolution) {
+        var buckets = new ReadingBuckets(resolution.toSeconds());
+        long fromTime = from.toEpochSecond(ZoneOffset.UTC);
+        long toTime = to.toEpochSecond(ZoneOffset.UTC);
+        for (Path segment : segments(wgId, from.toLocalDate(), to.minusNanos(1).toLocalDate())) {
+            readInto(segment, buckets, fromTime, toTime);
+        }
+        return new ConditionsHistory(wgId, (int) resolution.toMinutes(), buckets.buckets());
+    }
+
+    // The station's segments from firstDay to lastDay, oldest first: only days that have one,
+    // however long the range
+    private List<Path> segments(int wgId, LocalDate firstDay, LocalDate lastDay) {
+        try (Stream<Path> segments = Files.list(directory.resolve(String.valueOf(wgId)))) {
+            return segments
+                    .filter(segment -> {
+                        LocalDate day = dayOf(segment);
+                        return day != null && !day.isBefore(firstDay) && !day.isAfter(lastDay);
+                    })
+                    // Named yyyy-MM-dd, so by name is by day
+                    .sorted()
+                    .toList();
+        } catch (NoSuchFileException e) {
+            // Nothing archived for the station
+            return List.of();
+        } catch (IOException e) {
+            log.warn("Failed to list archive segments of {}", wgId, e);
+            return List.of();
+        }
+    }
+
+    @Scheduled(cron = "0 30 4 * * *")
+    public void compactAndExpireDaily() {
+        compactAndExpire(LocalDate.now(clock));
+    }
+
+    /**
+     * Compacts the raw segments older than {@link #RAW_DAYS} before {@code today} and
+     * deletes those older than the retention.
+     */
+    void compactAndExpire(LocalDate today) {
+        LocalDate rawSince = today.minusDays(RAW_DAYS);
+        LocalDate keptSince = today.minusDays(retentionDays);
+        try (Stream<Path> stations = Files.list(directory)) {
+            for (Path station : stations.filter(Files::isDirectory).toList()) {
+                Integer wgId = stationOf(station);
+                if (wgId == null) {
+                    continue;
+                }
+                try (Stream<Path> segments = Files.list(station)) {
+                    for (Path segment : segments.toList()) {
+                        LocalDate day = dayOf(segment);
+                        if (day == null) {
+                            continue;
+                        }
+                        if (day.isBefore(keptSince)) {
+                            Files.deleteIfExists(segment);
+                            expiredSegments.increment();
+                        } else if (day.isBefore(rawSince)) {
+                            compact(wgId, segment);
+                        }
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing archived yet
+        } catch (IOException e) {
+            log.warn("Failed to compact the readings archive in {}", directory, e);
+        }
+    }
+
+    // Under the station's monitor and the segment's lock from the read to the move, as an
+    // append takes them, so that a late reading appended meanwhile is not moved over
+    private void compact(int wgId, Path segment) throws IOException {
+        synchronized (stationLocks.computeIfAbsent(wgId, _ -> new Object())) {
+            Object opened = fileKey(segment);
+            try (var channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock _ = channel.lock()) {
+                // Compacted by another instance in the meantime
+                if (!Objects.equals(opened, fileKey(segment)) || channel.size() < HEADER_BYTES) {
+                    return;
+                }
+                ByteBuffer header = read(channel, 0, HEADER_BYTES);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION
+                        || header.getInt(8) >= COMPACTED_RESOLUTION.toSeconds()) {
+                    return;
+                }
+                var buckets = new ReadingBuckets(COMPACTED_RESOLUTION.toSeconds());
+                readInto(channel, buckets, Long.MIN_VALUE, Long.MAX_VALUE);
+                replace(segment, compacted(buckets.buckets()));
+            }
+        }
+    }
+
+    private static ByteBuffer compacted(List<ConditionsHistory.Bucket> compacted) {
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + compacted.size() * RECORD_BYTES);
+        out.put(header((int) COMPACTED_RESOLUTION.toSeconds()));
+        for (ConditionsHistory.Bucket bucket : compacted) {
+            out.put(record(
+                    LocalDateTime.parse(bucket.date(), ReadingBuckets.BUCKET_FORMAT).toEpochSecond(ZoneOffset.UTC),
+                    (int) Math.round(bucket.wind()),
+                    bucket.gustsMax(),
+                    (int) Math.round(bucket.temp()),
+                    ConditionsHistoryStore.directionIndex(bucket.direction()),
+                    bucket.readings()));
+        }
+        out.flip();
+        return out;
+    }
+
+    private void replace(Path segment, ByteBuffer out) throws IOException {
+        Path temp = Files.createTempFile(segment.getParent(), segment.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            }
+            Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            compactedSegments.increment();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void readInto(Path segment, ReadingBuckets buckets, long from, long to) {
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            readInto(channel, buckets, from, to);
+        } catch (NoSuchFileException e) {
+            // No readings that day
+        } catch (IOException e) {
+            log.warn("Skipping unreadable archive segment {}", segment, e);
+        }
+    }
+
+    // Read rather than mapped: a segment is a day's records at most, some 23 KB, and a
+    // mapping per segment would outlive the query until the buffer is collected
+    private static void readInto(FileChannel channel, ReadingBuckets buckets, long from, long to) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            return;
+        }
+        ByteBuffer segment = read(channel, 0, Math.toIntExact(size));
+        if (segment.getInt(0) != MAGIC || segment.getInt(4) != FORMAT_VERSION) {
+            return;
+        }
+        long records = (segment.limit() - HEADER_BYTES) / RECORD_BYTES;
+        for (int at = HEADER_BYTES; at < HEADER_BYTES + records * RECORD_BYTES; at += RECORD_BYTES) {
+            long time = segment.getLong(at);
+            if (time >= from && time < to) {
+                buckets.add(
+                        time,
+                        segment.getShort(at + 8),
+                        segment.getShort(at + 10),
+                        segment.get(at + 14),
+                        segment.getShort(at + 12),
+                        Byte.toUnsignedInt(segment.get(at + 15)));
+            }
+        }
+    }
+
+    private Path segment(int wgId, LocalDate day) {
+        return directory.resolve(String.valueOf(wgId)).resolve(day + SEGMENT_SUFFIX);
+    }
+
+    private static @Nullable Integer stationOf(Path station) {
+        try {
+            return Integer.valueOf(station.getFileName().toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static @Nullable LocalDate dayOf(Path segment) {
+        String name = segment.getFileName().toString();
+        if (!name.endsWith(SEGMENT_SUFFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer header(int resolutionSeconds) {
+        return ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(resolutionSeconds)
+                .flip();
+    }
+
+    private static ByteBuffer record(long time, int wind, int gusts, int temp, int direction, int readings) {
+        return ByteBuffer.allocate(RECORD_BYTES)
+                .putLong(time)
+                .putShort(ConditionsHistoryStore.toShort(wind))
+                .putShort(ConditionsHistoryStore.toShort(gusts))
+                .putShort(ConditionsHistoryStore.toShort(temp))
+                .put((byte) direction)
+                .put((byte) Math.min(readings, 255))
+                .flip();
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.pwittchen.varun.service.live;
+
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.model.live.filter.CurrentConditionsStalenessChecker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides when each live station is worth polling again, from how often it has been
+ * seen to publish a new reading.
+ *
+ * Stations publish at their own pace: some every minute, some a 15-minute average
+ * (the Holfuy table read for MB). Polling all of them every minute asked the slow ones
+ * fourteen times for a reading they did not have yet, and still showed a fresh one up
+ * to a minute late. Instead, every time a station's reading date changes, the time
+ * since the last one is a sample of its cadence, and the next poll is set for when the
+ * next reading is expected. A poll that finds nothing new (or fails) backs off in steps
+ * of a tenth of the cadence, doubling up to {@link #MAX_BACKOFF}, so a station that has
+ * gone quiet for the night is not asked every minute either.
+ *
+ * The cadence is measured between the stations' own reading times where the date
+ * parses, which is exact whatever the station's time zone, and between the estimated
+ * publication times otherwise. A reading is assumed to have been published when it
+ * was expected, unless the polls around it say otherwise; that keeps the polls lined
+ * up with the station instead of drifting a poll's lateness further every reading.
+ *
+ * A station polled for the first time, or one whose cadence is not known yet, is
+ * polled every {@link #DEFAULT_INTERVAL}, as all of them used to be.
+ */
+@Component
+public class StationPollScheduler {
+
+    static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+    // Never more often than all stations used to be polled, which the live history is sized for
+    static final Duration MIN_INTERVAL = Duration.ofMinutes(1);
+    static final Duration MAX_CADENCE = Duration.ofHours(1);
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(15);
+    private static final Duration MIN_BACKOFF_STEP = Duration.ofSeconds(15);
+    // How fast the cadence follows a shorter sample, and a longer one; a missed reading
+    // looks like a cadence twice as long, so longer samples are trusted less
+    private static final double SHORTER_SAMPLE_WEIGHT = 0.5;
+    private static final double LONGER_SAMPLE_WEIGHT = 0.1;
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<Integer, Station> stations = new ConcurrentHashMap<>();
+    private final Counter updatedPolls;
+    private final Counter unchangedPolls;
+    private final Counter failedPolls;
+
+    public StationPollScheduler(MeterRegistry registry) {
+        this.registry = registry;
+        this.updatedPolls = pollCounter("updated");
+        this.unchangedPolls = pollCounter("unchanged");
+        this.failedPolls = pollCounter("failed");
+    }
+
+    public boolean isDue(int wgId, Instant now) {
+        return stationFor(wgId).isDue(now);
+    }
+
+    /**
+     * @param conditions what the station answered; null when it had nothing
+     */
+    public void recordReading(int wgId, @Nullable CurrentConditions conditions, Instant now) {
+        boolean updated = stationFor(wgId).onReading(conditions == null ? null : conditions.date(), now);
+        (updated ? updatedPolls : unchangedPolls).increment();
+    }
+
+    public void recordFailure(int wgId, Instant now) {
+        stationFor(wgId).onMiss(now);
+        failedPolls.increment();
+    }
+
+    /**
+     * The station's learned cadence, zero until it has been seen to publish twice.
+     */
+    Duration cadence(int wgId) {
+        return Duration.ofMillis((long) stationFor(wgId).cadenceMillis());
+    }
+
+    private Counter pollCounter(String outcome) {
+        return Counter.builder("varun.live_stations.polls")
+                .description("Live station polls, by whether they found a new reading")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Station stationFor(int wgId) {
+        return stations.computeIfAbsent(wgId, this::register);
+    }
+
+    private Station register(int wgId) {
+        Station station = new Station();
+        Gauge.builder("varun.live_stations.cadence", station, s -> s.cadenceMillis() / 1000)
+                .description("Learned interval between a live station's readings, in seconds")
+                .tag("spot", String.valueOf(wgId))
+                .register(registry);
+        return station;
+    }
+
+    static final class Station {
+        private @Nullable String lastDate;
+        private @Nullable LocalDateTime lastReadingTime;
+        // When the last reading is estimated to have been published; null until a change is seen
+        private @Nullable Instant publishedAt;
+        private @Nullable Instant lastPollAt;
+        private double cadenceMillis;
+        private Instant nextPollAt = Instant.EPOCH;
+        private int misses;
+
+        synchronized boolean isDue(Instant now) {
+            return !nextPollAt.isAfter(now);
+        }
+
+        /**
+         * @return whether the reading is a new one
+         */
+        synchronized boolean onReading(@Nullable String date, Instant now) {
+            if (date == null || date.isBlank() || date.equals(lastDate)) {
+                onMiss(now);
+                return false;
+            }
+
+            LocalDateTime readingTime = CurrentConditionsStalenessChecker.readingTime(date);
+            boolean firstReading = lastDate == null;
+            Instant published = estimatePublishedAt(now);
+
+            Duration sample = null;
+            if (readingTime != null && lastReadingTime != null && readingTime.isAfter(lastReadingTime)) {
+                sample = Duration.between(lastReadingTime, readingTime);
+            } else if (publishedAt != null) {
+                sample = Duration.between(publishedAt, published);
+            }
+            if (sample != null && sample.isPositive()) {
+                learn(sample);
+            }
+
+            lastDate = date;
+            lastReadingTime = readingTime;
+            // The first reading seen may have been published long before
+            publishedAt = firstReading ? null : published;
+            lastPollAt = now;
+            misses = 0;
+            nextPollAt = publishedAt == null || cadenceMillis == 0
+                    ? now.plus(DEFAULT_INTERVAL)
+                    : latest(publishedAt.plusMillis((long) cadenceMillis), now.plus(MIN_INTERVAL));
+            return true;
+        }
+
+        synchronized void onMiss(Instant now) {
+            lastPollAt = now;
+            misses++;
+            if (cadenceMillis == 0) {
+                nextPollAt = now.plus(DEFAULT_INTERVAL);
+                return;
+            }
+            long step = Math.max(MIN_BACKOFF_STEP.toMillis(), (long) (cadenceMillis / 10));
+            long backoff = Math.min(MAX_BACKOFF.toMillis(), step << Math.min(misses - 1, 16));
+            nextPollAt = now.plusMillis(backoff);
+        }
+
+        synchronized double cadenceMillis() {
+            return cadenceMillis;
+        }
+
+        // Between the last poll that did not have it and this one; when it was expected, if that is in there
+        private Instant estimatePublishedAt(Instant now) {
+            if (publishedAt == null || cadenceMillis == 0 || lastPollAt == null) {
+                return now;
+            }
+            Instant expected = publishedAt.plusMillis((long) cadenceMillis);
+            return latest(lastPollAt, expected.isAfter(now) ? now : expected);
+        }
+
+        private void learn(Duration sample) {
+            double millis = Math.clamp(sample.toMillis(), MIN_INTERVAL.toMillis(), MAX_CADENCE.toMillis());
+            if (cadenceMillis == 0) {
+                cadenceMillis = millis;
+            } else {
+                double weight = millis < cadenceMillis ? SHORTER_SAMPLE_WEIGHT : LONGER_SAMPLE_WEIGHT;
+                cadenceMillis += weight * (millis - cadenceMillis);
+            }
+        }
+
+        private static Instant latest(Instant a, Instant b) {
+            return a.isAfter(b) ? a : b;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -36,9 +36,11 @@ public class FetchCurrentConditionsStrategyElMedano extends FetchCurrentConditio
     private static final Pattern TEMP_PATTERN = Pattern.compile("<td class=\"mobile-hidden\">([\\d.]+) &deg;C</td>");
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
 
-    public FetchCurrentConditionsStrategyElMedano(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategyElMedano(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
     }
 
     @Override
@@ -46,12 +48,6 @@ public class FetchCurrentConditionsStrategyElMedano extends FetchCurrentConditio
         return wgId == EL_MEDANO_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
@@ -59,7 +55,7 @@ public class FetchCurrentConditionsStrategyElMedano extends FetchCurrentConditio
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -71,7 +67,7 @@ public class FetchCurrentConditionsStrategyElMedano extends FetchCurrentConditio
 
                 String body = responseBody.string();
                 return parseHtmlResponse(body);
-            }
+            });
         });
     }
 
@@ -1,11 +1,11 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -39,9 +39,11 @@ public class FetchCurrentConditionsStrategyLeBarcares extends FetchCurrentCondit
     );
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
 
-    public FetchCurrentConditionsStrategyLeBarcares(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategyLeBarcares(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
     }
 
     @Override
@@ -49,12 +51,6 @@ public class FetchCurrentConditionsStrategyLeBarcares extends FetchCurrentCondit
         return wgId == LE_BARCARES_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
@@ -62,7 +58,7 @@ public class FetchCurrentConditionsStrategyLeBarcares extends FetchCurrentCondit
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -74,7 +70,7 @@ public class FetchCurrentConditionsStrategyLeBarcares extends FetchCurrentCondit
 
                 String body = responseBody.string();
                 return parseJavaScriptData(body);
-            }
+            });
         });
     }
 
@@ -1,11 +1,11 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -62,9 +62,11 @@ public class FetchCurrentConditionsStrategyMietkow extends FetchCurrentCondition
     private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
 
-    public FetchCurrentConditionsStrategyMietkow(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategyMietkow(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
     }
 
     @Override
@@ -72,12 +74,6 @@ public class FetchCurrentConditionsStrategyMietkow extends FetchCurrentCondition
         return wgId == MIETKOW_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
@@ -85,7 +81,7 @@ public class FetchCurrentConditionsStrategyMietkow extends FetchCurrentCondition
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -97,7 +93,7 @@ public class FetchCurrentConditionsStrategyMietkow extends FetchCurrentCondition
 
                 String body = responseBody.string();
                 return parseResponse(body);
-            }
+            });
         });
     }
 
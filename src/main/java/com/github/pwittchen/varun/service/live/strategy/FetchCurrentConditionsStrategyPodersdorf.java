@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
@@ -22,9 +23,11 @@ public class FetchCurrentConditionsStrategyPodersdorf extends FetchCurrentCondit
     private static final String KITERIDERS_LIVE_READINGS = "https://www.kiteriders.at/wind/weatherstat_kn.html";
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
 
-    public FetchCurrentConditionsStrategyPodersdorf(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategyPodersdorf(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
     }
 
     @Override
@@ -32,12 +35,6 @@ public class FetchCurrentConditionsStrategyPodersdorf extends FetchCurrentCondit
         return wgId == PODERSDORF_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected String getUrl(int wgId) {
         return KITERIDERS_LIVE_READINGS;
@@ -55,7 +52,7 @@ public class FetchCurrentConditionsStrategyPodersdorf extends FetchCurrentCondit
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 String[] cells = getDataCells(response);
 
                 String dateCell = extractTextFromTd(cells[0]);
@@ -72,7 +69,7 @@ public class FetchCurrentConditionsStrategyPodersdorf extends FetchCurrentCondit
                 int temp = (int) Math.round(parseTemperature(tempCell));
 
                 return new CurrentConditions(date, wind, gusts, direction, temp);
-            }
+            });
         });
     }
 
@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import com.google.gson.Gson;
@@ -8,7 +9,6 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -25,10 +25,12 @@ public class FetchCurrentConditionsStrategyPodersdorfScpodo extends FetchCurrent
     private static final String SCPODO_WIND_URL = "https://scpodo.at/wind.php";
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
     private final Gson gson;
 
-    public FetchCurrentConditionsStrategyPodersdorfScpodo(OkHttpClient httpClient, Gson gson) {
+    public FetchCurrentConditionsStrategyPodersdorfScpodo(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher, Gson gson) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
         this.gson = gson;
     }
 
@@ -42,12 +44,6 @@ public class FetchCurrentConditionsStrategyPodersdorfScpodo extends FetchCurrent
         return true;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
@@ -55,7 +51,7 @@ public class FetchCurrentConditionsStrategyPodersdorfScpodo extends FetchCurrent
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -87,7 +83,7 @@ public class FetchCurrentConditionsStrategyPodersdorfScpodo extends FetchCurrent
                 int temperature = (int) Math.round(temp);
 
                 return new CurrentConditions(timestamp, wind, gusts, windDirection, temperature);
-            }
+            });
         });
     }
 
@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import com.google.gson.Gson;
@@ -9,7 +10,6 @@ import okhttp3.FormBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -34,10 +34,12 @@ public class FetchCurrentConditionsStrategyPrasonisi extends FetchCurrentConditi
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
     private final Gson gson;
 
-    public FetchCurrentConditionsStrategyPrasonisi(OkHttpClient httpClient, Gson gson) {
+    public FetchCurrentConditionsStrategyPrasonisi(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher, Gson gson) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
         this.gson = gson;
     }
 
@@ -46,12 +48,6 @@ public class FetchCurrentConditionsStrategyPrasonisi extends FetchCurrentConditi
         return wgId == PRASONISI_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
@@ -64,7 +60,7 @@ public class FetchCurrentConditionsStrategyPrasonisi extends FetchCurrentConditi
                     .post(formBody)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -90,7 +86,7 @@ public class FetchCurrentConditionsStrategyPrasonisi extends FetchCurrentConditi
 
                 // The station does not expose temperature, so it is reported as 0.
                 return new CurrentConditions(timestamp, windSpeed, windGust, windDirection, 0);
-            }
+            });
         });
     }
 
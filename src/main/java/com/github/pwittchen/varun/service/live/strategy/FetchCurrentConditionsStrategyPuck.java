@@ -1,13 +1,13 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -22,10 +22,12 @@ public class FetchCurrentConditionsStrategyPuck extends FetchCurrentConditionsSt
     private static final String PUCK_LIVE_READINGS_URL = "https://www.wiatrkadyny.pl/puck/realtimegauges.txt";
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
     private final Gson gson;
 
-    public FetchCurrentConditionsStrategyPuck(OkHttpClient httpClient, Gson gson) {
+    public FetchCurrentConditionsStrategyPuck(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher, Gson gson) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
         this.gson = gson;
     }
 
@@ -34,12 +36,6 @@ public class FetchCurrentConditionsStrategyPuck extends FetchCurrentConditionsSt
         return wgId == PUCK_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
@@ -48,7 +44,7 @@ public class FetchCurrentConditionsStrategyPuck extends FetchCurrentConditionsSt
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -69,7 +65,7 @@ public class FetchCurrentConditionsStrategyPuck extends FetchCurrentConditionsSt
                 int temp = (int) Math.round(Double.parseDouble(json.get("temp").getAsString()));
 
                 return new CurrentConditions(timestamp, windSpeed, windGust, windDirection, temp);
-            }
+            });
         });
     }
 
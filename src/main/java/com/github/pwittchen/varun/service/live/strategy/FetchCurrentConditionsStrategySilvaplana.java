@@ -1,11 +1,11 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -49,9 +49,11 @@ public class FetchCurrentConditionsStrategySilvaplana extends FetchCurrentCondit
             "Windrichtung:\\s*[^(<]*\\((\\d+)\\s*°\\)");
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
 
-    public FetchCurrentConditionsStrategySilvaplana(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategySilvaplana(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
     }
 
     @Override
@@ -59,17 +61,12 @@ public class FetchCurrentConditionsStrategySilvaplana extends FetchCurrentCondit
         return wgId == SILVAPLANA_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        return fetchCurrentConditions(getUrl(wgId));
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
             Request request = new Request.Builder().url(url).build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -80,7 +77,7 @@ public class FetchCurrentConditionsStrategySilvaplana extends FetchCurrentCondit
                 }
 
                 return parseConditions(responseBody.string());
-            }
+            });
         });
     }
 
@@ -1,11 +1,11 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -69,9 +69,11 @@ public class FetchCurrentConditionsStrategySvencele extends FetchCurrentConditio
     );
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
 
-    public FetchCurrentConditionsStrategySvencele(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategySvencele(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
     }
 
     @Override
@@ -89,12 +91,6 @@ public class FetchCurrentConditionsStrategySvencele extends FetchCurrentConditio
         return httpClient;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
@@ -103,7 +99,7 @@ public class FetchCurrentConditionsStrategySvencele extends FetchCurrentConditio
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -113,7 +109,7 @@ public class FetchCurrentConditionsStrategySvencele extends FetchCurrentConditio
                     throw new RuntimeException("Failed to fetch current conditions: response body is null");
                 }
                 return createCurrentConditions(responseBody);
-            }
+            });
         });
     }
 
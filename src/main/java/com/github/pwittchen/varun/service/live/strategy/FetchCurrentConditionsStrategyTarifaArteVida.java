@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import com.google.gson.Gson;
@@ -9,7 +10,6 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -45,10 +45,12 @@ public class FetchCurrentConditionsStrategyTarifaArteVida extends FetchCurrentCo
     private static final double MS_TO_KNOTS = 1.94384;
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
     private final Gson gson;
 
-    public FetchCurrentConditionsStrategyTarifaArteVida(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategyTarifaArteVida(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
         this.gson = new Gson();
     }
 
@@ -57,12 +59,6 @@ public class FetchCurrentConditionsStrategyTarifaArteVida extends FetchCurrentCo
         return wgId == TARIFA_ARTE_VIDA_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
         return Mono.fromCallable(() -> {
@@ -70,7 +66,7 @@ public class FetchCurrentConditionsStrategyTarifaArteVida extends FetchCurrentCo
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -82,7 +78,7 @@ public class FetchCurrentConditionsStrategyTarifaArteVida extends FetchCurrentCo
 
                 String body = responseBody.string();
                 return parseJavaScriptResponse(body);
-            }
+            });
         });
     }
 
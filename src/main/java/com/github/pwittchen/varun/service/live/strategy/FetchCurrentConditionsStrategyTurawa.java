@@ -1,11 +1,11 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -31,9 +31,11 @@ public class FetchCurrentConditionsStrategyTurawa extends FetchCurrentConditions
     private static final Pattern WIND_DIRECTION_PATTERN = Pattern.compile("wind_rose\\.png.*?padding-right: 10px;'>(\\d+)\\s+&deg;");
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
 
-    public FetchCurrentConditionsStrategyTurawa(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategyTurawa(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
     }
 
     @Override
@@ -41,12 +43,6 @@ public class FetchCurrentConditionsStrategyTurawa extends FetchCurrentConditions
         return wgId == TURAWA_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected String getUrl(int wgId) {
         return TURAWA_LIVE_URL;
@@ -65,7 +61,7 @@ public class FetchCurrentConditionsStrategyTurawa extends FetchCurrentConditions
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -75,7 +71,7 @@ public class FetchCurrentConditionsStrategyTurawa extends FetchCurrentConditions
                     throw new RuntimeException("Failed to fetch current conditions: response body is null");
                 }
                 return createCurrentConditions(responseBody);
-            }
+            });
         });
     }
 
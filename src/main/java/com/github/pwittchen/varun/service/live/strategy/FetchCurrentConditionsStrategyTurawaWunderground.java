@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import com.google.gson.Gson;
@@ -8,7 +9,6 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -35,15 +35,18 @@ public class FetchCurrentConditionsStrategyTurawaWunderground extends FetchCurre
     private static final double KMH_TO_KNOTS = 0.539957;
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
     private final Gson gson;
     private final String apiKey;
 
     public FetchCurrentConditionsStrategyTurawaWunderground(
             OkHttpClient httpClient,
+            UpstreamFetcher upstreamFetcher,
             Gson gson,
             @Value("${app.wunderground.api-key:}") String apiKey
     ) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
         this.gson = gson;
         this.apiKey = apiKey;
     }
@@ -53,12 +56,6 @@ public class FetchCurrentConditionsStrategyTurawaWunderground extends FetchCurre
         return wgId == TURAWA_SOUTH_WG_ID;
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected String getUrl(int wgId) {
         return OBSERVATIONS_URL.formatted(STATION_ID, apiKey);
@@ -76,7 +73,7 @@ public class FetchCurrentConditionsStrategyTurawaWunderground extends FetchCurre
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch current conditions: " + response);
                 }
@@ -87,7 +84,7 @@ public class FetchCurrentConditionsStrategyTurawaWunderground extends FetchCurre
                 }
 
                 return createCurrentConditions(responseBody.string());
-            }
+            });
         });
     }
 
@@ -1,11 +1,11 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -26,9 +26,11 @@ public class FetchCurrentConditionsStrategyWiatrKadynyStations extends FetchCurr
     );
 
     private final OkHttpClient httpClient;
+    private final UpstreamFetcher upstreamFetcher;
 
-    public FetchCurrentConditionsStrategyWiatrKadynyStations(OkHttpClient httpClient) {
+    public FetchCurrentConditionsStrategyWiatrKadynyStations(OkHttpClient httpClient, UpstreamFetcher upstreamFetcher) {
         this.httpClient = httpClient;
+        this.upstreamFetcher = upstreamFetcher;
     }
 
     @Override
@@ -36,12 +38,6 @@ public class FetchCurrentConditionsStrategyWiatrKadynyStations extends FetchCurr
         return LIVE_CONDITIONS_URLS.containsKey(wgId);
     }
 
-    @Override
-    public Mono<CurrentConditions> fetchCurrentConditions(int wgId) {
-        var url = getUrl(wgId);
-        return fetchCurrentConditions(url);
-    }
-
     @Override
     protected String getUrl(int wgId) {
         return LIVE_CONDITIONS_URLS.get(wgId);
@@ -60,7 +56,7 @@ public class FetchCurrentConditionsStrategyWiatrKadynyStations extends FetchCurr
                     .url(url)
                     .build();
 
-            try (Response response = getHttpClient().newCall(request).execute()) {
+            return upstreamFetcher.execute(getHttpClient(), request, response -> {
                 if (!response.isSuccessful()) {
                     throw new RuntimeException("Failed to fetch forecast: " + response);
                 }
@@ -81,7 +77,7 @@ public class FetchCurrentConditionsStrategyWiatrKadynyStations extends FetchCurr
                 int gusts = (int) Math.round(Double.parseDouble(parts[6]));
 
                 return new CurrentConditions(date, wind, gusts, direction, temp);
-            }
+            });
         });
     }
 }
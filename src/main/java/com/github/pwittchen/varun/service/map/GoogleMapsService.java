@@ -2,6 +2,7 @@ package com.github.pwittchen.varun.service.map;
 
 import com.github.pwittchen.varun.model.map.Coordinates;
 import com.github.pwittchen.varun.model.spot.Spot;
+import com.github.pwittchen.varun.service.cache.GeoResolutionStore;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -13,6 +14,8 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,9 +34,11 @@ public class GoogleMapsService {
             Pattern.CASE_INSENSITIVE);
 
     private final OkHttpClient httpClient;
+    private final GeoResolutionStore geoResolutionStore;
 
-    GoogleMapsService(OkHttpClient httpClient) {
+    GoogleMapsService(OkHttpClient httpClient, GeoResolutionStore geoResolutionStore) {
         this.httpClient = httpClient;
+        this.geoResolutionStore = geoResolutionStore;
     }
 
     public Mono<Coordinates> getCoordinates(Spot spot) {
@@ -51,8 +56,20 @@ public class GoogleMapsService {
                 });
     }
 
+    /**
+     * Forgets the stored coordinates of every link that is not among {@code locationUrls}.
+     */
+    public void retainLocations(Collection<String> locationUrls) {
+        geoResolutionStore.retainLocations(locationUrls);
+    }
+
     private Mono<Coordinates> extractCoordinatesFromUrl(String locationUrl) {
         if (locationUrl.contains("maps.app.goo.gl") || locationUrl.contains("goo.gl")) {
+            // A short link always expands to the same place, so its redirects are followed once
+            Optional<Coordinates> stored = geoResolutionStore.coordinates(locationUrl);
+            if (stored.isPresent()) {
+                return Mono.just(stored.get());
+            }
             return unshortenUrl(locationUrl)
                     .flatMap(expandedUrl -> {
                         if (expandedUrl == null || expandedUrl.isEmpty()) {
@@ -60,7 +77,8 @@ public class GoogleMapsService {
                             return Mono.empty();
                         }
                         return parseCoordinatesFromExpandedUrl(expandedUrl);
-                    });
+                    })
+                    .doOnNext(coordinates -> geoResolutionStore.putCoordinates(locationUrl, coordinates));
         }
 
         return parseCoordinatesFromExpandedUrl(locationUrl);
@@ -0,0 +1,123 @@
+package com.github.pwittchen.varun.service.updates;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.pwittchen.varun.model.spot.SpotUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes spot updates to every client following them, as Server-Sent Events.
+ *
+ * The spot list and the TV view used to fetch the whole spot, or every spot, once a
+ * minute per open tab, whether anything had changed or not. Here a change is
+ * serialized once, when it is published, and the same event is handed to every
+ * subscriber whose topic it matches: all spots, one country, or one spot. With
+ * nobody subscribed, publishing costs nothing.
+ *
+ * Subscribers share one multicast sink and each gets its own bounded buffer, so a
+ * slow connection loses its oldest pending updates rather than holding up the
+ * publisher or the other connections. A comment line goes out every
+ * {@link #HEARTBEAT_INTERVAL} (and right away, so the response starts) to keep idle
+ * connections open through the proxy. Events are not replayed: a client that
+ * reconnects fetches what it shows again.
+ */
+@Service
+public class SpotUpdatesBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SpotUpdatesBroadcaster.class);
+
+    // Well within nginx's proxy_read_timeout of 75s
+    static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+    // A fetch cycle updates the forecast of every spot at once, which a client
+    // following all of them has to take in one go
+    static final int MAX_PENDING_EVENTS = 512;
+
+    private final ObjectMapper objectMapper;
+    private final Sinks.Many<Published> sink = Sinks.many().multicast().directBestEffort();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter publishedUpdates;
+    private final Counter droppedUpdates;
+
+    public SpotUpdatesBroadcaster(ObjectMapper objectMapper, MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.publishedUpdates = Counter
+                .builder("varun.updates.published")
+                .description("Spot updates published to subscribed clients")
+                .register(registry);
+        this.droppedUpdates = Counter
+                .builder("varun.updates.dropped")
+                .description("Spot updates dropped for a client that fell behind")
+                .register(registry);
+        Gauge.builder("varun.updates.subscribers", subscribers, AtomicInteger::get)
+                .description("Clients subscribed to spot updates")
+                .register(registry);
+    }
+
+    public void publish(SpotUpdate update) {
+        if (sink.currentSubscriberCount() == 0) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize the update of spot {}", update.wgId(), e);
+            return;
+        }
+        var event = ServerSentEvent.builder(data)
+                .id(Long.toString(sequence.incrementAndGet()))
+                .event(update.kind().event())
+                .build();
+        // Updates come from the fetch threads concurrently, which a sink does not take
+        synchronized (sink) {
+            sink.tryEmitNext(new Published(update, event));
+        }
+        publishedUpdates.increment();
+    }
+
+    /**
+     * The updates of every spot, of the spots in {@code country}, or of spot
+     * {@code wgId}, with heartbeats in between.
+     */
+    public Flux<ServerSentEvent<String>> subscribe(@Nullable String country, @Nullable Integer wgId) {
+        Flux<ServerSentEvent<String>> updates = sink.asFlux()
+                .filter(published -> matches(published.update(), country, wgId))
+                .map(Published::event)
+                .onBackpressureBuffer(MAX_PENDING_EVENTS, _ -> droppedUpdates.increment(), BufferOverflowStrategy.DROP_OLDEST);
+        Flux<ServerSentEvent<String>> heartbeats = Flux
+                .interval(Duration.ZERO, HEARTBEAT_INTERVAL)
+                .map(_ -> ServerSentEvent.<String>builder().comment("heartbeat").build());
+        return Flux.merge(heartbeats, updates)
+                .doOnSubscribe(_ -> subscribers.incrementAndGet())
+                .doFinally(_ -> subscribers.decrementAndGet());
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    private static boolean matches(SpotUpdate update, @Nullable String country, @Nullable Integer wgId) {
+        if (wgId != null) {
+            return update.wgId() == wgId;
+        }
+        return country == null || country.equalsIgnoreCase(update.country());
+    }
+
+    private record Published(SpotUpdate update, ServerSentEvent<String> event) {
+    }
+}
@@ -64,8 +64,16 @@ class CacheControlFilterTest {
     }
 
     @Test
-    void shouldNotStoreApiResponses() {
+    void shouldRevalidateSpotsAndWindTimelineAfterAShortWhile() {
         assertThat(filter.cacheControlFor("/api/v1/spots", false, MediaType.APPLICATION_JSON))
+                .isEqualTo(CacheControlFilter.API_REVALIDATE);
+        assertThat(filter.cacheControlFor("/api/v1/wind", false, MediaType.APPLICATION_JSON))
+                .isEqualTo(CacheControlFilter.API_REVALIDATE);
+    }
+
+    @Test
+    void shouldNotStoreApiResponses() {
+        assertThat(filter.cacheControlFor("/api/v1/spots/500760", false, MediaType.APPLICATION_JSON))
                 .isEqualTo(CacheControlFilter.NO_STORE);
         assertThat(filter.cacheControlFor("/actuator/health", false, MediaType.APPLICATION_JSON))
                 .isEqualTo(CacheControlFilter.NO_STORE);
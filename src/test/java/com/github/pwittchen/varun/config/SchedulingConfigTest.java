@@ -0,0 +1,54 @@
+package com.github.pwittchen.varun.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingConfigTest {
+
+    private final ThreadPoolTaskScheduler scheduler = new SchedulingConfig().taskScheduler();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void shouldKeepPollingWhileSlowJobRuns() throws InterruptedException {
+        // given
+        var slowJobStarted = new CountDownLatch(1);
+        var slowJobReleased = new CountDownLatch(1);
+        var polls = new CountDownLatch(5);
+
+        // when: an AI or ICM job blocks, then the conditions poll is due
+        scheduler.scheduleAtFixedRate(() -> {
+            slowJobStarted.countDown();
+            try {
+                slowJobReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, Duration.ofHours(8));
+        assertThat(slowJobStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.scheduleWithFixedDelay(polls::countDown, Duration.ofMillis(10));
+
+        // then
+        try {
+            assertThat(polls.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            slowJobReleased.countDown();
+        }
+    }
+
+    @Test
+    void shouldRunEveryJobOnThreadOfItsOwn() {
+        assertThat(scheduler.getScheduledThreadPoolExecutor().getCorePoolSize())
+                .isEqualTo(SchedulingConfig.SCHEDULER_POOL_SIZE);
+    }
+}
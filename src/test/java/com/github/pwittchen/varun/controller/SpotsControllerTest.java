@@ -1,28 +1,45 @@
 package com.github.pwittchen.varun.controller;
 
+import com.github.pwittchen.varun.mapper.PackedWindTimeline;
 import com.github.pwittchen.varun.metrics.SpotsControllerMetrics;
+import com.github.pwittchen.varun.model.live.ConditionsHistory;
 import com.github.pwittchen.varun.model.live.CurrentConditions;
 import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.HourlyForecast;
 import com.github.pwittchen.varun.model.forecast.WindTimeline;
 import com.github.pwittchen.varun.model.spot.Spot;
+import com.github.pwittchen.varun.model.spot.SpotChanges;
 import com.github.pwittchen.varun.model.spot.SpotInfo;
+import com.github.pwittchen.varun.model.spot.SpotsSnapshot;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.pwittchen.varun.service.AggregatorService;
+import com.github.pwittchen.varun.service.http.PreparedResponseCache;
+import com.github.pwittchen.varun.service.updates.SpotUpdatesBroadcaster;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.*;
@@ -37,52 +54,54 @@ class SpotsControllerTest {
     @Mock
     private SpotsControllerMetrics metrics;
 
+    @Mock
+    private SpotUpdatesBroadcaster spotUpdates;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     private SpotsController controller;
 
     @BeforeEach
     void setUp() {
-        controller = new SpotsController(aggregatorService, metrics);
+        controller = new SpotsController(aggregatorService, new PreparedResponseCache(objectMapper), spotUpdates, objectMapper, metrics);
     }
 
     @Test
-    void shouldReturnEmptyFluxWhenNoSpots() {
-        when(aggregatorService.getSpots()).thenReturn(new ArrayList<>());
-
-        Flux<Spot> result = controller.spots();
+    void shouldReturnEmptyListWhenNoSpots() {
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, new ArrayList<>()));
 
-        StepVerifier.create(result)
+        StepVerifier.create(controller.spots(null, null))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(json(response).size()).isEqualTo(0);
+                })
                 .verifyComplete();
     }
 
     @Test
     void shouldReturnSpotsFromAggregatorService() {
         List<Spot> mockSpots = createMockSpots();
-        when(aggregatorService.getSpots()).thenReturn(mockSpots);
-
-        Flux<Spot> result = controller.spots();
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, mockSpots));
 
-        StepVerifier.create(result)
-                .expectNextCount(2)
+        StepVerifier.create(controller.spots(null, null))
+                .assertNext(response -> assertThat(json(response).size()).isEqualTo(2))
                 .verifyComplete();
     }
 
     @Test
     void shouldReturnSpotsWithCorrectData() {
         List<Spot> mockSpots = createMockSpots();
-        when(aggregatorService.getSpots()).thenReturn(mockSpots);
-
-        Flux<Spot> result = controller.spots();
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, mockSpots));
 
-        StepVerifier.create(result)
-                .assertNext(spot -> {
-                    assertThat(spot.name()).isEqualTo("Jastarnia");
-                    assertThat(spot.country()).isEqualTo("Poland");
-                    assertThat(spot.windguruUrl()).isEqualTo("https://www.windguru.cz/500760");
-                })
-                .assertNext(spot -> {
-                    assertThat(spot.name()).isEqualTo("Podersdorf");
-                    assertThat(spot.country()).isEqualTo("Austria");
-                    assertThat(spot.windguruUrl()).isEqualTo("https://www.windguru.cz/859182");
+        StepVerifier.create(controller.spots(null, null))
+                .assertNext(response -> {
+                    JsonNode spots = json(response);
+                    assertThat(spots.get(0).get("name").asText()).isEqualTo("Jastarnia");
+                    assertThat(spots.get(0).get("country").asText()).isEqualTo("Poland");
+                    assertThat(spots.get(0).get("windguruUrl").asText()).isEqualTo("https://www.windguru.cz/500760");
+                    assertThat(spots.get(1).get("name").asText()).isEqualTo("Podersdorf");
+                    assertThat(spots.get(1).get("country").asText()).isEqualTo("Austria");
+                    assertThat(spots.get(1).get("windguruUrl").asText()).isEqualTo("https://www.windguru.cz/859182");
                 })
                 .verifyComplete();
     }
@@ -90,15 +109,13 @@ class SpotsControllerTest {
     @Test
     void shouldReturnSpotsWithForecasts() {
         List<Spot> mockSpots = createMockSpotsWithForecasts();
-        when(aggregatorService.getSpots()).thenReturn(mockSpots);
-
-        Flux<Spot> result = controller.spots();
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, mockSpots));
 
-        StepVerifier.create(result)
-                .assertNext(spot -> {
-                    assertThat(spot.forecast()).isNotEmpty();
-                    assertThat(spot.forecast()).hasSize(2);
-                    assertThat(spot.forecast().get(0).date()).isEqualTo("Today");
+        StepVerifier.create(controller.spots(null, null))
+                .assertNext(response -> {
+                    JsonNode forecast = json(response).get(0).get("forecast");
+                    assertThat(forecast.size()).isEqualTo(2);
+                    assertThat(forecast.get(0).get("date").asText()).isEqualTo("Today");
                 })
                 .verifyComplete();
     }
@@ -106,15 +123,69 @@ class SpotsControllerTest {
     @Test
     void shouldReturnSpotsWithCurrentConditions() {
         List<Spot> mockSpots = createMockSpotsWithCurrentConditions();
-        when(aggregatorService.getSpots()).thenReturn(mockSpots);
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, mockSpots));
 
-        Flux<Spot> result = controller.spots();
+        StepVerifier.create(controller.spots(null, null))
+                .assertNext(response -> {
+                    JsonNode conditions = json(response).get(0).get("currentConditions");
+                    assertThat(conditions.get("wind").asInt()).isEqualTo(15);
+                    assertThat(conditions.get("direction").asText()).isEqualTo("SW");
+                })
+                .verifyComplete();
+    }
 
-        StepVerifier.create(result)
-                .assertNext(spot -> {
-                    assertThat(spot.currentConditions()).isNotNull();
-                    assertThat(spot.currentConditions().wind()).isEqualTo(15);
-                    assertThat(spot.currentConditions().direction()).isEqualTo("SW");
+    @Test
+    void shouldServeSpotsWithAStrongEtag() {
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, createMockSpots()));
+
+        ResponseEntity<DataBuffer> response = controller.spots(null, null).block();
+
+        assertThat(response.getHeaders().getETag()).startsWith("\"");
+        assertThat(response.getHeaders().getETag()).doesNotContain("W/");
+        assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenTheClientHoldsTheCurrentSpots() {
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, createMockSpots()));
+        String etag = controller.spots(null, null).block().getHeaders().getETag();
+
+        StepVerifier.create(controller.spots(null, etag))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+                    assertThat(response.getBody()).isNull();
+                })
+                .verifyComplete();
+
+        // a tag weakened by a proxy on the way still matches
+        StepVerifier.create(controller.spots(null, "W/" + etag))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldServeTheFullSpotsOnceTheDataChanged() {
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, createMockSpots()));
+        String etag = controller.spots(null, null).block().getHeaders().getETag();
+
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(2, createMockSpotsWithCurrentConditions()));
+
+        StepVerifier.create(controller.spots(null, etag))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldServeGzippedSpotsWhenTheClientAcceptsThem() {
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, createMockSpots()));
+
+        StepVerifier.create(controller.spots("gzip, deflate, br", null))
+                .assertNext(response -> {
+                    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+                    assertThat(json(gunzip(response)).size()).isEqualTo(2);
                 })
                 .verifyComplete();
     }
@@ -463,10 +534,12 @@ class SpotsControllerTest {
                 List.of("Tue 28 Oct 2025 14:00", "Tue 28 Oct 2025 15:00"),
                 List.of(new WindTimeline.SpotWind(500760, List.of(12, 14), List.of(16, 18), List.of(5, 6)))
         );
+        when(aggregatorService.getWindTimelineVersion()).thenReturn("1@2025-10-28T14:00");
         when(aggregatorService.getWindTimeline()).thenReturn(timeline);
 
-        StepVerifier.create(controller.wind(null))
-                .assertNext(result -> {
+        StepVerifier.create(controller.wind(null, null, null, null))
+                .assertNext(response -> {
+                    WindTimeline result = windTimeline(response);
                     assertThat(result.hours()).hasSize(2);
                     assertThat(result.spots()).hasSize(1);
                     assertThat(result.spots().getFirst().wgId()).isEqualTo(500760);
@@ -483,28 +556,139 @@ class SpotsControllerTest {
                 List.of("Tue 28 Oct 2025 14:00"),
                 List.of(new WindTimeline.SpotWind(500760, List.of(12), List.of(16), List.of(5)))
         );
+        when(aggregatorService.getWindTimelineVersion()).thenReturn("1@2025-10-28T14:00");
         when(aggregatorService.getWindTimeline(384)).thenReturn(timeline);
 
-        StepVerifier.create(controller.wind(384))
-                .assertNext(result -> assertThat(result.hours()).hasSize(1))
+        StepVerifier.create(controller.wind(384, null, null, null))
+                .assertNext(response -> assertThat(windTimeline(response).hours()).hasSize(1))
                 .verifyComplete();
 
         verify(aggregatorService, times(1)).getWindTimeline(384);
         verify(aggregatorService, never()).getWindTimeline();
     }
 
+    @Test
+    void shouldKeepTheDefaultWindTimelinePreparedWhateverSpansAreAskedFor() {
+        when(aggregatorService.getWindTimelineVersion()).thenReturn("1@2025-10-28T14:00");
+        when(aggregatorService.getWindTimeline()).thenReturn(new WindTimeline(List.of(), List.of()));
+        when(aggregatorService.getWindTimeline(anyInt())).thenReturn(new WindTimeline(List.of(), List.of()));
+
+        for (int hours = 1; hours <= 100; hours++) {
+            controller.wind(hours, null, null, null).block();
+        }
+        controller.wind(null, null, null, null).block();
+        controller.wind(null, null, null, null).block();
+
+        verify(aggregatorService, times(1)).getWindTimeline();
+    }
+
+    @Test
+    void shouldPrepareTheWindTimelineOncePerClampedSpan() {
+        when(aggregatorService.getWindTimelineVersion()).thenReturn("1@2025-10-28T14:00");
+        when(aggregatorService.getWindTimeline(anyInt())).thenReturn(new WindTimeline(List.of(), List.of()));
+
+        controller.wind(384, null, null, null).block();
+        controller.wind(1000, null, null, null).block();
+
+        verify(aggregatorService, times(1)).getWindTimeline(384);
+        verify(aggregatorService, never()).getWindTimeline(1000);
+    }
+
     @Test
     void shouldReturnEmptyWindTimelineWhenNoForecastsAreCached() {
+        when(aggregatorService.getWindTimelineVersion()).thenReturn("0@2025-10-28T14:00");
         when(aggregatorService.getWindTimeline()).thenReturn(new WindTimeline(List.of(), List.of()));
 
-        StepVerifier.create(controller.wind(null))
-                .assertNext(result -> {
+        StepVerifier.create(controller.wind(null, null, null, null))
+                .assertNext(response -> {
+                    WindTimeline result = windTimeline(response);
                     assertThat(result.hours()).isEmpty();
                     assertThat(result.spots()).isEmpty();
                 })
                 .verifyComplete();
     }
 
+    @Test
+    void shouldBuildTheWindTimelineOncePerVersion() {
+        when(aggregatorService.getWindTimelineVersion()).thenReturn("1@2025-10-28T14:00");
+        when(aggregatorService.getWindTimeline()).thenReturn(new WindTimeline(List.of(), List.of()));
+
+        controller.wind(null, null, null, null).block();
+        controller.wind(null, null, null, null).block();
+
+        verify(aggregatorService, times(1)).getWindTimeline();
+
+        when(aggregatorService.getWindTimelineVersion()).thenReturn("1@2025-10-28T15:00");
+        controller.wind(null, null, null, null).block();
+
+        verify(aggregatorService, times(2)).getWindTimeline();
+    }
+
+    @Test
+    void shouldReturnPackedWindTimelineWhenAskedForBytes() {
+        WindTimeline timeline = new WindTimeline(
+                List.of("Tue 28 Oct 2025 14:00", "Tue 28 Oct 2025 15:00"),
+                List.of(new WindTimeline.SpotWind(500760, List.of(12, 14), List.of(16, 18), List.of(5, 6)))
+        );
+        when(aggregatorService.getWindTimelineVersion()).thenReturn("1@2025-10-28T14:00");
+        when(aggregatorService.getWindTimeline()).thenReturn(timeline);
+
+        StepVerifier.create(controller.wind(null, "packed", null, null))
+                .assertNext(response -> {
+                    assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+                    assertThat(response.getHeaders().getVary()).doesNotContain(HttpHeaders.ACCEPT);
+                    byte[] body = new byte[response.getBody().readableByteCount()];
+                    response.getBody().read(body);
+                    assertThat(PackedWindTimeline.decode(body)).isEqualTo(timeline);
+                })
+                .verifyComplete();
+
+        // without a format the same URL is always JSON, under its own ETag
+        StepVerifier.create(controller.wind(null, null, null, null))
+                .assertNext(response -> {
+                    assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+                    assertThat(windTimeline(response)).isEqualTo(timeline);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectUnknownWindTimelineFormat() {
+        StepVerifier.create(controller.wind(null, "xml", null, null))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .verifyComplete();
+
+        verify(aggregatorService, never()).getWindTimeline();
+    }
+
+    private JsonNode json(ResponseEntity<DataBuffer> response) {
+        return json(response.getBody().toString(StandardCharsets.UTF_8));
+    }
+
+    private JsonNode json(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new AssertionError("response body is not JSON", e);
+        }
+    }
+
+    private WindTimeline windTimeline(ResponseEntity<DataBuffer> response) {
+        try {
+            return objectMapper.readValue(response.getBody().toString(StandardCharsets.UTF_8), WindTimeline.class);
+        } catch (IOException e) {
+            throw new AssertionError("response body is not a wind timeline", e);
+        }
+    }
+
+    private String gunzip(ResponseEntity<DataBuffer> response) {
+        try (var in = new GZIPInputStream(response.getBody().asInputStream())) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new AssertionError("response body is not gzip", e);
+        }
+    }
+
     @Test
     void shouldReturnHourlyForecastForSingleSpot() {
         HourlyForecast hourly = new HourlyForecast(500760, List.of(
@@ -559,6 +743,225 @@ class SpotsControllerTest {
                 .verifyComplete();
     }
 
+    @Test
+    void shouldReturnLiveHistoryInRequestedResolution() {
+        var from = LocalDateTime.of(2025, 6, 1, 12, 0);
+        var history = new ConditionsHistory(500760, 15, List.of(
+                new ConditionsHistory.Bucket("2025-06-01 12:00", 15, 14.2, 11, 17, 19.0, 15, 24, "NW", 18.0, 18, 18)
+        ));
+        when(aggregatorService.getConditionsHistory(500760, from, null, Duration.ofMinutes(15)))
+                .thenReturn(Optional.of(history));
+
+        StepVerifier.create(controller.history(500760, from, null, 15))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(response.getBody()).isEqualTo(history);
+                })
+                .verifyComplete();
+        verify(metrics).incrementHistoryRequestCounter();
+    }
+
+    @Test
+    void shouldReturnLiveHistoryInFiveMinuteBucketsByDefault() {
+        when(aggregatorService.getConditionsHistory(500760, null, null, Duration.ofMinutes(5)))
+                .thenReturn(Optional.of(new ConditionsHistory(500760, 5, List.of())));
+
+        StepVerifier.create(controller.history(500760, null, null, null))
+                .assertNext(response -> assertThat(response.getBody().resolutionMinutes()).isEqualTo(5))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectUnsupportedHistoryResolution() {
+        StepVerifier.create(controller.history(500760, null, null, 7))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .verifyComplete();
+        verifyNoInteractions(aggregatorService);
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownSpotHistory() {
+        when(aggregatorService.getConditionsHistory(999999, null, null, Duration.ofMinutes(5)))
+                .thenReturn(Optional.empty());
+
+        StepVerifier.create(controller.history(999999, null, null, null))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnArchivedHistoryInHourlyBucketsByDefault() {
+        var from = LocalDateTime.of(2025, 6, 1, 0, 0);
+        var to = LocalDateTime.of(2025, 6, 8, 0, 0);
+        var history = new ConditionsHistory(500760, 60, List.of(
+                new ConditionsHistory.Bucket("2025-06-01 12:00", 60, 14.2, 11, 17, 19.0, 15, 24, "NW", 18.0, 18, 18)
+        ));
+        when(aggregatorService.getArchivedConditionsHistory(500760, from, to, Duration.ofMinutes(60)))
+                .thenReturn(Optional.of(history));
+
+        StepVerifier.create(controller.archivedHistory(500760, from, to, null))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(response.getBody()).isEqualTo(history);
+                })
+                .verifyComplete();
+        verify(metrics).incrementArchiveRequestCounter();
+    }
+
+    @Test
+    void shouldRejectArchivedHistoryRangeThatIsEmptyOrTooLongForResolution() {
+        var from = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+        StepVerifier.create(controller.archivedHistory(500760, from, from, null))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .verifyComplete();
+        StepVerifier.create(controller.archivedHistory(500760, from, from.plusDays(1), 5))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .verifyComplete();
+        // 2000 ten-minute buckets are not quite 14 days
+        StepVerifier.create(controller.archivedHistory(500760, from, from.plusDays(14), 10))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .verifyComplete();
+        verifyNoInteractions(aggregatorService);
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownSpotArchivedHistory() {
+        var from = LocalDateTime.of(2025, 6, 1, 0, 0);
+        when(aggregatorService.getArchivedConditionsHistory(999999, from, from.plusDays(1), Duration.ofMinutes(60)))
+                .thenReturn(Optional.empty());
+
+        StepVerifier.create(controller.archivedHistory(999999, from, from.plusDays(1), null))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamUpdatesOfCountryUnbufferedByProxy() {
+        var events = Flux.just(ServerSentEvent.<String>builder().comment("heartbeat").build());
+        when(spotUpdates.subscribe("Poland", null)).thenReturn(events);
+
+        var response = controller.updates("Poland", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Accel-Buffering")).isEqualTo("no");
+        assertThat(response.getBody()).isSameInstanceAs(events);
+        verify(metrics).incrementUpdatesRequestCounter();
+    }
+
+    @Test
+    void shouldRejectUpdatesOfCountryAndSpotAtOnce() {
+        var response = controller.updates("Poland", 500760);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(spotUpdates);
+    }
+
+    @Test
+    void shouldServeSpotsWithTheVersionToAskChangesSince() {
+        when(aggregatorService.getSpotChangesVersion()).thenReturn(1_700_000_000_042L);
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, createMockSpots()));
+        String etag = controller.spots(null, null).block().getHeaders().getETag();
+
+        StepVerifier.create(controller.spots(null, etag))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+                    assertThat(response.getHeaders().getFirst("X-Spots-Version")).isEqualTo("1700000000042");
+                    assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnChangesSinceVersion() {
+        var changes = new SpotChanges(43, false, createMockSpots().subList(0, 1), List.of(500760));
+        when(aggregatorService.getSpotChanges(42L)).thenReturn(changes);
+
+        StepVerifier.create(controller.changes(42L))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(response.getBody()).isEqualTo(changes);
+                })
+                .verifyComplete();
+
+        verify(metrics).incrementChangesRequestCounter(false);
+    }
+
+    @Test
+    void shouldCountChangesAnsweredWithReset() {
+        var changes = new SpotChanges(43, true, createMockSpots(), List.of());
+        when(aggregatorService.getSpotChanges(null)).thenReturn(changes);
+
+        StepVerifier.create(controller.changes(null))
+                .assertNext(response -> assertThat(response.getBody().reset()).isTrue())
+                .verifyComplete();
+
+        verify(metrics).incrementChangesRequestCounter(true);
+    }
+
+    @Test
+    void shouldServeOnlyRequestedFieldsOfSpots() {
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, createMockSpotsWithCurrentConditions()));
+
+        StepVerifier.create(controller.projectedSpots("wgId,name,currentConditions", "pl", null, null))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    JsonNode spot = json(response).get(0);
+                    assertThat(spot.size()).isEqualTo(3);
+                    assertThat(spot.get("wgId").asInt()).isEqualTo(500760);
+                    assertThat(spot.get("currentConditions").get("wind").asInt()).isEqualTo(15);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldTagEachProjectionOfSpotsApart() {
+        when(aggregatorService.getSpotsSnapshot()).thenReturn(SpotsSnapshot.of(1, createMockSpots()));
+
+        String whole = controller.spots(null, null).block().getHeaders().getETag();
+        String projected = controller.projectedSpots("name,wgId", null, null, null).block().getHeaders().getETag();
+
+        assertThat(projected).isNotEqualTo(whole);
+        StepVerifier.create(controller.projectedSpots("wgId,name", null, null, projected))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectSpotsProjectedOnUnknownField() {
+        StepVerifier.create(controller.projectedSpots("name,windSpeed", null, null, null))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .verifyComplete();
+
+        verifyNoInteractions(aggregatorService);
+    }
+
+    @Test
+    void shouldRejectSpotsProjectedOnAnalysisWithoutLanguage() {
+        StepVerifier.create(controller.projectedSpots("name,aiAnalysis", null, null, null))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .verifyComplete();
+
+        verifyNoInteractions(aggregatorService);
+    }
+
+    @Test
+    void shouldServeSpotOfModelInRequestedLanguage() {
+        Spot mockSpot = createMockSpotWithCompleteData();
+        when(aggregatorService.getSpotById(500760, "ifs")).thenReturn(Optional.of(mockSpot));
+
+        StepVerifier.create(controller.projectedSpot(500760, "ifs", "name,spotInfo", "en"))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(response.getBody().get("name").asText()).isEqualTo("Jastarnia");
+                    assertThat(response.getBody().get("spotInfo").get("type").asText()).isEqualTo("Beach");
+                    assertThat(response.getBody().has("forecast")).isFalse();
+                })
+                .verifyComplete();
+
+        verify(aggregatorService).fetchForecastsForAllModels(500760);
+    }
+
     private Spot createMockSpotWithCompleteData() {
         SpotInfo spotInfo = new SpotInfo("Beach", "W, SW", "18-22°C", "Intermediate", "sandy", "none", "Spring, Summer", "Great spot", "");
 
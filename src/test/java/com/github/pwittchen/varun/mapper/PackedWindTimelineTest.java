@@ -0,0 +1,53 @@
+package com.github.pwittchen.varun.mapper;
+
+import com.github.pwittchen.varun.model.forecast.WindTimeline;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedWindTimelineTest {
+
+    private static final List<String> HOURS = List.of(
+            "Tue 28 Oct 2025 22:00", "Tue 28 Oct 2025 23:00", "Wed 29 Oct 2025 00:00"
+    );
+
+    @Test
+    void shouldRoundTripTimeline() {
+        WindTimeline timeline = new WindTimeline(HOURS, List.of(
+                new WindTimeline.SpotWind(500760, List.of(12, 14, 9), List.of(16, 18, 11), List.of(5, 6, 7)),
+                new WindTimeline.SpotWind(859182, Arrays.asList(null, 21, 25), Arrays.asList(null, 27, 33), Arrays.asList(null, 0, null))
+        ));
+
+        byte[] packed = PackedWindTimeline.encode(timeline);
+
+        assertThat(packed.length).isEqualTo(14 + 2 * 4 + 3 * 2 * 3);
+        assertThat(PackedWindTimeline.decode(packed)).isEqualTo(timeline);
+    }
+
+    @Test
+    void shouldCapWindThatDoesNotFitInAByte() {
+        WindTimeline timeline = new WindTimeline(HOURS.subList(0, 1), List.of(
+                new WindTimeline.SpotWind(1, List.of(300), List.of(254), List.of(3))
+        ));
+
+        WindTimeline decoded = PackedWindTimeline.decode(PackedWindTimeline.encode(timeline));
+
+        assertThat(decoded.spots().getFirst().wind()).containsExactly(PackedWindTimeline.MAX_KNOTS);
+        assertThat(decoded.spots().getFirst().gusts()).containsExactly(254);
+    }
+
+    @Test
+    void shouldPackEmptyTimeline() {
+        assertThat(PackedWindTimeline.decode(PackedWindTimeline.encode(WindTimeline.EMPTY))).isEqualTo(WindTimeline.EMPTY);
+    }
+
+    @Test
+    void shouldRejectBytesThatAreNotATimeline() {
+        assertThrows(IllegalArgumentException.class, () -> PackedWindTimeline.decode("[]".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> PackedWindTimeline.decode(new byte[]{'V', 'W', 'T', 1, 0}));
+    }
+}
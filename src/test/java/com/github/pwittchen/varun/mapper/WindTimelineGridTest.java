@@ -0,0 +1,92 @@
+package com.github.pwittchen.varun.mapper;
+
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
+import com.github.pwittchen.varun.model.forecast.WindTimeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class WindTimelineGridTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 10, 28, 14, 0);
+
+    private WindTimelineGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new WindTimelineGrid();
+    }
+
+    private HourlySeries threeHourly(double firstWind, double secondWind) {
+        return HourlySeries.builder(2)
+                .add(START, firstWind, firstWind + 4, "NW", 15, 0, 0, 1013, null, null, null)
+                .add(START.plusHours(3), secondWind, secondWind + 6, "SW", 15, 0, 0, 1013, null, null, null)
+                .build();
+    }
+
+    @Test
+    void shouldHoldSamplesForwardAcrossTheThreeHourlyGap() {
+        grid.update(1, threeHourly(12, 20));
+
+        WindTimeline timeline = grid.slice(START, 6);
+
+        assertThat(timeline.hours()).hasSize(6);
+        assertThat(timeline.hours().getFirst()).isEqualTo("Tue 28 Oct 2025 14:00");
+        WindTimeline.SpotWind spot = timeline.spots().getFirst();
+        assertThat(spot.wgId()).isEqualTo(1);
+        assertThat(spot.wind()).containsExactly(12, 12, 12, 20, 20, 20).inOrder();
+        assertThat(spot.gusts()).containsExactly(16, 16, 16, 26, 26, 26).inOrder();
+        assertThat(spot.direction()).containsExactly(7, 7, 7, 5, 5, 5).inOrder();
+    }
+
+    @Test
+    void shouldNotShowSamplesHeldFromBeforeTheHourRolledOver() {
+        grid.update(1, threeHourly(12, 20));
+
+        // an hour later the 14:00 sample is off the grid, so the hours it covered are blank
+        WindTimeline timeline = grid.slice(START.plusHours(1).plusMinutes(20), 5);
+
+        assertThat(timeline.hours().getFirst()).isEqualTo("Tue 28 Oct 2025 15:00");
+        assertThat(timeline.spots().getFirst().wind()).containsExactly(null, null, 20, 20, 20).inOrder();
+    }
+
+    @Test
+    void shouldRealignOnlyTheSpotWhoseForecastChanged() {
+        grid.update(2, threeHourly(8, 10));
+        grid.update(1, threeHourly(12, 20));
+        grid.update(1, threeHourly(25, 30));
+
+        WindTimeline timeline = grid.slice(START, 3);
+
+        assertThat(timeline.spots().stream().map(WindTimeline.SpotWind::wgId).toList())
+                .containsExactly(1, 2).inOrder();
+        assertThat(timeline.spots().get(0).wind()).containsExactly(25, 25, 25).inOrder();
+        assertThat(timeline.spots().get(1).wind()).containsExactly(8, 8, 8).inOrder();
+    }
+
+    @Test
+    void shouldRemoveSpotsWhoseForecastIsEmpty() {
+        HourlySeries forecast = threeHourly(12, 20);
+        grid.update(1, forecast);
+        grid.update(1, forecast);
+        assertThat(grid.size()).isEqualTo(1);
+
+        grid.update(1, HourlySeries.EMPTY);
+
+        assertThat(grid.size()).isEqualTo(0);
+        assertThat(grid.slice(START, 6)).isEqualTo(WindTimeline.EMPTY);
+    }
+
+    @Test
+    void shouldLeaveOutSpotsWithNothingOnTheGrid() {
+        grid.update(1, threeHourly(12, 20));
+
+        WindTimeline timeline = grid.slice(START.plusDays(1), 6);
+
+        assertThat(timeline).isEqualTo(WindTimeline.EMPTY);
+        assertThat(grid.size()).isEqualTo(1);
+    }
+}
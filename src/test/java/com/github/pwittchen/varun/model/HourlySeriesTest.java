@@ -0,0 +1,134 @@
+package com.github.pwittchen.varun.model;
+
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.forecast.ForecastData;
+import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import com.github.pwittchen.varun.model.forecast.HourlySeries;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HourlySeriesTest {
+
+    @Test
+    void shouldRoundTripForecasts() {
+        List<Forecast> forecasts = List.of(
+                new Forecast("Mon 06 Oct 2025 02:00", 15, 20, "W", -2, 0, 80, 1013, 1.2, 6.5, "NW"),
+                new Forecast("Mon 06 Oct 2025 05:00", 16.3, 22.7, "SW", 11.4, 0.4, 37.5, 1012.6, null, null, null),
+                new Forecast("Tue 07 Oct 2025 11:00", 9, 12, "", 12, 2, 0, 1009)
+        );
+
+        HourlySeries series = HourlySeries.of(forecasts);
+
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.toForecasts()).isEqualTo(forecasts);
+        assertThat(series.time(2)).isEqualTo(LocalDateTime.of(2025, 10, 7, 11, 0));
+    }
+
+    @Test
+    void shouldKeepDatesThatAreNotWholeHoursAsText() {
+        List<Forecast> forecasts = List.of(
+                new Forecast("Mon 06 Oct 2025 02:00", 15, 20, "W", 10, 0, 0, 1013),
+                new Forecast("Mon 01 Jan 2025 12:00", 10, 15, "N", 20, 0, 0, 0),
+                new Forecast("Mon 29. 02h", 12, 18, "E", 15, 0, 0, 1010)
+        );
+
+        HourlySeries series = HourlySeries.of(forecasts);
+
+        assertThat(series.hasTime(0)).isTrue();
+        assertThat(series.hasTime(1)).isFalse();
+        assertThat(series.time(2)).isNull();
+        assertThat(series.toForecasts()).isEqualTo(forecasts);
+    }
+
+    @Test
+    void shouldBuildRowsFromHours() {
+        HourlySeries series = HourlySeries.builder(1)
+                .add(LocalDateTime.of(2025, 10, 6, 2, 0), 15, 20, "W", 10, 0, 0, 1013, null, null, null)
+                .add(LocalDateTime.of(2025, 10, 6, 3, 0), 16, 21, "NW", 10, 0, 0, 1013, 0.8, 5.0, "N")
+                .build();
+
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.date(1)).isEqualTo("Mon 06 Oct 2025 03:00");
+        assertThat(series.waveHeight(0)).isNull();
+        assertThat(series.waveHeight(1)).isEqualTo(0.8);
+    }
+
+    @Test
+    void shouldServeHourlyForecastsFromSeries() {
+        List<Forecast> gfs = List.of(new Forecast("Mon 06 Oct 2025 02:00", 15, 20, "W", 10, 0, 0, 1013));
+
+        ForecastData data = new ForecastData(List.of(), Map.of(ForecastModel.GFS, gfs));
+
+        assertThat(data.series(ForecastModel.GFS).size()).isEqualTo(1);
+        assertThat(data.hourly(ForecastModel.GFS)).isEqualTo(gfs);
+        assertThat(data.hourly(ForecastModel.IFS)).isEmpty();
+        assertThat(data).isEqualTo(ForecastData.ofSeries(List.of(), Map.of(ForecastModel.GFS, HourlySeries.of(gfs))));
+    }
+
+    @Test
+    void shouldCompareSeriesColumnByColumn() {
+        List<Forecast> forecasts = List.of(
+                new Forecast("Mon 06 Oct 2025 02:00", 15, 20, "W", -2, 0, 80, 1013, 1.2, 6.5, "NW"),
+                new Forecast("Mon 29. 02h", 12, 18, "E", 15, 0, 0, 1010)
+        );
+        HourlySeries series = HourlySeries.of(forecasts);
+        HourlySeries same = HourlySeries.of(List.copyOf(forecasts));
+        HourlySeries otherPressure = HourlySeries.of(List.of(
+                forecasts.get(0),
+                new Forecast("Mon 29. 02h", 12, 18, "E", 15, 0, 0, 1011)
+        ));
+        HourlySeries otherHour = HourlySeries.of(List.of(
+                new Forecast("Mon 06 Oct 2025 03:00", 15, 20, "W", -2, 0, 80, 1013, 1.2, 6.5, "NW"),
+                forecasts.get(1)
+        ));
+
+        assertThat(series).isEqualTo(same);
+        assertThat(series.hashCode()).isEqualTo(same.hashCode());
+        assertThat(series).isNotEqualTo(otherPressure);
+        assertThat(series).isNotEqualTo(otherHour);
+        assertThat(HourlySeries.of(List.of())).isEqualTo(HourlySeries.EMPTY);
+    }
+
+    @Test
+    void shouldKeepDirectionsThatAreNotCompassPoints() throws IOException {
+        List<Forecast> forecasts = List.of(
+                new Forecast("Mon 06 Oct 2025 02:00", 15, 20, "WSW", 10, 0, 0, 1013, 1.2, 6.5, "NNE"),
+                new Forecast("Mon 06 Oct 2025 03:00", 16, 21, "W", 10, 0, 0, 1013, 1.1, 6.0, "WSW"),
+                new Forecast("Mon 06 Oct 2025 04:00", 16, 21, "", 10, 0, 0, 1013)
+        );
+        HourlySeries series = HourlySeries.of(forecasts);
+
+        var bytes = new ByteArrayOutputStream();
+        series.writeTo(new DataOutputStream(bytes));
+        HourlySeries read = HourlySeries.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(series.toForecasts()).isEqualTo(forecasts);
+        assertThat(series.directionIndex(0)).isEqualTo(-1);
+        assertThat(read).isEqualTo(series);
+        assertThat(read.toForecasts()).isEqualTo(forecasts);
+        assertThat(series).isNotEqualTo(HourlySeries.of(List.of(
+                new Forecast("Mon 06 Oct 2025 02:00", 15, 20, "SSW", 10, 0, 0, 1013, 1.2, 6.5, "NNE"),
+                forecasts.get(1),
+                forecasts.get(2)
+        )));
+    }
+
+    @Test
+    void shouldRejectValuesThatDoNotFitTenthsInShort() {
+        assertThrows(IllegalArgumentException.class, () -> HourlySeries.of(List.of(
+                new Forecast("Mon 06 Oct 2025 02:00", 15, 20, "W", 10, 0, 0, 3277))));
+        assertThrows(IllegalArgumentException.class, () -> HourlySeries.of(List.of(
+                new Forecast("Mon 06 Oct 2025 02:00", 15, 20, "W", -3276.8, 0, 0, 1013))));
+    }
+}
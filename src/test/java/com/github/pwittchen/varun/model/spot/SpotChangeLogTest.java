@@ -0,0 +1,89 @@
+package com.github.pwittchen.varun.model.spot;
+
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class SpotChangeLogTest {
+
+    private static final long START = 1_000;
+
+    private final SpotChangeLog log = new SpotChangeLog(START);
+
+    private static Spot spot(int wgId, int wind, String lastUpdated) {
+        return new Spot(
+                "Spot " + wgId,
+                "Poland",
+                "https://www.windguru.cz/" + wgId,
+                null,
+                null, null, null, null,
+                new CurrentConditions("2025-06-01 12:00", wind, wind + 5, "NW", 18),
+                null,
+                List.of(),
+                List.of(),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                lastUpdated
+        );
+    }
+
+    @Test
+    void shouldReportSpotsChangedSinceVersion() {
+        log.record(List.of(spot(1, 10, "a"), spot(2, 10, "a"), spot(3, 10, "a")));
+        long first = log.version();
+        log.record(List.of(spot(1, 12, "b"), spot(2, 10, "b"), spot(3, 10, "b")));
+        log.record(List.of(spot(1, 12, "c"), spot(2, 10, "c"), spot(3, 14, "c")));
+
+        var delta = log.since(first).orElseThrow();
+
+        assertThat(delta.version()).isEqualTo(START + 3);
+        assertThat(delta.changed()).containsExactly(1, 3);
+        assertThat(delta.removed()).isEmpty();
+        assertThat(log.since(START).orElseThrow().changed()).containsExactly(1, 2, 3);
+        assertThat(log.since(log.version()).orElseThrow().changed()).isEmpty();
+    }
+
+    @Test
+    void shouldNotMoveVersionWhenOnlyTimestampsChanged() {
+        log.record(List.of(spot(1, 10, "a")));
+        log.record(List.of(spot(1, 10, "b")));
+
+        assertThat(log.version()).isEqualTo(START + 1);
+    }
+
+    @Test
+    void shouldReportRemovedSpotsUntilTheyComeBack() {
+        log.record(List.of(spot(1, 10, "a"), spot(2, 10, "a")));
+        long first = log.version();
+        log.record(List.of(spot(1, 10, "a")));
+
+        assertThat(log.since(first).orElseThrow().removed()).containsExactly(2);
+
+        log.record(List.of(spot(1, 10, "a"), spot(2, 11, "a")));
+
+        var delta = log.since(first).orElseThrow();
+        assertThat(delta.changed()).containsExactly(2);
+        assertThat(delta.removed()).isEmpty();
+    }
+
+    @Test
+    void shouldGiveNothingForVersionsOutsideLog() {
+        for (int wind = 0; wind <= SpotChangeLog.MAX_ENTRIES; wind++) {
+            log.record(List.of(spot(1, wind, "a")));
+        }
+
+        assertThat(log.since(START)).isEmpty();
+        assertThat(log.since(START + 1)).isPresent();
+        // A version from an instance that started later
+        assertThat(log.since(log.version() + 1)).isEmpty();
+    }
+}
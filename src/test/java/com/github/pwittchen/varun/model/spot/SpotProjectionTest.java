@@ -0,0 +1,68 @@
+package com.github.pwittchen.varun.model.spot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class SpotProjectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final Spot SPOT = new Spot(
+            "Jastarnia",
+            "Poland",
+            "https://www.windguru.cz/500760",
+            null,
+            null, null, null, null,
+            new CurrentConditions("2025-06-01 12:00", 15, 22, "NW", 18),
+            null,
+            List.of(),
+            List.of(),
+            "Strong wind in the afternoon",
+            "Mocny wiatr po południu",
+            null,
+            null,
+            new SpotInfo("Lagoon", "W, SW", "18-22°C", "Intermediate", "sandy", "none", "Summer", "Flat water", ""),
+            new SpotInfo("Zatoka", "W, SW", "18-22°C", "Średni", "piasek", "brak", "Lato", "Płaska woda", ""),
+            null,
+            null,
+            "2025-06-01 12:00:00 CEST"
+    );
+
+    @Test
+    void shouldKeepOnlyRequestedFieldsInOneOrderWhateverOrderTheyWereAskedIn() {
+        var projection = SpotProjection.parse("currentConditions, name,wgId", null).orElseThrow();
+
+        var node = projection.apply(objectMapper, SPOT);
+
+        assertThat(projection.key()).isEqualTo(SpotProjection.parse("wgId,name,currentConditions", "").orElseThrow().key());
+        assertThat(node.size()).isEqualTo(3);
+        assertThat(node.get("wgId").asInt()).isEqualTo(500760);
+        assertThat(node.get("currentConditions").get("wind").asInt()).isEqualTo(15);
+    }
+
+    @Test
+    void shouldServeLocalizedFieldsInRequestedLanguageOnly() {
+        var node = SpotProjection.parse(null, "PL").orElseThrow().apply(objectMapper, SPOT);
+
+        assertThat(node.get("spotInfo").get("type").asText()).isEqualTo("Zatoka");
+        assertThat(node.get("aiAnalysis").asText()).isEqualTo("Mocny wiatr po południu");
+        assertThat(node.has("spotInfoPL")).isFalse();
+        assertThat(node.has("aiAnalysisEn")).isFalse();
+        assertThat(node.has("aiAnalysisPl")).isFalse();
+        assertThat(node.get("country").asText()).isEqualTo("Poland");
+    }
+
+    @Test
+    void shouldRejectUnknownFieldsAndLanguagesAndAnalysisWithoutLanguage() {
+        assertThat(SpotProjection.parse("name,windSpeed", null)).isEmpty();
+        assertThat(SpotProjection.parse(null, "de")).isEmpty();
+        assertThat(SpotProjection.parse("name,aiAnalysis", null)).isEmpty();
+        assertThat(SpotProjection.parse("name,aiAnalysis", "en")).isPresent();
+        assertThat(SpotProjection.parse(" ", null).orElseThrow().isNone()).isTrue();
+    }
+}
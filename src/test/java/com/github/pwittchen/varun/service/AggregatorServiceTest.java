@@ -11,24 +11,37 @@ import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.ForecastData;
 import com.github.pwittchen.varun.model.forecast.ForecastModel;
 import com.github.pwittchen.varun.model.spot.Spot;
+import com.github.pwittchen.varun.model.spot.SpotUpdate;
 import com.github.pwittchen.varun.data.spots.SpotsDataProvider;
 import com.github.pwittchen.varun.service.ai.AiServiceEn;
 import com.github.pwittchen.varun.service.ai.AiServicePl;
+import com.github.pwittchen.varun.service.cache.CacheSnapshot;
+import com.github.pwittchen.varun.service.cache.CacheSnapshotStore;
+import com.github.pwittchen.varun.service.cache.ModelAvailabilityStore;
 import com.github.pwittchen.varun.service.forecast.IcmForecastVisionService;
 import com.github.pwittchen.varun.service.forecast.IcmGridMapper;
+import com.github.pwittchen.varun.service.http.HostConcurrencyLimiter;
+import com.github.pwittchen.varun.service.live.ConditionsHistoryStore;
 import com.github.pwittchen.varun.service.live.CurrentConditionsService;
+import com.github.pwittchen.varun.service.live.ReadingsArchive;
+import com.github.pwittchen.varun.service.updates.SpotUpdatesBroadcaster;
+import com.github.pwittchen.varun.service.live.StationPollScheduler;
 import com.github.pwittchen.varun.service.forecast.ForecastService;
 import com.github.pwittchen.varun.service.map.GoogleMapsService;
 import com.github.pwittchen.varun.service.sponsors.SponsorsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,12 +50,14 @@ import java.util.Optional;
 import java.util.function.BooleanSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -83,6 +98,15 @@ class AggregatorServiceTest {
     @Mock
     private AggregatorServiceMetrics metricsService;
 
+    @Mock
+    private CacheSnapshotStore cacheSnapshotStore;
+
+    @Mock
+    private SpotUpdatesBroadcaster spotUpdates;
+
+    @TempDir
+    Path directory;
+
     private AggregatorService aggregatorService;
 
     @BeforeEach
@@ -98,7 +122,14 @@ class AggregatorServiceTest {
                 hourlyForecastMapper,
                 icmForecastVisionService,
                 sponsorsService,
-                metricsService
+                metricsService,
+                cacheSnapshotStore,
+                new HostConcurrencyLimiter(new SimpleMeterRegistry()),
+                new StationPollScheduler(new SimpleMeterRegistry()),
+                new ModelAvailabilityStore(directory.resolve("model-availability.bin").toString(), new SimpleMeterRegistry()),
+                new ConditionsHistoryStore(),
+                new ReadingsArchive(directory.resolve("readings").toString(), 365, new SimpleMeterRegistry()),
+                spotUpdates
         );
     }
 
@@ -193,6 +224,123 @@ class AggregatorServiceTest {
         // then - no exception should be thrown
     }
 
+    @Test
+    void shouldRestoreCachesFromSnapshotOnStartup() {
+        // given a snapshot left by the previous instance, partly for a spot that is gone since
+        var daily = List.of(new Forecast("Today", 12, 16, "NW", 15, 0, 0, 1013));
+        var reading = new CurrentConditions("2025-10-28 14:00", 14, 18, "NW", 12);
+        var snapshot = new CacheSnapshot(
+                java.time.Instant.now(),
+                Map.of(123, new ForecastData(daily, Map.of()), 999, new ForecastData(daily, Map.of())),
+                Map.of(123, List.of(reading)),
+                Map.of(123, "Good wind"),
+                Map.of(),
+                Map.of(123, new Coordinates(54.7, 18.6)),
+                Map.of(123, "https://www.meteo.pl/um/php/meteorogram_id_um.php?ntype=0u&id=1")
+        );
+        when(cacheSnapshotStore.load(any())).thenReturn(Optional.of(snapshot));
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(createTestSpot(123, "Test Spot")));
+
+        // when
+        aggregatorService.init();
+
+        // then the spot is served complete without a single upstream call
+        verify(metricsService, timeout(AWAIT_TIMEOUT.toMillis())).recordStartupDuration(anyLong());
+        var spot = aggregatorService.getSpotById(123).orElseThrow();
+        assertThat(spot.forecast()).isEqualTo(daily);
+        assertThat(spot.currentConditionsHistory()).containsExactly(reading);
+        assertThat(spot.aiAnalysisEn()).isEqualTo("Good wind");
+        assertThat(spot.coordinates()).isEqualTo(new Coordinates(54.7, 18.6));
+        assertThat(spot.icmUrl()).isEqualTo(snapshot.icmUrls().get(123));
+        verify(googleMapsService, never()).getCoordinates(any());
+        verify(forecastService, never()).getForecastData(anyInt());
+    }
+
+    @Test
+    void shouldServeLiveHistoryInBucketsRatherThanReadingByReading() {
+        // given ten minutes of readings, one a minute
+        var readings = new ArrayList<CurrentConditions>();
+        for (int minute = 0; minute < 10; minute++) {
+            readings.add(new CurrentConditions(String.format("2025-10-28 14:%02d:00", minute), 10 + minute, 20, "N", 12));
+        }
+        var snapshot = new CacheSnapshot(
+                java.time.Instant.now(), Map.of(), Map.of(123, readings), Map.of(), Map.of(), Map.of(), Map.of());
+        when(cacheSnapshotStore.load(any())).thenReturn(Optional.of(snapshot));
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(createTestSpot(123, "Test Spot")));
+        aggregatorService.init();
+        verify(metricsService, timeout(AWAIT_TIMEOUT.toMillis())).recordStartupDuration(anyLong());
+
+        // when
+        var spot = aggregatorService.getSpotById(123).orElseThrow();
+        var history = aggregatorService.getConditionsHistory(
+                123, java.time.LocalDateTime.of(2025, 10, 28, 14, 3), null, Duration.ofMinutes(15)).orElseThrow();
+
+        // then the spot carries five-minute averages, and the history the requested range and resolution
+        assertThat(spot.currentConditionsHistory()).containsExactly(
+                new CurrentConditions("2025-10-28 14:00", 12, 20, "N", 12),
+                new CurrentConditions("2025-10-28 14:05", 17, 20, "N", 12)
+        );
+        assertThat(history.buckets()).hasSize(1);
+        assertThat(history.buckets().get(0).readings()).isEqualTo(7);
+        assertThat(history.buckets().get(0).windMin()).isEqualTo(13);
+        assertThat(history.buckets().get(0).windMax()).isEqualTo(19);
+        assertThat(aggregatorService.getConditionsHistory(999, null, null, Duration.ofMinutes(5))).isEmpty();
+
+        // and the snapshot still carries every reading
+        aggregatorService.cleanup();
+        var saved = ArgumentCaptor.forClass(CacheSnapshot.class);
+        verify(cacheSnapshotStore).save(saved.capture());
+        assertThat(saved.getValue().conditionsHistory().get(123)).isEqualTo(readings);
+    }
+
+    @Test
+    void shouldSaveCachesToSnapshotOnCleanup() {
+        // given
+        var daily = List.of(new Forecast("Today", 12, 16, "NW", 15, 0, 0, 1013));
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(createTestSpot(123, "Test Spot")));
+        when(forecastService.getForecastData(123)).thenReturn(Mono.just(new ForecastData(daily, Map.of())));
+        aggregatorService.init();
+        awaitSpotsLoaded(1);
+        aggregatorService.refreshDueForecasts();
+
+        // when
+        aggregatorService.cleanup();
+
+        // then
+        var saved = ArgumentCaptor.forClass(CacheSnapshot.class);
+        verify(cacheSnapshotStore).save(saved.capture());
+        assertThat(saved.getValue().forecasts().get(123).daily()).isEqualTo(daily);
+    }
+
+    @Test
+    void shouldPublishDailyForecastReplacedByFetchCycle() {
+        // given
+        var daily = List.of(new Forecast("Today", 12, 16, "NW", 15, 0, 0, 1013));
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(createTestSpot(123, "Test Spot")));
+        when(forecastService.getForecastData(123)).thenReturn(Mono.just(new ForecastData(daily, Map.of())));
+        aggregatorService.init();
+        awaitSpotsLoaded(1);
+
+        // when
+        aggregatorService.refreshDueForecasts();
+
+        // then
+        var published = ArgumentCaptor.forClass(SpotUpdate.class);
+        verify(spotUpdates).publish(published.capture());
+        assertThat(published.getValue().kind()).isEqualTo(SpotUpdate.Kind.FORECAST);
+        assertThat(published.getValue().wgId()).isEqualTo(123);
+        assertThat(published.getValue().forecast()).isEqualTo(daily);
+    }
+
+    @Test
+    void shouldNotOverwriteSnapshotBeforeSpotsAreLoaded() {
+        // when
+        aggregatorService.cleanup();
+
+        // then
+        verify(cacheSnapshotStore, never()).save(any());
+    }
+
     @Test
     void shouldGetSpots() {
         // given
@@ -210,7 +358,7 @@ class AggregatorServiceTest {
     }
 
     @Test
-    void shouldFetchForecastsSuccessfully() throws FetchingForecastException {
+    void shouldFetchForecastsSuccessfully() {
         // given
         var spot = createTestSpot(123, "Test Spot");
         var forecast = new Forecast("Mon 12:00", 10.0, 20.0, "N", 15.0, 0.0, 0, 0);
@@ -222,12 +370,118 @@ class AggregatorServiceTest {
         awaitSpotsLoaded(1);
 
         // when
-        aggregatorService.fetchForecastsEveryThreeHours();
+        aggregatorService.refreshDueForecasts();
 
         // then
         verify(forecastService).getForecastData(123);
     }
 
+    @Test
+    void shouldKeepForecastsThatArrivedWhenAnotherSpotFails() {
+        // given
+        var forecast = new Forecast("Mon 12:00", 10.0, 20.0, "N", 15.0, 0.0, 0, 0);
+
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(createTestSpot(123, "Test Spot"), createTestSpot(456, "Flaky Spot")));
+        when(forecastService.getForecastData(123)).thenReturn(Mono.just(new ForecastData(List.of(forecast), Map.of())));
+        when(forecastService.getForecastData(456)).thenReturn(Mono.error(new RuntimeException("API Error")));
+
+        aggregatorService.init();
+        awaitSpotsLoaded(2);
+
+        // when
+        aggregatorService.refreshDueForecasts();
+        aggregatorService.refreshDueForecasts();
+
+        // then the spot that answered is cached, and only the failed one waits for a retry
+        @SuppressWarnings("unchecked")
+        var forecastCache = (java.util.concurrent.ConcurrentMap<Integer, ForecastData>)
+                ReflectionTestUtils.getField(aggregatorService, "forecastCache");
+        assertThat(forecastCache).containsOnlyKeys(123);
+        verify(forecastService, times(1)).getForecastData(123);
+        verify(forecastService, times(1)).getForecastData(456);
+        verify(metricsService).incrementForecastSpotFailureCounter(1);
+        verify(metricsService, never()).incrementForecastFetchFailureCounter();
+    }
+
+    @Test
+    void shouldNotRefetchForecastBeforeItsTurnComesAgain() {
+        // given
+        var spot = createTestSpot(123, "Test Spot");
+        var forecast = new Forecast("Mon 12:00", 10.0, 20.0, "N", 15.0, 0.0, 0, 0);
+
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(spot));
+        when(forecastService.getForecastData(123)).thenReturn(Mono.just(new ForecastData(List.of(forecast), Map.of())));
+
+        aggregatorService.init();
+        awaitSpotsLoaded(1);
+
+        // when
+        aggregatorService.refreshDueForecasts();
+        aggregatorService.refreshDueForecasts();
+
+        // then
+        verify(forecastService, times(1)).getForecastData(123);
+    }
+
+    @Test
+    void shouldStopAskingForForecastModelsThatKeepAnsweringEmpty() {
+        // given
+        var hourly = List.of(new Forecast("Mon 01 Jan 2025 01:00", 9.0, 11.0, "N", 14.0, 0.1, 0, 0));
+        when(forecastService.getForecastData(anyInt(), any(ForecastModel.class))).thenAnswer(invocation ->
+                Mono.just(invocation.getArgument(1) == ForecastModel.GFS
+                        ? new ForecastData(List.of(), Map.of(ForecastModel.GFS, hourly))
+                        : new ForecastData(List.of(), Map.of())));
+        Map<?, ?> discoveredAt = (Map<?, ?>) ReflectionTestUtils.getField(aggregatorService, "hourlyForecastCacheTimestamps");
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            discoveredAt.clear();
+            aggregatorService.fetchForecastsForAllModels(123);
+        }
+
+        // then
+        verify(forecastService, times(3)).getForecastData(123, ForecastModel.GFS);
+        verify(forecastService, times(2)).getForecastData(123, ForecastModel.HRRR);
+        verify(forecastService, never()).getForecastData(123, ForecastModel.ICM_METEO);
+        verify(metricsService, times(3)).recordForecastModelsFetchDuration(anyLong());
+    }
+
+    @Test
+    void shouldFetchIcmForecastAlongsideWindguruModelsDuringModelDiscovery() {
+        // given
+        var spot = createTestSpot(123, "Test Spot");
+        var gfsHourly = List.of(new Forecast("Mon 01 Jan 2025 01:00", 9.0, 11.0, "N", 14.0, 0.1, 0, 0));
+        var icmHourly = List.of(new Forecast("Mon 01 Jan 2025 01:00", 12.0, 18.0, "N", 15.0, 0.0, 0, 1013.0));
+
+        var spotsMap = new java.util.concurrent.ConcurrentHashMap<Integer, Spot>();
+        spotsMap.put(spot.wgId(), spot);
+        ReflectionTestUtils.setField(aggregatorService, "spots", spotsMap);
+        ReflectionTestUtils.setField(aggregatorService, "icmVisionEnabled", true);
+
+        @SuppressWarnings("unchecked")
+        var icmUrls = (java.util.concurrent.ConcurrentMap<Integer, String>)
+                ReflectionTestUtils.getField(aggregatorService, "icmUrls");
+        icmUrls.put(123, "https://meteo.pl/icm");
+
+        when(forecastService.getForecastData(anyInt(), any(ForecastModel.class))).thenAnswer(invocation ->
+                Mono.just(invocation.getArgument(1) == ForecastModel.GFS
+                        ? new ForecastData(List.of(), Map.of(ForecastModel.GFS, gfsHourly))
+                        : new ForecastData(List.of(), Map.of())));
+        when(icmForecastVisionService.extractForecastFromMeteogram("https://meteo.pl/icm"))
+                .thenReturn(Optional.of(icmHourly));
+
+        // when
+        aggregatorService.fetchForecastsForAllModels(123);
+
+        // then
+        @SuppressWarnings("unchecked")
+        var forecastCache = (java.util.concurrent.ConcurrentMap<Integer, ForecastData>)
+                ReflectionTestUtils.getField(aggregatorService, "forecastCache");
+        assertThat(forecastCache.get(123).hourly(ForecastModel.ICM_METEO)).isEqualTo(icmHourly);
+        assertThat(forecastCache.get(123).hourly(ForecastModel.GFS)).isEqualTo(gfsHourly);
+        verify(icmForecastVisionService, times(1)).extractForecastFromMeteogram("https://meteo.pl/icm");
+    }
+
     @Test
     void shouldReturnHourlyForecastForSingleSpot() {
         // given
@@ -254,7 +508,32 @@ class AggregatorServiceTest {
     }
 
     @Test
-    void shouldThrowExceptionWhenForecastFetchFails() {
+    void shouldKeepHourlyForecastsOutOfTheSpotsSnapshot() {
+        // given
+        var spot = createTestSpot(123, "Test Spot");
+        var hourlyForecast = List.of(new Forecast("Mon 01 Jan 2025 01:00", 9.0, 11.0, "N", 14.0, 0.1, 0, 0));
+
+        var spotsMap = new java.util.concurrent.ConcurrentHashMap<Integer, Spot>();
+        spotsMap.put(spot.wgId(), spot);
+        ReflectionTestUtils.setField(aggregatorService, "spots", spotsMap);
+
+        @SuppressWarnings("unchecked")
+        var forecastCache = (java.util.concurrent.ConcurrentMap<Integer, ForecastData>)
+                ReflectionTestUtils.getField(aggregatorService, "forecastCache");
+        forecastCache.put(123, new ForecastData(List.of(), Map.of(ForecastModel.GFS, hourlyForecast)));
+
+        // when
+        var snapshot = aggregatorService.getSpotsSnapshot();
+
+        // then
+        assertThat(snapshot.spot(123).orElseThrow().forecastHourly()).isEmpty();
+        assertThat(aggregatorService.getSpots().getFirst().forecastHourly()).isEmpty();
+        assertThat(aggregatorService.getSpotById(123).orElseThrow().forecastHourly())
+                .containsExactlyElementsOf(hourlyForecast);
+    }
+
+    @Test
+    void shouldCountFailedFetchWhenNoForecastArrives() {
         // given
         var spot = createTestSpot(123, "Test Spot");
 
@@ -264,49 +543,127 @@ class AggregatorServiceTest {
         aggregatorService.init();
         awaitSpotsLoaded(1);
 
-        // when/then
-        assertThatThrownBy(() -> aggregatorService.fetchForecastsEveryThreeHours())
-                .isInstanceOf(FetchingForecastException.class);
+        // when
+        aggregatorService.refreshDueForecasts();
+
+        // then
+        verify(metricsService).incrementForecastFetchFailureCounter();
+        verify(metricsService, never()).incrementForecastFetchSuccessCounter();
     }
 
     @Test
-    void shouldRecoverFromFetchingForecastsError() {
+    void shouldFetchCurrentConditionsSuccessfully() {
         // given
-        var exception = new FetchingForecastException("Test error");
+        var spot = createTestSpot(123, "Test Spot");
+        var currentConditions = new CurrentConditions("2025-01-01 12:00", 15, 25, "NW", 10);
+
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(spot));
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
+        when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(currentConditions));
+
+        aggregatorService.init();
+        awaitSpotsLoaded(1);
 
         // when
-        aggregatorService.recoverFromFetchingForecasts(exception);
+        aggregatorService.pollDueCurrentConditions();
 
-        // then - should not throw
+        // then
+        verify(currentConditionsService).fetchCurrentConditions(123);
     }
 
     @Test
-    void shouldFetchCurrentConditionsSuccessfully() throws FetchingCurrentConditionsException {
+    void shouldNotPollStationAgainBeforeItIsDue() {
         // given
         var spot = createTestSpot(123, "Test Spot");
         var currentConditions = new CurrentConditions("2025-01-01 12:00", 15, 25, "NW", 10);
 
         when(spotsDataProvider.getSpots()).thenReturn(Flux.just(spot));
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
         when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(currentConditions));
 
         aggregatorService.init();
         awaitSpotsLoaded(1);
 
         // when
-        aggregatorService.fetchCurrentConditionsEveryOneMinute();
+        aggregatorService.pollDueCurrentConditions();
+        aggregatorService.pollDueCurrentConditions();
 
         // then
-        verify(currentConditionsService).fetchCurrentConditions(123);
+        verify(currentConditionsService, times(1)).fetchCurrentConditions(123);
+    }
+
+    @Test
+    void shouldPublishUpdateOnlyWhenCurrentConditionsChange() throws FetchingCurrentConditionsException {
+        // given
+        var spot = createTestSpot(123, "Test Spot");
+        var first = new CurrentConditions("2025-01-01 12:00", 15, 25, "NW", 10);
+        var second = new CurrentConditions("2025-01-01 12:01", 17, 25, "NW", 10);
+
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(spot));
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
+        when(currentConditionsService.fetchCurrentConditions(123))
+                .thenReturn(Mono.just(first), Mono.just(first), Mono.just(second));
+
+        aggregatorService.init();
+        awaitSpotsLoaded(1);
+
+        // when fetched three times, the second time before the station published
+        aggregatorService.fetchCurrentConditions();
+        aggregatorService.fetchCurrentConditions();
+        aggregatorService.fetchCurrentConditions();
+
+        // then
+        var published = ArgumentCaptor.forClass(SpotUpdate.class);
+        verify(spotUpdates, times(2)).publish(published.capture());
+        assertThat(published.getAllValues())
+                .extracting(SpotUpdate::currentConditions)
+                .containsExactly(first, second);
+        assertThat(published.getValue().kind()).isEqualTo(SpotUpdate.Kind.CONDITIONS);
+        assertThat(published.getValue().name()).isEqualTo("Test Spot");
+    }
+
+    @Test
+    void shouldKeepSnapshotWhenReadingDidNotChange() throws FetchingCurrentConditionsException {
+        // given
+        var reading = new CurrentConditions("2025-01-01 12:00", 15, 25, "NW", 10);
+        var next = new CurrentConditions("2025-01-01 12:01", 17, 25, "NW", 10);
+
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(createTestSpot(123, "Test Spot 1"), createTestSpot(456, "Test Spot 2")));
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
+        when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(reading));
+        when(currentConditionsService.fetchCurrentConditions(456))
+                .thenReturn(Mono.just(reading), Mono.just(reading), Mono.just(next));
+
+        aggregatorService.init();
+        awaitUntil("the startup snapshot to be published", () -> aggregatorService.getSpotsSnapshot().version() > 0);
+        aggregatorService.fetchCurrentConditions();
+        var first = aggregatorService.getSpotsSnapshot();
+
+        // when neither station has published since
+        aggregatorService.fetchCurrentConditions();
+
+        // then nothing is rebuilt, so the spot list keeps its lastUpdated and its ETag
+        assertThat(aggregatorService.getSpotsSnapshot()).isSameAs(first);
+
+        // when only the second station has
+        aggregatorService.fetchCurrentConditions();
+
+        // then the first spot is served as it was
+        var latest = aggregatorService.getSpotsSnapshot();
+        assertThat(latest).isNotSameAs(first);
+        assertThat(latest.spot(123)).containsSame(first.spot(123).orElseThrow());
+        assertThat(latest.spot(456).orElseThrow().currentConditions()).isEqualTo(next);
     }
 
     @Test
-    void shouldHandlePartialFailuresInCurrentConditionsFetch() throws FetchingCurrentConditionsException {
+    void shouldHandlePartialFailuresInCurrentConditionsFetch() {
         // given
         var spot1 = createTestSpot(123, "Test Spot 1");
         var spot2 = createTestSpot(456, "Test Spot 2");
         var currentConditions = new CurrentConditions("2025-01-01 12:00", 15, 25, "NW", 10);
 
         when(spotsDataProvider.getSpots()).thenReturn(Flux.just(spot1, spot2));
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
         when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(currentConditions));
         when(currentConditionsService.fetchCurrentConditions(456)).thenReturn(Mono.error(new RuntimeException("Failed")));
 
@@ -314,24 +671,13 @@ class AggregatorServiceTest {
         awaitSpotsLoaded(2);
 
         // when
-        aggregatorService.fetchCurrentConditionsEveryOneMinute();
+        aggregatorService.pollDueCurrentConditions();
 
         // then - should complete without throwing
         verify(currentConditionsService).fetchCurrentConditions(123);
         verify(currentConditionsService).fetchCurrentConditions(456);
     }
 
-    @Test
-    void shouldRecoverFromFetchingCurrentConditionsError() {
-        // given
-        var exception = new FetchingCurrentConditionsException("Test error");
-
-        // when
-        aggregatorService.recoverFromFetchingCurrentConditions(exception);
-
-        // then - should not throw
-    }
-
     @Test
     void shouldSkipAiForecastAnalysisWhenDisabled() throws FetchingForecastException {
         // given
@@ -379,7 +725,7 @@ class AggregatorServiceTest {
     }
 
     @Test
-    void shouldHandleEmptySpotsList() throws FetchingForecastException {
+    void shouldHandleEmptySpotsList() {
         // given
         when(spotsDataProvider.getSpots()).thenReturn(Flux.empty());
 
@@ -387,7 +733,7 @@ class AggregatorServiceTest {
         awaitSpotsLoaded(0);
 
         // when
-        aggregatorService.fetchForecastsEveryThreeHours();
+        aggregatorService.refreshDueForecasts();
 
         // then
         verify(forecastService, never()).getForecastData(anyInt());
@@ -395,19 +741,20 @@ class AggregatorServiceTest {
     }
 
     @Test
-    void shouldFilterEmptyCurrentConditions() throws FetchingCurrentConditionsException {
+    void shouldFilterEmptyCurrentConditions() {
         // given
         var spot = createTestSpot(123, "Test Spot");
         var emptyConditions = new CurrentConditions(null, 0, 0, null, 0);
 
         when(spotsDataProvider.getSpots()).thenReturn(Flux.just(spot));
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
         when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(emptyConditions));
 
         aggregatorService.init();
         awaitSpotsLoaded(1);
 
         // when
-        aggregatorService.fetchCurrentConditionsEveryOneMinute();
+        aggregatorService.pollDueCurrentConditions();
 
         // then
         verify(currentConditionsService).fetchCurrentConditions(123);
@@ -624,13 +971,14 @@ class AggregatorServiceTest {
         var currentConditions = new CurrentConditions("2025-01-01 12:00", 15, 25, "NW", 10);
 
         when(spotsDataProvider.getSpots()).thenReturn(Flux.just(spot));
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
         when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(currentConditions));
 
         aggregatorService.init();
         awaitSpotsLoaded(1);
 
         // when - fetch current conditions (simulates scheduled task)
-        aggregatorService.fetchCurrentConditionsEveryOneMinute();
+        aggregatorService.pollDueCurrentConditions();
 
         // then - verify data is in cache
         @SuppressWarnings("unchecked")
@@ -644,6 +992,37 @@ class AggregatorServiceTest {
         assertThat(spots.get(0).currentConditions()).isEqualTo(currentConditions);
     }
 
+    @Test
+    void shouldServeTheSameSnapshotUntilTheDataChanges() throws Exception {
+        // given
+        var spot = createTestSpot(123, "Test Spot");
+        var currentConditions = new CurrentConditions("2025-01-01 12:00", 15, 25, "NW", 10);
+
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(spot));
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
+        when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(currentConditions));
+
+        aggregatorService.init();
+        awaitUntil("the startup snapshot to be published", () -> aggregatorService.getSpotsSnapshot().version() > 0);
+
+        // when
+        var first = aggregatorService.getSpotsSnapshot();
+        var second = aggregatorService.getSpotsSnapshot();
+
+        // then - nothing changed, so nothing is rebuilt
+        assertThat(second).isSameAs(first);
+
+        // when - a conditions cycle lands
+        aggregatorService.pollDueCurrentConditions();
+        var afterCycle = aggregatorService.getSpotsSnapshot();
+
+        // then - the cycle published a new snapshot carrying its data
+        assertThat(afterCycle.version()).isGreaterThan(first.version());
+        assertThat(afterCycle.spot(123).orElseThrow().currentConditions()).isEqualTo(currentConditions);
+        assertThat(afterCycle.summaries().get(0).currentConditionsHistory()).isNull();
+        assertThat(aggregatorService.getSpots()).isSameAs(afterCycle.spots());
+    }
+
     @Test
     void shouldCountLiveStationsWithNonEmptyConditions() {
         // given
@@ -656,6 +1035,7 @@ class AggregatorServiceTest {
         var liveConditions = new CurrentConditions("2025-01-01T12:00:00", 15, 20, "S", 10);
         var emptyConditions = new CurrentConditions("2025-01-01T12:00:00", 0, 0, "", 0);
 
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
         when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(liveConditions));
         when(currentConditionsService.fetchCurrentConditions(124)).thenReturn(Mono.just(emptyConditions));
         when(currentConditionsService.fetchCurrentConditions(125)).thenReturn(Mono.just(liveConditions));
@@ -664,7 +1044,7 @@ class AggregatorServiceTest {
         awaitSpotsLoaded(3);
 
         // when
-        aggregatorService.fetchCurrentConditionsEveryOneMinute();
+        aggregatorService.pollDueCurrentConditions();
 
         // then
         var liveStationsCount = aggregatorService.countLiveStations();
@@ -681,6 +1061,7 @@ class AggregatorServiceTest {
 
         var emptyConditions = new CurrentConditions("2025-01-01T12:00:00", 0, 0, "", 0);
 
+        when(currentConditionsService.hasStation(anyInt())).thenReturn(true);
         when(currentConditionsService.fetchCurrentConditions(123)).thenReturn(Mono.just(emptyConditions));
         when(currentConditionsService.fetchCurrentConditions(124)).thenReturn(Mono.just(emptyConditions));
 
@@ -688,7 +1069,7 @@ class AggregatorServiceTest {
         awaitSpotsLoaded(2);
 
         // when
-        aggregatorService.fetchCurrentConditionsEveryOneMinute();
+        aggregatorService.pollDueCurrentConditions();
 
         // then
         var liveStationsCount = aggregatorService.countLiveStations();
@@ -742,6 +1123,40 @@ class AggregatorServiceTest {
         assertThat(result.get().forecastHourly().get(0).gusts()).isEqualTo(17.5);
     }
 
+    @Test
+    void shouldAverageForecastOnlyOnceUntilTheSpotsForecastChanges() {
+        // given
+        var spot = createTestSpot(123, "Test Spot");
+        var gfsHourly = List.of(new Forecast("Mon 01 Jan 2025 12:00", 10.0, 15.0, "N", 20.0, 0.0, 0, 0));
+        var ifsHourly = List.of(new Forecast("Mon 01 Jan 2025 12:00", 14.0, 20.0, "N", 22.0, 1.0, 0, 0));
+
+        var spotsMap = new java.util.concurrent.ConcurrentHashMap<Integer, Spot>();
+        spotsMap.put(spot.wgId(), spot);
+        ReflectionTestUtils.setField(aggregatorService, "spots", spotsMap);
+
+        @SuppressWarnings("unchecked")
+        var forecastCache = (java.util.concurrent.ConcurrentMap<Integer, ForecastData>)
+                ReflectionTestUtils.getField(aggregatorService, "forecastCache");
+        forecastCache.put(123, new ForecastData(List.of(), Map.of(
+                ForecastModel.GFS, gfsHourly,
+                ForecastModel.IFS, ifsHourly
+        )));
+
+        // when
+        var first = aggregatorService.getSpotById(123, "average").orElseThrow().forecastHourly().get(0);
+        var second = aggregatorService.getSpotById(123, "average").orElseThrow().forecastHourly().get(0);
+        forecastCache.put(123, new ForecastData(List.of(), Map.of(
+                ForecastModel.GFS, gfsHourly,
+                ForecastModel.IFS, List.of(new Forecast("Mon 01 Jan 2025 12:00", 20.0, 25.0, "N", 22.0, 1.0, 0, 0))
+        )));
+        var changed = aggregatorService.getSpotById(123, "average").orElseThrow().forecastHourly().get(0);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first.spread().windMax()).isEqualTo(14.0);
+        assertThat(changed.wind()).isEqualTo(15.0);
+    }
+
     @Test
     void shouldDelegateToForecastModelWhenModelKeyIsNotAverage() {
         // given
@@ -1009,6 +1424,43 @@ class AggregatorServiceTest {
         assertThat(timestamps).doesNotContainKey(123);
     }
 
+    @Test
+    void shouldKeepFetchingIcmForecastsWhenOneSpotHasAnOutOfRangeValue() {
+        // given
+        var badSpot = createTestSpot(123, "Bad Spot");
+        var goodSpot = createTestSpot(456, "Good Spot");
+        var badForecast = List.of(new Forecast("Mon 01 Jan 2025 12:00", 12.0, 18.0, "N", 15.0, 0.0, 0, 101300.0));
+        var goodForecast = List.of(new Forecast("Mon 01 Jan 2025 12:00", 12.0, 18.0, "N", 15.0, 0.0, 0, 1013.0));
+
+        var spotsMap = new java.util.concurrent.ConcurrentHashMap<Integer, Spot>();
+        spotsMap.put(badSpot.wgId(), badSpot);
+        spotsMap.put(goodSpot.wgId(), goodSpot);
+        ReflectionTestUtils.setField(aggregatorService, "spots", spotsMap);
+        ReflectionTestUtils.setField(aggregatorService, "icmVisionEnabled", true);
+
+        @SuppressWarnings("unchecked")
+        var icmUrls = (java.util.concurrent.ConcurrentMap<Integer, String>)
+                ReflectionTestUtils.getField(aggregatorService, "icmUrls");
+        icmUrls.put(123, "https://meteo.pl/icm/bad");
+        icmUrls.put(456, "https://meteo.pl/icm/good");
+
+        when(icmGridMapper.isCountrySupported("Poland")).thenReturn(true);
+        when(icmForecastVisionService.extractForecastFromMeteogram("https://meteo.pl/icm/bad"))
+                .thenReturn(Optional.of(badForecast));
+        when(icmForecastVisionService.extractForecastFromMeteogram("https://meteo.pl/icm/good"))
+                .thenReturn(Optional.of(goodForecast));
+
+        // when
+        aggregatorService.fetchIcmForecastsEveryThreeHours();
+
+        // then
+        @SuppressWarnings("unchecked")
+        var forecastCache = (java.util.concurrent.ConcurrentMap<Integer, ForecastData>)
+                ReflectionTestUtils.getField(aggregatorService, "forecastCache");
+        assertThat(forecastCache).doesNotContainKey(123);
+        assertThat(forecastCache.get(456).hourly(ForecastModel.ICM_METEO)).isEqualTo(goodForecast);
+    }
+
     @Test
     void shouldSkipIcmForecastsForCountriesOutsideTheIcmGrid() {
         // given
@@ -1046,7 +1498,7 @@ class AggregatorServiceTest {
         forecastCache.put(123, new ForecastData(List.of(), Map.of(ForecastModel.ICM_METEO, icmForecast)));
 
         // when
-        aggregatorService.fetchForecastsEveryThreeHours();
+        aggregatorService.refreshDueForecasts();
 
         // then
         assertThat(forecastCache.get(123).hourly(ForecastModel.ICM_METEO)).isEqualTo(icmForecast);
@@ -1056,10 +1508,16 @@ class AggregatorServiceTest {
     @Test
     void shouldServeTheWindTimelineOverTheRequestedSpan() {
         // given a forecast that runs twenty days out
-        @SuppressWarnings("unchecked")
-        var forecastCache = (java.util.concurrent.ConcurrentMap<Integer, ForecastData>)
-                ReflectionTestUtils.getField(aggregatorService, "forecastCache");
-        forecastCache.put(123, new ForecastData(List.of(), Map.of(ForecastModel.GFS, hourlyRun(20 * 24))));
+        var daily = List.of(new Forecast("Today", 12, 16, "NW", 15, 0, 0, 1013));
+        when(spotsDataProvider.getSpots()).thenReturn(Flux.just(createTestSpot(123, "Test Spot")));
+        when(forecastService.getForecastData(123))
+                .thenReturn(Mono.just(new ForecastData(daily, Map.of(ForecastModel.GFS, hourlyRun(20 * 24)))));
+
+        aggregatorService.init();
+        awaitSpotsLoaded(1);
+
+        // when the forecast cycle caches it, which is what lays it onto the timeline
+        aggregatorService.refreshDueForecasts();
 
         // then the default span is the five days a phone-sized slider can address
         assertThat(aggregatorService.getWindTimeline().hours()).hasSize(5 * 24);
@@ -0,0 +1,120 @@
+package com.github.pwittchen.varun.service.cache;
+
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.forecast.ForecastData;
+import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.model.map.Coordinates;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class CacheSnapshotStoreTest {
+
+    private static final Duration MAX_AGE = Duration.ofHours(12);
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private CacheSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("cache").resolve("aggregator-cache.bin");
+        store = new CacheSnapshotStore(file.toString());
+    }
+
+    private CacheSnapshot snapshot(Instant savedAt) {
+        var daily = List.of(
+                new Forecast("Today", 12, 16, "NW", 15, 0.4, 0, 1013),
+                new Forecast("Tomorrow", 18, 24, "W", 13, 0, 30, 1009, 1.2, 6.0, "SW")
+        );
+        var hourly = List.of(
+                new Forecast("Tue 28 Oct 2025 14:00", 12, 16, "NW", 15, 0, 0, 1013, 0.8, 5.0, "N"),
+                new Forecast("Tue 28 Oct 2025 15:00", 13.5, 17.2, "", 14.1, 0.2, 12.5, 1012.6),
+                new Forecast("Mon 29. 02h", 9, 11, "E", 10, 0, 0, 1010)
+        );
+        return new CacheSnapshot(
+                savedAt,
+                Map.of(500760, new ForecastData(daily, Map.of(ForecastModel.GFS, hourly, ForecastModel.ICM_METEO, hourly))),
+                Map.of(500760, List.of(
+                        new CurrentConditions("2025-10-28 14:00", 14, 18, "NW", 12),
+                        new CurrentConditions("2025-10-28 14:01", 15, 19, null, 12)
+                )),
+                Map.of(500760, "Strong wind. ".repeat(10_000)),
+                Map.of(500760, "Mocny wiatr, \u0105\u0119\u0142\u00f3."),
+                Map.of(500760, new Coordinates(54.7, 18.6)),
+                Map.of(500760, "https://www.meteo.pl/um/php/meteorogram_id_um.php?ntype=0u&id=1")
+        );
+    }
+
+    @Test
+    void shouldReadBackWhatWasSaved() throws IOException {
+        var saved = snapshot(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+
+        assertThat(store.save(saved)).isTrue();
+
+        assertThat(store.load(MAX_AGE)).hasValue(saved);
+        try (var files = Files.list(file.getParent())) {
+            assertThat(files.toList()).containsExactly(file);
+        }
+    }
+
+    @Test
+    void shouldReplacePreviousSnapshot() {
+        store.save(snapshot(Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.MILLIS)));
+        var latest = snapshot(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+
+        store.save(latest);
+
+        assertThat(store.load(MAX_AGE).orElseThrow().savedAt()).isEqualTo(latest.savedAt());
+    }
+
+    @Test
+    void shouldDiscardSnapshotOlderThanAllowed() {
+        store.save(snapshot(Instant.now().minus(Duration.ofHours(13))));
+
+        assertThat(store.load(MAX_AGE)).isEmpty();
+    }
+
+    @Test
+    void shouldDiscardSnapshotOfAnotherFormat() throws IOException {
+        Files.createDirectories(file.getParent());
+        try (var out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(0x56534353);
+            out.writeInt(CacheSnapshotStore.FORMAT_VERSION + 1);
+            out.writeLong(Instant.now().toEpochMilli());
+        }
+
+        assertThat(store.load(MAX_AGE)).isEmpty();
+    }
+
+    @Test
+    void shouldDiscardTruncatedSnapshot() throws IOException {
+        store.save(snapshot(Instant.now()));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThat(store.load(MAX_AGE)).isEmpty();
+    }
+
+    @Test
+    void shouldLoadNothingWhenThereIsNoSnapshot() {
+        assertThat(store.load(MAX_AGE)).isEmpty();
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.pwittchen.varun.service.cache;
+
+import com.github.pwittchen.varun.model.forecast.IcmGrid;
+import com.github.pwittchen.varun.model.map.Coordinates;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class GeoResolutionStoreTest {
+
+    private static final String JASTARNIA = "https://maps.app.goo.gl/jastarnia";
+    private static final String CHALUPY = "https://maps.app.goo.gl/chalupy";
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("cache").resolve("geo-resolutions.bin");
+        registry = new SimpleMeterRegistry();
+    }
+
+    private GeoResolutionStore store() {
+        return new GeoResolutionStore(file.toString(), registry);
+    }
+
+    private double count(String name, String kind) {
+        return registry.get(name).tag("kind", kind).counter().count();
+    }
+
+    @Test
+    void shouldKeepResolutionsAcrossRestarts() throws IOException {
+        var store = store();
+        store.putCoordinates(JASTARNIA, new Coordinates(54.7, 18.67));
+        store.putIcmGrid(new IcmGrid(340, 210), new IcmGrid(341, 212));
+
+        var restarted = store();
+
+        assertThat(restarted.coordinates(JASTARNIA)).hasValue(new Coordinates(54.7, 18.67));
+        assertThat(restarted.icmGrid(new IcmGrid(340, 210))).hasValue(new IcmGrid(341, 212));
+        assertThat(restarted.coordinates(CHALUPY)).isEmpty();
+        assertThat(restarted.icmGrid(new IcmGrid(341, 212))).isEmpty();
+        try (var files = Files.list(file.getParent())) {
+            assertThat(files.toList()).containsExactly(file);
+        }
+    }
+
+    @Test
+    void shouldCountStoreHitsAndNetworkResolutions() {
+        var store = store();
+        store.coordinates(JASTARNIA);
+        store.putCoordinates(JASTARNIA, new Coordinates(54.7, 18.67));
+        store.coordinates(JASTARNIA);
+        store.coordinates(JASTARNIA);
+        store.icmGrid(new IcmGrid(340, 210));
+
+        assertThat(count("varun.geo.store.hits", "coordinates")).isEqualTo(2.0);
+        assertThat(count("varun.geo.network.resolutions", "coordinates")).isEqualTo(1.0);
+        assertThat(count("varun.geo.store.hits", "icm_grid")).isEqualTo(0.0);
+        assertThat(count("varun.geo.network.resolutions", "icm_grid")).isEqualTo(0.0);
+    }
+
+    @Test
+    void shouldForgetLocationsNoLongerUsed() {
+        var store = store();
+        store.putCoordinates(JASTARNIA, new Coordinates(54.7, 18.67));
+        store.putCoordinates(CHALUPY, new Coordinates(54.76, 18.5));
+
+        store.retainLocations(List.of(CHALUPY, "https://maps.app.goo.gl/new-spot"));
+
+        assertThat(store.coordinates(JASTARNIA)).isEmpty();
+        assertThat(store().coordinates(JASTARNIA)).isEmpty();
+        assertThat(store().coordinates(CHALUPY)).hasValue(new Coordinates(54.76, 18.5));
+    }
+
+    @Test
+    void shouldForgetSingleResolutions() {
+        var store = store();
+        store.putCoordinates(JASTARNIA, new Coordinates(54.7, 18.67));
+        store.putIcmGrid(new IcmGrid(340, 210), new IcmGrid(341, 212));
+
+        store.forgetCoordinates(JASTARNIA);
+        store.forgetIcmGrid(new IcmGrid(340, 210));
+
+        var restarted = store();
+        assertThat(restarted.coordinates(JASTARNIA)).isEmpty();
+        assertThat(restarted.icmGrid(new IcmGrid(340, 210))).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreFileOfAnotherFormat() throws IOException {
+        Files.createDirectories(file.getParent());
+        try (var out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(0x56534752);
+            out.writeInt(GeoResolutionStore.FORMAT_VERSION + 1);
+            out.writeInt(1);
+            out.writeUTF(JASTARNIA);
+            out.writeDouble(54.7);
+            out.writeDouble(18.67);
+            out.writeInt(0);
+        }
+
+        assertThat(store().coordinates(JASTARNIA)).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreTruncatedFile() throws IOException {
+        var store = store();
+        store.putCoordinates(JASTARNIA, new Coordinates(54.7, 18.67));
+        store.putCoordinates(CHALUPY, new Coordinates(54.76, 18.5));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        var restarted = store();
+
+        assertThat(restarted.coordinates(JASTARNIA)).isEmpty();
+        assertThat(restarted.coordinates(CHALUPY)).isEmpty();
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.pwittchen.varun.service.cache;
+
+import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.pwittchen.varun.model.forecast.ForecastModel.GFS;
+import static com.github.pwittchen.varun.model.forecast.ForecastModel.HRRR;
+import static com.github.pwittchen.varun.model.forecast.ForecastModel.IFS;
+import static com.google.common.truth.Truth.assertThat;
+
+class ModelAvailabilityStoreTest {
+
+    private static final int JASTARNIA = 500760;
+    private static final int TARIFA = 43;
+    private static final List<ForecastModel> MODELS = List.of(GFS, IFS, HRRR);
+    private static final Instant NOW = Instant.parse("2025-06-01T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("cache").resolve("model-availability.bin");
+        registry = new SimpleMeterRegistry();
+    }
+
+    private ModelAvailabilityStore store() {
+        return new ModelAvailabilityStore(file.toString(), registry);
+    }
+
+    private double skipped() {
+        return registry.get("varun.forecast.models.skipped").counter().count();
+    }
+
+    private static Map<ForecastModel, Boolean> answers(boolean hrrr) {
+        return Map.of(GFS, true, IFS, true, HRRR, hrrr);
+    }
+
+    @Test
+    void shouldSkipModelOnlyAfterItAnsweredEmptyTwiceInARow() {
+        var store = store();
+
+        store.record(JASTARNIA, answers(false), NOW);
+        assertThat(store.available(JASTARNIA, MODELS, NOW)).containsExactlyElementsIn(MODELS).inOrder();
+
+        store.record(JASTARNIA, answers(false), NOW.plus(Duration.ofHours(3)));
+        assertThat(store.available(JASTARNIA, MODELS, NOW.plus(Duration.ofHours(3)))).containsExactly(GFS, IFS).inOrder();
+        assertThat(store.available(TARIFA, MODELS, NOW)).containsExactlyElementsIn(MODELS);
+        assertThat(skipped()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldStartOverWhenModelAnswersWithData() {
+        var store = store();
+
+        store.record(JASTARNIA, answers(false), NOW);
+        store.record(JASTARNIA, answers(true), NOW);
+        store.record(JASTARNIA, answers(false), NOW);
+
+        assertThat(store.available(JASTARNIA, MODELS, NOW)).contains(HRRR);
+    }
+
+    @Test
+    void shouldAskSkippedModelAgainOnceItIsDueForRevalidation() {
+        var store = store();
+        store.record(JASTARNIA, answers(false), NOW);
+        store.record(JASTARNIA, answers(false), NOW);
+        Instant revalidation = NOW.plus(ModelAvailabilityStore.REVALIDATE_AFTER);
+
+        assertThat(store.available(JASTARNIA, MODELS, revalidation.minusSeconds(1))).doesNotContain(HRRR);
+        assertThat(store.available(JASTARNIA, MODELS, revalidation)).contains(HRRR);
+
+        // Still empty: skipped for another period
+        store.record(JASTARNIA, answers(false), revalidation);
+        assertThat(store.available(JASTARNIA, MODELS, revalidation.plus(Duration.ofDays(1)))).doesNotContain(HRRR);
+    }
+
+    @Test
+    void shouldNotRecordModelsThatDidNotAnswer() {
+        var store = store();
+        store.record(JASTARNIA, answers(false), NOW);
+
+        // HRRR failed this time, which says nothing about whether it covers the spot
+        store.record(JASTARNIA, Map.of(GFS, true), NOW);
+        store.record(JASTARNIA, answers(false), NOW);
+
+        assertThat(store.available(JASTARNIA, MODELS, NOW)).doesNotContain(HRRR);
+    }
+
+    @Test
+    void shouldKeepAnswersAcrossRestartsForRetainedSpots() throws IOException {
+        var store = store();
+        store.record(JASTARNIA, answers(false), NOW);
+        store.record(JASTARNIA, answers(false), NOW);
+        store.record(TARIFA, answers(false), NOW);
+        store.record(TARIFA, answers(false), NOW);
+
+        store.retainSpots(List.of(JASTARNIA));
+
+        var restarted = store();
+        assertThat(restarted.available(JASTARNIA, MODELS, NOW)).containsExactly(GFS, IFS).inOrder();
+        assertThat(restarted.available(TARIFA, MODELS, NOW)).containsExactlyElementsIn(MODELS);
+        try (var files = Files.list(file.getParent())) {
+            assertThat(files.toList()).containsExactly(file);
+        }
+    }
+
+    @Test
+    void shouldIgnoreTruncatedFile() throws IOException {
+        var store = store();
+        store.record(JASTARNIA, answers(false), NOW);
+        store.record(JASTARNIA, answers(false), NOW);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThat(store().available(JASTARNIA, MODELS, NOW)).containsExactlyElementsIn(MODELS);
+    }
+}
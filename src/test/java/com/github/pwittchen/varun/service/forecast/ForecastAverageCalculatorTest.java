@@ -3,6 +3,7 @@ package com.github.pwittchen.varun.service.forecast;
 import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.ForecastData;
 import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import com.github.pwittchen.varun.model.forecast.ForecastSpread;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -236,4 +237,47 @@ class ForecastAverageCalculatorTest {
         assertThat(result.get(0).wavePeriod()).isEqualTo(8.0);
         assertThat(result.get(0).waveDirection()).isEqualTo("SW");
     }
+
+    @Test
+    void shouldReturnSpreadOfModelsWithEveryAveragedHour() {
+        var gfs = List.of(new Forecast("Mon 01 Jan 2025 12:00", 10.0, 15.0, "N", 20.0, 0.0, 0, 0, 1.0, 6.0, "W"));
+        var ifs = List.of(new Forecast("Mon 01 Jan 2025 12:00", 13.0, 18.0, "NE", 22.0, 1.0, 0, 0));
+        var icon = List.of(new Forecast("Mon 01 Jan 2025 12:00", 16.0, 21.0, "E", 24.0, 2.0, 0, 0, 2.0, 8.0, "W"));
+        var data = new ForecastData(List.of(), Map.of(
+                ForecastModel.GFS, gfs,
+                ForecastModel.IFS, ifs,
+                ForecastModel.ICON, icon
+        ));
+
+        var result = ForecastAverageCalculator.computeAverage(data);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).spread())
+                .isEqualTo(new ForecastSpread(3, 10.0, 16.0, 15.0, 21.0, 20.0, 24.0, 0.0, 2.0, 1.0, 2.0));
+    }
+
+    @Test
+    void shouldLineUpHoursOfModelsThatStartAtDifferentTimes() {
+        var gfs = List.of(
+                new Forecast("Mon 01 Jan 2025 15:00", 12.0, 18.0, "N", 21.0, 0.0, 0, 0),
+                new Forecast("Mon 01 Jan 2025 18:00", 14.0, 20.0, "N", 19.0, 0.0, 0, 0)
+        );
+        var ifs = List.of(
+                new Forecast("Mon 01 Jan 2025 12:00", 10.0, 16.0, "N", 22.0, 0.0, 0, 0),
+                new Forecast("Mon 01 Jan 2025 15:00", 16.0, 22.0, "N", 23.0, 0.0, 0, 0),
+                new Forecast("Mon 01 Jan 2025 18:00", 18.0, 24.0, "N", 21.0, 0.0, 0, 0)
+        );
+        var data = new ForecastData(List.of(), Map.of(
+                ForecastModel.GFS, gfs,
+                ForecastModel.IFS, ifs
+        ));
+
+        var result = ForecastAverageCalculator.computeAverage(data);
+
+        assertThat(result.stream().map(Forecast::date).toList())
+                .containsExactly("Mon 01 Jan 2025 15:00", "Mon 01 Jan 2025 18:00").inOrder();
+        assertThat(result.get(0).wind()).isEqualTo(14.0);
+        assertThat(result.get(1).wind()).isEqualTo(16.0);
+        assertThat(result.get(1).spread().models()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,173 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ForecastRefreshPlannerTest {
+
+    private static final Duration INTERVAL = Duration.ofHours(6);
+    private static final Duration TICK = Duration.ofSeconds(30);
+    // 04:30 UTC, when the 00 UTC GFS run reaches Windguru
+    private static final Instant CYCLE_START = Instant.parse("2025-06-01T04:30:00Z");
+    private static final List<Integer> SPOTS = IntStream.rangeClosed(1, 230).boxed().toList();
+
+    private final ForecastRefreshPlanner planner = new ForecastRefreshPlanner(INTERVAL, TICK, new SplittableRandom(42));
+
+    private void fetchedAll(Instant at) {
+        SPOTS.forEach(spotId -> planner.recordFetched(spotId, at));
+    }
+
+    @Test
+    void shouldAnchorCyclesAtModelRunAvailability() {
+        assertThat(ForecastRefreshPlanner.cycleStart(Instant.parse("2025-06-01T09:00:00Z"), INTERVAL))
+                .isEqualTo(CYCLE_START);
+        assertThat(ForecastRefreshPlanner.cycleStart(Instant.parse("2025-06-01T10:30:00Z"), INTERVAL))
+                .isEqualTo(Instant.parse("2025-06-01T10:30:00Z"));
+        assertThat(ForecastRefreshPlanner.cycleStart(Instant.parse("2025-06-01T02:00:00Z"), INTERVAL))
+                .isEqualTo(Instant.parse("2025-05-31T22:30:00Z"));
+    }
+
+    @Test
+    void shouldFetchSpotsNeverFetchedFirstWithinABudgetOfTheirOwn() {
+        planner.recordFetched(1, CYCLE_START);
+        planner.recordRequested(200);
+        planner.recordRequested(200);
+        Set<Integer> fetched = new HashSet<>(Set.of(1));
+        int ticks = 0;
+
+        // Ticks at the start of the cycle, before any slot has come round
+        while (fetched.size() < SPOTS.size()) {
+            List<Integer> due = planner.due(SPOTS, CYCLE_START);
+            if (ticks == 0) {
+                assertThat(due.getFirst()).isEqualTo(200);
+            }
+            assertThat(due.size()).isAtMost(ForecastRefreshPlanner.FIRST_FETCH_BUDGET);
+            for (int spotId : due) {
+                assertThat(fetched.add(spotId)).isTrue();
+                planner.recordFetched(spotId, CYCLE_START);
+            }
+            ticks++;
+        }
+
+        assertThat(ticks).isEqualTo(Math.ceilDiv(SPOTS.size() - 1, ForecastRefreshPlanner.FIRST_FETCH_BUDGET));
+    }
+
+    @Test
+    void shouldSpreadACycleEvenlyAcrossTheInterval() {
+        fetchedAll(CYCLE_START.minus(INTERVAL));
+        Set<Integer> fetched = new HashSet<>();
+        int busiestTick = 0;
+
+        // Up to and including the tick that starts the next cycle, which picks up a slot too late for the last one
+        for (Instant now = CYCLE_START; !now.isAfter(CYCLE_START.plus(INTERVAL)); now = now.plus(TICK)) {
+            List<Integer> due = planner.due(SPOTS, now);
+            busiestTick = Math.max(busiestTick, due.size());
+            for (int spotId : due) {
+                assertThat(fetched.add(spotId)).isTrue();
+                planner.recordFetched(spotId, now);
+            }
+        }
+
+        assertThat(fetched).hasSize(SPOTS.size());
+        // 230 spots over 720 ticks is under one spot a tick, and jitter at most puts two together
+        assertThat(busiestTick).isAtMost(2);
+    }
+
+    @Test
+    void shouldFetchSpotWhoseSlotSlippedPastAtTheStartOfTheNextCycle() {
+        fetchedAll(CYCLE_START.minus(INTERVAL));
+        planner.due(SPOTS, CYCLE_START);
+        SPOTS.subList(0, SPOTS.size() - 1).forEach(spotId -> planner.recordFetched(spotId, CYCLE_START));
+
+        List<Integer> due = planner.due(SPOTS, CYCLE_START.plus(INTERVAL));
+
+        assertThat(due).containsExactly(SPOTS.getLast());
+    }
+
+    @Test
+    void shouldSlotMostRequestedSpotsFirst() {
+        fetchedAll(CYCLE_START.minus(INTERVAL));
+        planner.recordRequested(200);
+        planner.recordRequested(200);
+        planner.recordRequested(100);
+
+        planner.due(SPOTS, CYCLE_START);
+
+        Duration slot = INTERVAL.dividedBy(SPOTS.size());
+        assertThat(planner.slot(200)).isLessThan(CYCLE_START.plus(slot));
+        assertThat(planner.slot(100)).isAtLeast(CYCLE_START.plus(slot));
+        assertThat(planner.slot(100)).isLessThan(CYCLE_START.plus(slot.multipliedBy(2)));
+    }
+
+    @Test
+    void shouldCatchUpOldestFirstWithinTheBudget() {
+        // Fetched two cycles ago, and only once
+        planner.recordFetched(57, CYCLE_START.minus(INTERVAL.multipliedBy(2)));
+        SPOTS.stream()
+                .filter(spotId -> spotId != 57)
+                .forEach(spotId -> planner.recordFetched(spotId, CYCLE_START.minus(INTERVAL)));
+
+        // Nothing has been fetched for half the cycle, so half the spots are overdue
+        List<Integer> due = planner.due(SPOTS, CYCLE_START.plus(INTERVAL.dividedBy(2)));
+
+        assertThat(due).hasSize(planner.budget(SPOTS.size()));
+        assertThat(due.getFirst()).isEqualTo(57);
+    }
+
+    @Test
+    void shouldReplanWhenSpotsChange() {
+        fetchedAll(CYCLE_START.minus(INTERVAL));
+        planner.due(SPOTS, CYCLE_START);
+
+        planner.due(SPOTS.subList(0, 10), CYCLE_START);
+
+        Instant lastSlot = CYCLE_START.plus(INTERVAL.dividedBy(10).multipliedBy(9));
+        assertThat(planner.slot(10)).isAtLeast(lastSlot);
+    }
+
+    @Test
+    void shouldRetryFailedSpotAfterABackoffThatDoublesUpToTheCap() {
+        List<Integer> spots = List.of(1);
+        Instant now = CYCLE_START;
+
+        assertThat(planner.recordFailed(1, now)).isEqualTo(1);
+        assertThat(planner.due(spots, now)).isEmpty();
+        assertThat(planner.due(spots, now.plus(ForecastRefreshPlanner.RETRY_BACKOFF))).containsExactly(1);
+
+        now = now.plus(ForecastRefreshPlanner.RETRY_BACKOFF);
+        assertThat(planner.recordFailed(1, now)).isEqualTo(2);
+        assertThat(planner.due(spots, now.plus(ForecastRefreshPlanner.RETRY_BACKOFF))).isEmpty();
+        assertThat(planner.due(spots, now.plus(ForecastRefreshPlanner.RETRY_BACKOFF.multipliedBy(2))))
+                .containsExactly(1);
+
+        for (int i = 0; i < 20; i++) {
+            planner.recordFailed(1, now);
+        }
+        assertThat(planner.due(spots, now.plus(ForecastRefreshPlanner.MAX_RETRY_BACKOFF))).containsExactly(1);
+        assertThat(planner.failures(1)).isEqualTo(22);
+        assertThat(planner.failingSpots()).isEqualTo(1);
+
+        planner.recordFetched(1, now);
+        assertThat(planner.failures(1)).isEqualTo(0);
+        assertThat(planner.failingSpots()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldRejectIntervalOutOfStepWithModelRuns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ForecastRefreshPlanner(Duration.ofHours(4), TICK, new SplittableRandom()));
+        // A cycle would start between runs, with nothing new to fetch
+        assertThrows(IllegalArgumentException.class,
+                () -> new ForecastRefreshPlanner(Duration.ofHours(3), TICK, new SplittableRandom()));
+    }
+}
@@ -4,14 +4,31 @@ import com.github.pwittchen.varun.mapper.WeatherForecastMapper;
 import com.github.pwittchen.varun.model.forecast.Forecast;
 import com.github.pwittchen.varun.model.forecast.ForecastData;
 import com.github.pwittchen.varun.model.forecast.ForecastModel;
+import com.github.pwittchen.varun.model.forecast.ForecastWg;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.DECIMAL_OR_DASH;
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.INTEGER_OR_DASH;
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.SIGNED_INTEGER;
 import static com.google.common.truth.Truth.assertThat;
 
 class ForecastServiceTest {
@@ -22,7 +39,7 @@ class ForecastServiceTest {
     void setUp() {
         WeatherForecastMapper mapper = new WeatherForecastMapper();
         OkHttpClient okHttpClient = new OkHttpClient();
-        service = new ForecastService(mapper, okHttpClient);
+        service = new ForecastService(mapper, okHttpClient, new UpstreamFetcher(), new SimpleMeterRegistry());
     }
 
     @Test
@@ -317,6 +334,110 @@ class ForecastServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void shouldMergeWavesIntoForecastHoursByTime() throws IOException {
+        MicroTextSeries forecast = MicroTextParser.parse(stream("""
+                 Mon 29. 02h  15  20  257  12  -  80  60  40  1013
+                 Mon 29. 03h  16  21  260  12  -  80  60  40  1013
+                 Mon 29. 04h  17  22  262  12  -  80  60  40  1013
+                """), SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER,
+                DECIMAL_OR_DASH, INTEGER_OR_DASH, INTEGER_OR_DASH, INTEGER_OR_DASH, DECIMAL_OR_DASH);
+        MicroTextSeries waves = MicroTextParser.parse(stream("""
+                 Mon 29. 01h  0.9  4  40
+                 Mon 29. 02h  1.1  5  45
+                 Mon 29. 04h    -  6  50
+                """), DECIMAL_OR_DASH, DECIMAL_OR_DASH, DECIMAL_OR_DASH);
+
+        List<ForecastWg> merged = ForecastService.toForecasts(forecast, waves);
+
+        assertThat(merged).hasSize(3);
+        assertThat(merged.get(0).label()).isEqualTo("Mon 29. 02h");
+        assertThat(merged.get(0).waveHeight()).isEqualTo(1.1);
+        assertThat(merged.get(0).waveDirectionDeg()).isEqualTo(45);
+        assertThat(merged.get(0).cloudCoverPercent()).isEqualTo(80);
+        assertThat(merged.get(1).waveHeight()).isNull();
+        assertThat(merged.get(1).wavePeriod()).isNull();
+        assertThat(merged.get(2).waveHeight()).isNull();
+        assertThat(merged.get(2).wavePeriod()).isEqualTo(6.0);
+    }
+
+    @Test
+    void shouldMergeWavesAcrossTheEndOfTheWeekAndPastTheLastWaveHour() throws IOException {
+        MicroTextSeries forecast = MicroTextParser.parse(stream("""
+                 Sun 31. 22h  15  20  257  12  -  80  60  40  1013
+                 Sun 31. 23h  16  21  260  12  -  80  60  40  1013
+                 Mon 1. 00h  17  22  262  12  -  80  60  40  1013
+                 Mon 1. 01h  18  23  264  12  -  80  60  40  1013
+                 Mon 1. 02h  19  24  266  12  -  80  60  40  1013
+                """), SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER,
+                DECIMAL_OR_DASH, INTEGER_OR_DASH, INTEGER_OR_DASH, INTEGER_OR_DASH, DECIMAL_OR_DASH);
+        MicroTextSeries waves = MicroTextParser.parse(stream("""
+                 Sun 31. 22h  0.9  4  40
+                 Mon 1. 00h  1.1  5  45
+                """), DECIMAL_OR_DASH, DECIMAL_OR_DASH, DECIMAL_OR_DASH);
+
+        List<ForecastWg> merged = ForecastService.toForecasts(forecast, waves);
+
+        assertThat(merged).hasSize(5);
+        assertThat(merged.get(0).waveHeight()).isEqualTo(0.9);
+        assertThat(merged.get(1).waveHeight()).isNull();
+        assertThat(merged.get(2).waveHeight()).isEqualTo(1.1);
+        assertThat(merged.get(3).waveHeight()).isNull();
+        assertThat(merged.get(4).waveHeight()).isNull();
+    }
+
+    @Test
+    void shouldFetchWavesOncePerSpotForAllModels() throws IOException {
+        List<ForecastModel> models = List.of(ForecastModel.GFS, ForecastModel.IFS, ForecastModel.ICON, ForecastModel.AROME);
+        var waveRequests = new AtomicInteger();
+        try (var server = new MockWebServer()) {
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    if ("ewam".equals(request.getRequestUrl().queryParameter("m"))) {
+                        waveRequests.incrementAndGet();
+                        return new MockResponse().setBody("""
+                                 Mon 29. 02h  1.1  5  45
+                                 Mon 29. 03h  1.2  5  50
+                                """);
+                    }
+                    return new MockResponse().setBody("""
+                             Mon 29. 02h  15  20  257  12  -  80  60  40  1013
+                             Mon 29. 03h  16  21  260  12  -  80  60  40  1013
+                            """);
+                }
+            });
+            server.start();
+            // Sends the Windguru URLs the service builds to the mock server
+            OkHttpClient httpClient = new OkHttpClient.Builder()
+                    .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                            .url(chain.request().url().newBuilder()
+                                    .scheme("http")
+                                    .host(server.getHostName())
+                                    .port(server.getPort())
+                                    .build())
+                            .build()))
+                    .build();
+            MeterRegistry registry = new SimpleMeterRegistry();
+            var service = new ForecastService(new WeatherForecastMapper(), httpClient, new UpstreamFetcher(), registry);
+
+            List<ForecastData> results = Flux.fromIterable(models)
+                    .flatMap(model -> service.getForecastData(500760, model))
+                    .collectList()
+                    .block();
+            ForecastData later = service.getForecastData(500760, ForecastModel.GFS).block();
+
+            assertThat(waveRequests.get()).isEqualTo(1);
+            assertThat(results).hasSize(models.size());
+            // Every model got the waves, including the ones that asked while they were on their way
+            assertThat(results.stream().allMatch(data -> models.stream()
+                    .anyMatch(model -> data.hourly(model).stream().anyMatch(f -> f.wave() != null)))).isTrue();
+            assertThat(later.hourly(ForecastModel.GFS).stream().anyMatch(f -> f.wave() != null)).isTrue();
+            assertThat(registry.get("varun.forecast.waves.requests").counter().count()).isEqualTo(1.0);
+            assertThat(registry.get("varun.forecast.waves.lookups").counter().count()).isEqualTo(models.size() + 1.0);
+        }
+    }
+
     @Test
     void shouldDefaultToGfsWhenNoModelSpecified() {
         Mono<ForecastData> resultDefault = service.getForecastData(500760);
@@ -333,4 +454,8 @@ class ForecastServiceTest {
                 })
                 .verifyComplete();
     }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -189,6 +189,28 @@ class IcmForecastVisionServiceTest {
         assertThat(result.isPresent()).isFalse();
     }
 
+    @Test
+    void shouldDropPointsWithImplausibleWeatherValues() {
+        String day = LocalDate.now(ZoneId.of("Europe/Warsaw")).format(DAY_MONTH);
+
+        stubVisionResponse("""
+                [
+                  {"day":"%1$s","hour":12,"windMs":7.0,"gustMs":10.0,"arrowPointsTo":"NE","tempC":12.0,
+                   "precipitationMm":0.0,"pressureHpa":101300.0,"cloudCoverOctants":2.0},
+                  {"day":"%1$s","hour":13,"windMs":7.0,"gustMs":10.0,"arrowPointsTo":"NE","tempC":4000.0,
+                   "precipitationMm":0.0,"pressureHpa":1005.0,"cloudCoverOctants":2.0},
+                  {"day":"%1$s","hour":14,"windMs":7.0,"gustMs":10.0,"arrowPointsTo":"NE","tempC":12.0,
+                   "precipitationMm":0.0,"pressureHpa":1005.0,"cloudCoverOctants":2.0}
+                ]
+                """.formatted(day));
+
+        Optional<List<Forecast>> result = extract();
+
+        assertThat(result.isPresent()).isTrue();
+        assertThat(result.get()).hasSize(1);
+        assertThat(result.get().getFirst().pressure()).isEqualTo(1005.0);
+    }
+
     @Test
     void shouldRequestEnglishVersionOfTheMeteogram() throws InterruptedException {
         String day = LocalDate.now(ZoneId.of("Europe/Warsaw")).format(DAY_MONTH);
@@ -0,0 +1,183 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import com.github.pwittchen.varun.model.forecast.IcmGrid;
+import com.github.pwittchen.varun.service.cache.GeoResolutionStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IcmGridMapperTest {
+
+    private static final double LAT = 54.7;
+    private static final double LON = 18.67;
+    private static final IcmGrid APPROXIMATE = IcmGridMapper.toRowCol(LAT, LON);
+    private static final int IMAGE_SIZE = 48_213;
+
+    private MockWebServer mockWebServer;
+    private GeoResolutionStore geoResolutionStore;
+    private MeterRegistry meterRegistry;
+    private IcmGridMapper mapper;
+
+    private final Set<IcmGrid> meteograms = ConcurrentHashMap.newKeySet();
+    private final Set<String> rangeHeaders = ConcurrentHashMap.newKeySet();
+    private final Set<IcmGrid> slow = ConcurrentHashMap.newKeySet();
+    private volatile boolean honourRange = true;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                HttpUrl url = request.getRequestUrl();
+                rangeHeaders.add(String.valueOf(request.getHeader("Range")));
+                var grid = new IcmGrid(
+                        Integer.parseInt(url.queryParameter("row")),
+                        Integer.parseInt(url.queryParameter("col")));
+                if (!meteograms.contains(grid)) {
+                    return new MockResponse().setBody(new Buffer().write(new byte[360]));
+                }
+                MockResponse response = honourRange
+                        ? new MockResponse()
+                                .setResponseCode(206)
+                                .setHeader("Content-Range", "bytes 0-10000/" + IMAGE_SIZE)
+                                .setBody(new Buffer().write(new byte[10_001]))
+                        : new MockResponse().setChunkedBody(new Buffer().write(new byte[IMAGE_SIZE]), 4096);
+                return slow.contains(grid) ? response.setHeadersDelay(300, TimeUnit.MILLISECONDS) : response;
+            }
+        });
+        mockWebServer.start();
+
+        // Sends the meteo.pl URLs the mapper builds to the mock server
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                        .url(chain.request().url().newBuilder()
+                                .scheme("http")
+                                .host(mockWebServer.getHostName())
+                                .port(mockWebServer.getPort())
+                                .build())
+                        .build()))
+                .build();
+        geoResolutionStore = mock(GeoResolutionStore.class);
+        meterRegistry = new SimpleMeterRegistry();
+        mapper = new IcmGridMapper(httpClient, geoResolutionStore, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    private static String icmUrl(IcmGrid grid) {
+        return "https://www.meteo.pl/um/metco/mgram_pict.php?ntype=0u&row=" + grid.row() + "&col=" + grid.col() + "&lang=pl";
+    }
+
+    @Test
+    void shouldOrderRingNearestFirst() {
+        var center = new IcmGrid(10, 10);
+
+        assertThat(IcmGridMapper.ring(center, 0)).containsExactly(center);
+        assertThat(IcmGridMapper.ring(center, 1)).containsExactly(
+                new IcmGrid(9, 10), new IcmGrid(10, 9), new IcmGrid(10, 11), new IcmGrid(11, 10),
+                new IcmGrid(9, 9), new IcmGrid(9, 11), new IcmGrid(11, 9), new IcmGrid(11, 11)
+        ).inOrder();
+        assertThat(IcmGridMapper.ring(center, 2)).hasSize(16);
+    }
+
+    @Test
+    void shouldSnapToNearestRingWithMeteogram() {
+        var nearest = new IcmGrid(APPROXIMATE.row() + 2, APPROXIMATE.col());
+        meteograms.add(nearest);
+        meteograms.add(new IcmGrid(APPROXIMATE.row() - 3, APPROXIMATE.col()));
+
+        Optional<String> url = mapper.toIcmUrl(LAT, LON, "Poland");
+
+        assertThat(url).hasValue(icmUrl(nearest));
+        verify(geoResolutionStore).putIcmGrid(APPROXIMATE, nearest);
+        // Rings further out are never probed
+        assertThat(mockWebServer.getRequestCount()).isAtMost(1 + 8 + 16);
+        assertThat(rangeHeaders).containsExactly("bytes=0-10000");
+        var probes = meterRegistry.get("varun.icm.grid.probes").tag("found", "true").summary();
+        assertThat(probes.count()).isEqualTo(1);
+        assertThat(probes.totalAmount()).isAtMost(25.0);
+    }
+
+    @Test
+    void shouldPreferNearerPointOfRingOverOneThatAnsweredFirst() {
+        var edge = new IcmGrid(APPROXIMATE.row() - 1, APPROXIMATE.col());
+        var corner = new IcmGrid(APPROXIMATE.row() - 1, APPROXIMATE.col() - 1);
+        meteograms.add(edge);
+        meteograms.add(corner);
+        slow.add(edge);
+
+        Optional<String> url = mapper.toIcmUrl(LAT, LON, "Poland");
+
+        assertThat(url).hasValue(icmUrl(edge));
+        verify(geoResolutionStore).putIcmGrid(APPROXIMATE, edge);
+    }
+
+    @Test
+    void shouldRecognizeMeteogramWhenRangeIsIgnored() {
+        honourRange = false;
+        meteograms.add(APPROXIMATE);
+
+        assertThat(mapper.toIcmUrl(LAT, LON, "Czech Republic")).hasValue(icmUrl(APPROXIMATE));
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldUseStoredGridWithoutProbing() {
+        var stored = new IcmGrid(APPROXIMATE.row() + 1, APPROXIMATE.col() - 1);
+        when(geoResolutionStore.icmGrid(APPROXIMATE)).thenReturn(Optional.of(stored));
+
+        assertThat(mapper.toIcmUrl(LAT, LON, "Poland")).hasValue(icmUrl(stored));
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldProbeWholeSearchAreaAndStoreNothingWhenNoMeteogramFound() {
+        assertThat(mapper.toIcmUrl(LAT, LON, "Poland")).isEmpty();
+
+        verify(geoResolutionStore, never()).putIcmGrid(any(), any());
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(17 * 17);
+        assertThat(meterRegistry.get("varun.icm.grid.probes").tag("found", "false").summary().totalAmount())
+                .isEqualTo(17.0 * 17);
+        assertThat(meterRegistry.get("varun.icm.grid.resolution.duration").tag("found", "false").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotProbeOutsideTheGrid() {
+        assertThat(mapper.toIcmUrl(LAT, LON, "Germany")).isEmpty();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldReadTotalSizeFromContentRange() {
+        assertThat(IcmGridMapper.totalSize("bytes 0-10000/48213")).isEqualTo(48213);
+        assertThat(IcmGridMapper.totalSize("bytes 0-10000/*")).isEqualTo(-1);
+        assertThat(IcmGridMapper.totalSize(null)).isEqualTo(-1);
+    }
+}
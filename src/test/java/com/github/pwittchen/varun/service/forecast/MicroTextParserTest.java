@@ -0,0 +1,119 @@
+package com.github.pwittchen.varun.service.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.DECIMAL_OR_DASH;
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.INTEGER_OR_DASH;
+import static com.github.pwittchen.varun.service.forecast.MicroTextParser.Column.SIGNED_INTEGER;
+import static com.google.common.truth.Truth.assertThat;
+
+class MicroTextParserTest {
+
+    private static final MicroTextParser.Column[] FORECAST_COLUMNS = {
+            SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER,
+            DECIMAL_OR_DASH, INTEGER_OR_DASH, INTEGER_OR_DASH, INTEGER_OR_DASH, DECIMAL_OR_DASH
+    };
+
+    private static final String MICRO_TEXT = """
+             Windguru forecast
+             Poland - Jastarnia
+             GFS 13 km (init: 2025-10-06 18 UTC)
+
+                  Date    WSPD    GUST    WDEG     TMP   APCP1    HCLD    MCLD    LCLD     SLP
+               (local)   knots   knots     deg       C   mm/1h       %       %       %     hPa
+             Mon 29. 02h      15      20     257      -2       -      80      60      40    1013
+             Mon 29. 05h      16      22     261      -3     0.4       -      10       5  1012.6
+            """;
+
+    @Test
+    void shouldParseRowsAndSkipEverythingElse() throws IOException {
+        MicroTextSeries series = parse(MICRO_TEXT, FORECAST_COLUMNS);
+
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.label(0)).isEqualTo("Mon 29. 02h");
+        assertThat(series.weekday(1)).isEqualTo(0);
+        assertThat(series.dayOfMonth(1)).isEqualTo(29);
+        assertThat(series.hour(1)).isEqualTo(5);
+        assertThat(series.intValue(0, 0)).isEqualTo(15);
+        assertThat(series.intValue(3, 1)).isEqualTo(-3);
+        assertThat(series.value(4, 1)).isEqualTo(0.4);
+        assertThat(series.value(8, 1)).isEqualTo(1012.6);
+    }
+
+    @Test
+    void shouldStoreDashesAsMissing() throws IOException {
+        MicroTextSeries series = parse(MICRO_TEXT, FORECAST_COLUMNS);
+
+        assertThat(Double.isNaN(series.value(4, 0))).isTrue();
+        assertThat(series.intValue(4, 0)).isEqualTo(0);
+        assertThat(Double.isNaN(series.value(5, 1))).isTrue();
+    }
+
+    @Test
+    void shouldTreatNonBreakingSpacesAsWhitespace() throws IOException {
+        MicroTextSeries series = parse("\u00A0Tue 30.\u00A009h  1.5  6  42\r\n", DECIMAL_OR_DASH, DECIMAL_OR_DASH, DECIMAL_OR_DASH);
+
+        assertThat(series.size()).isEqualTo(1);
+        assertThat(series.value(0, 0)).isEqualTo(1.5);
+        assertThat(series.value(2, 0)).isEqualTo(42.0);
+    }
+
+    @Test
+    void shouldNotTreatOtherNonAsciiCharactersAsWhitespace() throws IOException {
+        String text = " Mon 29. 02h  15 \u00B5 20\n Mon 29. 03h  15 \u00B0\n";
+        // A lone 0xC2, the first byte of a UTF-8 NBSP, stands for nothing of the kind on its own
+        byte[] loneLeadByte = " Mon 29. 04h  15 \u00C2 20\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertThat(parse(text, SIGNED_INTEGER, SIGNED_INTEGER).size()).isEqualTo(0);
+        assertThat(MicroTextParser.parse(new ByteArrayInputStream(loneLeadByte), SIGNED_INTEGER, SIGNED_INTEGER).size())
+                .isEqualTo(0);
+    }
+
+    @Test
+    void shouldLabelRowsWithDayOfMonthAsPrinted() throws IOException {
+        MicroTextSeries series = parse(" Sun 05. 02h  15\n Mon 6. 03h  16\n", SIGNED_INTEGER);
+
+        assertThat(series.label(0)).isEqualTo("Sun 05. 02h");
+        assertThat(series.label(1)).isEqualTo("Mon 6. 03h");
+        assertThat(series.dayOfMonth(0)).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectRowsThatDoNotFitTheColumns() throws IOException {
+        String text = """
+                 Mon 29. 02h  15  20
+                 Mon 29. 02h  15  20  257  4
+                 Mon 29. 02h  15.5  20  257
+                 Mon 29. 02h  -  20  257
+                 Mon 129. 02h  15  20  257
+                 Mon 29. 2h  15  20  257
+                 Monday 29. 02h  15  20  257
+                 Mon 29. 02h  15  20  257x
+                """;
+
+        MicroTextSeries series = parse(text, SIGNED_INTEGER, SIGNED_INTEGER, SIGNED_INTEGER);
+
+        assertThat(series.size()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldParseRowsSpanningBufferBoundaries() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 2000; row++) {
+            text.append(" Wed 01. ").append(String.format("%02d", row % 24)).append("h  ").append(row).append('\n');
+        }
+
+        MicroTextSeries series = parse(text.toString(), SIGNED_INTEGER);
+
+        assertThat(series.size()).isEqualTo(2000);
+        assertThat(series.intValue(0, 1999)).isEqualTo(1999);
+    }
+
+    private static MicroTextSeries parse(String text, MicroTextParser.Column... columns) throws IOException {
+        return MicroTextParser.parse(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), columns);
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.pwittchen.varun.service.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HostConcurrencyLimiterTest {
+
+    private static final String HOST = "www.windguru.cz";
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(registry);
+
+    private double gauge(String name, String host) {
+        return registry.get(name).tag("host", host).gauge().value();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void shouldQueueCallsOverTheLimit() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < HostConcurrencyLimiter.INITIAL_LIMIT + 1; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    limiter.call(HOST, () -> {
+                        release.await();
+                        return null;
+                    });
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+
+        awaitUntil(() -> gauge("varun.http.client.queued", HOST) == 1);
+        assertThat(gauge("varun.http.client.in_flight", HOST)).isEqualTo(HostConcurrencyLimiter.INITIAL_LIMIT);
+        assertThat(gauge("varun.http.client.limit", HOST)).isEqualTo(HostConcurrencyLimiter.INITIAL_LIMIT);
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(gauge("varun.http.client.in_flight", HOST)).isEqualTo(0);
+        assertThat(gauge("varun.http.client.queued", HOST)).isEqualTo(0);
+    }
+
+    @Test
+    void shouldGrowLimitWhileAnswersComeInTime() throws InterruptedException {
+        var limit = new HostConcurrencyLimiter.HostLimit();
+
+        for (int round = 0; round < 10; round++) {
+            int permits = limit.limit();
+            for (int i = 0; i < permits; i++) {
+                limit.acquire();
+            }
+            for (int i = 0; i < permits; i++) {
+                limit.onSuccess(20 * MILLISECOND);
+            }
+        }
+
+        assertThat(limit.limit()).isGreaterThan(HostConcurrencyLimiter.INITIAL_LIMIT);
+        assertThat(limit.inFlight()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldNotGrowLimitThatIsNotUsed() throws InterruptedException {
+        var limit = new HostConcurrencyLimiter.HostLimit();
+
+        for (int i = 0; i < 1000; i++) {
+            limit.acquire();
+            limit.onSuccess(20 * MILLISECOND);
+        }
+
+        assertThat(limit.limit()).isEqualTo(HostConcurrencyLimiter.INITIAL_LIMIT);
+    }
+
+    @Test
+    void shouldBackOffWhenAnswersSlowDown() throws InterruptedException {
+        var limit = new HostConcurrencyLimiter.HostLimit();
+        for (int i = 0; i < 200; i++) {
+            limit.acquire();
+            limit.onSuccess(20 * MILLISECOND);
+        }
+
+        limit.acquire();
+        limit.onSuccess(100 * MILLISECOND);
+        assertThat(limit.limit()).isEqualTo(HostConcurrencyLimiter.INITIAL_LIMIT);
+
+        for (int i = 0; i < 10; i++) {
+            limit.acquire();
+            limit.onSuccess(100 * MILLISECOND);
+        }
+        assertThat(limit.limit()).isEqualTo((int) (HostConcurrencyLimiter.INITIAL_LIMIT * 0.9));
+    }
+
+    @Test
+    void shouldNotBackOffForLatencyThatVaries() throws InterruptedException {
+        var limit = new HostConcurrencyLimiter.HostLimit();
+
+        for (int i = 0; i < 1000; i++) {
+            limit.acquire();
+            limit.onSuccess((i % 2 == 0 ? 10 : 50) * MILLISECOND);
+        }
+
+        assertThat(limit.limit()).isEqualTo(HostConcurrencyLimiter.INITIAL_LIMIT);
+    }
+
+    @Test
+    void shouldHalveLimitOnceForBurstOfFailures() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IOException.class, () -> limiter.call(HOST, () -> {
+                throw new IOException("Connection reset");
+            }));
+        }
+
+        assertThat(limiter.limit(HOST)).isEqualTo(HostConcurrencyLimiter.INITIAL_LIMIT / 2);
+        assertThat(gauge("varun.http.client.in_flight", HOST)).isEqualTo(0);
+    }
+
+    @Test
+    void shouldGiveBackPermitWhenCallThrowsError() throws Exception {
+        for (int i = 0; i < HostConcurrencyLimiter.INITIAL_LIMIT; i++) {
+            assertThrows(AssertionError.class, () -> limiter.call(HOST, () -> {
+                throw new AssertionError("Unexpected response");
+            }));
+        }
+
+        assertThat(gauge("varun.http.client.in_flight", HOST)).isEqualTo(0);
+        assertThat(limiter.call(HOST, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void shouldLimitOkHttpCallsPerHost() throws IOException {
+        try (var server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            server.enqueue(new MockResponse().setBody("ok"));
+            server.start();
+            var client = new OkHttpClient.Builder().addInterceptor(limiter).build();
+            var request = new Request.Builder().url(server.url("/forecast")).build();
+
+            try (var response = client.newCall(request).execute()) {
+                assertThat(response.code()).isEqualTo(503);
+            }
+            try (var response = client.newCall(request).execute()) {
+                assertThat(response.body().string()).isEqualTo("ok");
+            }
+
+            String host = server.getHostName();
+            assertThat(limiter.limit(host)).isEqualTo(HostConcurrencyLimiter.INITIAL_LIMIT / 2);
+            assertThat(gauge("varun.http.client.in_flight", host)).isEqualTo(0);
+            assertThat(limiter.limit(HOST)).isEqualTo(HostConcurrencyLimiter.INITIAL_LIMIT);
+        }
+    }
+
+    @Test
+    void shouldHoldPermitUntilBodyIsRead() throws IOException {
+        try (var server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody("ok"));
+            server.start();
+            var client = new OkHttpClient.Builder().addInterceptor(limiter).build();
+            var request = new Request.Builder().url(server.url("/forecast")).build();
+            String host = server.getHostName();
+
+            try (var response = client.newCall(request).execute()) {
+                assertThat(gauge("varun.http.client.in_flight", host)).isEqualTo(1);
+                assertThat(response.body().string()).isEqualTo("ok");
+                assertThat(gauge("varun.http.client.in_flight", host)).isEqualTo(0);
+            }
+            assertThat(gauge("varun.http.client.in_flight", host)).isEqualTo(0);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.pwittchen.varun.service.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class PreparedResponseCacheTest {
+
+    private final PreparedResponseCache cache = new PreparedResponseCache(new ObjectMapper());
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private List<String> body() {
+        builds.incrementAndGet();
+        return List.of("a");
+    }
+
+    @Test
+    void shouldKeepNamedResponsesWhateverNumberOfProjectionsIsAskedFor() {
+        cache.prepare("spots", 1L, this::body);
+        for (int i = 0; i < 100; i++) {
+            cache.prepareProjection("spots:" + i, 1L, this::body);
+        }
+        builds.set(0);
+
+        cache.prepare("spots", 1L, this::body);
+
+        assertThat(builds.get()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldKeepMostRecentlyUsedProjections() {
+        cache.prepareProjection("spots:first", 1L, this::body);
+        for (int i = 1; i < PreparedResponseCache.MAX_PREPARED_PROJECTIONS; i++) {
+            cache.prepareProjection("spots:" + i, 1L, this::body);
+        }
+        cache.prepareProjection("spots:first", 1L, this::body);
+        cache.prepareProjection("spots:new", 1L, this::body);
+        builds.set(0);
+
+        cache.prepareProjection("spots:first", 1L, this::body);
+        assertThat(builds.get()).isEqualTo(0);
+
+        cache.prepareProjection("spots:1", 1L, this::body);
+        assertThat(builds.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRebuildProjectionForNewVersion() {
+        PreparedResponse first = cache.prepareProjection("spots:name;", 1L, this::body);
+
+        assertThat(cache.prepareProjection("spots:name;", 1L, this::body)).isSameInstanceAs(first);
+        assertThat(cache.prepareProjection("spots:name;", 2L, this::body).version()).isEqualTo(2L);
+        assertThat(builds.get()).isEqualTo(2);
+    }
+}
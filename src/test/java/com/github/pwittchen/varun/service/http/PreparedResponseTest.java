@@ -0,0 +1,56 @@
+package com.github.pwittchen.varun.service.http;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class PreparedResponseTest {
+
+    private final PreparedResponse prepared = PreparedResponse.of(1L, "[]".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void shouldTagTheGzipVariantApartFromTheIdentityOne() {
+        assertThat(prepared.gzipEtag()).isNotEqualTo(prepared.etag());
+        assertThat(prepared.gzipEtag()).startsWith("\"");
+        assertThat(prepared.gzipEtag()).endsWith("-gz\"");
+    }
+
+    @Test
+    void shouldMatchAnyTagInTheList() {
+        assertThat(PreparedResponse.matches("\"a\", " + prepared.etag(), prepared.etag())).isTrue();
+        assertThat(PreparedResponse.matches("W/" + prepared.etag(), prepared.etag())).isTrue();
+        assertThat(PreparedResponse.matches("*", prepared.etag())).isTrue();
+        assertThat(PreparedResponse.matches("\"a\"", prepared.etag())).isFalse();
+        assertThat(PreparedResponse.matches(null, prepared.etag())).isFalse();
+    }
+
+    @Test
+    void shouldHonourARefusedGzip() {
+        assertThat(PreparedResponse.acceptsGzip("gzip, br")).isTrue();
+        assertThat(PreparedResponse.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(PreparedResponse.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(PreparedResponse.acceptsGzip("identity")).isFalse();
+        assertThat(PreparedResponse.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void shouldNotMatchTheIdentityTagWhenServingGzip() {
+        var response = prepared.toResponseEntity("gzip", prepared.etag());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(prepared.gzipEtag());
+    }
+
+    @Test
+    void shouldServeEveryRequestTheWholeBody() {
+        var first = prepared.toResponseEntity(null, null).getBody();
+        first.read(new byte[first.readableByteCount()]);
+
+        var second = prepared.toResponseEntity(null, null).getBody();
+
+        assertThat(second.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+}
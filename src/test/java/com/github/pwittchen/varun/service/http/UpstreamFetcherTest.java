@@ -0,0 +1,156 @@
+package com.github.pwittchen.varun.service.http;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class UpstreamFetcherTest {
+
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final UpstreamFetcher fetcher = new UpstreamFetcher();
+    private final AtomicInteger parses = new AtomicInteger();
+    // One parser for every call, as a strategy has, since remembered values are kept per parser
+    private final UpstreamFetcher.ResponseParser<String> parser = this::parse;
+
+    private MockWebServer mockWebServer;
+    private Request request;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        request = new Request.Builder().url(mockWebServer.url("/station.txt")).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void shouldReturnRememberedValueWithoutParsingOnNotModified() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts").setHeader("ETag", "\"v1\""));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        String first = fetcher.execute(httpClient, request, parser);
+        String second = fetcher.execute(httpClient, request, parser);
+
+        assertThat(second).isSameInstanceAs(first);
+        assertThat(parses.get()).isEqualTo(1);
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void shouldSendLastModifiedBack() throws Exception {
+        String lastModified = "Tue, 07 Oct 2025 12:00:00 GMT";
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts").setHeader("Last-Modified", lastModified));
+        mockWebServer.enqueue(new MockResponse().setBody("14 kts").setHeader("Last-Modified", lastModified));
+
+        fetcher.execute(httpClient, request, parser);
+        String second = fetcher.execute(httpClient, request, parser);
+
+        assertThat(second).isEqualTo("14 kts");
+        assertThat(parses.get()).isEqualTo(2);
+        mockWebServer.takeRequest();
+        RecordedRequest conditional = mockWebServer.takeRequest();
+        assertThat(conditional.getHeader("If-Modified-Since")).isEqualTo(lastModified);
+        assertThat(conditional.getHeader("If-None-Match")).isNull();
+    }
+
+    @Test
+    void shouldNotMakeRequestConditionalWithoutValidators() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts"));
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts"));
+
+        fetcher.execute(httpClient, request, parser);
+        fetcher.execute(httpClient, request, parser);
+
+        assertThat(parses.get()).isEqualTo(2);
+        assertThat(fetcher.validatedUrls()).isEqualTo(0);
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getHeader("If-None-Match")).isNull();
+    }
+
+    @Test
+    void shouldNotRememberFailedResponse() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setHeader("ETag", "\"error\""));
+
+        fetcher.execute(httpClient, request, response -> response.isSuccessful() ? parse(response) : null);
+
+        assertThat(fetcher.validatedUrls()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldReturnRememberedValueWhenExecutedAsynchronously() {
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts").setHeader("ETag", "\"v1\""));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        StepVerifier.create(fetcher.executeAsync(httpClient, request, parser))
+                .expectNext("12 kts")
+                .verifyComplete();
+        StepVerifier.create(fetcher.executeAsync(httpClient, request, parser))
+                .expectNext("12 kts")
+                .verifyComplete();
+
+        assertThat(parses.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotShareRememberedValueBetweenParsersOfOneUrl() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts").setHeader("ETag", "\"v1\""));
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts").setHeader("ETag", "\"v1\""));
+        UpstreamFetcher.ResponseParser<Integer> length = response -> response.body().string().length();
+
+        fetcher.execute(httpClient, request, parser);
+        Integer parsed = fetcher.execute(httpClient, request, length);
+
+        assertThat(parsed).isEqualTo(6);
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getHeader("If-None-Match")).isNull();
+    }
+
+    @Test
+    void shouldRepeatRequestUnconditionallyWhenNotModifiedAnswersNothingRemembered() throws Exception {
+        Request withOwnValidator = request.newBuilder().header("If-None-Match", "\"v0\"").build();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts"));
+
+        String value = fetcher.execute(httpClient, withOwnValidator, parser);
+
+        assertThat(value).isEqualTo("12 kts");
+        assertThat(parses.get()).isEqualTo(1);
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getHeader("If-None-Match")).isNull();
+    }
+
+    @Test
+    void shouldRepeatRequestUnconditionallyWhenExecutedAsynchronously() {
+        Request withOwnValidator = request.newBuilder().header("If-None-Match", "\"v0\"").build();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+        mockWebServer.enqueue(new MockResponse().setBody("12 kts"));
+
+        StepVerifier.create(fetcher.executeAsync(httpClient, withOwnValidator, parser))
+                .expectNext("12 kts")
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    private String parse(Response response) throws IOException {
+        parses.incrementAndGet();
+        return response.body().string();
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.pwittchen.varun.service.live;
+
+import com.github.pwittchen.varun.model.live.ConditionsHistory;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ConditionsHistoryStoreTest {
+
+    private static final int STATION = 123;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 6, 1, 12, 0, 0);
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // When a reading without a date arrives, by the server's clock
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-01T12:30:00Z"), ZoneOffset.UTC);
+
+    private final ConditionsHistoryStore store = new ConditionsHistoryStore(CLOCK);
+
+    private static CurrentConditions reading(int minute, int wind, String direction) {
+        return new CurrentConditions(START.plusMinutes(minute).format(FORMAT), wind, wind + 5, direction, 20 + minute % 3);
+    }
+
+    private List<CurrentConditions> held() {
+        return store.readings().getOrDefault(STATION, List.of());
+    }
+
+    @Test
+    void shouldAddReadingsInOrderOfArrivalLeavingOutRepeats() {
+        assertThat(store.add(STATION, reading(1, 10, "N"))).isTrue();
+        // The station polled again before it published
+        assertThat(store.add(STATION, reading(1, 10, "N"))).isFalse();
+        // A fallback station behind the primary one
+        assertThat(store.add(STATION, reading(0, 12, "N"))).isTrue();
+        assertThat(store.add(STATION, new CurrentConditions("12:05", 12, 15, "N", 20))).isTrue();
+        assertThat(store.add(STATION, new CurrentConditions("12:05", 12, 15, "N", 20))).isFalse();
+        assertThat(store.add(STATION, reading(2, 11, "NW"))).isTrue();
+
+        assertThat(held()).containsExactly(
+                reading(1, 10, "N"),
+                reading(0, 12, "N"),
+                new CurrentConditions("2025-06-01 12:30:00", 12, 15, "N", 20),
+                reading(2, 11, "NW")
+        ).inOrder();
+    }
+
+    @Test
+    void shouldKeepHourRepeatedWhenClocksGoBack() {
+        // 2026-10-25 in Poland: 02:59 CEST is followed by 02:00 CET
+        for (String time : List.of("02:58", "02:59", "02:00", "02:01")) {
+            assertThat(store.add(STATION, new CurrentConditions("2026-10-25 " + time + ":00", 10, 15, "W", 12))).isTrue();
+        }
+
+        assertThat(held().stream().map(CurrentConditions::date).toList()).containsExactly(
+                "2026-10-25 02:58:00", "2026-10-25 02:59:00", "2026-10-25 02:00:00", "2026-10-25 02:01:00"
+        ).inOrder();
+        assertThat(store.history(STATION, null, null, Duration.ofMinutes(1)).buckets()
+                .stream()
+                .map(ConditionsHistory.Bucket::date)
+                .toList()).containsExactly(
+                "2026-10-25 02:58", "2026-10-25 02:59", "2026-10-25 02:00", "2026-10-25 02:01"
+        ).inOrder();
+        assertThat(store.history(STATION, null, null, Duration.ofHours(1)).buckets().getFirst().readings()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldReadBackDatesInEveryStationFormat() {
+        store.add(STATION, new CurrentConditions("01.06.2025 12:00", 10, 15, "N", 20));
+        store.add(STATION, new CurrentConditions("01/06/25 12:01:30", 10, 15, "N", 20));
+
+        assertThat(held().stream().map(CurrentConditions::date).toList())
+                .containsExactly("2025-06-01 12:00:00", "2025-06-01 12:01:30")
+                .inOrder();
+    }
+
+    @Test
+    void shouldOverwriteOldestReadingsOnceFull() {
+        for (int minute = 0; minute < ConditionsHistoryStore.CAPACITY + 10; minute++) {
+            store.add(STATION, reading(minute, minute % 30, "N"));
+        }
+
+        List<CurrentConditions> held = held();
+        assertThat(held).hasSize(ConditionsHistoryStore.CAPACITY);
+        assertThat(held.getFirst()).isEqualTo(reading(10, 10, "N"));
+        assertThat(held.getLast()).isEqualTo(reading(ConditionsHistoryStore.CAPACITY + 9, (ConditionsHistoryStore.CAPACITY + 9) % 30, "N"));
+        // 12:10 until 00:09 the next day
+        assertThat(store.history(STATION, null, null, Duration.ofHours(1)).buckets()).hasSize(13);
+    }
+
+    @Test
+    void shouldGatherReadingsIntoBucketsWithAverageLowestAndHighest() {
+        for (int minute = 0; minute < 15; minute++) {
+            store.add(STATION, reading(minute, 10 + minute, minute < 5 ? "N" : "W"));
+        }
+
+        ConditionsHistory history = store.history(STATION, null, null, Duration.ofMinutes(5));
+
+        assertThat(history.wgId()).isEqualTo(STATION);
+        assertThat(history.resolutionMinutes()).isEqualTo(5);
+        assertThat(history.buckets()).hasSize(3);
+        ConditionsHistory.Bucket first = history.buckets().getFirst();
+        assertThat(first.date()).isEqualTo("2025-06-01 12:00");
+        assertThat(first.readings()).isEqualTo(5);
+        assertThat(first.wind()).isEqualTo(12.0);
+        assertThat(first.windMin()).isEqualTo(10);
+        assertThat(first.windMax()).isEqualTo(14);
+        assertThat(first.gusts()).isEqualTo(17.0);
+        assertThat(first.tempMin()).isEqualTo(20);
+        assertThat(first.tempMax()).isEqualTo(22);
+        assertThat(first.direction()).isEqualTo("N");
+        assertThat(history.buckets().get(1).date()).isEqualTo("2025-06-01 12:05");
+        assertThat(history.buckets().get(1).direction()).isEqualTo("W");
+    }
+
+    @Test
+    void shouldAverageDirectionsAsVectors() {
+        store.add(STATION, reading(0, 10, "N"));
+        store.add(STATION, reading(1, 10, "NW"));
+        store.add(STATION, reading(2, 10, "NNE"));
+        store.add(STATION, reading(3, 10, "somewhere"));
+
+        var bucket = store.history(STATION, null, null, Duration.ofMinutes(15)).buckets().getFirst();
+
+        assertThat(bucket.readings()).isEqualTo(4);
+        assertThat(bucket.direction()).isEqualTo("N");
+        assertThat(held().getLast().direction()).isNull();
+    }
+
+    @Test
+    void shouldLimitHistoryToRequestedRange() {
+        for (int minute = 0; minute < 60; minute++) {
+            store.add(STATION, reading(minute, 10, "N"));
+        }
+
+        var history = store.history(STATION, START.plusMinutes(10), START.plusMinutes(20), Duration.ofMinutes(1));
+
+        assertThat(history.buckets()).hasSize(10);
+        assertThat(history.buckets().getFirst().date()).isEqualTo("2025-06-01 12:10");
+        assertThat(history.buckets().getLast().date()).isEqualTo("2025-06-01 12:19");
+        assertThat(store.history(456, null, null, Duration.ofMinutes(1)).buckets()).isEmpty();
+    }
+
+    @Test
+    void shouldGiveBucketAveragesAsReadingsForSpotDetail() {
+        for (int minute = 0; minute < 10; minute++) {
+            store.add(STATION, reading(minute, 10 + minute, "SW"));
+        }
+
+        assertThat(store.averaged(STATION, Duration.ofMinutes(5))).containsExactly(
+                new CurrentConditions("2025-06-01 12:00", 12, 17, "SW", 21),
+                new CurrentConditions("2025-06-01 12:05", 17, 22, "SW", 21)
+        ).inOrder();
+    }
+}
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -185,4 +186,52 @@ class CurrentConditionsServiceTest {
         StepVerifier.create(service.fetchCurrentConditions(999999))
                 .verifyComplete();
     }
+
+    @Test
+    void shouldIndexOnlySpotsWithAPrimaryStationAsStations() {
+        CurrentConditionsService service = new CurrentConditionsService(
+                List.of(
+                        strategy(WG_ID, false, Mono.just(freshConditions())),
+                        strategy(WG_ID, true, Mono.just(fallbackConditions())),
+                        strategy(777, true, Mono.just(fallbackConditions()))
+                ),
+                FIXED_CLOCK
+        );
+
+        int stations = service.indexStations(List.of(WG_ID, 777, 999999));
+
+        assertThat(stations).isEqualTo(1);
+        assertThat(service.hasStation(WG_ID)).isTrue();
+        assertThat(service.hasStation(777)).isFalse();
+        assertThat(service.hasStation(999999)).isFalse();
+    }
+
+    @Test
+    void shouldNotAskTheStrategiesAgainOnceIndexed() {
+        AtomicInteger canProcessCalls = new AtomicInteger();
+        CurrentConditions fresh = freshConditions();
+        FetchCurrentConditions counting = new FetchCurrentConditions() {
+            @Override
+            public boolean canProcess(int id) {
+                canProcessCalls.incrementAndGet();
+                return id == WG_ID;
+            }
+
+            @Override
+            public Mono<CurrentConditions> fetchCurrentConditions(int id) {
+                return Mono.just(fresh);
+            }
+        };
+        CurrentConditionsService service = new CurrentConditionsService(List.of(counting), FIXED_CLOCK);
+        service.indexStations(List.of(WG_ID, 999999));
+        canProcessCalls.set(0);
+
+        StepVerifier.create(service.fetchCurrentConditions(WG_ID))
+                .assertNext(c -> assertThat(c).isEqualTo(fresh))
+                .verifyComplete();
+        StepVerifier.create(service.fetchCurrentConditions(999999))
+                .verifyComplete();
+
+        assertThat(canProcessCalls.get()).isEqualTo(0);
+    }
 }
@@ -0,0 +1,171 @@
+package com.github.pwittchen.varun.service.live;
+
+import com.github.pwittchen.varun.model.live.ConditionsHistory;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ReadingsArchiveTest {
+
+    private static final int STATION = 123;
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 20);
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // When a reading without a date arrives, by the server's clock
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-20T12:30:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    private MeterRegistry registry;
+    private ReadingsArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        archive = new ReadingsArchive(directory.toString(), 365, registry, CLOCK);
+    }
+
+    private static CurrentConditions reading(LocalDateTime time, int wind, int gusts, String direction) {
+        return new CurrentConditions(time.format(FORMAT), wind, gusts, direction, 18);
+    }
+
+    private Path segment(LocalDate day) {
+        return directory.resolve(String.valueOf(STATION)).resolve(day + ".seg");
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    @Test
+    void shouldAppendOnlyReadingsTheSegmentDoesNotHaveYet() throws IOException {
+        LocalDateTime noon = TODAY.atTime(12, 0);
+
+        assertThat(archive.append(STATION, reading(noon, 10, 15, "N"))).isTrue();
+        assertThat(archive.append(STATION, reading(noon, 10, 15, "N"))).isFalse();
+        // The other instance archiving a reading a poll behind
+        assertThat(archive.append(STATION, reading(noon.minusMinutes(1), 10, 15, "N"))).isFalse();
+        assertThat(archive.append(STATION, reading(noon.plusMinutes(1), 12, 17, "N"))).isTrue();
+        // Dated 12:30, when it arrived
+        assertThat(archive.append(STATION, new CurrentConditions("12:05", 10, 15, "N", 18))).isTrue();
+
+        assertThat(Files.size(segment(TODAY)))
+                .isEqualTo(ReadingsArchive.HEADER_BYTES + 3L * ReadingsArchive.RECORD_BYTES);
+        assertThat(counter("varun.archive.readings.appended")).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldKeepHourRepeatedWhenClocksGoBack() {
+        // 2026-10-25 in Poland: 02:59 CEST is followed by 02:00 CET
+        LocalDateTime twoAm = LocalDate.of(2026, 10, 25).atTime(2, 0);
+        for (int minute : new int[]{58, 59, 0, 1}) {
+            assertThat(archive.append(STATION, reading(twoAm.plusMinutes(minute), 10 + minute % 2, 15, "W"))).isTrue();
+        }
+
+        var buckets = archive.history(STATION, twoAm, twoAm.plusHours(1), Duration.ofMinutes(1)).buckets();
+
+        assertThat(buckets.stream().map(ConditionsHistory.Bucket::date).toList()).containsExactly(
+                "2026-10-25 02:58", "2026-10-25 02:59", "2026-10-25 02:00", "2026-10-25 02:01"
+        ).inOrder();
+    }
+
+    @Test
+    void shouldReadRangeAcrossDaysInBuckets() {
+        LocalDateTime midnight = TODAY.atStartOfDay();
+        archive.append(STATION, reading(midnight.minusMinutes(2), 10, 15, "N"));
+        archive.append(STATION, reading(midnight.minusMinutes(1), 12, 17, "NE"));
+        archive.append(STATION, reading(midnight.plusMinutes(1), 20, 25, "S"));
+        archive.append(STATION, reading(midnight.plusHours(2), 30, 35, "S"));
+
+        ConditionsHistory history = archive.history(STATION, midnight.minusHours(1), midnight.plusHours(1), Duration.ofHours(1));
+
+        assertThat(history.wgId()).isEqualTo(STATION);
+        assertThat(history.resolutionMinutes()).isEqualTo(60);
+        assertThat(history.buckets()).hasSize(2);
+        ConditionsHistory.Bucket evening = history.buckets().getFirst();
+        assertThat(evening.date()).isEqualTo("2025-06-19 23:00");
+        assertThat(evening.readings()).isEqualTo(2);
+        assertThat(evening.wind()).isEqualTo(11.0);
+        assertThat(evening.gustsMax()).isEqualTo(17);
+        assertThat(history.buckets().get(1).date()).isEqualTo("2025-06-20 00:00");
+        assertThat(history.buckets().get(1).direction()).isEqualTo("S");
+        assertThat(archive.history(456, midnight.minusDays(3), midnight, Duration.ofHours(1)).buckets()).isEmpty();
+    }
+
+    @Test
+    void shouldOverwriteRecordTornByCrash() throws IOException {
+        LocalDateTime noon = TODAY.atTime(12, 0);
+        archive.append(STATION, reading(noon, 10, 15, "N"));
+        Files.write(segment(TODAY), new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        assertThat(archive.append(STATION, reading(noon.plusMinutes(1), 12, 17, "N"))).isTrue();
+
+        assertThat(Files.size(segment(TODAY)))
+                .isEqualTo(ReadingsArchive.HEADER_BYTES + 2L * ReadingsArchive.RECORD_BYTES);
+        var buckets = archive.history(STATION, noon, noon.plusHours(1), Duration.ofHours(1)).buckets();
+        assertThat(buckets.getFirst().readings()).isEqualTo(2);
+        assertThat(buckets.getFirst().wind()).isEqualTo(11.0);
+    }
+
+    @Test
+    void shouldCompactOldSegmentsKeepingAveragesAndStrongestGust() throws IOException {
+        LocalDate day = TODAY.minusDays(ReadingsArchive.RAW_DAYS + 1);
+        LocalDateTime noon = day.atTime(12, 0);
+        for (int minute = 0; minute < 20; minute++) {
+            archive.append(STATION, reading(noon.plusMinutes(minute), 10 + minute % 2 * 2, 15 + minute, "W"));
+        }
+        // Recent enough to stay raw
+        archive.append(STATION, reading(TODAY.minusDays(1).atTime(12, 0), 10, 15, "W"));
+
+        archive.compactAndExpire(TODAY);
+
+        assertThat(Files.size(segment(day)))
+                .isEqualTo(ReadingsArchive.HEADER_BYTES + 2L * ReadingsArchive.RECORD_BYTES);
+        assertThat(ByteBuffer.wrap(Files.readAllBytes(segment(day))).getInt(8))
+                .isEqualTo((int) ReadingsArchive.COMPACTED_RESOLUTION.toSeconds());
+        assertThat(Files.size(segment(TODAY.minusDays(1))))
+                .isEqualTo(ReadingsArchive.HEADER_BYTES + ReadingsArchive.RECORD_BYTES);
+        assertThat(counter("varun.archive.segments.compacted")).isEqualTo(1.0);
+
+        var bucket = archive.history(STATION, noon, noon.plusHours(1), Duration.ofHours(1)).buckets().getFirst();
+        assertThat(bucket.readings()).isEqualTo(20);
+        assertThat(bucket.wind()).isEqualTo(11.0);
+        assertThat(bucket.gustsMax()).isEqualTo(34);
+        assertThat(bucket.direction()).isEqualTo("W");
+
+        // Compacting again leaves it as it is
+        archive.compactAndExpire(TODAY);
+        assertThat(counter("varun.archive.segments.compacted")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDeleteSegmentsOlderThanRetentionCountingDaysByTheArchiveClock() {
+        var archive = new ReadingsArchive(directory.toString(), 30, registry, CLOCK);
+        archive.append(STATION, reading(TODAY.minusDays(31).atTime(12, 0), 10, 15, "N"));
+        archive.append(STATION, reading(TODAY.minusDays(29).atTime(12, 0), 10, 15, "N"));
+
+        archive.compactAndExpireDaily();
+
+        assertThat(Files.exists(segment(TODAY.minusDays(31)))).isFalse();
+        assertThat(Files.exists(segment(TODAY.minusDays(29)))).isTrue();
+        assertThat(counter("varun.archive.segments.expired")).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.pwittchen.varun.service.live;
+
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class StationPollSchedulerTest {
+
+    private static final int STATION = 123;
+    private static final Instant START = Instant.parse("2025-06-01T10:00:00Z");
+    private static final Duration TICK = Duration.ofSeconds(10);
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final StationPollScheduler scheduler = new StationPollScheduler(registry);
+
+    private static CurrentConditions reading(String date) {
+        return new CurrentConditions(date, 15, 20, "N", 22);
+    }
+
+    /**
+     * A station that publishes a reading every {@code cadence}, the first one at {@link #START},
+     * dated in its own time zone two hours ahead, polled on every tick it is due for.
+     */
+    private int simulate(Duration cadence, Duration span) {
+        var localStart = LocalDateTime.of(2025, 6, 1, 12, 0, 0);
+        int polls = 0;
+        for (Instant now = START; now.isBefore(START.plus(span)); now = now.plus(TICK)) {
+            if (!scheduler.isDue(STATION, now)) {
+                continue;
+            }
+            long published = Duration.between(START, now).toMillis() / cadence.toMillis();
+            var date = localStart.plus(cadence.multipliedBy(published)).format(FORMAT);
+            scheduler.recordReading(STATION, reading(date), now);
+            polls++;
+        }
+        return polls;
+    }
+
+    private double polls(String outcome) {
+        return registry.get("varun.live_stations.polls").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void shouldPollNewStationRightAwayAndThenEveryMinute() {
+        assertThat(scheduler.isDue(STATION, START)).isTrue();
+
+        scheduler.recordReading(STATION, reading("2025-06-01 12:00:00"), START);
+
+        assertThat(scheduler.isDue(STATION, START.plusSeconds(59))).isFalse();
+        assertThat(scheduler.isDue(STATION, START.plus(StationPollScheduler.DEFAULT_INTERVAL))).isTrue();
+        assertThat(scheduler.cadence(STATION)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void shouldLearnCadenceFromReadingTimes() {
+        scheduler.recordReading(STATION, reading("2025-06-01 12:00:00"), START);
+        scheduler.recordReading(STATION, reading("2025-06-01 12:15:00"), START.plus(Duration.ofMinutes(15)));
+
+        assertThat(scheduler.cadence(STATION)).isEqualTo(Duration.ofMinutes(15));
+        assertThat(registry.get("varun.live_stations.cadence").tag("spot", "123").gauge().value())
+                .isEqualTo(15 * 60.0);
+        assertThat(scheduler.isDue(STATION, START.plus(Duration.ofMinutes(29)))).isFalse();
+        assertThat(scheduler.isDue(STATION, START.plus(Duration.ofMinutes(30)))).isTrue();
+    }
+
+    @Test
+    void shouldPollSlowStationAboutOncePerReading() {
+        int polls = simulate(Duration.ofMinutes(15), Duration.ofHours(6));
+
+        // 24 readings; every minute would have been 360 polls
+        assertThat(polls).isLessThan(2 * 24 + 10);
+        assertThat(scheduler.cadence(STATION)).isEqualTo(Duration.ofMinutes(15));
+        assertThat(polls("updated")).isAtLeast(23.0);
+    }
+
+    @Test
+    void shouldKeepUpWithFastStation() {
+        simulate(Duration.ofMinutes(1), Duration.ofHours(1));
+
+        assertThat(scheduler.cadence(STATION)).isEqualTo(Duration.ofMinutes(1));
+        // Every reading is seen
+        assertThat(polls("updated")).isAtLeast(59.0);
+    }
+
+    @Test
+    void shouldBackOffStationThatStoppedPublishing() {
+        scheduler.recordReading(STATION, reading("2025-06-01 12:00:00"), START);
+        scheduler.recordReading(STATION, reading("2025-06-01 12:10:00"), START.plus(Duration.ofMinutes(10)));
+
+        Instant now = START.plus(Duration.ofMinutes(10));
+        int polls = 0;
+        for (Instant end = now.plus(Duration.ofHours(3)); now.isBefore(end); now = now.plus(TICK)) {
+            if (scheduler.isDue(STATION, now)) {
+                scheduler.recordReading(STATION, reading("2025-06-01 12:10:00"), now);
+                polls++;
+            }
+        }
+
+        assertThat(polls).isLessThan(20);
+        assertThat(scheduler.isDue(STATION, now.plus(StationPollScheduler.MAX_BACKOFF))).isTrue();
+        assertThat(polls("unchanged")).isEqualTo(polls);
+    }
+
+    @Test
+    void shouldBackOffFailingStation() {
+        scheduler.recordReading(STATION, reading("2025-06-01 12:00:00"), START);
+        scheduler.recordReading(STATION, reading("2025-06-01 12:10:00"), START.plus(Duration.ofMinutes(10)));
+        Instant now = START.plus(Duration.ofMinutes(20));
+
+        scheduler.recordFailure(STATION, now);
+        assertThat(scheduler.isDue(STATION, now.plusSeconds(59))).isFalse();
+        assertThat(scheduler.isDue(STATION, now.plusSeconds(60))).isTrue();
+
+        scheduler.recordFailure(STATION, now);
+        assertThat(scheduler.isDue(STATION, now.plusSeconds(119))).isFalse();
+        assertThat(polls("failed")).isEqualTo(2.0);
+    }
+}
@@ -3,11 +3,14 @@ package com.github.pwittchen.varun.service.live.strategy;
 import com.github.pwittchen.varun.model.live.CurrentConditions;
 import com.github.pwittchen.varun.service.live.FetchCurrentConditionsStrategyBase;
 import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class FetchCurrentConditionsStrategyBaseTest {
@@ -120,6 +123,68 @@ class FetchCurrentConditionsStrategyBaseTest {
         assertThat(strategy.normalizeDirection(input)).isEqualTo(expected);
     }
 
+    @Test
+    void shouldFetchUrlSharedBySpotsOnlyOnce() {
+        var counting = new CountingFetchCurrentConditionsStrategy(false);
+
+        var first = counting.fetchCurrentConditions(1).block();
+        var second = counting.fetchCurrentConditions(2).block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(counting.fetches.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotShareFetchesOfDifferentUrls() {
+        var counting = new CountingFetchCurrentConditionsStrategy(false);
+
+        counting.fetchCurrentConditions(1).block();
+        counting.fetchCurrentConditions(3).block();
+
+        assertThat(counting.fetches.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRetryUrlWhoseFetchFailed() {
+        var counting = new CountingFetchCurrentConditionsStrategy(true);
+
+        counting.fetchCurrentConditions(1).onErrorResume(_ -> Mono.empty()).block();
+        counting.fetchCurrentConditions(2).onErrorResume(_ -> Mono.empty()).block();
+
+        assertThat(counting.fetches.get()).isEqualTo(2);
+    }
+
+    // Counts upstream requests; spots 1 and 2 share a station URL, spot 3 has its own
+    private static class CountingFetchCurrentConditionsStrategy extends FetchCurrentConditionsStrategyBase {
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final boolean failing;
+
+        private CountingFetchCurrentConditionsStrategy(boolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        protected Mono<CurrentConditions> fetchCurrentConditions(String url) {
+            return Mono.fromCallable(() -> {
+                fetches.incrementAndGet();
+                if (failing) {
+                    throw new IllegalStateException("Station unavailable");
+                }
+                return new CurrentConditions("2025-01-01 12:00:00", 15, 20, "N", 18);
+            });
+        }
+
+        @Override
+        protected String getUrl(int wgId) {
+            return wgId == 3 ? "https://example.com/other" : "https://example.com/station";
+        }
+
+        @Override
+        protected OkHttpClient getHttpClient() {
+            return new OkHttpClient();
+        }
+    }
+
     // Test implementation to expose protected methods
     private static class TestFetchCurrentConditionsStrategy extends FetchCurrentConditionsStrategyBase {
         @Override
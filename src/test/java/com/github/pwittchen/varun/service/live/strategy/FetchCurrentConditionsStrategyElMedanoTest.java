@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import okhttp3.OkHttpClient;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -28,7 +29,7 @@ class FetchCurrentConditionsStrategyElMedanoTest {
     void setUp() throws IOException {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
-        strategy = new FetchCurrentConditionsStrategyElMedano(new OkHttpClient());
+        strategy = new FetchCurrentConditionsStrategyElMedano(new OkHttpClient(), new UpstreamFetcher());
     }
 
     @AfterEach
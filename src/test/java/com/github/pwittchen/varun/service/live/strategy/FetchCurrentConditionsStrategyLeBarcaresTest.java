@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import okhttp3.OkHttpClient;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -24,7 +25,7 @@ class FetchCurrentConditionsStrategyLeBarcaresTest {
     void setUp() throws IOException {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
-        strategy = new FetchCurrentConditionsStrategyLeBarcares(new OkHttpClient());
+        strategy = new FetchCurrentConditionsStrategyLeBarcares(new OkHttpClient(), new UpstreamFetcher());
     }
 
     @AfterEach
@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.google.gson.Gson;
 import okhttp3.OkHttpClient;
 import okhttp3.mockwebserver.MockResponse;
@@ -24,7 +25,7 @@ class FetchCurrentConditionsStrategyPodersdorfScpodoTest {
     void setUp() throws IOException {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
-        strategy = new FetchCurrentConditionsStrategyPodersdorfScpodo(new OkHttpClient(), new Gson());
+        strategy = new FetchCurrentConditionsStrategyPodersdorfScpodo(new OkHttpClient(), new UpstreamFetcher(), new Gson());
     }
 
     @AfterEach
@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import com.google.gson.Gson;
 import okhttp3.OkHttpClient;
 import okhttp3.mockwebserver.MockResponse;
@@ -25,7 +26,7 @@ class FetchCurrentConditionsStrategyPrasonisiTest {
     void setUp() throws IOException {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
-        strategy = new FetchCurrentConditionsStrategyPrasonisi(new OkHttpClient(), new Gson());
+        strategy = new FetchCurrentConditionsStrategyPrasonisi(new OkHttpClient(), new UpstreamFetcher(), new Gson());
     }
 
     @AfterEach
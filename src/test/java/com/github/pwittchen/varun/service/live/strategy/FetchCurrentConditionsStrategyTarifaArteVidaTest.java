@@ -1,6 +1,7 @@
 package com.github.pwittchen.varun.service.live.strategy;
 
 import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.service.http.UpstreamFetcher;
 import okhttp3.OkHttpClient;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -29,7 +30,7 @@ class FetchCurrentConditionsStrategyTarifaArteVidaTest {
     void setUp() throws IOException {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
-        strategy = new FetchCurrentConditionsStrategyTarifaArteVida(new OkHttpClient());
+        strategy = new FetchCurrentConditionsStrategyTarifaArteVida(new OkHttpClient(), new UpstreamFetcher());
     }
 
     @AfterEach
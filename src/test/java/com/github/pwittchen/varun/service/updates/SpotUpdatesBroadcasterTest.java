@@ -0,0 +1,87 @@
+package com.github.pwittchen.varun.service.updates;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.pwittchen.varun.model.forecast.Forecast;
+import com.github.pwittchen.varun.model.live.CurrentConditions;
+import com.github.pwittchen.varun.model.spot.SpotUpdate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class SpotUpdatesBroadcasterTest {
+
+    private static final CurrentConditions CONDITIONS = new CurrentConditions("2025-06-01 12:00:00", 15, 22, "NW", 18);
+
+    private MeterRegistry registry;
+    private SpotUpdatesBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        broadcaster = new SpotUpdatesBroadcaster(new ObjectMapper(), registry);
+    }
+
+    private static SpotUpdate conditions(int wgId, String country) {
+        return new SpotUpdate(wgId, "Spot " + wgId, country, SpotUpdate.Kind.CONDITIONS, CONDITIONS, null);
+    }
+
+    private double published() {
+        return registry.get("varun.updates.published").counter().count();
+    }
+
+    @Test
+    void shouldStartWithHeartbeatAndPushOnlyUpdatesOfSubscribedCountry() {
+        StepVerifier.create(broadcaster.subscribe("poland", null))
+                .assertNext(event -> assertThat(event.comment()).isEqualTo("heartbeat"))
+                .then(() -> {
+                    broadcaster.publish(conditions(43, "Spain"));
+                    broadcaster.publish(conditions(500760, "Poland"));
+                })
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo("conditions");
+                    assertThat(event.id()).isEqualTo("2");
+                    assertThat(event.data()).contains("\"wgId\":500760");
+                    assertThat(event.data()).contains("\"currentConditions\":{");
+                    assertThat(event.data()).doesNotContain("forecast");
+                    assertThat(event.data()).doesNotContain("kind");
+                })
+                .then(() -> assertThat(broadcaster.subscribers()).isEqualTo(1))
+                .thenCancel()
+                .verify();
+
+        assertThat(broadcaster.subscribers()).isEqualTo(0);
+        assertThat(published()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldPushOnlyUpdatesOfSubscribedSpot() {
+        var forecast = List.of(new Forecast("Today", 12, 16, "NW", 15, 0, 0, 1013));
+
+        StepVerifier.create(broadcaster.subscribe(null, 500760))
+                .assertNext(event -> assertThat(event.comment()).isEqualTo("heartbeat"))
+                .then(() -> {
+                    broadcaster.publish(conditions(43, "Poland"));
+                    broadcaster.publish(new SpotUpdate(500760, "Jastarnia", "Poland", SpotUpdate.Kind.FORECAST, null, forecast));
+                })
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo("forecast");
+                    assertThat(event.data()).contains("\"forecast\":[");
+                    assertThat(event.data()).doesNotContain("currentConditions");
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldNotSerializeUpdatesNobodyIsSubscribedTo() {
+        broadcaster.publish(conditions(500760, "Poland"));
+
+        assertThat(published()).isEqualTo(0.0);
+    }
+}